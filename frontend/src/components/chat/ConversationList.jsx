@@ -87,6 +87,11 @@ const ConversationList = () => {
                 <Text style={styles.conversationUsername}>{conv.groupChat ? conv.name : conv.otherParticipantUsername}</Text>
                 <Text style={styles.conversationSnippet} numberOfLines={1}>{conv.lastMessage}</Text>
             </View>
+            {conv.unreadCount > 0 && (
+                <View style={styles.unreadBadge}>
+                    <Text style={styles.unreadBadgeText}>{conv.unreadCount > 99 ? '99+' : conv.unreadCount}</Text>
+                </View>
+            )}
             {conv.groupChat && (conv.creatorId === user.id || isAdmin) && (
                 <TouchableOpacity onPress={() => handleDeleteGroup(conv)}>
                     <Icon name="trash" size={18} color={colors.danger} />
@@ -151,6 +156,8 @@ const pageStyles = (theme) => {
         conversationDetails: { flex: 1 },
         conversationUsername: { fontWeight: 'bold', fontSize: typography.body },
         conversationSnippet: { fontSize: typography.small, color: colors.textMuted },
+        unreadBadge: { minWidth: 22, height: 22, borderRadius: 11, paddingHorizontal: 6, backgroundColor: colors.primary, alignItems: 'center', justifyContent: 'center', marginHorizontal: spacing.sm },
+        unreadBadgeText: { color: colors.white, fontSize: typography.caption, fontWeight: 'bold' },
         emptyListText: { padding: spacing.md, textAlign: 'center', color: colors.textMuted },
     });
 };
@@ -13,6 +13,8 @@ import { getThemeColors, spacing, typography, borders } from '../../styles/theme
 import Icon from 'react-native-vector-icons/FontAwesome5';
 import MarkdownDisplay from 'react-native-markdown-display';
 
+const PAGE_SIZE = 50;
+
 const MessageView = () => {
 	const route = useRoute();
 	const navigation = useNavigation();
@@ -25,12 +27,14 @@ const MessageView = () => {
 	const [isManageModalOpen, setIsManageModalOpen] = useState(false);
 	const [editingMessageId, setEditingMessageId] = useState(null);
 	const [editingText, setEditingText] = useState('');
+	const [hasOlder, setHasOlder] = useState(true);
+	const [loadingOlder, setLoadingOlder] = useState(false);
 	const { addToast } = useToast();
 	const theme = useAuthStore(state => state.theme);
 	const styles = { ...getCommonStyles(theme), ...pageStyles(theme) };
 	const colors = getThemeColors(theme);
 
-	const messagesApiCall = useCallback(() => apiClient.get(`/public/chat/conversations/${conversationId}/messages`), [conversationId]);
+	const messagesApiCall = useCallback(() => apiClient.get(`/public/chat/conversations/${conversationId}/messages?limit=${PAGE_SIZE}`), [conversationId]);
 	const { data: initialMessages, loading: messagesLoading, error: messagesError, reload: reloadMessages } = useApi(messagesApiCall);
 
 	const conversationApiCall = useCallback(() => apiClient.get(`/public/chat/conversations/${conversationId}`), [conversationId]);
@@ -48,7 +52,30 @@ const MessageView = () => {
 
 	const { sendMessage } = useWebSocket(`/ws/dm/${conversationId}`, handleWebSocketMessage);
 
-	useEffect(() => { if (initialMessages) setMessages(initialMessages); }, [initialMessages]);
+	useEffect(() => {
+		if (initialMessages) {
+			setMessages(initialMessages);
+			setHasOlder(initialMessages.length >= PAGE_SIZE);
+		}
+	}, [initialMessages]);
+
+	// The list is newest first, so the last entry is the cursor for the next older page.
+	const loadOlderMessages = async () => {
+		if (!hasOlder || loadingOlder || messages.length === 0) return;
+		setLoadingOlder(true);
+		try {
+			const oldestId = messages[messages.length - 1].id;
+			const result = await apiClient.get(`/public/chat/conversations/${conversationId}/messages?before=${oldestId}&limit=${PAGE_SIZE}`);
+			if (result.success) {
+				setMessages(prev => [...prev, ...result.data.filter(msg => !prev.some(p => p.id === msg.id))]);
+				setHasOlder(result.data.length >= PAGE_SIZE);
+			}
+		} catch (err) {
+			addToast(`Ältere Nachrichten konnten nicht geladen werden: ${err.message}`, 'error');
+		} finally {
+			setLoadingOlder(false);
+		}
+	};
 
 	useEffect(() => {
 		const unreadMessageIds = messages.filter(msg => msg.senderId !== user.id && msg.status !== 'READ').map(msg => msg.id);
@@ -92,6 +119,9 @@ const MessageView = () => {
 				data={messages}
 				inverted
 				keyExtractor={item => item.id.toString()}
+				onEndReached={loadOlderMessages}
+				onEndReachedThreshold={0.3}
+				ListFooterComponent={loadingOlder ? <ActivityIndicator style={{ margin: spacing.md }} /> : null}
 				renderItem={({ item: msg }) => {
 					const isSentByMe = msg.senderId === user.id;
 					return (
@@ -40,14 +40,13 @@ const EventGalleryTab = ({ event, user }) => {
 
 	const isParticipant = event.assignedAttendees?.some(attendee => attendee.id === user.id);
 
-	const getImagePath = (path) => `${apiClient.getRootUrl()}/api/v1/public/files/images/${path.split('/').pop()}`;
+	const getImagePath = (path, size) => `${apiClient.getRootUrl()}/api/v1/public/files/gallery/${event.id}/${path.split('/').pop()}?size=${size}`;
 
     const renderItem = ({ item }) => {
         const canDelete = user.isAdmin || user.id === event.leaderUserId || user.id === item.uploaderUserId;
-        const imageUrl = getImagePath(item.filepath);
         return (
-            <TouchableOpacity style={styles.photoCard} onPress={() => setLightboxSrc(imageUrl)}>
-                <Image source={{ uri: imageUrl }} style={styles.photoImage} />
+            <TouchableOpacity style={styles.photoCard} onPress={() => setLightboxSrc(getImagePath(item.filepath, 'medium'))}>
+                <Image source={{ uri: getImagePath(item.filepath, 'thumb') }} style={styles.photoImage} />
                 <View style={styles.captionContainer}>
                     <Text style={styles.captionText}>{item.caption}</Text>
                     <Text style={styles.captionUser}>Von: {item.uploaderUsername}</Text>
@@ -0,0 +1,80 @@
+import { useState, useRef, useCallback, useMemo, useEffect } from 'react';
+import { debounce } from 'lodash';
+import useWebSocket from './useWebSocket';
+import { diffText, isNoop, fits, applyOperation, transformOperation } from '../lib/textOperations';
+
+// Keeps a text in sync with the collaborative editor socket. Local edits are
+// sent as operations against the last known server version, at most one at a
+// time; remote operations are merged into the local text without discarding
+// what the user is typing.
+const useCollaborativeEditor = (fileId) => {
+	const [content, setContent] = useState(null);
+	const state = useRef({ version: 0, confirmed: null, inFlight: null, content: null });
+	const sendRef = useRef(null);
+
+	const flush = useCallback(() => {
+		const s = state.current;
+		if (s.confirmed === null || s.inFlight !== null || s.content === s.confirmed) return;
+		const op = diffText(s.confirmed, s.content);
+		if (isNoop(op)) return;
+		s.inFlight = op;
+		sendRef.current?.({ type: 'op', payload: { version: s.version, ...op } });
+	}, []);
+
+	const debouncedFlush = useMemo(() => debounce(flush, 300, { maxWait: 1000 }), [flush]);
+	useEffect(() => () => debouncedFlush.cancel(), [debouncedFlush]);
+
+	// Moves the unsent local changes from `base` onto `newBase`.
+	const rebase = (base, newBase) => {
+		const s = state.current;
+		const pending = diffText(base, s.content);
+		const moved = transformOperation(pending, diffText(base, newBase));
+		s.content = fits(moved, newBase) ? applyOperation(newBase, moved) : newBase;
+		setContent(s.content);
+	};
+
+	const handleMessage = useCallback((message) => {
+		const s = state.current;
+		const { type, payload } = message;
+		if (type === 'snapshot') {
+			// An unacknowledged operation is assumed to be lost; anything newer is kept.
+			const base = s.confirmed === null ? null : (s.inFlight ? applyOperation(s.confirmed, s.inFlight) : s.confirmed);
+			s.version = payload.version;
+			s.confirmed = payload.content;
+			s.inFlight = null;
+			if (base === null) {
+				s.content = payload.content;
+				setContent(s.content);
+			} else {
+				rebase(base, payload.content);
+				flush();
+			}
+		} else if (type === 'ack') {
+			if (s.inFlight) s.confirmed = applyOperation(s.confirmed, s.inFlight);
+			s.inFlight = null;
+			s.version = payload.version;
+			flush();
+		} else if (type === 'op' && s.confirmed !== null) {
+			const remote = { position: payload.position, deleteCount: payload.deleteCount, insertText: payload.insertText };
+			const base = s.inFlight ? applyOperation(s.confirmed, s.inFlight) : s.confirmed;
+			s.confirmed = applyOperation(s.confirmed, remote);
+			if (s.inFlight) s.inFlight = transformOperation(s.inFlight, remote);
+			s.version = payload.version;
+			rebase(base, s.inFlight ? applyOperation(s.confirmed, s.inFlight) : s.confirmed);
+		}
+	// eslint-disable-next-line react-hooks/exhaustive-deps
+	}, []);
+
+	const { sendMessage } = useWebSocket(`/ws/editor/${fileId}`, handleMessage);
+	sendRef.current = sendMessage;
+
+	const updateContent = useCallback((text) => {
+		state.current.content = text;
+		setContent(text);
+		debouncedFlush();
+	}, [debouncedFlush]);
+
+	return { content, updateContent, ready: content !== null };
+};
+
+export default useCollaborativeEditor;
@@ -0,0 +1,50 @@
+// Text operations for the collaborative editor. An operation replaces
+// `deleteCount` characters at `position` with `insertText`. This mirrors
+// TextOperation.java on the server; both sides must transform identically.
+
+export const diffText = (from, to) => {
+	let prefix = 0;
+	const maxPrefix = Math.min(from.length, to.length);
+	while (prefix < maxPrefix && from.charCodeAt(prefix) === to.charCodeAt(prefix)) {
+		prefix++;
+	}
+	let suffix = 0;
+	const maxSuffix = maxPrefix - prefix;
+	while (suffix < maxSuffix && from.charCodeAt(from.length - 1 - suffix) === to.charCodeAt(to.length - 1 - suffix)) {
+		suffix++;
+	}
+	return {
+		position: prefix,
+		deleteCount: from.length - prefix - suffix,
+		insertText: to.substring(prefix, to.length - suffix),
+	};
+};
+
+export const isNoop = (op) => op.deleteCount === 0 && op.insertText.length === 0;
+
+export const fits = (op, text) => op.position >= 0 && op.deleteCount >= 0 && op.position + op.deleteCount <= text.length;
+
+export const applyOperation = (text, op) =>
+	text.substring(0, op.position) + op.insertText + text.substring(op.position + op.deleteCount);
+
+const mapStart = (offset, applied) => {
+	const appliedEnd = applied.position + applied.deleteCount;
+	if (offset < applied.position) return offset;
+	if (offset >= appliedEnd) return offset + applied.insertText.length - applied.deleteCount;
+	return applied.position + applied.insertText.length;
+};
+
+const mapEnd = (offset, applied) => {
+	const appliedEnd = applied.position + applied.deleteCount;
+	if (offset <= applied.position) return offset;
+	if (offset >= appliedEnd) return offset + applied.insertText.length - applied.deleteCount;
+	return applied.position;
+};
+
+// Rewrites `op` so it can be applied after `applied`, a concurrent operation
+// against the same text that has already been applied.
+export const transformOperation = (op, applied) => {
+	const start = mapStart(op.position, applied);
+	const end = Math.max(start, mapEnd(op.position + op.deleteCount, applied));
+	return { position: start, deleteCount: end - start, insertText: op.insertText };
+};
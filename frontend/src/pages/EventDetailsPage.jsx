@@ -156,6 +156,8 @@ const TasksTab = ({ event, user, categories, canManageTasks, isParticipant, hand
     return <UserTaskView event={event} user={user} categories={categories} canManageTasks={canManageTasks} isParticipant={isParticipant} onOpenModal={handleOpenTaskModal} onAction={handleTaskAction} showDoneTasks={showDoneTasks} onShowDoneTasksToggle={() => setShowDoneTasks(!showDoneTasks)} styles={styles} colors={colors} />;
 };
 
+const CHAT_PAGE_SIZE = 50;
+
 const EventChatTab = ({ eventId }) => {
     const user = useAuthStore(state => state.user);
     const theme = useAuthStore(state => state.theme);
@@ -165,16 +167,38 @@ const EventChatTab = ({ eventId }) => {
     const [messages, setMessages] = useState([]);
     const [newMessage, setNewMessage] = useState('');
     const [isSending, setIsSending] = useState(false);
+    const [hasOlder, setHasOlder] = useState(true);
+    const [loadingOlder, setLoadingOlder] = useState(false);
 
-    const messagesApiCall = useCallback(() => apiClient.get(`/public/events/${eventId}/chat/messages`), [eventId]);
+    const messagesApiCall = useCallback(() => apiClient.get(`/public/events/${eventId}/chat/messages?limit=${CHAT_PAGE_SIZE}`), [eventId]);
     const { data: initialMessages, loading: messagesLoading, error: messagesError } = useApi(messagesApiCall);
 
     useEffect(() => {
         if (initialMessages) {
             setMessages(initialMessages.slice().reverse());
+            setHasOlder(initialMessages.length >= CHAT_PAGE_SIZE);
         }
     }, [initialMessages]);
 
+    // Pages arrive in chronological order; the list is newest first.
+    const loadOlderMessages = async () => {
+        if (!hasOlder || loadingOlder || messages.length === 0) return;
+        setLoadingOlder(true);
+        try {
+            const oldestId = messages[messages.length - 1].id;
+            const result = await apiClient.get(`/public/events/${eventId}/chat/messages?before=${oldestId}&limit=${CHAT_PAGE_SIZE}`);
+            if (result.success) {
+                const older = result.data.slice().reverse();
+                setMessages(prev => [...prev, ...older.filter(msg => !prev.some(p => p.id === msg.id))]);
+                setHasOlder(result.data.length >= CHAT_PAGE_SIZE);
+            }
+        } catch (err) {
+            console.error('Ältere Nachrichten konnten nicht geladen werden:', err);
+        } finally {
+            setLoadingOlder(false);
+        }
+    };
+
     const handleWebSocketMessage = useCallback((message) => {
         if (message.type === 'new_message') {
             setMessages(prev => [message.payload, ...prev]);
@@ -209,6 +233,9 @@ const EventChatTab = ({ eventId }) => {
                 keyExtractor={item => item.id.toString()}
                 initialNumToRender={15}
                 removeClippedSubviews={true}
+                onEndReached={loadOlderMessages}
+                onEndReachedThreshold={0.3}
+                ListFooterComponent={loadingOlder ? <ActivityIndicator style={{ margin: spacing.md }} /> : null}
                 renderItem={({ item: msg }) => {
                     const isSentByMe = msg.userId === user.id;
                     return (
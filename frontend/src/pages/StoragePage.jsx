@@ -92,7 +92,7 @@ const StoragePage = () => {
             <View style={{ flexDirection: 'row', alignItems: 'center', gap: spacing.sm }}>
                 {item.imagePath ? (
                     <TouchableOpacity onPress={() => { setLightboxSrc(getImagePath(item.imagePath)); setIsLightboxOpen(true); }}>
-                        <Image source={{ uri: getImagePath(item.imagePath) }} style={styles.itemImage} />
+                        <Image source={{ uri: `${getImagePath(item.imagePath)}?size=thumb` }} style={styles.itemImage} />
                     </TouchableOpacity>
                 ) : (
                     <View style={[styles.itemImage, styles.imagePlaceholder]}>
@@ -8,8 +8,7 @@ import MarkdownDisplay from 'react-native-markdown-display';
 import { useAuthStore } from '../../store/authStore';
 import { getCommonStyles } from '../../styles/commonStyles';
 import { getThemeColors, typography } from '../../styles/theme';
-import useWebSocket from '../../hooks/useWebSocket';
-import { debounce } from 'lodash';
+import useCollaborativeEditor from '../../hooks/useCollaborativeEditor';
 
 const AdminFileEditorPage = () => {
 	const route = useRoute();
@@ -17,10 +16,8 @@ const AdminFileEditorPage = () => {
 	const { fileId } = route.params;
 	const { addToast } = useToast();
 	const { isAdmin } = useAuthStore();
-	const [content, setContent] = useState('');
 	const [viewMode, setViewMode] = useState('edit');
 	const [error, setError] = useState('');
-    const isTypingRef = useRef(false);
 
 	const theme = useAuthStore(state => state.theme);
 	const styles = { ...getCommonStyles(theme), ...pageStyles(theme) };
@@ -29,36 +26,8 @@ const AdminFileEditorPage = () => {
 	const apiCall = useCallback(() => apiClient.get(`/admin/files/content/${fileId}`), [fileId]);
 	const { data: fileData, loading, error: fetchError } = useApi(apiCall);
 
-	useEffect(() => {
-		if (fileData?.content !== null && fileData?.content !== undefined) {
-            if (!isTypingRef.current) {
-			    setContent(fileData.content);
-            }
-		}
-	}, [fileData]);
-
-    const handleWebSocketMessage = useCallback((message) => {
-        if (message.type === 'content_update') {
-            // Only update if the user is not currently typing, to avoid losing their changes.
-            if (!isTypingRef.current) {
-                setContent(message.payload.content);
-            }
-        }
-    }, []);
-
-    const { sendMessage } = useWebSocket(`/ws/editor/${fileId}`, handleWebSocketMessage);
-    
-    // Use lodash debounce to send updates only after the user stops typing for 500ms
-    const debouncedSend = useCallback(debounce((newContent) => {
-        sendMessage({ type: 'content_update', payload: { content: newContent } });
-        isTypingRef.current = false;
-    }, 500), [sendMessage]);
-
-    const handleContentChange = (text) => {
-        setContent(text);
-        isTypingRef.current = true;
-        debouncedSend(text);
-    };
+    // Edits are exchanged as operations, so concurrent editors do not overwrite each other.
+    const { content, updateContent, ready } = useCollaborativeEditor(fileId);
 
 	if (loading) return <View style={styles.centered}><ActivityIndicator size="large" /></View>;
 	if (fetchError) return <View style={styles.centered}><Text style={styles.errorText}>{fetchError}</Text></View>;
@@ -83,8 +52,9 @@ const AdminFileEditorPage = () => {
 			<View style={styles.editorContainer}>
 				{viewMode === 'edit' ? (
 					<TextInput
-						value={content}
-						onChangeText={handleContentChange}
+						value={content ?? ''}
+						onChangeText={updateContent}
+						editable={ready}
 						style={styles.textArea}
                         multiline
                         textAlignVertical="top"
@@ -92,7 +62,7 @@ const AdminFileEditorPage = () => {
 				) : (
 					<ScrollView>
                         <View style={{padding: 10}}>
-						    <MarkdownDisplay>{content}</MarkdownDisplay>
+						    <MarkdownDisplay>{content ?? ''}</MarkdownDisplay>
                         </View>
 					</ScrollView>
 				)}
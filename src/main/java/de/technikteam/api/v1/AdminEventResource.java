@@ -157,7 +157,7 @@ public class AdminEventResource {
 	@DeleteMapping("/{id}")
 	@Operation(summary = "Delete an event", description = "Permanently deletes an event and all associated data.")
 	public ResponseEntity<ApiResponse> deleteEvent(@PathVariable int id) {
-		if (eventDAO.deleteEvent(id)) {
+		if (eventService.deleteEvent(id)) {
 			notificationService.broadcastUIUpdate("EVENT", "DELETED", Map.of("id", id));
 			return ResponseEntity.ok(new ApiResponse(true, "Veranstaltung erfolgreich gelöscht.", null));
 		} else {
@@ -166,6 +166,18 @@ public class AdminEventResource {
 		}
 	}
 
+	@DeleteMapping("/{eventId}/attachments/{attachmentId}")
+	@Operation(summary = "Delete an event attachment", description = "Removes an attachment from an event. The stored file is deleted once nothing else refers to it.")
+	public ResponseEntity<ApiResponse> deleteAttachment(@PathVariable int eventId, @PathVariable int attachmentId,
+			@AuthenticationPrincipal SecurityUser securityUser) {
+		if (eventService.deleteAttachment(eventId, attachmentId, securityUser.getUser())) {
+			return ResponseEntity.ok(new ApiResponse(true, "Anhang erfolgreich entfernt.", null));
+		} else {
+			return ResponseEntity.status(HttpStatus.NOT_FOUND)
+					.body(new ApiResponse(false, "Anhang nicht gefunden.", null));
+		}
+	}
+
 	@PostMapping("/{eventId}/assignments")
 	@Operation(summary = "Update team assignments for an event", description = "Sets the entire team for an event, including their roles.")
 	public ResponseEntity<ApiResponse> updateAssignments(@PathVariable int eventId,
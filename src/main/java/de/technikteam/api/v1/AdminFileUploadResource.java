@@ -0,0 +1,109 @@
+package de.technikteam.api.v1;
+
+import de.technikteam.api.v1.dto.UploadSessionRequest;
+import de.technikteam.model.ApiResponse;
+import de.technikteam.security.SecurityUser;
+import de.technikteam.service.ChunkedUploadService;
+import de.technikteam.service.ChunkedUploadService.UploadStatus;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/v1/admin/files/uploads")
+@Tag(name = "Admin File Uploads", description = "Resumable chunked uploads for large files.")
+public class AdminFileUploadResource {
+
+	private final ChunkedUploadService uploadService;
+
+	@Autowired
+	public AdminFileUploadResource(ChunkedUploadService uploadService) {
+		this.uploadService = uploadService;
+	}
+
+	@PostMapping
+	@Operation(summary = "Start a chunked upload", description = "Creates an upload session. The response contains the chunk size the file has to be split into.")
+	public ResponseEntity<ApiResponse> createSession(@Valid @RequestBody UploadSessionRequest request,
+			@AuthenticationPrincipal SecurityUser securityUser) {
+		try {
+			UploadStatus status = uploadService.createSession(request.filename(), request.contentType(),
+					request.size(), request.sha256(), request.categoryId(), request.requiredRole(),
+					securityUser.getUser());
+			return new ResponseEntity<>(new ApiResponse(true, "Upload-Sitzung erstellt.", status), HttpStatus.CREATED);
+		} catch (IllegalArgumentException e) {
+			return ResponseEntity.badRequest().body(new ApiResponse(false, e.getMessage(), null));
+		} catch (IOException e) {
+			return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+					.body(new ApiResponse(false, "Upload konnte nicht gestartet werden: " + e.getMessage(), null));
+		}
+	}
+
+	@GetMapping("/{sessionId}")
+	@Operation(summary = "Get the state of a chunked upload", description = "Lists the chunks received so far, so an interrupted upload can be resumed.")
+	public ResponseEntity<ApiResponse> getStatus(@PathVariable String sessionId,
+			@AuthenticationPrincipal SecurityUser securityUser) {
+		try {
+			return ResponseEntity.ok(new ApiResponse(true, "Upload-Status abgerufen.",
+					uploadService.getStatus(sessionId, securityUser.getUser())));
+		} catch (IllegalArgumentException e) {
+			return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new ApiResponse(false, e.getMessage(), null));
+		}
+	}
+
+	@PutMapping(value = "/{sessionId}/chunks", consumes = "application/octet-stream")
+	@Operation(summary = "Upload one chunk", description = "The raw request body is written at the given byte offset. Chunks may be sent in parallel and repeated.")
+	public ResponseEntity<ApiResponse> uploadChunk(@PathVariable String sessionId,
+			@Parameter(description = "Byte offset of the chunk, a multiple of the chunk size") @RequestParam long offset,
+			HttpServletRequest request, @AuthenticationPrincipal SecurityUser securityUser) {
+		try {
+			int received = uploadService.writeChunk(sessionId, offset, request.getInputStream(),
+					securityUser.getUser());
+			return ResponseEntity.ok(new ApiResponse(true, "Teil empfangen.", Map.of("receivedChunks", received)));
+		} catch (IllegalArgumentException e) {
+			return ResponseEntity.badRequest().body(new ApiResponse(false, e.getMessage(), null));
+		} catch (IOException e) {
+			return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+					.body(new ApiResponse(false, "Teil konnte nicht gespeichert werden: " + e.getMessage(), null));
+		}
+	}
+
+	@PostMapping("/{sessionId}/complete")
+	@Operation(summary = "Complete a chunked upload", description = "Verifies that all chunks are present and the checksum matches, then registers the file.")
+	public ResponseEntity<ApiResponse> complete(@PathVariable String sessionId,
+			@AuthenticationPrincipal SecurityUser securityUser) {
+		try {
+			de.technikteam.model.File savedFile = uploadService.complete(sessionId, securityUser.getUser());
+			return new ResponseEntity<>(new ApiResponse(true, "Datei erfolgreich hochgeladen.", savedFile),
+					HttpStatus.CREATED);
+		} catch (IllegalArgumentException e) {
+			return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new ApiResponse(false, e.getMessage(), null));
+		} catch (IllegalStateException e) {
+			return ResponseEntity.status(HttpStatus.CONFLICT).body(new ApiResponse(false, e.getMessage(), null));
+		} catch (IOException e) {
+			return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY)
+					.body(new ApiResponse(false, "Datei konnte nicht hochgeladen werden: " + e.getMessage(), null));
+		}
+	}
+
+	@DeleteMapping("/{sessionId}")
+	@Operation(summary = "Abort a chunked upload")
+	public ResponseEntity<ApiResponse> abort(@PathVariable String sessionId,
+			@AuthenticationPrincipal SecurityUser securityUser) {
+		try {
+			uploadService.abort(sessionId, securityUser.getUser());
+			return ResponseEntity.ok(new ApiResponse(true, "Upload abgebrochen.", null));
+		} catch (IllegalArgumentException e) {
+			return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new ApiResponse(false, e.getMessage(), null));
+		}
+	}
+}
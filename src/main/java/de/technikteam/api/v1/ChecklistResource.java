@@ -8,7 +8,7 @@ import de.technikteam.model.ApiResponse;
 import de.technikteam.model.ChecklistItem;
 import de.technikteam.model.User;
 import de.technikteam.security.SecurityUser;
-import de.technikteam.websocket.ChatSessionManager;
+import de.technikteam.websocket.ChecklistSessionManager;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -26,11 +26,11 @@ import java.util.Map;
 public class ChecklistResource {
 
 	private final ChecklistDAO checklistDAO;
-	private final ChatSessionManager sessionManager;
+	private final ChecklistSessionManager sessionManager;
 	private final Gson gson;
 
 	@Autowired
-	public ChecklistResource(ChecklistDAO checklistDAO, ChatSessionManager sessionManager) {
+	public ChecklistResource(ChecklistDAO checklistDAO, ChecklistSessionManager sessionManager) {
 		this.checklistDAO = checklistDAO;
 		this.sessionManager = sessionManager;
 		this.gson = new GsonBuilder().registerTypeAdapter(LocalDateTime.class, new LocalDateTimeAdapter()).create();
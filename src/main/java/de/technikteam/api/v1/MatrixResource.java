@@ -8,6 +8,8 @@ import de.technikteam.dao.UserQualificationsDAO;
 import de.technikteam.model.*;
 import de.technikteam.service.AchievementService;
 import de.technikteam.service.NotificationService;
+import de.technikteam.service.QualificationMatrixService;
+import de.technikteam.service.QualificationMatrixService.MatrixIndex;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -35,11 +37,13 @@ public class MatrixResource {
 	private final UserQualificationsDAO qualificationsDAO;
 	private final AchievementService achievementService;
 	private final NotificationService notificationService;
+	private final QualificationMatrixService matrixService;
 
 	@Autowired
 	public MatrixResource(UserDAO userDAO, CourseDAO courseDAO, MeetingDAO meetingDAO,
 			MeetingAttendanceDAO meetingAttendanceDAO, UserQualificationsDAO qualificationsDAO,
-			AchievementService achievementService, NotificationService notificationService) {
+			AchievementService achievementService, NotificationService notificationService,
+			QualificationMatrixService matrixService) {
 		this.userDAO = userDAO;
 		this.courseDAO = courseDAO;
 		this.meetingDAO = meetingDAO;
@@ -47,6 +51,7 @@ public class MatrixResource {
 		this.qualificationsDAO = qualificationsDAO;
 		this.achievementService = achievementService;
 		this.notificationService = notificationService;
+		this.matrixService = matrixService;
 	}
 
 	@GetMapping
@@ -55,19 +60,21 @@ public class MatrixResource {
 		List<User> allUsers = userDAO.getAllUsers();
 		List<Course> allCourses = courseDAO.getAllCourses();
 
-		Map<Integer, List<Meeting>> meetingsByCourse = new HashMap<>();
+		MatrixIndex index = matrixService.getIndex();
+
+		Map<Integer, List<Meeting>> meetingsByCourse = meetingDAO.getAllMeetingsWithCounts().stream()
+				.collect(Collectors.groupingBy(Meeting::getCourseId));
 		for (Course course : allCourses) {
-			meetingsByCourse.put(course.getId(), meetingDAO.getMeetingsForCourse(course.getId()));
+			meetingsByCourse.putIfAbsent(course.getId(), List.of());
 		}
 
-		Map<String, MeetingAttendance> attendanceMap = meetingAttendanceDAO.getAllAttendance().stream()
+		Map<String, MeetingAttendance> attendanceMap = index.getAttendance().stream()
 				.collect(Collectors.toMap(a -> a.getUserId() + "-" + a.getMeetingId(), Function.identity()));
 
-		Map<String, Boolean> completionMap = new HashMap<>();
+		Map<String, Boolean> completionMap = new HashMap<>(allUsers.size() * allCourses.size() * 4 / 3 + 1);
 		for (User user : allUsers) {
 			for (Course course : allCourses) {
-				boolean hasCompleted = qualificationsDAO.hasUserCompletedCourse(user.getId(), course.getId());
-				completionMap.put(user.getId() + "-" + course.getId(), hasCompleted);
+				completionMap.put(user.getId() + "-" + course.getId(), index.hasCompleted(user.getId(), course.getId()));
 			}
 		}
 
@@ -99,7 +99,7 @@ public class PasskeyResource {
 
             if (user != null) {
                 String token = authService.generateToken(user);
-                authService.addJwtCookie(user, response);
+                authService.addJwtCookie(token, response);
 
                 List<NavigationItem> navigationItems = NavigationRegistry.getNavigationItemsForUser(user);
                 Map<String, Object> sessionData = Map.of("user", user, "navigation", navigationItems);
@@ -12,6 +12,7 @@ import de.technikteam.service.StorageService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -101,14 +102,16 @@ public class StorageResource {
 				item.setImagePath(savedFile.getFilepath());
 			}
 
-			if (storageDAO.updateItem(item)) {
-				adminLogService.log(securityUser.getUser().getUsername(), "UPDATE_STORAGE_ITEM_API",
-						"Item '" + item.getName() + "' updated.");
-				notificationService.broadcastUIUpdate("STORAGE_ITEM", "UPDATED", item);
-				return ResponseEntity.ok(new ApiResponse(true, "Artikel erfolgreich aktualisiert.", item));
-			}
-			return ResponseEntity.status(HttpStatus.NOT_FOUND)
-					.body(new ApiResponse(false, "Artikel nicht gefunden oder Aktualisierung fehlgeschlagen.", null));
+			StorageItem updated = storageService.updateItemDetails(item, securityUser.getUser());
+			adminLogService.log(securityUser.getUser().getUsername(), "UPDATE_STORAGE_ITEM_API",
+					"Item '" + item.getName() + "' updated.");
+			return ResponseEntity.ok(new ApiResponse(true, "Artikel erfolgreich aktualisiert.", updated));
+		} catch (IllegalArgumentException e) {
+			return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new ApiResponse(false, e.getMessage(), null));
+		} catch (IllegalStateException e) {
+			return ResponseEntity.badRequest().body(new ApiResponse(false, e.getMessage(), null));
+		} catch (OptimisticLockingFailureException e) {
+			return ResponseEntity.status(HttpStatus.CONFLICT).body(new ApiResponse(false, e.getMessage(), null));
 		} catch (Exception e) {
 			return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
 					.body(new ApiResponse(false, "Fehler beim Aktualisieren des Artikels: " + e.getMessage(), null));
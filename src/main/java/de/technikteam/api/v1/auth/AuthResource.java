@@ -4,6 +4,7 @@ import de.technikteam.api.v1.dto.TwoFactorVerificationRequest;
 import de.technikteam.model.ApiResponse;
 import de.technikteam.model.NavigationItem;
 import de.technikteam.model.User;
+import de.technikteam.security.ClientIpResolver;
 import de.technikteam.security.SecurityUser;
 import de.technikteam.security.UserSuspendedException;
 import de.technikteam.service.*;
@@ -52,12 +53,13 @@ public class AuthResource {
 	private final TwoFactorAuthService twoFactorAuthService;
 	private final GeoIpService geoIpService;
 	private final UserAgentService userAgentService;
+	private final ClientIpResolver clientIpResolver;
 
 	@Autowired
 	public AuthResource(UserDAO userDAO, AuthService authService, LoginAttemptService loginAttemptService,
 			AuthenticationLogService authLogService, SystemSettingsService settingsService,
 			TwoFactorAuthDAO twoFactorAuthDAO, TwoFactorAuthService twoFactorAuthService,
-			GeoIpService geoIpService, UserAgentService userAgentService) {
+			GeoIpService geoIpService, UserAgentService userAgentService, ClientIpResolver clientIpResolver) {
 		this.userDAO = userDAO;
 		this.authService = authService;
 		this.loginAttemptService = loginAttemptService;
@@ -67,6 +69,7 @@ public class AuthResource {
 		this.twoFactorAuthService = twoFactorAuthService;
 		this.geoIpService = geoIpService;
 		this.userAgentService = userAgentService;
+		this.clientIpResolver = clientIpResolver;
 	}
 
 	@PostMapping("/login")
@@ -77,7 +80,7 @@ public class AuthResource {
 		String username = loginRequest.username();
 		String password = loginRequest.password();
         String clientType = loginRequest.clientType() != null ? loginRequest.clientType() : "web";
-		String ipAddress = getClientIp(request);
+		String ipAddress = clientIpResolver.resolve(request);
 		String userAgent = request.getHeader("User-Agent");
 		logger.info("Login attempt for user '{}' from IP address: {} (Client: {})", username, ipAddress, clientType);
 
@@ -89,7 +92,7 @@ public class AuthResource {
 
 		if (loginAttemptService.isLockedOut(username, ipAddress)) {
 			logger.warn("Blocked login attempt for locked-out user '{}' from IP {}", username, ipAddress);
-			long remainingSeconds = loginAttemptService.getRemainingLockoutSeconds(username);
+			long remainingSeconds = loginAttemptService.getRemainingLockoutSeconds(username, ipAddress);
 			String message = String.format(
 					"Konto ist vorübergehend gesperrt. Bitte versuchen Sie es in %d Sekunden erneut.",
 					remainingSeconds);
@@ -99,7 +102,7 @@ public class AuthResource {
 		try {
 			User user = userDAO.validateUser(username, password);
 			if (user != null) {
-				loginAttemptService.clearLoginAttempts(username);
+				loginAttemptService.clearLoginAttempts(username, ipAddress);
 
 				// Risk-Based 2FA Check
 				boolean needs2fa = false;
@@ -127,7 +130,7 @@ public class AuthResource {
 				String token = authService.generateToken(user, tokenLifetime);
                 
                 if ("web".equalsIgnoreCase(clientType)) {
-				    authService.addJwtCookie(user, response);
+				    authService.addJwtCookie(token, response);
 				    logger.info("JWT cookie set successfully for user '{}'", username);
                 }
 
@@ -170,7 +173,7 @@ public class AuthResource {
 			if (user == null) {
 				return new ResponseEntity<>(new ApiResponse(false, "Invalid or expired pre-authentication token.", null), HttpStatus.FORBIDDEN);
 			}
-			String ipAddress = getClientIp(request);
+			String ipAddress = clientIpResolver.resolve(request);
 			String userAgent = request.getHeader("User-Agent");
 
 			boolean isValid = false;
@@ -185,7 +188,7 @@ public class AuthResource {
 				twoFactorAuthDAO.addKnownIpForUser(user.getId(), ipAddress);
 				// Generate final, full-privilege token
 				String finalToken = authService.generateToken(user);
-				authService.addJwtCookie(user, response);
+				authService.addJwtCookie(finalToken, response);
 
 				// Log successful login with all details
 				Claims claims = authService.parseTokenClaims(finalToken);
@@ -252,17 +255,9 @@ public class AuthResource {
 	public ResponseEntity<ApiResponse> logout(@AuthenticationPrincipal SecurityUser securityUser,
 			HttpServletRequest request, HttpServletResponse response) {
 		if (securityUser != null) {
-			authLogService.logLogout(securityUser.getUser().getId(), securityUser.getUsername(), getClientIp(request));
+			authLogService.logLogout(securityUser.getUser().getId(), securityUser.getUsername(), clientIpResolver.resolve(request));
 		}
 		authService.clearJwtCookie(response);
 		return ResponseEntity.ok(new ApiResponse(true, "Abmeldung erfolgreich", null));
 	}
-
-	private String getClientIp(HttpServletRequest request) {
-		String xfHeader = request.getHeader("X-Forwarded-For");
-		if (xfHeader == null || xfHeader.isEmpty()) {
-			return request.getRemoteAddr();
-		}
-		return xfHeader.split(",")[0];
-	}
-}
\ No newline at end of file
+}
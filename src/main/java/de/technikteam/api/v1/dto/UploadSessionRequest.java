@@ -0,0 +1,15 @@
+package de.technikteam.api.v1.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+
+public record UploadSessionRequest(
+		@NotBlank(message = "Der Dateiname darf nicht leer sein.") @Size(max = 255, message = "Der Dateiname darf maximal 255 Zeichen lang sein.") String filename,
+		@Schema(description = "The MIME type of the file.") String contentType,
+		@Positive(message = "Die Dateigröße muss größer als 0 sein.") long size,
+		@Schema(description = "Optional SHA-256 of the whole file (hex), verified when the upload is completed.") String sha256,
+		Integer categoryId,
+		@NotBlank(message = "Die erforderliche Rolle darf nicht leer sein.") String requiredRole) {
+}
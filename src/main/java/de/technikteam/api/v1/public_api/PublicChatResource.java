@@ -27,6 +27,7 @@ import java.util.Map;
 @Tag(name = "Public Chat", description = "Endpoints for user direct messaging.")
 @SecurityRequirement(name = "bearerAuth")
 public class PublicChatResource {
+	private static final int MAX_PAGE_SIZE = 100;
 
 	private final ChatDAO chatDAO;
 	private final FileService fileService;
@@ -60,14 +61,15 @@ public class PublicChatResource {
 	}
 
 	@GetMapping("/conversations/{id}/messages")
-	@Operation(summary = "Get messages for a conversation")
+	@Operation(summary = "Get messages for a conversation", description = "Returns one page of messages, newest first. To load older messages, pass the id of the oldest message received as 'before'.")
 	public ResponseEntity<ApiResponse> getMessages(@PathVariable int id, @RequestParam(defaultValue = "50") int limit,
-			@RequestParam(defaultValue = "0") int offset, @AuthenticationPrincipal SecurityUser securityUser) {
+			@RequestParam(required = false) Long before, @AuthenticationPrincipal SecurityUser securityUser) {
 		if (!chatDAO.isUserInConversation(id, securityUser.getUser().getId())) {
 			throw new AccessDeniedException("Sie sind kein Mitglied dieses Gesprächs.");
 		}
-		return ResponseEntity.ok(
-				new ApiResponse(true, "Nachrichten abgerufen.", chatDAO.getMessagesForConversation(id, limit, offset)));
+		int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+		return ResponseEntity.ok(new ApiResponse(true, "Nachrichten abgerufen.",
+				chatDAO.getMessagesForConversation(id, before, pageSize)));
 	}
 
 	@PostMapping("/conversations")
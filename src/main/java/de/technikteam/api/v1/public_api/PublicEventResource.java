@@ -26,6 +26,7 @@ import java.util.Map;
 @Tag(name = "Public Events", description = "Endpoints for user interactions with events.")
 @SecurityRequirement(name = "bearerAuth")
 public class PublicEventResource {
+	private static final int MAX_CHAT_PAGE_SIZE = 100;
 
 	private final EventDAO eventDAO;
 	private final EventService eventService;
@@ -138,14 +139,16 @@ public class PublicEventResource {
 	}
 
 	@GetMapping("/{eventId}/chat/messages")
-	@Operation(summary = "Get chat messages for an event")
+	@Operation(summary = "Get chat messages for an event", description = "Returns the latest page of messages in chronological order. To load older messages, pass the id of the oldest message received as 'before'.")
 	public ResponseEntity<ApiResponse> getEventChatMessages(@PathVariable int eventId,
+			@RequestParam(defaultValue = "50") int limit, @RequestParam(required = false) Integer before,
 			@AuthenticationPrincipal SecurityUser securityUser) {
 		if (!eventDAO.isUserAssociatedWithEvent(eventId, securityUser.getUser().getId())) {
 			return ResponseEntity.status(HttpStatus.FORBIDDEN)
 					.body(new ApiResponse(false, "You are not a participant of this event's chat.", null));
 		}
-		List<EventChatMessage> messages = eventChatDAO.getMessagesForEvent(eventId);
+		List<EventChatMessage> messages = eventChatDAO.getMessagesForEvent(eventId, before,
+				Math.max(1, Math.min(limit, MAX_CHAT_PAGE_SIZE)));
 		return ResponseEntity.ok(new ApiResponse(true, "Chat messages retrieved successfully.", messages));
 	}
 }
\ No newline at end of file
@@ -2,84 +2,89 @@ package de.technikteam.api.v1.public_api;
 
 import de.technikteam.dao.*;
 import de.technikteam.model.ApiResponse;
-import de.technikteam.model.Attachment;
 import de.technikteam.model.FileSharingLink;
 import de.technikteam.model.User;
 import de.technikteam.security.SecurityUser;
-import de.technikteam.service.ConfigurationService;
+import de.technikteam.service.FileDeliveryService;
+import de.technikteam.service.FileDeliveryService.DownloadTarget;
+import de.technikteam.service.FileDeliveryService.FileMetadata;
+import de.technikteam.service.ImageDerivativeService;
+import de.technikteam.service.ImageDerivativeService.Rendition;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.io.Resource;
-import org.springframework.core.io.UrlResource;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
 import org.springframework.http.HttpStatus;
-import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import java.io.IOException;
-import java.net.MalformedURLException;
 import java.net.URLEncoder;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
 import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/api/v1/public/files")
 @Tag(name = "Public Files", description = "Endpoints for downloading files and viewing images.")
 public class PublicFileStreamResource {
 	private static final Logger logger = LogManager.getLogger(PublicFileStreamResource.class);
+	// Request attributes understood by Tomcat's NIO connector for sendfile().
+	private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+	private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+	private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+	private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+	// Downloads are permission-checked and must be revalidated every time, images
+	// are referenced by unique file names and may be reused for a while.
+	private static final CacheControl DOWNLOAD_CACHE_CONTROL = CacheControl.noCache().cachePrivate();
+	private static final CacheControl IMAGE_CACHE_CONTROL = CacheControl.maxAge(1, TimeUnit.HOURS).cachePrivate();
+	private static final CacheControl RENDITION_CACHE_CONTROL = CacheControl.maxAge(30, TimeUnit.DAYS)
+			.cachePrivate();
 
 	private final FileDAO fileDAO;
-	private final AttachmentDAO attachmentDAO;
     private final FileSharingDAO fileSharingDAO;
-	private final Path fileStorageLocation;
+	private final FileDeliveryService fileDeliveryService;
+	private final ImageDerivativeService imageDerivativeService;
 
 	@Autowired
-	public PublicFileStreamResource(FileDAO fileDAO, AttachmentDAO attachmentDAO,
-			FileSharingDAO fileSharingDAO, ConfigurationService configService) {
+	public PublicFileStreamResource(FileDAO fileDAO, FileSharingDAO fileSharingDAO,
+			FileDeliveryService fileDeliveryService, ImageDerivativeService imageDerivativeService) {
 		this.fileDAO = fileDAO;
-		this.attachmentDAO = attachmentDAO;
         this.fileSharingDAO = fileSharingDAO;
-		this.fileStorageLocation = Paths.get(configService.getProperty("upload.directory")).toAbsolutePath()
-				.normalize();
+		this.fileDeliveryService = fileDeliveryService;
+		this.imageDerivativeService = imageDerivativeService;
 	}
 
 	@GetMapping("/download/{id}")
 	@Operation(summary = "Download a file", description = "Downloads a file (general or attachment) by its database ID after checking permissions.")
 	@io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "File content", content = @Content(mediaType = "application/octet-stream"))
-	public ResponseEntity<Resource> downloadFile(
-			@Parameter(description = "ID of the file or attachment record") @PathVariable int id) {
-		String filePathFromDb = null;
-		String filenameForDownload = null;
-
-		Attachment attachment = attachmentDAO.getAttachmentById(id);
-		if (attachment != null) {
-			filePathFromDb = attachment.getFilepath();
-			filenameForDownload = attachment.getFilename();
-		} else {
-			de.technikteam.model.File dbFile = fileDAO.getFileById(id);
-			if (dbFile != null) {
-				filePathFromDb = dbFile.getFilepath();
-				filenameForDownload = dbFile.getFilename();
-			}
-		}
-
-		if (filePathFromDb == null)
+	public ResponseEntity<Void> downloadFile(
+			@Parameter(description = "ID of the file or attachment record") @PathVariable int id,
+			HttpServletRequest request, HttpServletResponse response) {
+		DownloadTarget target = fileDeliveryService.getDownloadTarget(id);
+		if (target == null || target.relativePath() == null)
 			return ResponseEntity.notFound().build();
 
-		return serveFile(filePathFromDb, filenameForDownload, false);
+		return serveFile(target.relativePath(), target.filename(), false, DOWNLOAD_CACHE_CONTROL, request, response);
 	}
 
     @GetMapping("/share/{token}/meta")
@@ -125,7 +130,8 @@ public class PublicFileStreamResource {
 
     @GetMapping("/share/{token}")
     @Operation(summary = "Download a shared file", description = "Downloads a file using a secure sharing token.")
-    public ResponseEntity<Resource> downloadSharedFile(@PathVariable String token, @AuthenticationPrincipal SecurityUser securityUser) {
+    public ResponseEntity<Void> downloadSharedFile(@PathVariable String token, @AuthenticationPrincipal SecurityUser securityUser,
+            HttpServletRequest request, HttpServletResponse response) {
         FileSharingLink link = fileSharingDAO.findByToken(token)
                 .orElse(null);
 
@@ -157,49 +163,160 @@ public class PublicFileStreamResource {
             return ResponseEntity.notFound().build();
         }
 
-        return serveFile(fileToServe.getFilepath(), fileToServe.getFilename(), false);
+        return serveFile(fileToServe.getFilepath(), fileToServe.getFilename(), false, DOWNLOAD_CACHE_CONTROL, request, response);
     }
 
 
 	@GetMapping("/images/{filename:.+}")
-	@Operation(summary = "Get an inventory image", description = "Retrieves an inventory image for display. The filename usually corresponds to a storage item's image path.")
+	@Operation(summary = "Get an inventory image", description = "Retrieves an inventory image for display. The filename usually corresponds to a storage item's image path. Use size=thumb or size=medium for a downscaled rendition.")
 	@io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Image content", content = @Content(mediaType = "image/*"))
-	public ResponseEntity<Resource> getImage(
-			@Parameter(description = "The filename of the image") @PathVariable String filename) {
-		return serveFile("images/" + filename, filename, true);
+	public ResponseEntity<Void> getImage(
+			@Parameter(description = "The filename of the image") @PathVariable String filename,
+			@Parameter(description = "Optional rendition: thumb or medium") @RequestParam(required = false) String size,
+			HttpServletRequest request, HttpServletResponse response) {
+		return serveImage("images/" + filename, filename, size, request, response);
 	}
 
-	private ResponseEntity<Resource> serveFile(String relativePath, String originalFilename, boolean inline) {
+	@GetMapping("/gallery/{eventId}/{filename:.+}")
+	@Operation(summary = "Get an event gallery photo", description = "Retrieves a photo of an event gallery. Use size=thumb or size=medium for a downscaled rendition.")
+	@io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Image content", content = @Content(mediaType = "image/*"))
+	public ResponseEntity<Void> getGalleryPhoto(@PathVariable int eventId,
+			@Parameter(description = "The filename of the photo") @PathVariable String filename,
+			@Parameter(description = "Optional rendition: thumb or medium") @RequestParam(required = false) String size,
+			HttpServletRequest request, HttpServletResponse response) {
+		return serveImage("event_galleries/" + eventId + "/" + filename, filename, size, request, response);
+	}
+
+	private ResponseEntity<Void> serveImage(String relativePath, String filename, String size,
+			HttpServletRequest request, HttpServletResponse response) {
+		Rendition rendition = Rendition.fromParameter(size);
+		if (rendition == null) {
+			return serveFile(relativePath, filename, true, IMAGE_CACHE_CONTROL, request, response);
+		}
 		try {
-			Path filePath = this.fileStorageLocation.resolve(relativePath).normalize();
-			if (!filePath.startsWith(this.fileStorageLocation)) {
-				logger.warn("Path Traversal Attack attempt detected for path '{}'", filePath);
-				return ResponseEntity.status(403).build();
+			String renditionPath = imageDerivativeService.getRenditionPath(relativePath, rendition);
+			// Uploads get unique file names, so a rendition URL always shows the same picture.
+			CacheControl cacheControl = renditionPath.equals(relativePath) ? IMAGE_CACHE_CONTROL
+					: RENDITION_CACHE_CONTROL;
+			return serveFile(renditionPath, filename, true, cacheControl, request, response);
+		} catch (SecurityException e) {
+			logger.warn(e.getMessage());
+			return ResponseEntity.status(403).build();
+		} catch (IOException e) {
+			logger.error("Could not generate {} rendition of {}, serving the original.", size, relativePath, e);
+			return serveFile(relativePath, filename, true, IMAGE_CACHE_CONTROL, request, response);
+		}
+	}
+
+	/**
+	 * Writes a stored file to the response. Conditional requests are answered
+	 * with 304, a single byte range with 206. The body is handed to Tomcat's
+	 * sendfile() when the connector supports it and otherwise copied with
+	 * {@link FileChannel#transferTo}; either way it never passes through a heap
+	 * buffer of this class. Returns null once the response has been written.
+	 */
+	private ResponseEntity<Void> serveFile(String relativePath, String originalFilename, boolean inline,
+			CacheControl cacheControl, HttpServletRequest request, HttpServletResponse response) {
+		FileMetadata metadata;
+		try {
+			metadata = fileDeliveryService.getMetadata(relativePath);
+		} catch (SecurityException e) {
+			logger.warn(e.getMessage());
+			return ResponseEntity.status(403).build();
+		} catch (IOException e) {
+			logger.error("Could not read file attributes for path: {}", relativePath, e);
+			return ResponseEntity.notFound().build();
+		}
+		if (metadata == null) {
+			logger.error("File not found or not readable at path: {}", relativePath);
+			return ResponseEntity.notFound().build();
+		}
+
+		response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl.getHeaderValue());
+		response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+		if (new ServletWebRequest(request, response).checkNotModified(metadata.etag(), metadata.lastModified())) {
+			return null;
+		}
+
+		long start = 0;
+		long length = metadata.size();
+		HttpRange range = resolveRange(request, metadata);
+		if (range != null) {
+			try {
+				start = range.getRangeStart(metadata.size());
+				length = range.getRangeEnd(metadata.size()) - start + 1;
+			} catch (IllegalArgumentException e) {
+				return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+						.header(HttpHeaders.CONTENT_RANGE, "bytes */" + metadata.size()).build();
 			}
+			response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+			response.setHeader(HttpHeaders.CONTENT_RANGE,
+					"bytes " + start + "-" + (start + length - 1) + "/" + metadata.size());
+		}
 
-			Resource resource = new UrlResource(filePath.toUri());
-			if (resource.exists() || resource.isReadable()) {
-				String contentType = "application/octet-stream"; 
-				try {
-					contentType = Files.probeContentType(filePath);
-				} catch (IOException e) {
-					logger.warn("Could not determine content type for file {}", filePath);
-				}
+		String encodedFilename = URLEncoder.encode(originalFilename, StandardCharsets.UTF_8).replace("+", "%20");
+		String disposition = inline ? "inline" : "attachment";
+		response.setContentType(metadata.contentType().toString());
+		response.setHeader(HttpHeaders.CONTENT_DISPOSITION, disposition + "; filename*=UTF-8''" + encodedFilename);
+		response.setContentLengthLong(length);
 
-				String encodedFilename = URLEncoder.encode(originalFilename, StandardCharsets.UTF_8).replace("+",
-						"%20");
-				String disposition = inline ? "inline" : "attachment";
+		try {
+			transfer(metadata, start, length, request, response);
+		} catch (IOException e) {
+			// Usually the client aborted the download.
+			logger.debug("Transfer of file {} aborted: {}", metadata.path(), e.getMessage());
+		}
+		return null;
+	}
 
-				return ResponseEntity.ok().contentType(MediaType.parseMediaType(contentType))
-						.header(HttpHeaders.CONTENT_DISPOSITION, disposition + "; filename*=UTF-8''" + encodedFilename)
-						.body(resource);
-			} else {
-				logger.error("File not found or not readable at path: {}", filePath);
-				return ResponseEntity.notFound().build();
+	/**
+	 * Returns the single range to serve, or null for the whole file. Multiple
+	 * ranges and ranges whose If-Range precondition fails are ignored, which the
+	 * HTTP specification explicitly allows.
+	 */
+	private HttpRange resolveRange(HttpServletRequest request, FileMetadata metadata) {
+		String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+		if (rangeHeader == null) {
+			return null;
+		}
+		String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+		if (ifRange != null && !ifRange.equals(metadata.etag())) {
+			long ifRangeDate = request.getDateHeader(HttpHeaders.IF_RANGE);
+			if (ifRangeDate == -1 || metadata.lastModified() / 1000 > ifRangeDate / 1000) {
+				return null;
+			}
+		}
+		try {
+			List<HttpRange> ranges = HttpRange.parseRanges(rangeHeader);
+			return ranges.size() == 1 ? ranges.get(0) : null;
+		} catch (IllegalArgumentException e) {
+			return null;
+		}
+	}
+
+	private void transfer(FileMetadata metadata, long start, long length, HttpServletRequest request,
+			HttpServletResponse response) throws IOException {
+		if ("HEAD".equals(request.getMethod()) || length == 0) {
+			return;
+		}
+		if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+			request.setAttribute(SENDFILE_FILENAME, metadata.path().toString());
+			request.setAttribute(SENDFILE_START, start);
+			request.setAttribute(SENDFILE_END, start + length);
+			return;
+		}
+		try (FileChannel channel = FileChannel.open(metadata.path(), StandardOpenOption.READ)) {
+			WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+			long position = start;
+			long remaining = length;
+			while (remaining > 0) {
+				long transferred = channel.transferTo(position, remaining, out);
+				if (transferred <= 0) {
+					break;
+				}
+				position += transferred;
+				remaining -= transferred;
 			}
-		} catch (MalformedURLException ex) {
-			logger.error("Malformed URL for file path: {}", relativePath, ex);
-			return ResponseEntity.notFound().build();
 		}
 	}
-}
\ No newline at end of file
+}
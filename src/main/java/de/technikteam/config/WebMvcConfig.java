@@ -17,12 +17,9 @@ public class WebMvcConfig implements WebMvcConfigurer {
 
 	@Override
 	public void addInterceptors(InterceptorRegistry registry) {
-		// Rate limiting is disabled to remove all verification.
-		// registry.addInterceptor(rateLimitingInterceptor).addPathPatterns("/api/v1/auth/login")
-		// .addPathPatterns("/api/v1/users/**").addPathPatterns("/api/v1/events/**")
-		// .addPathPatterns("/api/v1/storage/**").addPathPatterns("/api/v1/kits/**")
-		// .addPathPatterns("/api/v1/courses/**").addPathPatterns("/api/v1/meetings/**")
-		// .addPathPatterns("/api/v1/feedback/**").addPathPatterns("/api/v1/public/feedback/**")
-		// .addPathPatterns("/api/v1/public/profile/**");
+		// Policies per route are configured with rate-limit.* in application.properties.
+		// The SSE stream is a single long-lived request and is not counted.
+		registry.addInterceptor(rateLimitingInterceptor).addPathPatterns("/api/**")
+				.excludePathPatterns("/api/v1/public/notifications/sse");
 	}
-}
\ No newline at end of file
+}
@@ -1,7 +1,7 @@
 package de.technikteam.dao;
 
 import de.technikteam.model.AdminLog;
-import de.technikteam.util.DaoUtils;
+import de.technikteam.util.IndexedRowMapper;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -10,6 +10,7 @@ import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Repository;
 
+import java.sql.Timestamp;
 import java.util.List;
 
 @Repository
@@ -22,7 +23,7 @@ public class AdminLogDAO {
 		this.jdbcTemplate = jdbcTemplate;
 	}
 
-	private final RowMapper<AdminLog> rowMapper = (rs, rowNum) -> {
+	private final RowMapper<AdminLog> rowMapper = IndexedRowMapper.of((rs, columns) -> {
 		AdminLog logEntry = new AdminLog();
 		logEntry.setId(rs.getInt("id"));
 		logEntry.setAdminUsername(rs.getString("admin_username"));
@@ -35,14 +36,14 @@ public class AdminLogDAO {
 		if (rs.getTimestamp("revoked_at") != null) {
 			logEntry.setRevokedAt(rs.getTimestamp("revoked_at").toLocalDateTime());
 		}
-		if (DaoUtils.hasColumn(rs, "revoking_admin_username")) {
-			logEntry.setRevokingAdminUsername(rs.getString("revoking_admin_username"));
+		if (columns.has("revoking_admin_username")) {
+			logEntry.setRevokingAdminUsername(columns.getString(rs, "revoking_admin_username"));
 		}
-		if (DaoUtils.hasColumn(rs, "admin_user_id")) {
-			logEntry.setAdminUserId(rs.getObject("admin_user_id", Integer.class));
+		if (columns.has("admin_user_id")) {
+			logEntry.setAdminUserId(columns.getInteger(rs, "admin_user_id"));
 		}
 		return logEntry;
-	};
+	});
 
 	public void createLog(AdminLog log) {
 		String sql = "INSERT INTO admin_logs (admin_username, action_type, details, context) VALUES (?, ?, ?, ?)";
@@ -53,6 +54,21 @@ public class AdminLogDAO {
 		}
 	}
 
+	/**
+	 * Inserts several entries with one JDBC batch, keeping the timestamps at
+	 * which they were recorded.
+	 */
+	public void createLogs(List<AdminLog> logs) {
+		String sql = "INSERT INTO admin_logs (admin_username, action_type, details, context, action_timestamp) VALUES (?, ?, ?, ?, ?)";
+		jdbcTemplate.batchUpdate(sql, logs, 100, (ps, log) -> {
+			ps.setString(1, log.getAdminUsername());
+			ps.setString(2, log.getActionType());
+			ps.setString(3, log.getDetails());
+			ps.setString(4, log.getContext());
+			ps.setTimestamp(5, Timestamp.valueOf(log.getActionTimestamp()));
+		});
+	}
+
 	public List<AdminLog> getAllLogs() {
 		String sql = "SELECT l.*, u.id as admin_user_id, a.username as revoking_admin_username " + "FROM admin_logs l "
 				+ "LEFT JOIN users u ON l.admin_username = u.username "
@@ -40,6 +40,11 @@ public class AnnouncementDAO {
 		return jdbcTemplate.query(sql, rowMapper);
 	}
 
+	public Optional<Announcement> findLatest() {
+		String sql = "SELECT a.*, u.username as author_username FROM announcements a JOIN users u ON a.author_user_id = u.id ORDER BY a.created_at DESC LIMIT 1";
+		return jdbcTemplate.query(sql, rowMapper).stream().findFirst();
+	}
+
 	public Optional<Announcement> findById(int id) {
 		String sql = "SELECT a.*, u.username as author_username FROM announcements a JOIN users u ON a.author_user_id = u.id WHERE a.id = ?";
 		try {
@@ -1,24 +1,32 @@
 package de.technikteam.dao;
 
 import de.technikteam.model.Attachment;
+import de.technikteam.service.FileChangedEvent;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
 import org.springframework.stereotype.Repository;
 
+import java.sql.PreparedStatement;
+import java.sql.Statement;
 import java.util.List;
 
 @Repository
 public class AttachmentDAO {
 	private static final Logger logger = LogManager.getLogger(AttachmentDAO.class);
 	private final JdbcTemplate jdbcTemplate;
+	private final ApplicationEventPublisher eventPublisher;
 
 	@Autowired
-	public AttachmentDAO(JdbcTemplate jdbcTemplate) {
+	public AttachmentDAO(JdbcTemplate jdbcTemplate, ApplicationEventPublisher eventPublisher) {
 		this.jdbcTemplate = jdbcTemplate;
+		this.eventPublisher = eventPublisher;
 	}
 
 	private final RowMapper<Attachment> attachmentRowMapper = (rs, rowNum) -> {
@@ -35,9 +43,23 @@ public class AttachmentDAO {
 
 	public boolean addAttachment(Attachment attachment) {
 		String sql = "INSERT INTO attachments (parent_type, parent_id, filename, filepath, required_role) VALUES (?, ?, ?, ?, ?)";
+		KeyHolder keyHolder = new GeneratedKeyHolder();
 		try {
-			return jdbcTemplate.update(sql, attachment.getParentType(), attachment.getParentId(),
-					attachment.getFilename(), attachment.getFilepath(), attachment.getRequiredRole()) > 0;
+			boolean added = jdbcTemplate.update(connection -> {
+				PreparedStatement ps = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
+				ps.setString(1, attachment.getParentType());
+				ps.setInt(2, attachment.getParentId());
+				ps.setString(3, attachment.getFilename());
+				ps.setString(4, attachment.getFilepath());
+				ps.setString(5, attachment.getRequiredRole());
+				return ps;
+			}, keyHolder) > 0;
+			if (added && keyHolder.getKey() != null) {
+				attachment.setId(keyHolder.getKey().intValue());
+				// A download id that used to resolve to a file may now resolve to this attachment.
+				eventPublisher.publishEvent(FileChangedEvent.attachment(attachment.getId()));
+			}
+			return added;
 		} catch (Exception e) {
 			logger.error("Error adding attachment to {} ID {}", attachment.getParentType(), attachment.getParentId(),
 					e);
@@ -73,7 +95,9 @@ public class AttachmentDAO {
 	public boolean deleteAttachment(int attachmentId) {
 		String sql = "DELETE FROM attachments WHERE id = ?";
 		try {
-			return jdbcTemplate.update(sql, attachmentId) > 0;
+			boolean deleted = jdbcTemplate.update(sql, attachmentId) > 0;
+			eventPublisher.publishEvent(FileChangedEvent.attachment(attachmentId));
+			return deleted;
 		} catch (Exception e) {
 			logger.error("Error deleting attachment ID {}", attachmentId, e);
 			return false;
@@ -2,7 +2,7 @@ package de.technikteam.dao;
 
 import de.technikteam.model.AuthenticationLog;
 import de.technikteam.model.dto.LoginIpInfo;
-import de.technikteam.util.DaoUtils;
+import de.technikteam.util.IndexedRowMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
@@ -24,7 +24,7 @@ public class AuthenticationLogDAO {
         this.jdbcTemplate = jdbcTemplate;
     }
 
-    private final RowMapper<AuthenticationLog> rowMapper = (rs, rowNum) -> {
+    private final RowMapper<AuthenticationLog> rowMapper = IndexedRowMapper.of((rs, columns) -> {
         AuthenticationLog log = new AuthenticationLog();
         log.setId(rs.getLong("id"));
         log.setUserId(rs.getObject("user_id", Integer.class));
@@ -39,11 +39,11 @@ public class AuthenticationLogDAO {
         if (rs.getTimestamp("token_expiry") != null) {
             log.setTokenExpiry(rs.getTimestamp("token_expiry").toLocalDateTime());
         }
-        if (DaoUtils.hasColumn(rs, "is_revoked")) {
-            log.setRevoked(rs.getBoolean("is_revoked"));
+        if (columns.has("is_revoked")) {
+            log.setRevoked(columns.getBoolean(rs, "is_revoked"));
         }
         return log;
-    };
+    });
 
     public void createLog(AuthenticationLog log) {
         String sql = "INSERT INTO authentication_logs (user_id, username, ip_address, event_type, jti, token_expiry, user_agent, device_type, country_code) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
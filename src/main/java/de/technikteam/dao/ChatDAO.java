@@ -97,20 +97,32 @@ public class ChatDAO {
 		} else {
 			updated = jdbcTemplate.update(sql, deletedMessageText, deletersUserId, messageId, deletersUserId);
 		}
+		if (updated > 0) {
+			refreshSummaryPreview(messageId);
+		}
 		return updated > 0;
 	}
 
-	public List<ChatMessage> getMessagesForConversation(int conversationId, int limit, int offset) {
+	/**
+	 * Returns one page of a conversation, newest message first. Pages are
+	 * addressed by the id of the oldest message already loaded, so reading far
+	 * back in a long conversation costs the same as reading the latest page.
+	 *
+	 * @param beforeId Only messages with a smaller id are returned; null for the
+	 *                 latest page.
+	 */
+	public List<ChatMessage> getMessagesForConversation(int conversationId, Long beforeId, int limit) {
 		String sql = """
 				    SELECT cm.*, u.username as sender_username, u.chat_color, u_del.username as deleted_by_username
 				    FROM chat_messages cm
 				    JOIN users u ON cm.sender_id = u.id
 				    LEFT JOIN users u_del ON cm.deleted_by_user_id = u_del.id
-				    WHERE cm.conversation_id = ?
-				    ORDER BY cm.sent_at DESC
-				    LIMIT ? OFFSET ?
+				    WHERE cm.conversation_id = ? AND cm.id < ?
+				    ORDER BY cm.id DESC
+				    LIMIT ?
 				""";
-		return jdbcTemplate.query(sql, chatMessageRowMapper, conversationId, limit, offset);
+		return jdbcTemplate.query(sql, chatMessageRowMapper, conversationId,
+				beforeId != null ? beforeId : Long.MAX_VALUE, limit);
 	}
 
 	public ChatMessage getMessageById(long messageId) {
@@ -147,19 +159,27 @@ public class ChatDAO {
 	}
 
 	public List<ChatConversation> getConversationsForUser(int userId) {
+		return getConversationsForUser(userId, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Reads a user's inbox from the conversation_summary projection, most
+	 * recently active conversation first.
+	 */
+	public List<ChatConversation> getConversationsForUser(int userId, int limit) {
 		String sql = """
 				    SELECT
 				        c.id, c.name, c.is_group_chat, c.creator_id,
 				        other_p.user_id as other_participant_id,
 				        other_u.username as other_participant_username,
-				        (SELECT cm.message_text FROM chat_messages cm WHERE cm.conversation_id = c.id AND cm.is_deleted = FALSE ORDER BY cm.sent_at DESC LIMIT 1) as last_message,
-				        (SELECT cm.sent_at FROM chat_messages cm WHERE cm.conversation_id = c.id ORDER BY cm.sent_at DESC LIMIT 1) as last_message_timestamp
-				    FROM chat_conversations c
-				    JOIN chat_participants p ON c.id = p.conversation_id
+				        s.last_message_preview, s.last_message_at, s.unread_count
+				    FROM conversation_summary s
+				    JOIN chat_conversations c ON c.id = s.conversation_id
 				    LEFT JOIN chat_participants other_p ON c.id = other_p.conversation_id AND other_p.user_id != ? AND c.is_group_chat = false
 				    LEFT JOIN users other_u ON other_p.user_id = other_u.id
-				    WHERE p.user_id = ?
-				    ORDER BY last_message_timestamp DESC;
+				    WHERE s.user_id = ?
+				    ORDER BY s.last_message_at DESC
+				    LIMIT ?
 				""";
 		return jdbcTemplate.query(sql, (rs, rowNum) -> {
 			ChatConversation conv = new ChatConversation();
@@ -169,12 +189,13 @@ public class ChatDAO {
 			conv.setCreatorId(rs.getInt("creator_id"));
 			conv.setOtherParticipantId(rs.getInt("other_participant_id"));
 			conv.setOtherParticipantUsername(rs.getString("other_participant_username"));
-			conv.setLastMessage(rs.getString("last_message"));
-			if (rs.getTimestamp("last_message_timestamp") != null) {
-				conv.setLastMessageTimestamp(rs.getTimestamp("last_message_timestamp").toLocalDateTime());
+			conv.setLastMessage(rs.getString("last_message_preview"));
+			if (rs.getTimestamp("last_message_at") != null) {
+				conv.setLastMessageTimestamp(rs.getTimestamp("last_message_at").toLocalDateTime());
 			}
+			conv.setUnreadCount(rs.getInt("unread_count"));
 			return conv;
-		}, userId, userId);
+		}, userId, userId, limit);
 	}
 
 	public List<User> getParticipantsForConversation(int conversationId) {
@@ -198,13 +219,36 @@ public class ChatDAO {
 		parameters.addValue("readerId", readerId);
 
 		String sql = "UPDATE chat_messages SET status = 'READ' WHERE id IN (:ids) AND conversation_id = :conversationId AND sender_id != :readerId AND status != 'READ'";
+		boolean updated = namedParameterJdbcTemplate.update(sql, parameters) > 0;
 
-		return namedParameterJdbcTemplate.update(sql, parameters) > 0;
+		// The reader has seen everything up to the newest of these messages that really
+		// belongs to the conversation; ids from the client are not trusted for the marker.
+		Long readUpTo = namedParameterJdbcTemplate.queryForObject(
+				"SELECT MAX(id) FROM chat_messages WHERE id IN (:ids) AND conversation_id = :conversationId",
+				parameters, Long.class);
+		if (readUpTo == null) {
+			return updated;
+		}
+		parameters.addValue("readUpTo", readUpTo);
+		String summarySql = """
+				    UPDATE conversation_summary SET
+				        last_read_message_id = GREATEST(COALESCE(last_read_message_id, 0), :readUpTo),
+				        unread_count = (SELECT COUNT(*) FROM chat_messages cm WHERE cm.conversation_id = :conversationId
+				            AND cm.sender_id != :readerId AND cm.id > GREATEST(COALESCE(last_read_message_id, 0), :readUpTo))
+				    WHERE conversation_id = :conversationId AND user_id = :readerId
+				""";
+		namedParameterJdbcTemplate.update(summarySql, parameters);
+		return updated;
 	}
 
+	@Transactional
 	public boolean updateMessage(long messageId, int userId, String newText) {
 		String sql = "UPDATE chat_messages SET message_text = ?, edited = TRUE, edited_at = NOW() WHERE id = ? AND sender_id = ? AND is_deleted = FALSE AND sent_at >= NOW() - INTERVAL 24 HOUR";
-		return jdbcTemplate.update(sql, newText, messageId, userId) > 0;
+		boolean updated = jdbcTemplate.update(sql, newText, messageId, userId) > 0;
+		if (updated) {
+			refreshSummaryPreview(messageId);
+		}
+		return updated;
 	}
 
 	@Transactional
@@ -220,6 +264,21 @@ public class ChatDAO {
 		}, keyHolder);
 		message.setId(Objects.requireNonNull(keyHolder.getKey()).longValue());
 		message.setStatus("SENT");
+
+		// Fan out to the summary rows of all participants in the same transaction.
+		String summarySql = """
+				    UPDATE conversation_summary SET
+				        last_message_id = ?,
+				        last_message_preview = ?,
+				        last_message_at = (SELECT sent_at FROM chat_messages WHERE id = ?),
+				        last_sender_id = ?,
+				        last_read_message_id = IF(user_id = ?, ?, last_read_message_id),
+				        unread_count = IF(user_id = ?, 0, unread_count + 1)
+				    WHERE conversation_id = ?
+				""";
+		jdbcTemplate.update(summarySql, message.getId(), preview(message.getMessageText()), message.getId(),
+				message.getSenderId(), message.getSenderId(), message.getId(), message.getSenderId(),
+				message.getConversationId());
 		return message;
 	}
 
@@ -246,6 +305,8 @@ public class ChatDAO {
 			String addParticipantsSql = "INSERT INTO chat_participants (conversation_id, user_id) VALUES (?, ?)";
 			jdbcTemplate.update(addParticipantsSql, newConversationId, userId1);
 			jdbcTemplate.update(addParticipantsSql, newConversationId, userId2);
+			createSummary(newConversationId, userId1);
+			createSummary(newConversationId, userId2);
 
 			return newConversationId;
 		}
@@ -269,6 +330,7 @@ public class ChatDAO {
 		}
 		for (Integer participantId : participantIds) {
 			jdbcTemplate.update(addParticipantsSql, newConversationId, participantId);
+			createSummary(newConversationId, participantId);
 		}
 
 		return newConversationId;
@@ -287,16 +349,23 @@ public class ChatDAO {
 			ps.setInt(1, conversationId);
 			ps.setInt(2, userId);
 		});
+		for (Integer userId : userIds) {
+			createSummary(conversationId, userId);
+		}
 	}
 
 	@Transactional
 	public boolean removeParticipant(int conversationId, int userId) {
+		jdbcTemplate.update("DELETE FROM conversation_summary WHERE conversation_id = ? AND user_id = ?",
+				conversationId, userId);
 		return jdbcTemplate.update("DELETE FROM chat_participants WHERE conversation_id = ? AND user_id = ?",
 				conversationId, userId) > 0;
 	}
 
 	@Transactional
 	public boolean leaveGroup(int conversationId, int userId) {
+		jdbcTemplate.update("DELETE FROM conversation_summary WHERE conversation_id = ? AND user_id = ?",
+				conversationId, userId);
 		return jdbcTemplate.update("DELETE FROM chat_participants WHERE conversation_id = ? AND user_id = ?",
 				conversationId, userId) > 0;
 	}
@@ -305,4 +374,47 @@ public class ChatDAO {
 	public boolean deleteGroup(int conversationId) {
 		return jdbcTemplate.update("DELETE FROM chat_conversations WHERE id = ?", conversationId) > 0;
 	}
-}
\ No newline at end of file
+
+	/**
+	 * Adds the summary row of a new participant, starting from the
+	 * conversation's current last message with nothing unread.
+	 */
+	private void createSummary(int conversationId, int userId) {
+		String sql = """
+				    INSERT IGNORE INTO conversation_summary
+				        (conversation_id, user_id, last_message_id, last_message_preview, last_message_at, last_sender_id, last_read_message_id)
+				    SELECT c.id, ?, s.last_message_id, s.last_message_preview, s.last_message_at, s.last_sender_id, s.last_message_id
+				    FROM chat_conversations c
+				    LEFT JOIN conversation_summary s ON s.conversation_id = c.id
+				    WHERE c.id = ?
+				    LIMIT 1
+				""";
+		jdbcTemplate.update(sql, userId, conversationId);
+	}
+
+	/**
+	 * Recomputes the preview after a message was edited or deleted. Like before
+	 * the projection existed, the preview shows the newest message that is not
+	 * deleted.
+	 */
+	private void refreshSummaryPreview(long messageId) {
+		Integer conversationId = jdbcTemplate.query("SELECT conversation_id FROM chat_messages WHERE id = ?",
+				rs -> rs.next() ? rs.getInt(1) : null, messageId);
+		if (conversationId == null) {
+			return;
+		}
+		String sql = """
+				    UPDATE conversation_summary SET last_message_preview = (SELECT LEFT(cm.message_text, 255) FROM chat_messages cm
+				        WHERE cm.conversation_id = ? AND cm.is_deleted = FALSE ORDER BY cm.id DESC LIMIT 1)
+				    WHERE conversation_id = ?
+				""";
+		jdbcTemplate.update(sql, conversationId, conversationId);
+	}
+
+	private String preview(String messageText) {
+		if (messageText == null) {
+			return null;
+		}
+		return messageText.length() > 255 ? messageText.substring(0, 255) : messageText;
+	}
+}
@@ -1,9 +1,12 @@
 package de.technikteam.dao;
 
 import de.technikteam.model.Course;
+import de.technikteam.service.CalendarChangedEvent;
+import de.technikteam.service.TrainingRecordsChangedEvent;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
@@ -20,10 +23,12 @@ import java.util.Objects;
 public class CourseDAO {
 	private static final Logger logger = LogManager.getLogger(CourseDAO.class);
 	private final JdbcTemplate jdbcTemplate;
+	private final ApplicationEventPublisher eventPublisher;
 
 	@Autowired
-	public CourseDAO(JdbcTemplate jdbcTemplate) {
+	public CourseDAO(JdbcTemplate jdbcTemplate, ApplicationEventPublisher eventPublisher) {
 		this.jdbcTemplate = jdbcTemplate;
+		this.eventPublisher = eventPublisher;
 	}
 
 	private final RowMapper<Course> courseRowMapper = (rs, rowNum) -> {
@@ -80,8 +85,10 @@ public class CourseDAO {
 	public boolean updateCourse(Course course) {
 		String sql = "UPDATE courses SET name = ?, abbreviation = ?, description = ? WHERE id = ?";
 		try {
-			return jdbcTemplate.update(sql, course.getName(), course.getAbbreviation(), course.getDescription(),
+			boolean updated = jdbcTemplate.update(sql, course.getName(), course.getAbbreviation(), course.getDescription(),
 					course.getId()) > 0;
+			eventPublisher.publishEvent(new CalendarChangedEvent());
+			return updated;
 		} catch (Exception e) {
 			logger.error("Error updating course: {}", course.getName(), e);
 			return false;
@@ -95,7 +102,10 @@ public class CourseDAO {
 			jdbcTemplate.update("DELETE FROM user_qualifications WHERE course_id = ?", courseId);
 			jdbcTemplate.update("DELETE FROM meetings WHERE course_id = ?", courseId);
 
-			return jdbcTemplate.update(sql, courseId) > 0;
+			boolean deleted = jdbcTemplate.update(sql, courseId) > 0;
+			eventPublisher.publishEvent(new TrainingRecordsChangedEvent());
+			eventPublisher.publishEvent(new CalendarChangedEvent());
+			return deleted;
 		} catch (Exception e) {
 			logger.error("Error deleting course with ID: {}", courseId, e);
 			return false;
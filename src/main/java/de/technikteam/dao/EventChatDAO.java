@@ -12,6 +12,8 @@ import org.springframework.stereotype.Repository;
 
 import java.sql.PreparedStatement;
 import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 
@@ -74,10 +76,20 @@ public class EventChatDAO {
 		}
 	}
 
-	public List<EventChatMessage> getMessagesForEvent(int eventId) {
-		String sql = "SELECT m.*, u_del.username as deleted_by_username, u_orig.chat_color FROM event_chat_messages m LEFT JOIN users u_del ON m.deleted_by_user_id = u_del.id JOIN users u_orig ON m.user_id = u_orig.id WHERE m.event_id = ? ORDER BY m.sent_at ASC";
+	/**
+	 * Returns the latest messages of an event chat older than the cursor, in
+	 * chronological order.
+	 *
+	 * @param beforeId Only messages with a smaller id are returned; null for the
+	 *                 latest page.
+	 */
+	public List<EventChatMessage> getMessagesForEvent(int eventId, Integer beforeId, int limit) {
+		String sql = "SELECT m.*, u_del.username as deleted_by_username, u_orig.chat_color FROM event_chat_messages m LEFT JOIN users u_del ON m.deleted_by_user_id = u_del.id JOIN users u_orig ON m.user_id = u_orig.id WHERE m.event_id = ? AND m.id < ? ORDER BY m.id DESC LIMIT ?";
 		try {
-			return jdbcTemplate.query(sql, chatMessageRowMapper, eventId);
+			List<EventChatMessage> page = new ArrayList<>(jdbcTemplate.query(sql, chatMessageRowMapper, eventId,
+					beforeId != null ? beforeId : Integer.MAX_VALUE, limit));
+			Collections.reverse(page);
+			return page;
 		} catch (Exception e) {
 			logger.error("Error fetching chat messages for event {}", eventId, e);
 			return List.of();
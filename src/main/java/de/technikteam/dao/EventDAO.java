@@ -2,13 +2,16 @@ package de.technikteam.dao;
 
 import de.technikteam.api.v1.dto.EventAssignmentDTO;
 import de.technikteam.model.Event;
+import de.technikteam.model.SearchHit;
 import de.technikteam.model.SkillRequirement;
 import de.technikteam.model.StorageItem;
 import de.technikteam.model.User;
-import de.technikteam.util.DaoUtils;
+import de.technikteam.service.CalendarChangedEvent;
+import de.technikteam.util.IndexedRowMapper;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
@@ -18,10 +21,14 @@ import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.sql.*;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Repository
@@ -29,38 +36,44 @@ public class EventDAO {
 	private static final Logger logger = LogManager.getLogger(EventDAO.class);
 	private final JdbcTemplate jdbcTemplate;
 	private final EventTaskDAO eventTaskDAO;
+	private final ApplicationEventPublisher eventPublisher;
+	private final ReportRollupDAO reportRollupDAO;
 
 	@Autowired
-	public EventDAO(JdbcTemplate jdbcTemplate, EventTaskDAO eventTaskDAO) {
+	public EventDAO(JdbcTemplate jdbcTemplate, EventTaskDAO eventTaskDAO, ApplicationEventPublisher eventPublisher,
+			ReportRollupDAO reportRollupDAO) {
 		this.jdbcTemplate = jdbcTemplate;
 		this.eventTaskDAO = eventTaskDAO;
+		this.eventPublisher = eventPublisher;
+		this.reportRollupDAO = reportRollupDAO;
 	}
 
-	private final RowMapper<Event> eventRowMapper = (rs, rowNum) -> {
+	private final RowMapper<Event> eventRowMapper = IndexedRowMapper.of((rs, columns) -> {
 		Event event = new Event();
-		event.setId(rs.getInt("id"));
-		event.setName(rs.getString("name"));
-		event.setDescription(rs.getString("description"));
-		event.setLocation(rs.getString("location"));
-		event.setStatus(rs.getString("status"));
-		event.setEventDateTime(rs.getTimestamp("event_datetime").toLocalDateTime());
-		if (rs.getTimestamp("end_datetime") != null) {
-			event.setEndDateTime(rs.getTimestamp("end_datetime").toLocalDateTime());
+		event.setId(rs.getInt(columns.indexOf("id")));
+		event.setName(rs.getString(columns.indexOf("name")));
+		event.setDescription(rs.getString(columns.indexOf("description")));
+		event.setLocation(rs.getString(columns.indexOf("location")));
+		event.setStatus(rs.getString(columns.indexOf("status")));
+		event.setEventDateTime(rs.getTimestamp(columns.indexOf("event_datetime")).toLocalDateTime());
+		Timestamp endDateTime = rs.getTimestamp(columns.indexOf("end_datetime"));
+		if (endDateTime != null) {
+			event.setEndDateTime(endDateTime.toLocalDateTime());
 		}
-		if (DaoUtils.hasColumn(rs, "leader_user_id")) {
-			event.setLeaderUserId(rs.getInt("leader_user_id"));
+		if (columns.has("leader_user_id")) {
+			event.setLeaderUserId(rs.getInt(columns.indexOf("leader_user_id")));
 		}
-		if (DaoUtils.hasColumn(rs, "leader_username")) {
-			event.setLeaderUsername(rs.getString("leader_username"));
+		if (columns.has("leader_username")) {
+			event.setLeaderUsername(rs.getString(columns.indexOf("leader_username")));
 		}
-		if (DaoUtils.hasColumn(rs, "venue_id")) {
-			event.setVenueId(rs.getObject("venue_id", Integer.class));
+		if (columns.has("venue_id")) {
+			event.setVenueId(columns.getInteger(rs, "venue_id"));
 		}
-		if (DaoUtils.hasColumn(rs, "preflight_template_id")) {
-			event.setPreflightTemplateId(rs.getObject("preflight_template_id", Integer.class));
+		if (columns.has("preflight_template_id")) {
+			event.setPreflightTemplateId(columns.getInteger(rs, "preflight_template_id"));
 		}
 		return event;
-	};
+	});
 
 	private final RowMapper<User> simpleUserRowMapper = (rs, rowNum) -> {
 		User user = new User(rs.getInt("id"), rs.getString("username"), rs.getString("role"));
@@ -209,6 +222,8 @@ public class EventDAO {
 				}
 				return ps;
 			}, keyHolder);
+			reportRollupDAO.adjustEventMonth(event.getEventDateTime(), 1);
+			eventPublisher.publishEvent(new CalendarChangedEvent());
 			return Objects.requireNonNull(keyHolder.getKey()).intValue();
 		} catch (Exception e) {
 			logger.error("Error creating event {}", event.getName(), e);
@@ -216,16 +231,25 @@ public class EventDAO {
 		}
 	}
 
+	@Transactional
 	public boolean updateEvent(Event event) {
 		String sql = "UPDATE events SET name = ?, event_datetime = ?, end_datetime = ?, description = ?, status = ?, leader_user_id = ?, venue_id = ?, preflight_template_id = ? WHERE id = ?";
 		try {
-			return jdbcTemplate.update(sql, event.getName(), Timestamp.valueOf(event.getEventDateTime()),
+			LocalDateTime previousDateTime = getEventDateTimeForUpdate(event.getId());
+			boolean updated = jdbcTemplate.update(sql, event.getName(), Timestamp.valueOf(event.getEventDateTime()),
 					event.getEndDateTime() != null ? Timestamp.valueOf(event.getEndDateTime()) : null,
 					event.getDescription(), event.getStatus(),
 					event.getLeaderUserId() > 0 ? event.getLeaderUserId() : null,
 					event.getVenueId() != null && event.getVenueId() > 0 ? event.getVenueId() : null,
 					event.getPreflightTemplateId() != null && event.getPreflightTemplateId() > 0 ? event.getPreflightTemplateId() : null,
 					event.getId()) > 0;
+			if (updated && previousDateTime != null
+					&& !YearMonth.from(previousDateTime).equals(YearMonth.from(event.getEventDateTime()))) {
+				reportRollupDAO.adjustEventMonth(previousDateTime, -1);
+				reportRollupDAO.adjustEventMonth(event.getEventDateTime(), 1);
+			}
+			eventPublisher.publishEvent(new CalendarChangedEvent());
+			return updated;
 		} catch (Exception e) {
 			logger.error("Error updating event {}", event.getName(), e);
 			return false;
@@ -235,17 +259,29 @@ public class EventDAO {
 	public boolean updateEventStatus(int eventId, String newStatus) {
 		String sql = "UPDATE events SET status = ? WHERE id = ?";
 		try {
-			return jdbcTemplate.update(sql, newStatus, eventId) > 0;
+			boolean updated = jdbcTemplate.update(sql, newStatus, eventId) > 0;
+			eventPublisher.publishEvent(new CalendarChangedEvent());
+			return updated;
 		} catch (Exception e) {
 			logger.error("Error updating status for event {}", eventId, e);
 			return false;
 		}
 	}
 
+	@Transactional
 	public boolean deleteEvent(int eventId) {
 		String sql = "DELETE FROM events WHERE id = ?";
 		try {
-			return jdbcTemplate.update(sql, eventId) > 0;
+			LocalDateTime eventDateTime = getEventDateTimeForUpdate(eventId);
+			List<Integer> assignedUserIds = getAssignedUserIds(eventId);
+			boolean deleted = jdbcTemplate.update(sql, eventId) > 0;
+			if (deleted) {
+				// The assignments are removed by the foreign key cascade.
+				reportRollupDAO.adjustEventMonth(eventDateTime, -1);
+				reportRollupDAO.adjustUserParticipation(assignedUserIds, -1);
+			}
+			eventPublisher.publishEvent(new CalendarChangedEvent());
+			return deleted;
 		} catch (Exception e) {
 			logger.error("Error deleting event with ID: {}", eventId, e);
 			return false;
@@ -273,7 +309,9 @@ public class EventDAO {
 	@Transactional
 	public void updateTeamAssignments(int eventId, List<EventAssignmentDTO> assignments) {
 		try {
+			Set<Integer> previousUserIds = new HashSet<>(getAssignedUserIds(eventId));
 			jdbcTemplate.update("DELETE FROM event_assignments WHERE event_id = ?", eventId);
+			Set<Integer> newUserIds = new HashSet<>();
 			if (assignments != null && !assignments.isEmpty()) {
 				String insertSql = "INSERT INTO event_assignments (event_id, user_id, role_id) VALUES (?, ?, ?)";
 				jdbcTemplate.batchUpdate(insertSql, assignments, 100, (ps, assignment) -> {
@@ -285,13 +323,30 @@ public class EventDAO {
 						ps.setNull(3, Types.INTEGER);
 					}
 				});
+				assignments.forEach(assignment -> newUserIds.add(assignment.userId()));
 			}
+			Set<Integer> removedUserIds = new HashSet<>(previousUserIds);
+			removedUserIds.removeAll(newUserIds);
+			newUserIds.removeAll(previousUserIds);
+			reportRollupDAO.adjustUserParticipation(removedUserIds, -1);
+			reportRollupDAO.adjustUserParticipation(newUserIds, 1);
 		} catch (Exception e) {
 			logger.error("Error during team assignment for event ID: {}.", eventId, e);
 			throw new RuntimeException(e); 
 		}
 	}
 
+	private LocalDateTime getEventDateTimeForUpdate(int eventId) {
+		List<Timestamp> result = jdbcTemplate.queryForList("SELECT event_datetime FROM events WHERE id = ? FOR UPDATE",
+				Timestamp.class, eventId);
+		return result.isEmpty() ? null : result.get(0).toLocalDateTime();
+	}
+
+	private List<Integer> getAssignedUserIds(int eventId) {
+		return jdbcTemplate.queryForList("SELECT user_id FROM event_assignments WHERE event_id = ?", Integer.class,
+				eventId);
+	}
+
 	public List<SkillRequirement> getSkillRequirementsForEvent(int eventId) {
 		String sql = "SELECT esr.required_course_id, c.name as course_name, esr.required_persons FROM event_skill_requirements esr JOIN courses c ON esr.required_course_id = c.id WHERE esr.event_id = ?";
 		try {
@@ -373,6 +428,16 @@ public class EventDAO {
 		}
 	}
 
+	public List<Event> getActiveAndUpcomingEvents(int limit) {
+		String sql = "SELECT * FROM events WHERE status NOT IN ('ABGESCHLOSSEN', 'ABGESAGT') AND event_datetime >= NOW() - INTERVAL 1 DAY ORDER BY event_datetime ASC LIMIT ?";
+		try {
+			return jdbcTemplate.query(sql, eventRowMapper, limit);
+		} catch (Exception e) {
+			logger.error("Error fetching the next {} active/upcoming events.", limit, e);
+			return List.of();
+		}
+	}
+
 	public boolean isUserAssociatedWithEvent(int eventId, int userId) {
 		String sql = "SELECT COUNT(*) FROM (SELECT 1 FROM event_attendance WHERE event_id = ? AND user_id = ? AND signup_status = 'ANGEMELDET' UNION ALL SELECT 1 FROM event_assignments WHERE event_id = ? AND user_id = ?) AS combined";
 		try {
@@ -454,4 +519,20 @@ public class EventDAO {
 			return List.of();
 		}
 	}
+
+	/**
+	 * Ranked search through the FULLTEXT index on name, description and location.
+	 *
+	 * @param booleanQuery An expression built by {@link de.technikteam.util.FullTextQuery}.
+	 */
+	public List<SearchHit<Event>> searchFullText(String booleanQuery, int limit) {
+		String sql = "SELECT *, MATCH(name, description, location) AGAINST (? IN BOOLEAN MODE) AS score FROM events WHERE MATCH(name, description, location) AGAINST (? IN BOOLEAN MODE) ORDER BY score DESC, event_datetime DESC LIMIT ?";
+		try {
+			return jdbcTemplate.query(sql, (rs, rowNum) -> new SearchHit<>(eventRowMapper.mapRow(rs, rowNum),
+					rs.getDouble("score")), booleanQuery, booleanQuery, limit);
+		} catch (Exception e) {
+			logger.error("Error in full-text search of events for '{}'", booleanQuery, e);
+			return List.of();
+		}
+	}
 }
\ No newline at end of file
@@ -8,6 +8,7 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.support.GeneratedKeyHolder;
 import org.springframework.jdbc.support.KeyHolder;
 import org.springframework.stereotype.Repository;
@@ -226,6 +227,53 @@ public class EventTaskDAO {
 		return jdbcTemplate.update(sql, status, taskId) > 0;
 	}
 
+	/**
+	 * Persists several status changes in one JDBC batch.
+	 */
+	public void updateTaskStatuses(Map<Integer, String> statusesByTaskId) {
+		if (statusesByTaskId.isEmpty())
+			return;
+		String sql = "UPDATE event_tasks SET status = ? WHERE id = ?";
+		jdbcTemplate.batchUpdate(sql, new ArrayList<>(statusesByTaskId.entrySet()), 100, (ps, entry) -> {
+			ps.setString(1, entry.getValue());
+			ps.setInt(2, entry.getKey());
+		});
+	}
+
+	/**
+	 * Loads only the status of every task of an event, without the joins of
+	 * {@link #getTasksForEvent(int)}.
+	 */
+	public Map<Integer, String> getTaskStatusesForEvent(int eventId) {
+		String sql = "SELECT id, status FROM event_tasks WHERE event_id = ?";
+		Map<Integer, String> statuses = new HashMap<>();
+		jdbcTemplate.query(sql, (RowCallbackHandler) rs -> statuses.put(rs.getInt("id"), rs.getString("status")),
+				eventId);
+		return statuses;
+	}
+
+	/**
+	 * @return Pairs of {task ID, ID of the task it depends on} for all tasks of
+	 *         an event.
+	 */
+	public List<int[]> getTaskDependenciesForEvent(int eventId) {
+		String sql = "SELECT d.task_id, d.depends_on_task_id FROM event_task_dependencies d JOIN event_tasks t ON d.task_id = t.id WHERE t.event_id = ?";
+		return jdbcTemplate.query(sql,
+				(rs, rowNum) -> new int[] { rs.getInt("task_id"), rs.getInt("depends_on_task_id") }, eventId);
+	}
+
+	public String getTaskDescription(int taskId) {
+		String sql = "SELECT description FROM event_tasks WHERE id = ?";
+		List<String> descriptions = jdbcTemplate.queryForList(sql, String.class, taskId);
+		return descriptions.isEmpty() ? null : descriptions.get(0);
+	}
+
+	public int countAssignedUsers(int taskId) {
+		String sql = "SELECT COUNT(*) FROM event_task_assignments WHERE task_id = ?";
+		Integer count = jdbcTemplate.queryForObject(sql, Integer.class, taskId);
+		return count != null ? count : 0;
+	}
+
 	public boolean assignUserToTask(int taskId, int userId) {
 		String sql = "INSERT INTO event_task_assignments (task_id, user_id) VALUES (?, ?)";
 		try {
@@ -3,9 +3,11 @@ package de.technikteam.dao;
 import de.technikteam.model.File;
 import de.technikteam.model.FileCategory;
 import de.technikteam.model.User;
+import de.technikteam.service.FileChangedEvent;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
@@ -25,10 +27,12 @@ import java.util.stream.Collectors;
 public class FileDAO {
 	private static final Logger logger = LogManager.getLogger(FileDAO.class);
 	private final JdbcTemplate jdbcTemplate;
+	private final ApplicationEventPublisher eventPublisher;
 
 	@Autowired
-	public FileDAO(JdbcTemplate jdbcTemplate) {
+	public FileDAO(JdbcTemplate jdbcTemplate, ApplicationEventPublisher eventPublisher) {
 		this.jdbcTemplate = jdbcTemplate;
+		this.eventPublisher = eventPublisher;
 	}
 
 	private final RowMapper<File> fileRowMapper = (rs, rowNum) -> {
@@ -40,6 +44,7 @@ public class FileDAO {
 		file.setCategoryId(rs.getObject("category_id", Integer.class));
 		file.setNeedsWarning(rs.getBoolean("needs_warning"));
 		file.setRequiredRole(rs.getString("required_role"));
+		file.setContentHash(rs.getString("content_hash"));
 
 		String categoryName = rs.getString("fc_category_name");
 		file.setCategoryName(categoryName != null ? categoryName : "Ohne Kategorie");
@@ -68,7 +73,7 @@ public class FileDAO {
 
 	public List<File> getAllFiles(User user) {
 		StringBuilder sql = new StringBuilder("SELECT f.id, f.filename, f.filepath, f.uploaded_at, f.category_id, "
-				+ "f.needs_warning, f.required_role, " + "fc.name AS fc_category_name " + "FROM files f "
+				+ "f.needs_warning, f.required_role, f.content_hash, " + "fc.name AS fc_category_name " + "FROM files f "
 				+ "LEFT JOIN file_categories fc ON f.category_id = fc.id ");
 
 		if (user != null && !user.hasAdminAccess()) {
@@ -90,7 +95,7 @@ public class FileDAO {
 
 	public List<File> getAllFilesForAdmin() {
 		String sql = "SELECT f.id, f.filename, f.filepath, f.uploaded_at, f.category_id, "
-				+ "f.needs_warning, f.required_role, " + "fc.name AS fc_category_name " + "FROM files f "
+				+ "f.needs_warning, f.required_role, f.content_hash, " + "fc.name AS fc_category_name " + "FROM files f "
 				+ "LEFT JOIN file_categories fc ON f.category_id = fc.id "
 				+ "ORDER BY CASE WHEN fc.name IS NULL THEN 1 ELSE 0 END, fc.name, f.filename";
 		logger.debug("Executing getAllFilesForAdmin SQL.");
@@ -105,7 +110,7 @@ public class FileDAO {
 	}
 
 	public int createFile(File file) {
-		String sql = "INSERT INTO files (filename, filepath, category_id, required_role, needs_warning) VALUES (?, ?, ?, ?, ?)";
+		String sql = "INSERT INTO files (filename, filepath, category_id, required_role, needs_warning, content_hash) VALUES (?, ?, ?, ?, ?, ?)";
 		KeyHolder keyHolder = new GeneratedKeyHolder();
 		try {
 			jdbcTemplate.update(connection -> {
@@ -119,6 +124,7 @@ public class FileDAO {
 				}
 				ps.setString(4, file.getRequiredRole());
 				ps.setBoolean(5, file.isNeedsWarning());
+				ps.setString(6, file.getContentHash());
 				return ps;
 			}, keyHolder);
 			return Objects.requireNonNull(keyHolder.getKey()).intValue();
@@ -129,10 +135,12 @@ public class FileDAO {
 	}
 
 	public boolean updateFile(File file) {
-		String sql = "UPDATE files SET filename = ?, filepath = ?, category_id = ?, required_role = ?, needs_warning = ?, uploaded_at = CURRENT_TIMESTAMP WHERE id = ?";
+		String sql = "UPDATE files SET filename = ?, filepath = ?, category_id = ?, required_role = ?, needs_warning = ?, content_hash = ?, uploaded_at = CURRENT_TIMESTAMP WHERE id = ?";
 		try {
-			return jdbcTemplate.update(sql, file.getFilename(), file.getFilepath(), file.getCategoryId(),
-					file.getRequiredRole(), file.isNeedsWarning(), file.getId()) > 0;
+			boolean updated = jdbcTemplate.update(sql, file.getFilename(), file.getFilepath(), file.getCategoryId(),
+					file.getRequiredRole(), file.isNeedsWarning(), file.getContentHash(), file.getId()) > 0;
+			eventPublisher.publishEvent(FileChangedEvent.file(file.getId()));
+			return updated;
 		} catch (Exception e) {
 			logger.error("Error updating file record for ID {}", file.getId(), e);
 			return false;
@@ -142,7 +150,9 @@ public class FileDAO {
 	public boolean renameFile(int fileId, String newName) {
 		String sql = "UPDATE files SET filename = ? WHERE id = ?";
 		try {
-			return jdbcTemplate.update(sql, newName, fileId) > 0;
+			boolean renamed = jdbcTemplate.update(sql, newName, fileId) > 0;
+			eventPublisher.publishEvent(FileChangedEvent.file(fileId));
+			return renamed;
 		} catch (Exception e) {
 			logger.error("Error renaming file ID {}", fileId, e);
 			return false;
@@ -152,13 +162,27 @@ public class FileDAO {
 	public boolean touchFileRecord(int fileId) {
 		String sql = "UPDATE files SET uploaded_at = CURRENT_TIMESTAMP WHERE id = ?";
 		try {
-			return jdbcTemplate.update(sql, fileId) > 0;
+			boolean touched = jdbcTemplate.update(sql, fileId) > 0;
+			eventPublisher.publishEvent(FileChangedEvent.file(fileId));
+			return touched;
 		} catch (Exception e) {
 			logger.error("Error touching file record for ID {}", fileId, e);
 			return false;
 		}
 	}
 
+	public boolean updateFileBlob(int fileId, String filepath, String contentHash) {
+		String sql = "UPDATE files SET filepath = ?, content_hash = ?, uploaded_at = CURRENT_TIMESTAMP WHERE id = ?";
+		try {
+			boolean updated = jdbcTemplate.update(sql, filepath, contentHash, fileId) > 0;
+			eventPublisher.publishEvent(FileChangedEvent.file(fileId));
+			return updated;
+		} catch (Exception e) {
+			logger.error("Error updating stored content of file ID {}", fileId, e);
+			return false;
+		}
+	}
+
 	public boolean reassignFileToCategory(int fileId, int categoryId) {
 		String sql = "UPDATE files SET category_id = ? WHERE id = ?";
 		try {
@@ -187,7 +211,7 @@ public class FileDAO {
 
 	public File getFileById(int fileId) {
 		String sql = "SELECT f.id, f.filename, f.filepath, f.uploaded_at, f.category_id, "
-				+ "f.needs_warning, f.required_role, " + "fc.name AS fc_category_name " + "FROM files f "
+				+ "f.needs_warning, f.required_role, f.content_hash, " + "fc.name AS fc_category_name " + "FROM files f "
 				+ "LEFT JOIN file_categories fc ON f.category_id = fc.id WHERE f.id = ?";
 		try {
 			return jdbcTemplate.queryForObject(sql, fileRowMapper, fileId);
@@ -202,13 +226,71 @@ public class FileDAO {
 	public boolean deleteFile(int fileId) {
 		String sql = "DELETE FROM files WHERE id = ?";
 		try {
-			return jdbcTemplate.update(sql, fileId) > 0;
+			boolean deleted = jdbcTemplate.update(sql, fileId) > 0;
+			eventPublisher.publishEvent(FileChangedEvent.file(fileId));
+			return deleted;
 		} catch (Exception e) {
 			logger.error("Error while deleting file record with ID: {}", fileId, e);
 			return false;
 		}
 	}
 
+	/**
+	 * Returns the paths under which content with this digest is already stored.
+	 * The blob methods do not swallow errors, as a lost reference would
+	 * eventually delete a file that is still in use.
+	 */
+	public List<String> getBlobPaths(String contentHash) {
+		String sql = "SELECT filepath FROM file_blobs WHERE content_hash = ? AND ref_count > 0";
+		return jdbcTemplate.queryForList(sql, String.class, contentHash);
+	}
+
+	/**
+	 * Adds a reference to a stored blob, registering the blob on first use. The
+	 * row stays locked until the transaction ends, so the physical file cannot be
+	 * deleted in the meantime (see {@link #lockBlob(String)}).
+	 */
+	public void acquireBlob(String filepath, String contentHash, long sizeBytes) {
+		String sql = "INSERT INTO file_blobs (filepath, content_hash, size_bytes, ref_count) VALUES (?, ?, ?, 1) "
+				+ "ON DUPLICATE KEY UPDATE ref_count = ref_count + 1";
+		jdbcTemplate.update(sql, filepath, contentHash, sizeBytes);
+	}
+
+	/**
+	 * Drops a reference to a stored blob. The row is kept at a count of zero; it
+	 * is removed together with the physical file by {@link #deleteBlob(String)}.
+	 *
+	 * @return true if this was the last reference and the physical file may be
+	 *         deleted.
+	 */
+	public boolean releaseBlob(String filepath) {
+		if (jdbcTemplate.update("UPDATE file_blobs SET ref_count = ref_count - 1 WHERE filepath = ? AND ref_count > 0",
+				filepath) == 0) {
+			return false;
+		}
+		Integer refCount = jdbcTemplate.queryForObject("SELECT ref_count FROM file_blobs WHERE filepath = ?",
+				Integer.class, filepath);
+		return refCount != null && refCount == 0;
+	}
+
+	/**
+	 * Locks the blob row of a stored path until the transaction ends. Uploads of
+	 * the same content wait for the lock in {@link #acquireBlob}, so whether the
+	 * physical file may be deleted is decided under this lock.
+	 *
+	 * @return The current reference count, or null if the path has no blob row
+	 *         (files from before content addressing, or a rolled-back upload).
+	 */
+	public Integer lockBlob(String filepath) {
+		List<Integer> result = jdbcTemplate.queryForList(
+				"SELECT ref_count FROM file_blobs WHERE filepath = ? FOR UPDATE", Integer.class, filepath);
+		return result.isEmpty() ? null : result.get(0);
+	}
+
+	public void deleteBlob(String filepath) {
+		jdbcTemplate.update("DELETE FROM file_blobs WHERE filepath = ? AND ref_count = 0", filepath);
+	}
+
 	public boolean createCategory(String categoryName) {
 		String sql = "INSERT INTO file_categories (name) VALUES (?)";
 		try {
@@ -1,9 +1,11 @@
 package de.technikteam.dao;
 
 import de.technikteam.model.MeetingAttendance;
+import de.technikteam.service.TrainingRecordsChangedEvent;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Repository;
 
@@ -13,10 +15,12 @@ import java.util.List;
 public class MeetingAttendanceDAO {
 	private static final Logger logger = LogManager.getLogger(MeetingAttendanceDAO.class);
 	private final JdbcTemplate jdbcTemplate;
+	private final ApplicationEventPublisher eventPublisher;
 
 	@Autowired
-	public MeetingAttendanceDAO(JdbcTemplate jdbcTemplate) {
+	public MeetingAttendanceDAO(JdbcTemplate jdbcTemplate, ApplicationEventPublisher eventPublisher) {
 		this.jdbcTemplate = jdbcTemplate;
+		this.eventPublisher = eventPublisher;
 	}
 
 	/**
@@ -27,6 +31,7 @@ public class MeetingAttendanceDAO {
 		String sql = "INSERT INTO meeting_attendance (user_id, meeting_id, attended, remarks) VALUES (?, ?, ?, ?) ON DUPLICATE KEY UPDATE attended = VALUES(attended), remarks = VALUES(remarks)";
 		try {
 			jdbcTemplate.update(sql, userId, meetingId, attended, remarks);
+			eventPublisher.publishEvent(new TrainingRecordsChangedEvent());
 			return true;
 		} catch (Exception e) {
 			logger.error("SQL error setting attendance for user {} at meeting {}", userId, meetingId, e);
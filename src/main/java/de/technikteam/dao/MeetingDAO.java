@@ -1,10 +1,14 @@
 package de.technikteam.dao;
 
 import de.technikteam.model.Meeting;
+import de.technikteam.model.SearchHit;
 import de.technikteam.model.User;
+import de.technikteam.service.CalendarChangedEvent;
+import de.technikteam.service.TrainingRecordsChangedEvent;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
@@ -20,10 +24,12 @@ import java.util.Objects;
 public class MeetingDAO {
 	private static final Logger logger = LogManager.getLogger(MeetingDAO.class);
 	private final JdbcTemplate jdbcTemplate;
+	private final ApplicationEventPublisher eventPublisher;
 
 	@Autowired
-	public MeetingDAO(JdbcTemplate jdbcTemplate) {
+	public MeetingDAO(JdbcTemplate jdbcTemplate, ApplicationEventPublisher eventPublisher) {
 		this.jdbcTemplate = jdbcTemplate;
+		this.eventPublisher = eventPublisher;
 	}
 
 	private final RowMapper<Meeting> meetingRowMapper = (rs, rowNum) -> {
@@ -89,6 +95,7 @@ public class MeetingDAO {
 				}
 				return ps;
 			}, keyHolder);
+			eventPublisher.publishEvent(new CalendarChangedEvent());
 			return Objects.requireNonNull(keyHolder.getKey()).intValue();
 		} catch (Exception e) {
 			logger.error("Error creating meeting: {}", meeting.getName(), e);
@@ -123,16 +130,40 @@ public class MeetingDAO {
 		}
 	}
 
+	/**
+	 * Loads the meetings of all courses with their participant and waitlist
+	 * counts in a single query, ordered by course and date.
+	 */
+	public List<Meeting> getAllMeetingsWithCounts() {
+		String sql = "SELECT m.*, c.name as parent_course_name, u.username as leader_username, COALESCE(pc.participant_count, 0) as participant_count, COALESCE(wc.waitlist_count, 0) as waitlist_count FROM meetings m JOIN courses c ON m.course_id = c.id LEFT JOIN users u ON m.leader_user_id = u.id "
+				+ "LEFT JOIN (SELECT meeting_id, COUNT(*) as participant_count FROM meeting_attendance WHERE attended = 1 GROUP BY meeting_id) pc ON pc.meeting_id = m.id "
+				+ "LEFT JOIN (SELECT meeting_id, COUNT(*) as waitlist_count FROM meeting_waitlist GROUP BY meeting_id) wc ON wc.meeting_id = m.id "
+				+ "ORDER BY m.course_id, m.meeting_datetime ASC";
+		try {
+			return jdbcTemplate.query(sql, (rs, rowNum) -> {
+				Meeting meeting = meetingRowMapper.mapRow(rs, rowNum);
+				meeting.setParticipantCount(rs.getInt("participant_count"));
+				meeting.setWaitlistCount(rs.getInt("waitlist_count"));
+				return meeting;
+			});
+		} catch (Exception e) {
+			logger.error("Error fetching meetings for all courses.", e);
+			return List.of();
+		}
+	}
+
 	public boolean updateMeeting(Meeting meeting) {
 		String sql = "UPDATE meetings SET name = ?, meeting_datetime = ?, end_datetime = ?, leader_user_id = ?, description = ?, location = ?, parent_meeting_id = ?, max_participants = ?, signup_deadline = ? WHERE id = ?";
 		try {
-			return jdbcTemplate.update(sql, meeting.getName(), Timestamp.valueOf(meeting.getMeetingDateTime()),
+			boolean updated = jdbcTemplate.update(sql, meeting.getName(), Timestamp.valueOf(meeting.getMeetingDateTime()),
 					meeting.getEndDateTime() != null ? Timestamp.valueOf(meeting.getEndDateTime()) : null,
 					meeting.getLeaderUserId() > 0 ? meeting.getLeaderUserId() : null, meeting.getDescription(),
 					meeting.getLocation(), meeting.getParentMeetingId() > 0 ? meeting.getParentMeetingId() : null,
 					meeting.getMaxParticipants(),
 					meeting.getSignupDeadline() != null ? Timestamp.valueOf(meeting.getSignupDeadline()) : null,
 					meeting.getId()) > 0;
+			eventPublisher.publishEvent(new CalendarChangedEvent());
+			return updated;
 		} catch (Exception e) {
 			logger.error("Error updating meeting ID: {}", meeting.getId(), e);
 			return false;
@@ -144,7 +175,10 @@ public class MeetingDAO {
 		try {
 			jdbcTemplate.update("DELETE FROM meeting_attendance WHERE meeting_id = ?", meetingId);
 			jdbcTemplate.update("DELETE FROM meeting_waitlist WHERE meeting_id = ?", meetingId);
-			return jdbcTemplate.update(sql, meetingId) > 0;
+			boolean deleted = jdbcTemplate.update(sql, meetingId) > 0;
+			eventPublisher.publishEvent(new TrainingRecordsChangedEvent());
+			eventPublisher.publishEvent(new CalendarChangedEvent());
+			return deleted;
 		} catch (Exception e) {
 			logger.error("Error deleting meeting ID: {}", meetingId, e);
 			return false;
@@ -170,6 +204,21 @@ public class MeetingDAO {
 		}
 	}
 
+	public List<Meeting> getSignedUpMeetingsForUser(int userId, int limit) {
+		String sql = "SELECT m.*, c.name as parent_course_name, u.username as leader_username, (SELECT COUNT(*) FROM meeting_attendance ma_count WHERE ma_count.meeting_id = m.id AND ma_count.attended = 1) as participant_count FROM meetings m JOIN meeting_attendance ma ON m.id = ma.meeting_id AND ma.user_id = ? AND ma.attended = 1 JOIN courses c ON m.course_id = c.id LEFT JOIN users u ON m.leader_user_id = u.id WHERE m.meeting_datetime > NOW() ORDER BY m.meeting_datetime ASC LIMIT ?";
+		try {
+			return jdbcTemplate.query(sql, (rs, rowNum) -> {
+				Meeting meeting = meetingRowMapper.mapRow(rs, rowNum);
+				meeting.setParticipantCount(rs.getInt("participant_count"));
+				meeting.setUserAttendanceStatus("ANGEMELDET");
+				return meeting;
+			}, userId, limit);
+		} catch (Exception e) {
+			logger.error("Error fetching signed-up meetings for user {}", userId, e);
+			return List.of();
+		}
+	}
+
 	public List<Meeting> getAllUpcomingMeetings() {
 		String sql = "SELECT m.*, c.name as parent_course_name, u.username as leader_username FROM meetings m JOIN courses c ON m.course_id = c.id LEFT JOIN users u ON m.leader_user_id = u.id WHERE m.meeting_datetime >= NOW() - INTERVAL 1 DAY ORDER BY m.meeting_datetime ASC";
 		try {
@@ -202,6 +251,27 @@ public class MeetingDAO {
 		}
 	}
 
+	/**
+	 * Ranked search through the FULLTEXT indexes on the meeting and its course
+	 * name. A hit in either contributes to the score.
+	 *
+	 * @param booleanQuery An expression built by {@link de.technikteam.util.FullTextQuery}.
+	 */
+	public List<SearchHit<Meeting>> searchFullText(String booleanQuery, int limit) {
+		String sql = "SELECT m.*, c.name as parent_course_name, u.username as leader_username, "
+				+ "MATCH(m.name, m.description) AGAINST (? IN BOOLEAN MODE) + MATCH(c.name) AGAINST (? IN BOOLEAN MODE) AS score "
+				+ "FROM meetings m JOIN courses c ON m.course_id = c.id LEFT JOIN users u ON m.leader_user_id = u.id "
+				+ "WHERE MATCH(m.name, m.description) AGAINST (? IN BOOLEAN MODE) OR MATCH(c.name) AGAINST (? IN BOOLEAN MODE) "
+				+ "ORDER BY score DESC, m.meeting_datetime DESC LIMIT ?";
+		try {
+			return jdbcTemplate.query(sql, (rs, rowNum) -> new SearchHit<>(meetingRowMapper.mapRow(rs, rowNum),
+					rs.getDouble("score")), booleanQuery, booleanQuery, booleanQuery, booleanQuery, limit);
+		} catch (Exception e) {
+			logger.error("Error in full-text search of meetings for '{}'", booleanQuery, e);
+			return List.of();
+		}
+	}
+
 	public List<User> getEnrolledUsersForMeeting(int meetingId) {
 		String sql = "SELECT u.id, u.username FROM users u JOIN meeting_attendance ma ON u.id = ma.user_id WHERE ma.meeting_id = ? AND ma.attended = 1 ORDER BY u.username";
 		try {
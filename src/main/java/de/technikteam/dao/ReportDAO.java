@@ -10,6 +10,11 @@ import org.springframework.stereotype.Repository;
 import java.util.List;
 import java.util.Map;
 
+/**
+ * Read side of the admin reports. Event trends, participation rankings and
+ * inventory usage come from the rollup tables maintained by
+ * {@link ReportRollupDAO}, so their cost does not grow with the history.
+ */
 @Repository
 public class ReportDAO {
 	private static final Logger logger = LogManager.getLogger(ReportDAO.class);
@@ -47,10 +52,9 @@ public class ReportDAO {
 	}
 
 	public List<Map<String, Object>> getInventoryUsageFrequency() {
-		String sql = "SELECT si.name AS item_name, SUM(ABS(sl.quantity_change)) AS total_quantity_checked_out "
-				+ "FROM storage_items si " + "JOIN storage_log sl ON si.id = sl.item_id "
-				+ "WHERE sl.quantity_change < 0 " + "GROUP BY si.id, si.name "
-				+ "ORDER BY total_quantity_checked_out DESC";
+		String sql = "SELECT si.name AS item_name, r.quantity_checked_out AS total_quantity_checked_out "
+				+ "FROM report_item_usage r JOIN storage_items si ON si.id = r.item_id "
+				+ "WHERE r.quantity_checked_out > 0 ORDER BY r.quantity_checked_out DESC";
 		try {
 			return jdbcTemplate.query(sql, new ColumnMapRowMapper());
 		} catch (Exception e) {
@@ -71,9 +75,9 @@ public class ReportDAO {
 	}
 
 	public List<Map<String, Object>> getEventCountByMonth(int months) {
-		String sql = "SELECT DATE_FORMAT(event_datetime, '%Y-%m') AS month, COUNT(*) AS count " + "FROM events "
-				+ "WHERE event_datetime >= DATE_SUB(NOW(), INTERVAL ? MONTH) "
-				+ "GROUP BY month, YEAR(event_datetime), MONTH(event_datetime) " + "ORDER BY month ASC";
+		String sql = "SELECT month, event_count AS count FROM report_event_month "
+				+ "WHERE month >= DATE_FORMAT(DATE_SUB(NOW(), INTERVAL ? MONTH), '%Y-%m') AND event_count > 0 "
+				+ "ORDER BY month ASC";
 		try {
 			return jdbcTemplate.query(sql, new ColumnMapRowMapper(), months);
 		} catch (Exception e) {
@@ -83,9 +87,9 @@ public class ReportDAO {
 	}
 
 	public List<Map<String, Object>> getUserParticipationStats(int limit) {
-		String sql = "SELECT u.username, COUNT(ea.user_id) as participation_count " + "FROM event_assignments ea "
-				+ "JOIN users u ON ea.user_id = u.id " + "GROUP BY u.id, u.username "
-				+ "ORDER BY participation_count DESC " + "LIMIT ?";
+		String sql = "SELECT u.username, r.assignment_count AS participation_count FROM report_user_participation r "
+				+ "JOIN users u ON r.user_id = u.id WHERE r.assignment_count > 0 "
+				+ "ORDER BY r.assignment_count DESC LIMIT ?";
 		try {
 			return jdbcTemplate.query(sql, new ColumnMapRowMapper(), limit);
 		} catch (Exception e) {
@@ -0,0 +1,106 @@
+package de.technikteam.dao;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+/**
+ * Maintains the rollup tables the admin reports are read from (see
+ * {@link ReportDAO}). Event and assignment counts are adjusted by the writers
+ * in {@link EventDAO}; the item usage rollup is fed from the append-only
+ * {@code storage_log} by {@link #refreshItemUsage()}, which only reads the
+ * rows after its watermark. {@link #rebuildAll()} recomputes everything from
+ * scratch and corrects any drift, e.g. from changes made directly in the
+ * database.
+ */
+@Repository
+public class ReportRollupDAO {
+	private static final Logger logger = LogManager.getLogger(ReportRollupDAO.class);
+	private static final String ITEM_USAGE = "item_usage";
+	// Rows younger than this may still have uncommitted predecessors with lower IDs.
+	private static final int STORAGE_LOG_SETTLE_SECONDS = 60;
+
+	private final JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	public ReportRollupDAO(JdbcTemplate jdbcTemplate) {
+		this.jdbcTemplate = jdbcTemplate;
+	}
+
+	public void adjustEventMonth(LocalDateTime eventDateTime, int delta) {
+		if (eventDateTime == null || delta == 0) {
+			return;
+		}
+		String sql = "INSERT INTO report_event_month (month, event_count) VALUES (DATE_FORMAT(?, '%Y-%m'), ?) "
+				+ "ON DUPLICATE KEY UPDATE event_count = event_count + VALUES(event_count)";
+		jdbcTemplate.update(sql, Timestamp.valueOf(eventDateTime), delta);
+	}
+
+	public void adjustUserParticipation(Collection<Integer> userIds, int delta) {
+		if (userIds == null || userIds.isEmpty() || delta == 0) {
+			return;
+		}
+		String sql = "INSERT INTO report_user_participation (user_id, assignment_count) VALUES (?, ?) "
+				+ "ON DUPLICATE KEY UPDATE assignment_count = assignment_count + VALUES(assignment_count)";
+		jdbcTemplate.batchUpdate(sql, userIds, 100, (ps, userId) -> {
+			ps.setInt(1, userId);
+			ps.setInt(2, delta);
+		});
+	}
+
+	/**
+	 * Folds the storage log entries written since the last run into the item
+	 * usage rollup and advances the watermark, in one transaction.
+	 *
+	 * @return The ID of the last log entry processed, or 0 if there was nothing
+	 *         new.
+	 */
+	@Transactional
+	public long refreshItemUsage() {
+		Long watermark = jdbcTemplate.queryForObject(
+				"SELECT watermark FROM report_rollup_state WHERE name = ? FOR UPDATE", Long.class, ITEM_USAGE);
+		Long upTo = jdbcTemplate.queryForObject(
+				"SELECT MAX(id) FROM storage_log WHERE id > ? AND transaction_timestamp < NOW() - INTERVAL ? SECOND",
+				Long.class, watermark, STORAGE_LOG_SETTLE_SECONDS);
+		if (upTo == null) {
+			return 0;
+		}
+		String sql = "INSERT INTO report_item_usage (item_id, quantity_checked_out) "
+				+ "SELECT item_id, SUM(ABS(quantity_change)) FROM storage_log "
+				+ "WHERE id > ? AND id <= ? AND quantity_change < 0 GROUP BY item_id "
+				+ "ON DUPLICATE KEY UPDATE quantity_checked_out = quantity_checked_out + VALUES(quantity_checked_out)";
+		jdbcTemplate.update(sql, watermark, upTo);
+		jdbcTemplate.update("UPDATE report_rollup_state SET watermark = ? WHERE name = ?", upTo, ITEM_USAGE);
+		return upTo;
+	}
+
+	@Transactional
+	public void rebuildAll() {
+		jdbcTemplate.update("DELETE FROM report_event_month");
+		jdbcTemplate.update("INSERT INTO report_event_month (month, event_count) "
+				+ "SELECT DATE_FORMAT(event_datetime, '%Y-%m'), COUNT(*) FROM events "
+				+ "GROUP BY DATE_FORMAT(event_datetime, '%Y-%m')");
+
+		jdbcTemplate.update("DELETE FROM report_user_participation");
+		jdbcTemplate.update("INSERT INTO report_user_participation (user_id, assignment_count) "
+				+ "SELECT user_id, COUNT(*) FROM event_assignments GROUP BY user_id");
+
+		Long watermark = jdbcTemplate.queryForObject(
+				"SELECT COALESCE(MAX(id), 0) FROM storage_log WHERE transaction_timestamp < NOW() - INTERVAL ? SECOND",
+				Long.class, STORAGE_LOG_SETTLE_SECONDS);
+		jdbcTemplate.update("DELETE FROM report_item_usage");
+		jdbcTemplate.update("INSERT INTO report_item_usage (item_id, quantity_checked_out) "
+				+ "SELECT item_id, SUM(ABS(quantity_change)) FROM storage_log "
+				+ "WHERE id <= ? AND quantity_change < 0 GROUP BY item_id", watermark);
+		jdbcTemplate.update("INSERT INTO report_rollup_state (name, watermark) VALUES (?, ?) "
+				+ "ON DUPLICATE KEY UPDATE watermark = VALUES(watermark)", ITEM_USAGE, watermark);
+		logger.info("Report rollups rebuilt, item usage watermark at {}.", watermark);
+	}
+}
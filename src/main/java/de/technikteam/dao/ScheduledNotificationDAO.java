@@ -42,24 +42,82 @@ public class ScheduledNotificationDAO {
 		jdbcTemplate.update(sql, type, entityId);
 	}
 
-	public List<ScheduledNotification> findPendingNotifications() {
-		String sql = "SELECT * FROM scheduled_notifications WHERE status = 'PENDING' AND send_at <= NOW()";
+	/**
+	 * Claims pending notifications that are due within the given horizon and are
+	 * not leased by another scheduler instance. The claim is a single
+	 * conditional UPDATE, so concurrent instances never claim the same row; the
+	 * lease runs until the send time plus {@code leaseSeconds}, after which the
+	 * row can be claimed again if it has not been sent.
+	 *
+	 * @param claimToken     A token unique to this claim, stored in
+	 *                       {@code claimed_by}.
+	 * @param horizonSeconds How far ahead of their send time rows are claimed.
+	 * @param leaseSeconds   How long after the send time the claim is held.
+	 * @param limit          The maximum number of rows to claim.
+	 * @return The claimed notifications, ordered by send time.
+	 */
+	public List<ScheduledNotification> claimDueNotifications(String claimToken, int horizonSeconds, int leaseSeconds,
+			int limit) {
+		String claimSql = "UPDATE scheduled_notifications SET claimed_by = ?, "
+				+ "lease_until = GREATEST(send_at, NOW()) + INTERVAL ? SECOND "
+				+ "WHERE status = 'PENDING' AND send_at <= NOW() + INTERVAL ? SECOND "
+				+ "AND (lease_until IS NULL OR lease_until < NOW()) ORDER BY send_at LIMIT ?";
+		int claimed = jdbcTemplate.update(claimSql, claimToken, leaseSeconds, horizonSeconds, limit);
+		if (claimed == 0) {
+			return List.of();
+		}
+		String sql = "SELECT * FROM scheduled_notifications WHERE claimed_by = ? AND status = 'PENDING' ORDER BY send_at";
 		return jdbcTemplate.query(sql, (rs, rowNum) -> {
 			ScheduledNotification n = new ScheduledNotification();
 			n.setId(rs.getInt("id"));
 			n.setTargetUserId(rs.getInt("target_user_id"));
+			n.setNotificationType(rs.getString("notification_type"));
+			n.setRelatedEntityId(rs.getInt("related_entity_id"));
+			n.setSendAt(rs.getTimestamp("send_at").toLocalDateTime());
 			n.setTitle(rs.getString("title"));
 			n.setDescription(rs.getString("description"));
 			n.setUrl(rs.getString("url"));
+			n.setStatus(rs.getString("status"));
+			n.setClaimedBy(rs.getString("claimed_by"));
+			n.setAttempts(rs.getInt("attempts"));
 			return n;
-		});
+		}, claimToken);
+	}
+
+	/**
+	 * Marks a claimed notification as sent, provided the claim is still held.
+	 * The row may have been deleted or rescheduled in the meantime, or its lease
+	 * may have been taken over by another instance.
+	 *
+	 * @return true if this claim was still valid and the notification should be
+	 *         delivered.
+	 */
+	public boolean markAsSent(int id, String claimToken) {
+		String sql = "UPDATE scheduled_notifications SET status = 'SENT', claimed_by = NULL, lease_until = NULL, "
+				+ "attempts = attempts + 1 WHERE id = ? AND claimed_by = ? AND status = 'PENDING'";
+		return jdbcTemplate.update(sql, id, claimToken) > 0;
+	}
+
+	/**
+	 * Returns a notification whose delivery failed to the pending state, or
+	 * marks it as failed once it has been attempted {@code maxAttempts} times.
+	 */
+	public void markForRetry(int id, int maxAttempts) {
+		String sql = "UPDATE scheduled_notifications SET status = IF(attempts >= ?, 'ERROR', 'PENDING'), "
+				+ "claimed_by = NULL, lease_until = NULL WHERE id = ? AND status = 'SENT'";
+		jdbcTemplate.update(sql, maxAttempts, id);
 	}
 
-	public void markAsSent(List<Integer> ids) {
-		if (ids.isEmpty())
-			return;
-		String sql = "UPDATE scheduled_notifications SET status = 'SENT' WHERE id IN ("
-				+ ids.stream().map(String::valueOf).collect(java.util.stream.Collectors.joining(",")) + ")";
-		jdbcTemplate.update(sql);
+	/**
+	 * Gives up all unsent claims of a scheduler instance, so other instances can
+	 * pick them up without waiting for the leases to expire.
+	 *
+	 * @param claimTokenPrefix The prefix shared by all claim tokens of the
+	 *                         instance.
+	 */
+	public int releaseClaims(String claimTokenPrefix) {
+		String sql = "UPDATE scheduled_notifications SET claimed_by = NULL, lease_until = NULL "
+				+ "WHERE claimed_by LIKE ? AND status = 'PENDING'";
+		return jdbcTemplate.update(sql, claimTokenPrefix + "%");
 	}
-}
\ No newline at end of file
+}
@@ -1,7 +1,8 @@
 package de.technikteam.dao;
 
+import de.technikteam.model.SearchHit;
 import de.technikteam.model.StorageItem;
-import de.technikteam.util.DaoUtils;
+import de.technikteam.util.IndexedRowMapper;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -25,35 +26,36 @@ public class StorageDAO {
 		this.jdbcTemplate = jdbcTemplate;
 	}
 
-	private final RowMapper<StorageItem> storageItemRowMapper = (rs, rowNum) -> {
+	private final RowMapper<StorageItem> storageItemRowMapper = IndexedRowMapper.of((rs, columns) -> {
 		StorageItem item = new StorageItem();
-		item.setId(rs.getInt("id"));
-		item.setName(rs.getString("name"));
-		item.setLocation(rs.getString("location"));
-		item.setCabinet(rs.getString("cabinet"));
-		item.setCompartment(rs.getString("compartment"));
-		item.setQuantity(rs.getInt("quantity"));
-		item.setMaxQuantity(rs.getInt("max_quantity"));
-		item.setDefectiveQuantity(rs.getInt("defective_quantity"));
-		item.setDefectReason(rs.getString("defect_reason"));
-		item.setWeightKg(rs.getDouble("weight_kg"));
-		item.setPriceEur(rs.getDouble("price_eur"));
-		item.setImagePath(rs.getString("image_path"));
-		item.setCategory(rs.getString("category"));
-		item.setStatus(rs.getString("status"));
-		item.setCurrentHolderUserId(rs.getInt("current_holder_user_id"));
-		item.setAssignedEventId(rs.getInt("assigned_event_id"));
-		if (DaoUtils.hasColumn(rs, "holder_username")) {
-			item.setCurrentHolderUsername(rs.getString("holder_username"));
+		item.setId(rs.getInt(columns.indexOf("id")));
+		item.setName(rs.getString(columns.indexOf("name")));
+		item.setLocation(rs.getString(columns.indexOf("location")));
+		item.setCabinet(rs.getString(columns.indexOf("cabinet")));
+		item.setCompartment(rs.getString(columns.indexOf("compartment")));
+		item.setQuantity(rs.getInt(columns.indexOf("quantity")));
+		item.setMaxQuantity(rs.getInt(columns.indexOf("max_quantity")));
+		item.setDefectiveQuantity(rs.getInt(columns.indexOf("defective_quantity")));
+		item.setDefectReason(rs.getString(columns.indexOf("defect_reason")));
+		item.setWeightKg(rs.getDouble(columns.indexOf("weight_kg")));
+		item.setPriceEur(rs.getDouble(columns.indexOf("price_eur")));
+		item.setImagePath(rs.getString(columns.indexOf("image_path")));
+		item.setCategory(rs.getString(columns.indexOf("category")));
+		item.setStatus(rs.getString(columns.indexOf("status")));
+		item.setCurrentHolderUserId(rs.getInt(columns.indexOf("current_holder_user_id")));
+		item.setAssignedEventId(rs.getInt(columns.indexOf("assigned_event_id")));
+		item.setVersion(rs.getInt(columns.indexOf("version")));
+		if (columns.has("holder_username")) {
+			item.setCurrentHolderUsername(columns.getString(rs, "holder_username"));
 		}
-		if (DaoUtils.hasColumn(rs, "next_reservation_date") && rs.getTimestamp("next_reservation_date") != null) {
-			item.setNextReservationDate(rs.getTimestamp("next_reservation_date").toLocalDateTime());
+		if (columns.has("next_reservation_date")) {
+			item.setNextReservationDate(columns.getLocalDateTime(rs, "next_reservation_date"));
 		}
-		if (DaoUtils.hasColumn(rs, "last_transaction_info")) {
-			item.setLastTransactionInfo(rs.getString("last_transaction_info"));
+		if (columns.has("last_transaction_info")) {
+			item.setLastTransactionInfo(columns.getString(rs, "last_transaction_info"));
 		}
 		return item;
-	};
+	});
 
 	public Map<String, List<StorageItem>> getAllItemsGroupedByLocation() {
 		return getAllItems().stream()
@@ -111,19 +113,74 @@ public class StorageDAO {
 		}
 	}
 
-	public boolean updateItem(StorageItem item) {
-		String sql = "UPDATE storage_items SET name=?, location=?, cabinet=?, compartment=?, quantity=?, max_quantity=?, defective_quantity=?, defect_reason=?, weight_kg=?, price_eur=?, image_path=?, category=?, status=?, current_holder_user_id=?, assigned_event_id=? WHERE id=?";
-		try {
-			Object holderId = item.getCurrentHolderUserId() > 0 ? item.getCurrentHolderUserId() : null;
-			Object eventId = item.getAssignedEventId() > 0 ? item.getAssignedEventId() : null;
-			return jdbcTemplate.update(sql, item.getName(), item.getLocation(), item.getCabinet(),
-					item.getCompartment(), item.getQuantity(), item.getMaxQuantity(), item.getDefectiveQuantity(),
-					item.getDefectReason(), item.getWeightKg(), item.getPriceEur(), item.getImagePath(),
-					item.getCategory(), item.getStatus(), holderId, eventId, item.getId()) > 0;
-		} catch (Exception e) {
-			logger.error("Error updating storage item with ID: {}", item.getId(), e);
-			return false;
-		}
+	/**
+	 * Updates the descriptive fields and the total quantity of an item, but only
+	 * if the row still has the expected version. Defect counts, status and holder
+	 * are maintained by the quantity delta methods below and are not touched.
+	 *
+	 * @return false if the item does not exist or was changed concurrently.
+	 */
+	public boolean updateItemDetails(StorageItem item, int expectedVersion) {
+		String sql = "UPDATE storage_items SET name=?, location=?, cabinet=?, compartment=?, quantity=?, max_quantity=?, weight_kg=?, price_eur=?, image_path=?, category=?, version = version + 1 WHERE id=? AND version=?";
+		return jdbcTemplate.update(sql, item.getName(), item.getLocation(), item.getCabinet(), item.getCompartment(),
+				item.getQuantity(), item.getMaxQuantity(), item.getWeightKg(), item.getPriceEur(),
+				item.getImagePath(), item.getCategory(), item.getId(), expectedVersion) > 0;
+	}
+
+	/**
+	 * Atomically removes {@code quantity} non-defective units and hands the item
+	 * to a user.
+	 *
+	 * @return false if the item does not exist or not enough units are available.
+	 */
+	public boolean checkOut(int itemId, int quantity, int holderUserId, Integer eventId) {
+		String sql = "UPDATE storage_items SET quantity = quantity - ?, status = 'CHECKED_OUT', current_holder_user_id = ?, assigned_event_id = ?, version = version + 1 WHERE id = ? AND quantity - defective_quantity >= ?";
+		Object eventIdObj = eventId != null && eventId > 0 ? eventId : null;
+		return jdbcTemplate.update(sql, quantity, holderUserId, eventIdObj, itemId, quantity) > 0;
+	}
+
+	/**
+	 * Atomically returns {@code quantity} units. Once the item is full again, it
+	 * goes back to storage and loses its holder.
+	 *
+	 * @return false if the item does not exist or there is not enough room.
+	 */
+	public boolean checkIn(int itemId, int quantity) {
+		// The state columns are assigned before quantity, so they see the old value.
+		String sql = "UPDATE storage_items SET "
+				+ "status = IF(quantity + ? >= max_quantity, 'IN_STORAGE', status), "
+				+ "current_holder_user_id = IF(quantity + ? >= max_quantity, NULL, current_holder_user_id), "
+				+ "assigned_event_id = IF(quantity + ? >= max_quantity, NULL, assigned_event_id), "
+				+ "quantity = quantity + ?, version = version + 1 "
+				+ "WHERE id = ? AND (max_quantity <= 0 OR quantity + ? <= max_quantity)";
+		return jdbcTemplate.update(sql, quantity, quantity, quantity, quantity, itemId, quantity) > 0;
+	}
+
+	/**
+	 * Atomically applies deltas to the total and the defective quantity. The
+	 * update only happens if both stay non-negative and the defective units do
+	 * not exceed the total.
+	 *
+	 * @return false if the item does not exist or the result would be invalid.
+	 */
+	public boolean adjustQuantities(int itemId, int quantityDelta, int defectiveDelta) {
+		String sql = "UPDATE storage_items SET quantity = quantity + ?, defective_quantity = defective_quantity + ?, version = version + 1 "
+				+ "WHERE id = ? AND quantity + ? >= 0 AND defective_quantity + ? >= 0 AND defective_quantity + ? <= quantity + ?";
+		return jdbcTemplate.update(sql, quantityDelta, defectiveDelta, itemId, quantityDelta, defectiveDelta,
+				defectiveDelta, quantityDelta) > 0;
+	}
+
+	public boolean updateDefectReason(int itemId, String reason) {
+		String sql = "UPDATE storage_items SET defect_reason = ?, version = version + 1 WHERE id = ?";
+		return jdbcTemplate.update(sql, reason, itemId) > 0;
+	}
+
+	/**
+	 * Appends a reported defect to the existing reason instead of replacing it.
+	 */
+	public boolean appendDefectReason(int itemId, String reportDescription) {
+		String sql = "UPDATE storage_items SET defect_reason = IF(defect_reason IS NULL OR TRIM(defect_reason) = '', ?, CONCAT(defect_reason, ' | Gemeldet: ', ?)), version = version + 1 WHERE id = ?";
+		return jdbcTemplate.update(sql, reportDescription, reportDescription, itemId) > 0;
 	}
 
 	public boolean deleteItem(int itemId) {
@@ -169,4 +226,20 @@ public class StorageDAO {
 			return List.of();
 		}
 	}
+
+	/**
+	 * Ranked search through the FULLTEXT index on name and storage location.
+	 *
+	 * @param booleanQuery An expression built by {@link de.technikteam.util.FullTextQuery}.
+	 */
+	public List<SearchHit<StorageItem>> searchFullText(String booleanQuery, int limit) {
+		String sql = "SELECT *, MATCH(name, location, cabinet, compartment) AGAINST (? IN BOOLEAN MODE) AS score FROM storage_items WHERE MATCH(name, location, cabinet, compartment) AGAINST (? IN BOOLEAN MODE) ORDER BY score DESC, name ASC LIMIT ?";
+		try {
+			return jdbcTemplate.query(sql, (rs, rowNum) -> new SearchHit<>(storageItemRowMapper.mapRow(rs, rowNum),
+					rs.getDouble("score")), booleanQuery, booleanQuery, limit);
+		} catch (Exception e) {
+			logger.error("Error in full-text search of storage items for '{}'", booleanQuery, e);
+			return List.of();
+		}
+	}
 }
\ No newline at end of file
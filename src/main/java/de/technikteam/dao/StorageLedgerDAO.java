@@ -0,0 +1,38 @@
+package de.technikteam.dao;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Append-only ledger of all quantity changes of storage items. Entries are
+ * written in the same transaction as the delta they describe; failures are not
+ * swallowed so that the delta is rolled back with them. Deleting an item keeps
+ * its entries, with the item name but without the item reference.
+ */
+@Repository
+public class StorageLedgerDAO {
+	public static final String CHECKOUT = "CHECKOUT";
+	public static final String CHECKIN = "CHECKIN";
+	public static final String DEFECT = "DEFECT";
+	public static final String UNREPAIRABLE = "UNREPAIRABLE";
+	public static final String REPAIR = "REPAIR";
+	public static final String DAMAGE_REPORT = "DAMAGE_REPORT";
+	public static final String CORRECTION = "CORRECTION";
+
+	private final JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	public StorageLedgerDAO(JdbcTemplate jdbcTemplate) {
+		this.jdbcTemplate = jdbcTemplate;
+	}
+
+	public void append(int itemId, int userId, String entryType, int quantityDelta, int defectiveDelta,
+			Integer eventId) {
+		// The item name is copied so the entry stays readable after the item is deleted.
+		String sql = "INSERT INTO storage_ledger (item_id, item_name, user_id, entry_type, quantity_delta, defective_delta, event_id) "
+				+ "SELECT id, name, ?, ?, ?, ?, ? FROM storage_items WHERE id = ?";
+		jdbcTemplate.update(sql, userId > 0 ? userId : null, entryType, quantityDelta, defectiveDelta,
+				eventId != null && eventId > 0 ? eventId : null, itemId);
+	}
+}
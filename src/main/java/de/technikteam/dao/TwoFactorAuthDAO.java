@@ -2,10 +2,12 @@ package de.technikteam.dao;
 
 import de.technikteam.model.UserBackupCode;
 import de.technikteam.model.dto.LoginIpInfo;
+import de.technikteam.security.UserChangedEvent;
 import de.technikteam.util.IpUtils;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Repository;
@@ -20,10 +22,12 @@ public class TwoFactorAuthDAO {
 
     private static final Logger logger = LogManager.getLogger(TwoFactorAuthDAO.class);
     private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Autowired
-    public TwoFactorAuthDAO(JdbcTemplate jdbcTemplate) {
+    public TwoFactorAuthDAO(JdbcTemplate jdbcTemplate, ApplicationEventPublisher eventPublisher) {
         this.jdbcTemplate = jdbcTemplate;
+        this.eventPublisher = eventPublisher;
     }
 
     public boolean isIpKnownForUser(int userId, String ipAddress) {
@@ -81,17 +85,20 @@ public class TwoFactorAuthDAO {
     @Transactional
     public void setTotpSecretForUser(int userId, String encryptedSecret) {
         jdbcTemplate.update("UPDATE users SET totp_secret = ? WHERE id = ?", encryptedSecret, userId);
+        eventPublisher.publishEvent(UserChangedEvent.forUser(userId));
     }
 
     @Transactional
     public void enableTotpForUser(int userId, String encryptedSecret) {
         jdbcTemplate.update("UPDATE users SET is_totp_enabled = TRUE, totp_secret = ? WHERE id = ?", encryptedSecret, userId);
+        eventPublisher.publishEvent(UserChangedEvent.forUser(userId));
     }
 
     @Transactional
     public void disableTotpForUser(int userId) {
         jdbcTemplate.update("UPDATE users SET is_totp_enabled = FALSE, totp_secret = NULL WHERE id = ?", userId);
         jdbcTemplate.update("DELETE FROM user_backup_codes WHERE user_id = ?", userId);
+        eventPublisher.publishEvent(UserChangedEvent.forUser(userId));
     }
 
     @Transactional
@@ -0,0 +1,84 @@
+package de.technikteam.dao;
+
+import de.technikteam.model.UploadSession;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public class UploadSessionDAO {
+
+	private final JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	public UploadSessionDAO(JdbcTemplate jdbcTemplate) {
+		this.jdbcTemplate = jdbcTemplate;
+	}
+
+	private final RowMapper<UploadSession> rowMapper = (rs, rowNum) -> {
+		UploadSession session = new UploadSession();
+		session.setId(rs.getString("id"));
+		session.setUserId(rs.getInt("user_id"));
+		session.setFilename(rs.getString("filename"));
+		session.setContentType(rs.getString("content_type"));
+		session.setTotalSize(rs.getLong("total_size"));
+		session.setChunkSize(rs.getInt("chunk_size"));
+		session.setExpectedHash(rs.getString("expected_hash"));
+		session.setCategoryId(rs.getObject("category_id", Integer.class));
+		session.setRequiredRole(rs.getString("required_role"));
+		session.setCreatedAt(rs.getTimestamp("created_at").toLocalDateTime());
+		session.setExpiresAt(rs.getTimestamp("expires_at").toLocalDateTime());
+		return session;
+	};
+
+	public void create(UploadSession session) {
+		String sql = "INSERT INTO upload_sessions (id, user_id, filename, content_type, total_size, chunk_size, expected_hash, category_id, required_role, expires_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+		jdbcTemplate.update(sql, session.getId(), session.getUserId(), session.getFilename(), session.getContentType(),
+				session.getTotalSize(), session.getChunkSize(), session.getExpectedHash(), session.getCategoryId(),
+				session.getRequiredRole(), Timestamp.valueOf(session.getExpiresAt()));
+	}
+
+	public Optional<UploadSession> findById(String id) {
+		String sql = "SELECT * FROM upload_sessions WHERE id = ?";
+		try {
+			return Optional.ofNullable(jdbcTemplate.queryForObject(sql, rowMapper, id));
+		} catch (EmptyResultDataAccessException e) {
+			return Optional.empty();
+		}
+	}
+
+	/**
+	 * Records a chunk as received. Re-sending a chunk is harmless.
+	 */
+	public void markChunkReceived(String sessionId, int chunkIndex) {
+		String sql = "INSERT IGNORE INTO upload_session_chunks (session_id, chunk_index) VALUES (?, ?)";
+		jdbcTemplate.update(sql, sessionId, chunkIndex);
+	}
+
+	public List<Integer> getReceivedChunks(String sessionId) {
+		String sql = "SELECT chunk_index FROM upload_session_chunks WHERE session_id = ? ORDER BY chunk_index";
+		return jdbcTemplate.queryForList(sql, Integer.class, sessionId);
+	}
+
+	public int countReceivedChunks(String sessionId) {
+		String sql = "SELECT COUNT(*) FROM upload_session_chunks WHERE session_id = ?";
+		Integer count = jdbcTemplate.queryForObject(sql, Integer.class, sessionId);
+		return count != null ? count : 0;
+	}
+
+	public List<String> findExpiredIds() {
+		String sql = "SELECT id FROM upload_sessions WHERE expires_at < NOW()";
+		return jdbcTemplate.queryForList(sql, String.class);
+	}
+
+	public boolean delete(String id) {
+		String sql = "DELETE FROM upload_sessions WHERE id = ?";
+		return jdbcTemplate.update(sql, id) > 0;
+	}
+}
@@ -1,15 +1,20 @@
 package de.technikteam.dao;
 
 import de.technikteam.model.User;
+import de.technikteam.security.UserChangedEvent;
 import de.technikteam.security.UserSuspendedException;
 import de.technikteam.service.LoginAttemptService;
-import de.technikteam.util.DaoUtils;
+import de.technikteam.util.IndexedRowMapper;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.jdbc.support.GeneratedKeyHolder;
 import org.springframework.jdbc.support.KeyHolder;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
@@ -30,87 +35,50 @@ public class UserDAO {
 	private static final Logger logger = LogManager.getLogger(UserDAO.class);
 	private final BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
 	private final JdbcTemplate jdbcTemplate;
+	private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
 	private final UserNotificationDAO userNotificationDAO;
 	private final LoginAttemptService loginAttemptService;
+	private final ApplicationEventPublisher eventPublisher;
 
 	@Autowired
 	public UserDAO(JdbcTemplate jdbcTemplate, UserNotificationDAO userNotificationDAO,
-			LoginAttemptService loginAttemptService) {
+			LoginAttemptService loginAttemptService, ApplicationEventPublisher eventPublisher) {
 		this.jdbcTemplate = jdbcTemplate;
+		this.namedParameterJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
 		this.userNotificationDAO = userNotificationDAO;
 		this.loginAttemptService = loginAttemptService;
+		this.eventPublisher = eventPublisher;
 	}
 
-	private final RowMapper<User> userRowMapper = (resultSet, rowNum) -> {
+	private final RowMapper<User> userRowMapper = IndexedRowMapper.of((resultSet, columns) -> {
 		User user = new User();
-		user.setId(resultSet.getInt("id"));
-		user.setUsername(resultSet.getString("username"));
-		user.setRoleId(resultSet.getInt("role_id"));
-		user.setChatColor(resultSet.getString("chat_color"));
-		user.setPasswordHash(resultSet.getString("password_hash"));
-		if (DaoUtils.hasColumn(resultSet, "theme")) {
-			user.setTheme(resultSet.getString("theme"));
-		}
-		if (DaoUtils.hasColumn(resultSet, "fcm_token")) {
-			user.setFcmToken(resultSet.getString("fcm_token"));
-		}
-		if (DaoUtils.hasColumn(resultSet, "is_totp_enabled")) {
-			user.setTotpEnabled(resultSet.getBoolean("is_totp_enabled"));
-		}
-		if (DaoUtils.hasColumn(resultSet, "totp_secret")) {
-			user.setTotpSecret(resultSet.getString("totp_secret"));
-		}
-		if (DaoUtils.hasColumn(resultSet, "profile_icon_class")) {
-			user.setProfileIconClass(resultSet.getString("profile_icon_class"));
-		}
-		if (DaoUtils.hasColumn(resultSet, "admin_notes")) {
-			user.setAdminNotes(resultSet.getString("admin_notes"));
-		}
-		if (DaoUtils.hasColumn(resultSet, "dashboard_layout")) {
-			user.setDashboardLayout(resultSet.getString("dashboard_layout"));
-		}
-        if (DaoUtils.hasColumn(resultSet, "verification_token")) {
-            user.setVerificationToken(resultSet.getString("verification_token"));
-        }
-		if (DaoUtils.hasColumn(resultSet, "role_name")) {
-			user.setRoleName(resultSet.getString("role_name"));
-		}
-		if (DaoUtils.hasColumn(resultSet, "created_at") && resultSet.getTimestamp("created_at") != null) {
-			user.setCreatedAt(resultSet.getTimestamp("created_at").toLocalDateTime());
-		}
-		if (DaoUtils.hasColumn(resultSet, "class_year")) {
-			user.setClassYear(resultSet.getInt("class_year"));
-		}
-		if (DaoUtils.hasColumn(resultSet, "class_name")) {
-			user.setClassName(resultSet.getString("class_name"));
-		}
-		if (DaoUtils.hasColumn(resultSet, "email")) {
-			user.setEmail(resultSet.getString("email"));
-		}
-		if (DaoUtils.hasColumn(resultSet, "status")) {
-			user.setStatus(resultSet.getString("status"));
-		}
-		if (DaoUtils.hasColumn(resultSet, "suspended_until") && resultSet.getTimestamp("suspended_until") != null) {
-			user.setSuspendedUntil(resultSet.getTimestamp("suspended_until").toLocalDateTime());
-		}
-		if (DaoUtils.hasColumn(resultSet, "suspended_reason")) {
-			user.setSuspendedReason(resultSet.getString("suspended_reason"));
-		}
-		if (DaoUtils.hasColumn(resultSet, "is_deleted")) {
-			user.setDeleted(resultSet.getBoolean("is_deleted"));
-		}
-		if (DaoUtils.hasColumn(resultSet, "deleted_at") && resultSet.getTimestamp("deleted_at") != null) {
-			user.setDeletedAt(resultSet.getTimestamp("deleted_at").toLocalDateTime());
-		}
-        if (DaoUtils.hasColumn(resultSet, "privacy_policy_version")) {
-            user.setPrivacyPolicyVersion(resultSet.getString("privacy_policy_version"));
-        }
-        if (DaoUtils.hasColumn(resultSet, "privacy_policy_accepted_at") && resultSet.getTimestamp("privacy_policy_accepted_at") != null) {
-            user.setPrivacyPolicyAcceptedAt(resultSet.getTimestamp("privacy_policy_accepted_at").toLocalDateTime());
-        }
-
+		user.setId(resultSet.getInt(columns.indexOf("id")));
+		user.setUsername(resultSet.getString(columns.indexOf("username")));
+		user.setRoleId(resultSet.getInt(columns.indexOf("role_id")));
+		user.setChatColor(resultSet.getString(columns.indexOf("chat_color")));
+		user.setPasswordHash(resultSet.getString(columns.indexOf("password_hash")));
+		user.setTheme(columns.getString(resultSet, "theme"));
+		user.setFcmToken(columns.getString(resultSet, "fcm_token"));
+		user.setTotpEnabled(columns.getBoolean(resultSet, "is_totp_enabled"));
+		user.setTotpSecret(columns.getString(resultSet, "totp_secret"));
+		user.setProfileIconClass(columns.getString(resultSet, "profile_icon_class"));
+		user.setAdminNotes(columns.getString(resultSet, "admin_notes"));
+		user.setDashboardLayout(columns.getString(resultSet, "dashboard_layout"));
+		user.setVerificationToken(columns.getString(resultSet, "verification_token"));
+		user.setRoleName(columns.getString(resultSet, "role_name"));
+		user.setCreatedAt(columns.getLocalDateTime(resultSet, "created_at"));
+		user.setClassYear(columns.getInt(resultSet, "class_year"));
+		user.setClassName(columns.getString(resultSet, "class_name"));
+		user.setEmail(columns.getString(resultSet, "email"));
+		user.setStatus(columns.getString(resultSet, "status"));
+		user.setSuspendedUntil(columns.getLocalDateTime(resultSet, "suspended_until"));
+		user.setSuspendedReason(columns.getString(resultSet, "suspended_reason"));
+		user.setDeleted(columns.getBoolean(resultSet, "is_deleted"));
+		user.setDeletedAt(columns.getLocalDateTime(resultSet, "deleted_at"));
+		user.setPrivacyPolicyVersion(columns.getString(resultSet, "privacy_policy_version"));
+		user.setPrivacyPolicyAcceptedAt(columns.getLocalDateTime(resultSet, "privacy_policy_accepted_at"));
 		return user;
-	};
+	});
 
 	public User validateUser(String username, String password) {
 		String sql = "SELECT u.*, r.role_name FROM users u LEFT JOIN roles r ON u.role_id = r.id WHERE u.username = ? AND u.is_deleted = FALSE";
@@ -207,6 +175,7 @@ public class UserDAO {
 						batchArgs);
 			}
 		}
+		publishUserChanged(userId);
 		return true;
 	}
 
@@ -240,9 +209,13 @@ public class UserDAO {
 	public boolean updateUser(User user) {
 		String sql = "UPDATE users SET username = ?, role_id = ?, class_year = ?, class_name = ?, email = ?, profile_icon_class = ?, admin_notes = ? WHERE id = ? AND is_deleted = FALSE";
 		try {
-			return jdbcTemplate.update(sql, user.getUsername(), user.getRoleId(), user.getClassYear(),
+			boolean updated = jdbcTemplate.update(sql, user.getUsername(), user.getRoleId(), user.getClassYear(),
 					user.getClassName(), user.getEmail(), user.getProfileIconClass(), user.getAdminNotes(),
 					user.getId()) > 0;
+			if (updated) {
+				publishUserChanged(user.getId());
+			}
+			return updated;
 		} catch (Exception e) {
 			logger.error("SQL error updating user with ID: {}", user.getId(), e);
 			return false;
@@ -252,7 +225,11 @@ public class UserDAO {
 	public boolean updateUserTheme(int userId, String theme) {
 		String sql = "UPDATE users SET theme = ? WHERE id = ?";
 		try {
-			return jdbcTemplate.update(sql, theme, userId) > 0;
+			boolean updated = jdbcTemplate.update(sql, theme, userId) > 0;
+			if (updated) {
+				publishUserChanged(userId);
+			}
+			return updated;
 		} catch (Exception e) {
 			logger.error("Error updating theme for user ID {}", userId, e);
 			return false;
@@ -262,7 +239,11 @@ public class UserDAO {
 	public boolean updateUserChatColor(int userId, String chatColor) {
 		String sql = "UPDATE users SET chat_color = ? WHERE id = ?";
 		try {
-			return jdbcTemplate.update(sql, chatColor, userId) > 0;
+			boolean updated = jdbcTemplate.update(sql, chatColor, userId) > 0;
+			if (updated) {
+				publishUserChanged(userId);
+			}
+			return updated;
 		} catch (Exception e) {
 			logger.error("Error updating chat color for user ID {}", userId, e);
 			return false;
@@ -272,7 +253,11 @@ public class UserDAO {
 	public boolean updateDashboardLayout(int userId, String layoutJson) {
 		String sql = "UPDATE users SET dashboard_layout = ? WHERE id = ?";
 		try {
-			return jdbcTemplate.update(sql, layoutJson, userId) > 0;
+			boolean updated = jdbcTemplate.update(sql, layoutJson, userId) > 0;
+			if (updated) {
+				publishUserChanged(userId);
+			}
+			return updated;
 		} catch (Exception e) {
 			logger.error("Error updating dashboard layout for user ID {}", userId, e);
 			return false;
@@ -282,17 +267,65 @@ public class UserDAO {
 	public boolean updateFcmToken(int userId, String fcmToken) {
 		String sql = "UPDATE users SET fcm_token = ? WHERE id = ?";
 		try {
-			return jdbcTemplate.update(sql, fcmToken, userId) > 0;
+			boolean updated = jdbcTemplate.update(sql, fcmToken, userId) > 0;
+			if (updated) {
+				publishUserChanged(userId);
+			}
+			return updated;
 		} catch (Exception e) {
 			logger.error("Error updating FCM token for user ID {}", userId, e);
 			return false;
 		}
 	}
 
+	/**
+	 * Loads the FCM tokens of many users with a single query. Users without a
+	 * token (or deleted users) are absent from the result.
+	 */
+	public Map<Integer, String> getFcmTokensForUsers(Collection<Integer> userIds) {
+		if (userIds.isEmpty()) {
+			return Map.of();
+		}
+		String sql = "SELECT id, fcm_token FROM users WHERE id IN (:ids) AND fcm_token IS NOT NULL AND is_deleted = FALSE";
+		MapSqlParameterSource parameters = new MapSqlParameterSource("ids", userIds);
+		Map<Integer, String> tokens = new HashMap<>();
+		try {
+			namedParameterJdbcTemplate.query(sql, parameters,
+					(RowCallbackHandler) rs -> tokens.put(rs.getInt("id"), rs.getString("fcm_token")));
+		} catch (Exception e) {
+			logger.error("Error fetching FCM tokens for {} users", userIds.size(), e);
+		}
+		return tokens;
+	}
+
+	/**
+	 * Resolves many usernames with one query, e.g. all @mentions of a message.
+	 * Unknown and deleted users are missing from the result.
+	 */
+	public Map<String, Integer> getUserIdsByUsernames(Collection<String> usernames) {
+		if (usernames.isEmpty()) {
+			return Map.of();
+		}
+		String sql = "SELECT id, username FROM users WHERE username IN (:usernames) AND is_deleted = FALSE";
+		MapSqlParameterSource parameters = new MapSqlParameterSource("usernames", usernames);
+		Map<String, Integer> ids = new HashMap<>();
+		try {
+			namedParameterJdbcTemplate.query(sql, parameters,
+					(RowCallbackHandler) rs -> ids.put(rs.getString("username"), rs.getInt("id")));
+		} catch (Exception e) {
+			logger.error("Error resolving {} usernames", usernames.size(), e);
+		}
+		return ids;
+	}
+
 	public boolean deleteUser(int userId) {
 		String sql = "UPDATE users SET is_deleted = TRUE, deleted_at = NOW() WHERE id = ?";
 		try {
-			return jdbcTemplate.update(sql, userId) > 0;
+			boolean updated = jdbcTemplate.update(sql, userId) > 0;
+			if (updated) {
+				publishUserChanged(userId);
+			}
+			return updated;
 		} catch (Exception e) {
 			logger.error("SQL error soft-deleting user with ID: {}", userId, e);
 			return false;
@@ -302,7 +335,11 @@ public class UserDAO {
 	public boolean undeleteUser(int userId) {
 		String sql = "UPDATE users SET is_deleted = FALSE, deleted_at = NULL WHERE id = ?";
 		try {
-			return jdbcTemplate.update(sql, userId) > 0;
+			boolean updated = jdbcTemplate.update(sql, userId) > 0;
+			if (updated) {
+				publishUserChanged(userId);
+			}
+			return updated;
 		} catch (Exception e) {
 			logger.error("SQL error un-deleting user with ID: {}", userId, e);
 			return false;
@@ -313,7 +350,11 @@ public class UserDAO {
 		String hashedPassword = passwordEncoder.encode(newPassword);
 		String sql = "UPDATE users SET password_hash = ? WHERE id = ?";
 		try {
-			return jdbcTemplate.update(sql, hashedPassword, userId) > 0;
+			boolean updated = jdbcTemplate.update(sql, hashedPassword, userId) > 0;
+			if (updated) {
+				publishUserChanged(userId);
+			}
+			return updated;
 		} catch (Exception e) {
 			logger.error("SQL error changing password for user ID: {}", userId, e);
 			return false;
@@ -409,6 +450,9 @@ public class UserDAO {
 		try {
 			Timestamp suspendedUntilTimestamp = (suspendedUntil != null) ? Timestamp.valueOf(suspendedUntil) : null;
 			int updated = jdbcTemplate.update(sql, suspendedUntilTimestamp, reason, userId);
+			if (updated > 0) {
+				publishUserChanged(userId);
+			}
 			return updated > 0;
 		} catch (Exception e) {
 			logger.error("Error suspending user id {}", userId, e);
@@ -420,6 +464,9 @@ public class UserDAO {
 		String sql = "UPDATE users SET status = 'ACTIVE', suspended_until = NULL, suspended_reason = NULL WHERE id = ?";
 		try {
 			int updated = jdbcTemplate.update(sql, userId);
+			if (updated > 0) {
+				publishUserChanged(userId);
+			}
 			return updated > 0;
 		} catch (Exception e) {
 			logger.error("Error unsuspending user id {}", userId, e);
@@ -453,10 +500,22 @@ public class UserDAO {
     public boolean acceptPrivacyPolicy(int userId, String version) {
         String sql = "UPDATE users SET privacy_policy_version = ?, privacy_policy_accepted_at = NOW() WHERE id = ?";
         try {
-            return jdbcTemplate.update(sql, version, userId) > 0;
+            boolean updated = jdbcTemplate.update(sql, version, userId) > 0;
+            if (updated) {
+                publishUserChanged(userId);
+            }
+            return updated;
         } catch (Exception e) {
             logger.error("Error accepting privacy policy for user {}", userId, e);
             return false;
         }
     }
-}
\ No newline at end of file
+
+	/**
+	 * Notifies listeners (e.g. the principal cache) that a user's row changed.
+	 * Listeners run after the surrounding transaction commits.
+	 */
+	public void publishUserChanged(int userId) {
+		eventPublisher.publishEvent(UserChangedEvent.forUser(userId));
+	}
+}
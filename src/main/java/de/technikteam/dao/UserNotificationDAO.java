@@ -6,6 +6,7 @@ import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -37,6 +38,20 @@ public class UserNotificationDAO {
 				notification.getLevel(), notification.getUrl());
 	}
 
+	/**
+	 * Persists the same notification for many users in one JDBC batch.
+	 */
+	public void createForUsers(Collection<Integer> userIds, String title, String description, String level,
+			String url) {
+		if (userIds.isEmpty()) {
+			return;
+		}
+		String sql = "INSERT INTO user_notifications (user_id, title, description, level, url) VALUES (?, ?, ?, ?, ?)";
+		List<Object[]> batchArgs = userIds.stream()
+				.map(userId -> new Object[] { userId, title, description, level, url }).toList();
+		jdbcTemplate.batchUpdate(sql, batchArgs);
+	}
+
 	public List<UserNotification> findByUser(int userId) {
 		String sql = "SELECT * FROM user_notifications WHERE user_id = ? ORDER BY created_at DESC";
 		return jdbcTemplate.query(sql, rowMapper, userId);
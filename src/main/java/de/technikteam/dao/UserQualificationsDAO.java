@@ -1,33 +1,46 @@
 package de.technikteam.dao;
 
 import de.technikteam.model.UserQualification;
-import de.technikteam.util.DaoUtils;
+import de.technikteam.service.TrainingRecordsChangedEvent;
+import de.technikteam.util.ColumnIndex;
+import de.technikteam.util.IndexedRowMapper;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Repository;
 
 import java.sql.Date;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.time.LocalDate;
+import java.util.BitSet;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Repository
 public class UserQualificationsDAO {
 	private static final Logger logger = LogManager.getLogger(UserQualificationsDAO.class);
 	private final JdbcTemplate jdbcTemplate;
+	private final ApplicationEventPublisher eventPublisher;
 
 	@Autowired
-	public UserQualificationsDAO(JdbcTemplate jdbcTemplate) {
+	public UserQualificationsDAO(JdbcTemplate jdbcTemplate, ApplicationEventPublisher eventPublisher) {
 		this.jdbcTemplate = jdbcTemplate;
+		this.eventPublisher = eventPublisher;
 	}
 
-	private UserQualification mapResultSetToUserQualification(ResultSet rs, int rowNum) throws SQLException {
+	private final RowMapper<UserQualification> userQualificationRowMapper = IndexedRowMapper
+			.of(this::mapResultSetToUserQualification);
+
+	private UserQualification mapResultSetToUserQualification(ResultSet rs, ColumnIndex columns) throws SQLException {
 		UserQualification uq = new UserQualification();
-		if (DaoUtils.hasColumn(rs, "user_id")) {
-			uq.setUserId(rs.getInt("user_id"));
+		if (columns.has("user_id")) {
+			uq.setUserId(columns.getInt(rs, "user_id"));
 		}
 		uq.setCourseId(rs.getInt("course_id"));
 		uq.setCourseName(rs.getString("name"));
@@ -43,7 +56,7 @@ public class UserQualificationsDAO {
 	public List<UserQualification> getQualificationsForUser(int userId) {
 		String sql = "SELECT uq.course_id, c.name, uq.status, uq.completion_date, uq.remarks FROM user_qualifications uq JOIN courses c ON uq.course_id = c.id WHERE uq.user_id = ?";
 		try {
-			return jdbcTemplate.query(sql, this::mapResultSetToUserQualification, userId);
+			return jdbcTemplate.query(sql, userQualificationRowMapper, userId);
 		} catch (Exception e) {
 			logger.error("SQL error fetching qualifications for user ID: {}", userId, e);
 			return List.of();
@@ -61,12 +74,29 @@ public class UserQualificationsDAO {
 		}
 	}
 
+	/**
+	 * Loads every passed course in one query, as a set of user ids per course ID.
+	 */
+	public Map<Integer, BitSet> getCompletedUsersByCourse() {
+		String sql = "SELECT user_id, course_id FROM user_qualifications WHERE status = 'BESTANDEN'";
+		Map<Integer, BitSet> completedUsersByCourse = new HashMap<>();
+		try {
+			jdbcTemplate.query(sql, (RowCallbackHandler) rs -> completedUsersByCourse
+					.computeIfAbsent(rs.getInt("course_id"), k -> new BitSet()).set(rs.getInt("user_id")));
+		} catch (Exception e) {
+			logger.error("Error fetching completed courses for all users", e);
+			return Map.of();
+		}
+		return completedUsersByCourse;
+	}
+
 	public boolean updateQualificationStatus(int userId, int courseId, String status, LocalDate completionDate,
 			String remarks) {
 		if ("NICHT BESUCHT".equals(status)) {
 			String deleteSql = "DELETE FROM user_qualifications WHERE user_id = ? AND course_id = ?";
 			try {
 				jdbcTemplate.update(deleteSql, userId, courseId);
+				eventPublisher.publishEvent(new TrainingRecordsChangedEvent());
 				return true;
 			} catch (Exception e) {
 				logger.error("DAO Error deleting qualification for user {} course {}", userId, courseId, e);
@@ -76,6 +106,7 @@ public class UserQualificationsDAO {
 			String upsertSql = "INSERT INTO user_qualifications (user_id, course_id, status, completion_date, remarks) VALUES (?, ?, ?, ?, ?) ON DUPLICATE KEY UPDATE status = VALUES(status), completion_date = VALUES(completion_date), remarks = VALUES(remarks)";
 			try {
 				jdbcTemplate.update(upsertSql, userId, courseId, status, completionDate, remarks);
+				eventPublisher.publishEvent(new TrainingRecordsChangedEvent());
 				return true;
 			} catch (Exception e) {
 				logger.error("DAO Error upserting qualification for user {} course {}", userId, courseId, e);
@@ -1,5 +1,6 @@
 package de.technikteam.dao;
 
+import de.technikteam.model.SearchHit;
 import de.technikteam.model.WikiEntry;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -117,4 +118,21 @@ public class WikiDAO {
 			return List.of();
 		}
 	}
+
+	/**
+	 * Ranked search through the FULLTEXT index on path and content. The content
+	 * itself is not loaded.
+	 *
+	 * @param booleanQuery An expression built by {@link de.technikteam.util.FullTextQuery}.
+	 */
+	public List<SearchHit<WikiEntry>> searchFullText(String booleanQuery, int limit) {
+		String sql = "SELECT id, file_path, NULL AS content, MATCH(file_path, content) AGAINST (? IN BOOLEAN MODE) AS score FROM wiki_documentation WHERE MATCH(file_path, content) AGAINST (? IN BOOLEAN MODE) ORDER BY score DESC LIMIT ?";
+		try {
+			return jdbcTemplate.query(sql, (rs, rowNum) -> new SearchHit<>(wikiEntryRowMapper.mapRow(rs, rowNum),
+					rs.getDouble("score")), booleanQuery, booleanQuery, limit);
+		} catch (Exception e) {
+			logger.error("Error in full-text search of wiki entries for '{}'", booleanQuery, e);
+			return List.of();
+		}
+	}
 }
\ No newline at end of file
@@ -14,6 +14,7 @@ public class ChatConversation {
 	private String otherParticipantUsername;
 	private String lastMessage;
 	private LocalDateTime lastMessageTimestamp;
+	private int unreadCount;
 	private List<User> participants;
 	
 	public int getId() {
@@ -88,6 +89,14 @@ public class ChatConversation {
 		this.lastMessageTimestamp = lastMessageTimestamp;
 	}
 
+	public int getUnreadCount() {
+		return unreadCount;
+	}
+
+	public void setUnreadCount(int unreadCount) {
+		this.unreadCount = unreadCount;
+	}
+
 	public List<User> getParticipants() {
 		return participants;
 	}
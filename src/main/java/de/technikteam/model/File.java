@@ -16,6 +16,7 @@ public class File {
 	private LocalDateTime uploadedAt;
 	private String requiredRole;
 	private boolean needsWarning;
+	private String contentHash;
 	private String content;
 
 	public String getFormattedUploadedAt() {
@@ -86,6 +87,14 @@ public class File {
 		this.needsWarning = needsWarning;
 	}
 
+	public String getContentHash() {
+		return contentHash;
+	}
+
+	public void setContentHash(String contentHash) {
+		this.contentHash = contentHash;
+	}
+
 	public String getContent() {
 		return content;
 	}
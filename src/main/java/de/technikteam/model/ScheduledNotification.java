@@ -12,6 +12,8 @@ public class ScheduledNotification {
 	private String description;
 	private String url;
 	private String status;
+	private String claimedBy;
+	private int attempts;
 
 	public int getId() {
 		return id;
@@ -84,4 +86,20 @@ public class ScheduledNotification {
 	public void setStatus(String status) {
 		this.status = status;
 	}
-}
\ No newline at end of file
+
+	public String getClaimedBy() {
+		return claimedBy;
+	}
+
+	public void setClaimedBy(String claimedBy) {
+		this.claimedBy = claimedBy;
+	}
+
+	public int getAttempts() {
+		return attempts;
+	}
+
+	public void setAttempts(int attempts) {
+		this.attempts = attempts;
+	}
+}
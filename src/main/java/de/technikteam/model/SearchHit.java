@@ -0,0 +1,8 @@
+package de.technikteam.model;
+
+/**
+ * A search result of a single domain together with its relevance score. Scores
+ * are only comparable within the same query and domain.
+ */
+public record SearchHit<T>(T item, double score) {
+}
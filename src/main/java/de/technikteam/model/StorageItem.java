@@ -24,6 +24,7 @@ public class StorageItem {
 	private int currentHolderUserId;
 	private int assignedEventId;
 	private String currentHolderUsername;
+	private Integer version;
 
 	private LocalDateTime nextReservationDate;
 	private String lastTransactionInfo;
@@ -191,6 +192,18 @@ public class StorageItem {
 		this.assignedEventId = assignedEventId;
 	}
 
+	/**
+	 * The optimistic lock version of the row, or null if a client did not send
+	 * one with an update.
+	 */
+	public Integer getVersion() {
+		return version;
+	}
+
+	public void setVersion(Integer version) {
+		this.version = version;
+	}
+
 	public String getCurrentHolderUsername() {
 		return currentHolderUsername;
 	}
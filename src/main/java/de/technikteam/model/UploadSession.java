@@ -0,0 +1,114 @@
+package de.technikteam.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * A resumable upload from the `upload_sessions` table. The file is sent in
+ * chunks of {@code chunkSize} bytes (the last one may be shorter); chunk
+ * {@code i} starts at offset {@code i * chunkSize}.
+ */
+public class UploadSession {
+	private String id;
+	private int userId;
+	private String filename;
+	private String contentType;
+	private long totalSize;
+	private int chunkSize;
+	private String expectedHash;
+	private Integer categoryId;
+	private String requiredRole;
+	private LocalDateTime createdAt;
+	private LocalDateTime expiresAt;
+
+	public int getTotalChunks() {
+		return (int) Math.max(1, (totalSize + chunkSize - 1) / chunkSize);
+	}
+
+	public String getId() {
+		return id;
+	}
+
+	public void setId(String id) {
+		this.id = id;
+	}
+
+	public int getUserId() {
+		return userId;
+	}
+
+	public void setUserId(int userId) {
+		this.userId = userId;
+	}
+
+	public String getFilename() {
+		return filename;
+	}
+
+	public void setFilename(String filename) {
+		this.filename = filename;
+	}
+
+	public String getContentType() {
+		return contentType;
+	}
+
+	public void setContentType(String contentType) {
+		this.contentType = contentType;
+	}
+
+	public long getTotalSize() {
+		return totalSize;
+	}
+
+	public void setTotalSize(long totalSize) {
+		this.totalSize = totalSize;
+	}
+
+	public int getChunkSize() {
+		return chunkSize;
+	}
+
+	public void setChunkSize(int chunkSize) {
+		this.chunkSize = chunkSize;
+	}
+
+	public String getExpectedHash() {
+		return expectedHash;
+	}
+
+	public void setExpectedHash(String expectedHash) {
+		this.expectedHash = expectedHash;
+	}
+
+	public Integer getCategoryId() {
+		return categoryId;
+	}
+
+	public void setCategoryId(Integer categoryId) {
+		this.categoryId = categoryId;
+	}
+
+	public String getRequiredRole() {
+		return requiredRole;
+	}
+
+	public void setRequiredRole(String requiredRole) {
+		this.requiredRole = requiredRole;
+	}
+
+	public LocalDateTime getCreatedAt() {
+		return createdAt;
+	}
+
+	public void setCreatedAt(LocalDateTime createdAt) {
+		this.createdAt = createdAt;
+	}
+
+	public LocalDateTime getExpiresAt() {
+		return expiresAt;
+	}
+
+	public void setExpiresAt(LocalDateTime expiresAt) {
+		this.expiresAt = expiresAt;
+	}
+}
@@ -52,6 +52,44 @@ public class User {
 		this.roleName = roleName;
 	}
 
+	/**
+	 * Shallow copy constructor. The permission set is copied into an
+	 * unmodifiable set so copies never share mutable state.
+	 */
+	public User(User other) {
+		this.id = other.id;
+		this.username = other.username;
+		this.roleId = other.roleId;
+		this.roleName = other.roleName;
+		this.permissions = other.permissions != null ? Set.copyOf(other.permissions) : null;
+		this.createdAt = other.createdAt;
+		this.classYear = other.classYear;
+		this.className = other.className;
+		this.email = other.email;
+		this.chatColor = other.chatColor;
+		this.theme = other.theme;
+		this.fcmToken = other.fcmToken;
+		this.profileIconClass = other.profileIconClass;
+		this.adminNotes = other.adminNotes;
+		this.dashboardLayout = other.dashboardLayout;
+		this.assignedEventRole = other.assignedEventRole;
+		this.assignedEventRoleId = other.assignedEventRoleId;
+		this.unseenNotificationsCount = other.unseenNotificationsCount;
+		this.status = other.status;
+		this.suspendedUntil = other.suspendedUntil;
+		this.suspendedReason = other.suspendedReason;
+		this.isLocked = other.isLocked;
+		this.isDeleted = other.isDeleted;
+		this.deletedAt = other.deletedAt;
+		this.isTotpEnabled = other.isTotpEnabled;
+		this.totpSecret = other.totpSecret;
+		this.jti = other.jti;
+		this.verificationToken = other.verificationToken;
+		this.privacyPolicyVersion = other.privacyPolicyVersion;
+		this.privacyPolicyAcceptedAt = other.privacyPolicyAcceptedAt;
+		this.passwordHash = other.passwordHash;
+	}
+
 	public boolean hasAdminAccess() {
 		return "ADMIN".equals(this.roleName);
 	}
@@ -0,0 +1,103 @@
+package de.technikteam.security;
+
+import com.google.common.net.InetAddresses;
+import jakarta.servlet.http.HttpServletRequest;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Determines the IP address of the client behind a request. The
+ * {@code X-Forwarded-For} header is only honoured if the request comes from a
+ * trusted reverse proxy, and it is read from the right: every hop appended by
+ * a trusted proxy is skipped, and the first untrusted address is the client.
+ * Anything further to the left was supplied by the client itself and could be
+ * forged.
+ */
+@Component
+public class ClientIpResolver {
+	private static final Logger logger = LogManager.getLogger(ClientIpResolver.class);
+
+	private record Subnet(byte[] network, int prefixLength) {
+		boolean contains(byte[] address) {
+			if (address.length != network.length) {
+				return false;
+			}
+			int fullBytes = prefixLength / 8;
+			for (int i = 0; i < fullBytes; i++) {
+				if (address[i] != network[i]) {
+					return false;
+				}
+			}
+			int remainingBits = prefixLength % 8;
+			if (remainingBits == 0) {
+				return true;
+			}
+			int mask = (0xFF << (8 - remainingBits)) & 0xFF;
+			return (address[fullBytes] & mask) == (network[fullBytes] & mask);
+		}
+	}
+
+	private final List<Subnet> trustedProxies = new ArrayList<>();
+
+	public ClientIpResolver(@Value("${security.trusted-proxies:127.0.0.1,::1}") List<String> trustedProxies) {
+		for (String entry : trustedProxies) {
+			String value = entry.trim();
+			if (value.isEmpty()) {
+				continue;
+			}
+			String[] parts = value.split("/", 2);
+			byte[] network = parseLiteral(parts[0]);
+			if (network == null) {
+				logger.warn("Ignoring invalid trusted proxy '{}'.", value);
+				continue;
+			}
+			int prefixLength = parts.length > 1 ? Integer.parseInt(parts[1]) : network.length * 8;
+			this.trustedProxies.add(new Subnet(network, prefixLength));
+		}
+	}
+
+	public String resolve(HttpServletRequest request) {
+		String remoteAddr = request.getRemoteAddr();
+		String forwardedFor = request.getHeader("X-Forwarded-For");
+		if (forwardedFor == null || forwardedFor.isBlank() || !isTrusted(remoteAddr)) {
+			return remoteAddr;
+		}
+		String[] hops = forwardedFor.split(",");
+		String client = remoteAddr;
+		for (int i = hops.length - 1; i >= 0; i--) {
+			String hop = hops[i].trim();
+			if (parseLiteral(hop) == null) {
+				// A malformed entry ends the chain that can be trusted.
+				break;
+			}
+			client = hop;
+			if (!isTrusted(hop)) {
+				break;
+			}
+		}
+		return client;
+	}
+
+	private boolean isTrusted(String address) {
+		byte[] bytes = parseLiteral(address);
+		return bytes != null && trustedProxies.stream().anyMatch(subnet -> subnet.contains(bytes));
+	}
+
+	/**
+	 * Parses an IP address literal without ever doing a DNS lookup. The header
+	 * values are client-controlled, so InetAddress.getByName is not used: it
+	 * falls back to the resolver for anything it does not recognise as a
+	 * literal.
+	 */
+	private static byte[] parseLiteral(String address) {
+		if (address == null || !InetAddresses.isInetAddress(address)) {
+			return null;
+		}
+		return InetAddresses.forString(address).getAddress();
+	}
+}
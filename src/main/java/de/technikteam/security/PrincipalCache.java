@@ -0,0 +1,69 @@
+package de.technikteam.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import de.technikteam.dao.UserDAO;
+import de.technikteam.model.User;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded cache of fully loaded users (profile, permissions, lock state) used
+ * to build the authenticated principal for every API request. Every write
+ * to a user's profile, role, permissions, password, suspension, 2FA or
+ * lockout state publishes a {@link UserChangedEvent}, which evicts the entry,
+ * so steady-state requests never touch the database.
+ */
+@Component
+public class PrincipalCache {
+	private static final Logger logger = LogManager.getLogger(PrincipalCache.class);
+
+	private final UserDAO userDAO;
+	private final Cache<Integer, User> cache;
+	private final AtomicLong invalidations = new AtomicLong();
+
+	@Autowired
+	public PrincipalCache(UserDAO userDAO) {
+		this.userDAO = userDAO;
+		// The expiry is only a safety net for changes made outside the application.
+		this.cache = Caffeine.newBuilder().expireAfterWrite(10, TimeUnit.MINUTES).maximumSize(5_000).build();
+	}
+
+	/**
+	 * Returns a private copy of the user, so callers may attach request-scoped
+	 * data (e.g. the JTI) without affecting other requests.
+	 */
+	public User getUser(int userId) {
+		long invalidationMark = invalidations.get();
+		User cached = cache.getIfPresent(userId);
+		if (cached == null) {
+			cached = userDAO.getUserById(userId);
+			if (cached == null) {
+				return null;
+			}
+			// Only publish the entry if nothing was invalidated while we were loading.
+			if (invalidations.get() == invalidationMark) {
+				cache.put(userId, cached);
+			}
+		}
+		return new User(cached);
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onUserChanged(UserChangedEvent event) {
+		invalidations.incrementAndGet();
+		if (event.userId() != null) {
+			logger.debug("Invalidating cached principal for user ID {}", event.userId());
+			cache.invalidate(event.userId());
+		} else if (event.username() != null) {
+			logger.debug("Invalidating cached principal for username '{}'", event.username());
+			cache.asMap().values().removeIf(cached -> event.username().equalsIgnoreCase(cached.getUsername()));
+		}
+	}
+}
@@ -1,52 +1,79 @@
 package de.technikteam.security;
 
 import de.technikteam.service.RateLimitingService;
-import io.github.bucket4j.Bucket;
+import de.technikteam.service.RateLimitingService.RateLimitPolicy;
 import io.github.bucket4j.ConsumptionProbe;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.lang.NonNull;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.servlet.HandlerInterceptor;
 
 import java.util.concurrent.TimeUnit;
 
+/**
+ * Applies the rate limits of {@link RateLimitingService}. Logged-in users are
+ * counted by user ID, everybody else by client IP address. Every response
+ * carries the {@code RateLimit-Limit}, {@code RateLimit-Remaining} and
+ * {@code RateLimit-Reset} headers; a rejected request gets status 429 and a
+ * {@code Retry-After} header.
+ */
 @Component
 public class RateLimitingInterceptor implements HandlerInterceptor {
+	private static final Logger logger = LogManager.getLogger(RateLimitingInterceptor.class);
 
 	private final RateLimitingService rateLimitingService;
+	private final ClientIpResolver clientIpResolver;
 
 	@Autowired
-	public RateLimitingInterceptor(RateLimitingService rateLimitingService) {
+	public RateLimitingInterceptor(RateLimitingService rateLimitingService, ClientIpResolver clientIpResolver) {
 		this.rateLimitingService = rateLimitingService;
+		this.clientIpResolver = clientIpResolver;
 	}
 
 	@Override
 	public boolean preHandle(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
 			@NonNull Object handler) throws Exception {
-		String ipAddress = getClientIp(request);
-		Bucket bucket = rateLimitingService.resolveBucket(ipAddress);
-		ConsumptionProbe probe = bucket.tryConsumeAndReturnRemaining(1);
+		if (!rateLimitingService.isEnabled()) {
+			return true;
+		}
+		Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+		String clientKey;
+		if (auth != null && auth.getPrincipal() instanceof SecurityUser securityUser) {
+			clientKey = "user:" + securityUser.getUser().getId();
+		} else {
+			clientKey = "ip:" + clientIpResolver.resolve(request);
+		}
+		String path = request.getRequestURI().substring(request.getContextPath().length());
+		RateLimitPolicy policy = rateLimitingService.resolvePolicy(path, clientKey.startsWith("user:"));
+		ConsumptionProbe probe = rateLimitingService.tryConsume(policy, clientKey);
 
+		response.setHeader("RateLimit-Limit", String.valueOf(policy.capacity()));
+		response.setHeader("RateLimit-Remaining", String.valueOf(probe.getRemainingTokens()));
+		response.setHeader("RateLimit-Reset", String.valueOf(toSecondsRoundedUp(probe.getNanosToWaitForReset())));
 		if (probe.isConsumed()) {
-			response.addHeader("X-Rate-Limit-Remaining", String.valueOf(probe.getRemainingTokens()));
 			return true;
-		} else {
-			long waitForRefill = TimeUnit.NANOSECONDS.toSeconds(probe.getNanosToWaitForRefill());
-			response.addHeader("X-Rate-Limit-Retry-After-Seconds", String.valueOf(waitForRefill));
-			response.sendError(HttpStatus.TOO_MANY_REQUESTS.value(),
-					"Sie haben Ihr API-Anfragekontingent ausgeschöpft. Bitte versuchen Sie es später erneut.");
-			return false;
 		}
+
+		long retryAfter = toSecondsRoundedUp(probe.getNanosToWaitForRefill());
+		logger.warn("Rate limit '{}' exceeded by {} on {}.", policy.name(), clientKey, path);
+		response.setHeader("Retry-After", String.valueOf(retryAfter));
+		response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+		response.setContentType("application/json");
+		response.setCharacterEncoding("UTF-8");
+		response.getWriter().write(
+				"{\"success\":false,\"message\":\"Zu viele Anfragen. Bitte versuchen Sie es in " + retryAfter
+						+ " Sekunden erneut.\",\"data\":null}");
+		return false;
 	}
 
-	private String getClientIp(HttpServletRequest request) {
-		String xfHeader = request.getHeader("X-Forwarded-For");
-		if (xfHeader == null || xfHeader.isEmpty()) {
-			return request.getRemoteAddr();
-		}
-		return xfHeader.split(",")[0];
+	private static long toSecondsRoundedUp(long nanos) {
+		return (nanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1);
 	}
-}
\ No newline at end of file
+}
@@ -0,0 +1,17 @@
+package de.technikteam.security;
+
+/**
+ * Published whenever data that ends up in an authenticated principal changes
+ * (profile, permissions, suspension, 2FA or lockout state). Either the user id
+ * or the username is set, depending on what the publisher knows.
+ */
+public record UserChangedEvent(Integer userId, String username) {
+
+	public static UserChangedEvent forUser(int userId) {
+		return new UserChangedEvent(userId, null);
+	}
+
+	public static UserChangedEvent forUsername(String username) {
+		return new UserChangedEvent(null, username);
+	}
+}
@@ -10,28 +10,48 @@ import de.technikteam.dao.UserDAO;
 import de.technikteam.model.AdminLog;
 import de.technikteam.model.Course;
 import de.technikteam.model.User;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.lang.reflect.Type;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Admin audit log. Entries are written behind: {@link #log} only enqueues them
+ * (after commit, if called inside a transaction) and a background worker
+ * inserts them in JDBC batches, either once {@value #BATCH_SIZE} entries are
+ * pending or {@value #FLUSH_INTERVAL_MS} ms after the first one arrived. Each
+ * flush triggers a single ADMIN_LOG UI update. The queue is flushed on shutdown.
+ */
 @Service
 public class AdminLogService {
 	private static final Logger logger = LogManager.getLogger(AdminLogService.class);
+	private static final int QUEUE_CAPACITY = 10_000;
+	private static final int BATCH_SIZE = 100;
+	private static final long FLUSH_INTERVAL_MS = 1_000;
 	private final AdminLogDAO logDAO;
 	private final AdminUserManagementService adminUserManagementService;
 	private final UserService userService;
 	private final CourseDAO courseDAO;
 	private final NotificationService notificationService;
 	private final Gson gson;
+	private final BlockingQueue<AdminLog> queue = new LinkedBlockingQueue<>(QUEUE_CAPACITY);
+	private volatile boolean running;
+	private Thread writer;
 
 	@Autowired
 	public AdminLogService(AdminLogDAO logDAO, @Lazy AdminUserManagementService adminUserManagementService,
@@ -44,6 +64,29 @@ public class AdminLogService {
 		this.gson = new GsonBuilder().registerTypeAdapter(LocalDateTime.class, new LocalDateTimeAdapter()).create();
 	}
 
+	@PostConstruct
+	public void start() {
+		running = true;
+		writer = Thread.ofVirtual().name("admin-log-writer").start(this::runWriter);
+	}
+
+	@PreDestroy
+	public void stop() {
+		running = false;
+		try {
+			// The writer notices the flag within one flush interval.
+			writer.join(FLUSH_INTERVAL_MS * 5);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		List<AdminLog> remaining = new ArrayList<>();
+		queue.drainTo(remaining);
+		if (!remaining.isEmpty()) {
+			logger.info("Writing {} pending admin log entries before shutdown.", remaining.size());
+			flush(remaining);
+		}
+	}
+
 	private String sanitize(String input) {
 		if (input == null) {
 			return "";
@@ -67,10 +110,19 @@ public class AdminLogService {
 			if (context != null) {
 				log.setContext(gson.toJson(context));
 			}
+			log.setActionTimestamp(LocalDateTime.now());
 			logger.info("[AUDIT] User: '{}', Action: '{}', Details: {}", saneAdminUsername, saneActionType,
 					saneDetails);
-			logDAO.createLog(log);
-			notificationService.broadcastUIUpdate("ADMIN_LOG", "CREATED", log);
+			if (TransactionSynchronizationManager.isSynchronizationActive()) {
+				TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+					@Override
+					public void afterCommit() {
+						enqueue(log);
+					}
+				});
+			} else {
+				enqueue(log);
+			}
 		} catch (Exception e) {
 			logger.error(
 					"KRITISCH: Fehler beim Schreiben in das Admin-Audit-Log! Daten: [Benutzer: {}, Aktion: {}, Details: {}]",
@@ -78,6 +130,56 @@ public class AdminLogService {
 		}
 	}
 
+	private void enqueue(AdminLog log) {
+		if (!running || !queue.offer(log)) {
+			// Never drop audit entries: write synchronously if the pipeline is saturated or stopped.
+			logDAO.createLog(log);
+			notificationService.broadcastUIUpdate("ADMIN_LOG", "CREATED", log);
+		}
+	}
+
+	private void runWriter() {
+		while (running) {
+			try {
+				AdminLog first = queue.poll(FLUSH_INTERVAL_MS, TimeUnit.MILLISECONDS);
+				if (first == null) {
+					continue;
+				}
+				List<AdminLog> batch = new ArrayList<>(BATCH_SIZE);
+				batch.add(first);
+				long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(FLUSH_INTERVAL_MS);
+				while (batch.size() < BATCH_SIZE) {
+					queue.drainTo(batch, BATCH_SIZE - batch.size());
+					long remainingNanos = deadline - System.nanoTime();
+					if (batch.size() >= BATCH_SIZE || remainingNanos <= 0 || !running) {
+						break;
+					}
+					AdminLog next = queue.poll(remainingNanos, TimeUnit.NANOSECONDS);
+					if (next == null) {
+						break;
+					}
+					batch.add(next);
+				}
+				flush(batch);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			} catch (Exception e) {
+				logger.error("Unexpected error in admin log writer", e);
+			}
+		}
+	}
+
+	private void flush(List<AdminLog> batch) {
+		try {
+			logDAO.createLogs(batch);
+		} catch (Exception e) {
+			logger.error("Batch insert of {} admin log entries failed, writing them one by one.", batch.size(), e);
+			batch.forEach(logDAO::createLog);
+		}
+		notificationService.broadcastUIUpdate("ADMIN_LOG", "CREATED", Map.of("count", batch.size()));
+	}
+
 	// --- Specialized Logging Methods ---
 
 	public void logUserCreation(String adminUsername, int createdUserId) {
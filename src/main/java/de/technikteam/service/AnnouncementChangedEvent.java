@@ -0,0 +1,8 @@
+package de.technikteam.service;
+
+/**
+ * Published whenever an announcement is created, updated or deleted, so that
+ * cached copies (e.g. the dashboard's latest announcement) are dropped.
+ */
+public record AnnouncementChangedEvent() {
+}
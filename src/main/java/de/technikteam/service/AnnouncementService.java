@@ -6,6 +6,7 @@ import de.technikteam.model.User;
 import org.owasp.html.PolicyFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -20,14 +21,17 @@ public class AnnouncementService {
 	private final AdminLogService adminLogService;
 	private final PolicyFactory richTextPolicy;
 	private final NotificationService notificationService;
+	private final ApplicationEventPublisher eventPublisher;
 
 	@Autowired
 	public AnnouncementService(AnnouncementDAO announcementDAO, AdminLogService adminLogService,
-			@Qualifier("richTextPolicy") PolicyFactory richTextPolicy, NotificationService notificationService) {
+			@Qualifier("richTextPolicy") PolicyFactory richTextPolicy, NotificationService notificationService,
+			ApplicationEventPublisher eventPublisher) {
 		this.announcementDAO = announcementDAO;
 		this.adminLogService = adminLogService;
 		this.richTextPolicy = richTextPolicy;
 		this.notificationService = notificationService;
+		this.eventPublisher = eventPublisher;
 	}
 
 	public List<Announcement> findAll() {
@@ -42,6 +46,7 @@ public class AnnouncementService {
 
 		Announcement created = announcementDAO.create(announcement);
 		adminLogService.log(author.getUsername(), "ANNOUNCEMENT_CREATE", "Created announcement: " + created.getTitle());
+		eventPublisher.publishEvent(new AnnouncementChangedEvent());
 		notificationService.broadcastUIUpdate("ANNOUNCEMENT", "CREATED", created);
 		return created;
 	}
@@ -56,6 +61,7 @@ public class AnnouncementService {
 			Announcement updated = announcementDAO.update(existing);
 			adminLogService.log(editor.getUsername(), "ANNOUNCEMENT_UPDATE",
 					"Updated announcement: " + updated.getTitle());
+			eventPublisher.publishEvent(new AnnouncementChangedEvent());
 			notificationService.broadcastUIUpdate("ANNOUNCEMENT", "UPDATED", updated);
 			return updated;
 		}
@@ -70,6 +76,7 @@ public class AnnouncementService {
 			if (success) {
 				adminLogService.log(adminUser.getUsername(), "ANNOUNCEMENT_DELETE",
 						"Deleted announcement: " + announcementOpt.get().getTitle() + " (ID: " + id + ")");
+				eventPublisher.publishEvent(new AnnouncementChangedEvent());
 				notificationService.broadcastUIUpdate("ANNOUNCEMENT", "DELETED", Map.of("id", id));
 			}
 			return success;
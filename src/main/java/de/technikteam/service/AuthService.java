@@ -1,12 +1,15 @@
 package de.technikteam.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
 import com.github.benmanes.caffeine.cache.LoadingCache;
 import de.technikteam.dao.JwtBlocklistDAO;
 import de.technikteam.dao.UserDAO;
 import de.technikteam.model.User;
+import de.technikteam.security.PrincipalCache;
 import de.technikteam.security.SecurityUser;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 import jakarta.servlet.http.HttpServletResponse;
@@ -20,11 +23,14 @@ import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.temporal.ChronoUnit;
 import java.util.Date;
+import java.util.HexFormat;
 import java.util.UUID;
 import java.util.concurrent.TimeUnit;
 
@@ -36,14 +42,19 @@ public class AuthService {
 	private static final int COOKIE_MAX_AGE_SECONDS = 8 * 60 * 60; // 8 hours
 
 	private final SecretKey secretKey;
+	private final JwtParser jwtParser;
 	private final UserDAO userDAO;
 	private final JwtBlocklistDAO jwtBlocklistDAO;
+	private final PrincipalCache principalCache;
 	private final LoadingCache<String, Boolean> revokedTokenCache;
+	private final Cache<String, Claims> verifiedClaimsCache;
 
 	@Autowired
-	public AuthService(UserDAO userDAO, ConfigurationService configService, JwtBlocklistDAO jwtBlocklistDAO) {
+	public AuthService(UserDAO userDAO, ConfigurationService configService, JwtBlocklistDAO jwtBlocklistDAO,
+			PrincipalCache principalCache) {
 		this.userDAO = userDAO;
 		this.jwtBlocklistDAO = jwtBlocklistDAO;
+		this.principalCache = principalCache;
 		// REMEDIATION: Load the JWT secret from an environment variable.
 		String secret = System.getenv("JWT_SECRET");
 		if (secret == null || secret.isBlank()) {
@@ -59,16 +70,28 @@ public class AuthService {
 			throw new RuntimeException("JWT-Secret ist nicht konfiguriert oder unsicher.");
 		}
 		this.secretKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+		// JwtParser instances are immutable and thread-safe, so one is shared by all requests.
+		this.jwtParser = Jwts.parser().verifyWith(secretKey).build();
+		// Short-lived memo of verified claims, keyed by token hash, so signature
+		// verification and JSON decoding run at most once per token per minute.
+		this.verifiedClaimsCache = Caffeine.newBuilder().expireAfterWrite(1, TimeUnit.MINUTES).maximumSize(10_000)
+				.build();
 		this.revokedTokenCache = Caffeine.newBuilder().expireAfterWrite(15, TimeUnit.MINUTES).maximumSize(10_000)
 				.build(jti -> jwtBlocklistDAO.isBlocklisted(jti));
 	}
 
 	public String generateToken(User user, long lifetimeSeconds) {
-		Instant now = Instant.now();
+		// JWT timestamps have second precision; truncate so the memoized claims match
+		// what a parser would produce.
+		Instant now = Instant.now().truncatedTo(ChronoUnit.SECONDS);
 		Instant expiry = now.plus(lifetimeSeconds, ChronoUnit.SECONDS);
 
-		return Jwts.builder().issuer(JWT_ISSUER).subject(String.valueOf(user.getId())).id(UUID.randomUUID().toString())
-				.issuedAt(Date.from(now)).expiration(Date.from(expiry)).signWith(secretKey).compact();
+		Claims claims = Jwts.claims().issuer(JWT_ISSUER).subject(String.valueOf(user.getId()))
+				.id(UUID.randomUUID().toString()).issuedAt(Date.from(now)).expiration(Date.from(expiry)).build();
+		String token = Jwts.builder().claims(claims).signWith(secretKey).compact();
+		// The token was minted here, so its claims are known to be valid.
+		verifiedClaimsCache.put(hashToken(token), claims);
+		return token;
 	}
 
 	public String generateToken(User user) {
@@ -84,11 +107,34 @@ public class AuthService {
 	}
 
 	public Claims parseTokenClaims(String token) {
-		return Jwts.parser().verifyWith(secretKey).build().parseSignedClaims(token).getPayload();
+		String tokenHash = hashToken(token);
+		Claims claims = verifiedClaimsCache.getIfPresent(tokenHash);
+		if (claims != null && claims.getExpiration() != null && claims.getExpiration().before(new Date())) {
+			verifiedClaimsCache.invalidate(tokenHash);
+			claims = null;
+		}
+		if (claims == null) {
+			// Throws if the signature is invalid or the token has expired.
+			claims = jwtParser.parseSignedClaims(token).getPayload();
+			verifiedClaimsCache.put(tokenHash, claims);
+		}
+		return claims;
+	}
+
+	private static String hashToken(String token) {
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 is not available", e);
+		}
 	}
 
 	public void addJwtCookie(User user, HttpServletResponse response) {
-		String token = generateToken(user);
+		addJwtCookie(generateToken(user), response);
+	}
+
+	public void addJwtCookie(String token, HttpServletResponse response) {
 		String header = String.format("%s=%s; Path=/; Max-Age=%d; HttpOnly; Secure; SameSite=Strict", AUTH_COOKIE_NAME,
 				token, COOKIE_MAX_AGE_SECONDS);
 		response.addHeader(HttpHeaders.SET_COOKIE, header);
@@ -115,7 +161,7 @@ public class AuthService {
 			}
 
 			int userId = Integer.parseInt(claims.getSubject());
-			User user = userDAO.getUserById(userId);
+			User user = principalCache.getUser(userId);
 
 			if (user == null) {
 				logger.warn("JWT-Validierung erfolgreich, aber Benutzer mit ID {} existiert nicht mehr.", userId);
@@ -127,6 +173,8 @@ public class AuthService {
 				return null;
 			}
 
+			// The principal cache hands out a private copy, so the session's JTI can be attached directly.
+			user.setJti(claims.getId());
 			return new SecurityUser(user);
 		} catch (Exception e) {
 			logger.warn("JWT-Verifizierung fehlgeschlagen: {}", e.getMessage());
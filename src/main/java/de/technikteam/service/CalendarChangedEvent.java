@@ -0,0 +1,8 @@
+package de.technikteam.service;
+
+/**
+ * Published whenever events, meetings or courses are written, so that the
+ * {@link CalendarFeedService} re-renders the iCalendar feed on the next poll.
+ */
+public record CalendarChangedEvent() {
+}
@@ -0,0 +1,194 @@
+package de.technikteam.service;
+
+import de.technikteam.dao.EventDAO;
+import de.technikteam.dao.MeetingDAO;
+import de.technikteam.model.Event;
+import de.technikteam.model.Meeting;
+import net.fortuna.ical4j.data.CalendarOutputter;
+import net.fortuna.ical4j.model.Calendar;
+import net.fortuna.ical4j.model.DateTime;
+import net.fortuna.ical4j.model.Property;
+import net.fortuna.ical4j.model.component.VEvent;
+import net.fortuna.ical4j.model.property.*;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.ByteArrayOutputStream;
+import java.net.URI;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Renders the public iCalendar feed and keeps the result in memory. The feed is
+ * only re-rendered after a {@link CalendarChangedEvent} (or when it becomes too
+ * old to still show the right upcoming range). Every entry has a UID derived
+ * from its database id, so calendar clients update entries in place instead of
+ * duplicating them. The ETag is a fingerprint of the content: a re-render that
+ * produces the same entries keeps the previous ETag and Last-Modified date.
+ */
+@Service
+public class CalendarFeedService {
+	private static final Logger logger = LogManager.getLogger(CalendarFeedService.class);
+	// The feed window moves with the clock, so it is re-rendered at least this often.
+	private static final long MAX_AGE_NANOS = TimeUnit.MINUTES.toNanos(15);
+	private static final DateTime FINGERPRINT_STAMP = new DateTime(0);
+
+	private final EventDAO eventDAO;
+	private final MeetingDAO meetingDAO;
+	private final ConfigurationService configService;
+	private final AtomicLong invalidations = new AtomicLong();
+	private volatile RenderedFeed feed;
+	private volatile long renderedAt;
+	private volatile boolean valid;
+
+	public record RenderedFeed(byte[] body, String etag, Instant lastModified) {
+	}
+
+	@Autowired
+	public CalendarFeedService(EventDAO eventDAO, MeetingDAO meetingDAO, ConfigurationService configService) {
+		this.eventDAO = eventDAO;
+		this.meetingDAO = meetingDAO;
+		this.configService = configService;
+	}
+
+	public RenderedFeed getFeed() throws Exception {
+		RenderedFeed current = feed;
+		if (current != null && isFresh()) {
+			return current;
+		}
+		synchronized (this) {
+			current = feed;
+			if (current != null && isFresh()) {
+				return current;
+			}
+			long invalidationMark = invalidations.get();
+			RenderedFeed rendered = render(current);
+			// Only trust the result if nothing was written while we were rendering.
+			if (invalidations.get() == invalidationMark) {
+				feed = rendered;
+				renderedAt = System.nanoTime();
+				valid = true;
+			}
+			return rendered;
+		}
+	}
+
+	public void invalidate() {
+		invalidations.incrementAndGet();
+		valid = false;
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onCalendarChanged(CalendarChangedEvent event) {
+		invalidate();
+	}
+
+	private boolean isFresh() {
+		return valid && System.nanoTime() - renderedAt < MAX_AGE_NANOS;
+	}
+
+	private RenderedFeed render(RenderedFeed previous) throws Exception {
+		List<Event> events = eventDAO.getAllActiveAndUpcomingEvents();
+		List<Meeting> meetings = meetingDAO.getAllUpcomingMeetings();
+		String baseUrl = configService.getProperty("app.base-url");
+		String uidDomain = uidDomain(baseUrl);
+
+		// DTSTAMP is pinned while fingerprinting so that only real content changes count.
+		String etag = "\"" + fingerprint(output(buildCalendar(events, meetings, baseUrl, uidDomain, FINGERPRINT_STAMP)))
+				+ "\"";
+		if (previous != null && previous.etag().equals(etag)) {
+			logger.debug("iCalendar feed re-rendered without changes.");
+			return previous;
+		}
+
+		Instant lastModified = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+		byte[] body = output(
+				buildCalendar(events, meetings, baseUrl, uidDomain, new DateTime(Date.from(lastModified))));
+		logger.info("iCalendar feed rendered with {} events and {} meetings.", events.size(), meetings.size());
+		return new RenderedFeed(body, etag, lastModified);
+	}
+
+	private Calendar buildCalendar(List<Event> events, List<Meeting> meetings, String baseUrl, String uidDomain,
+			DateTime stamp) throws Exception {
+		Calendar calendar = new Calendar();
+		calendar.getProperties().add(new ProdId("-/ Calendar//iCal4j 3.2.4//DE"));
+		calendar.getProperties().add(Version.VERSION_2_0);
+
+		for (Event event : events) {
+			VEvent vEvent = newEntry("event-" + event.getId() + "@" + uidDomain, stamp);
+			addTimes(vEvent, event.getEventDateTime(), event.getEndDateTime());
+			vEvent.getProperties().add(new Summary(event.getName()));
+			if (event.getDescription() != null)
+				vEvent.getProperties().add(new Description(event.getDescription()));
+			if (event.getLocation() != null)
+				vEvent.getProperties().add(new Location(event.getLocation()));
+			vEvent.getProperties().add(new Url(new URI(baseUrl + "/veranstaltungen/details/" + event.getId())));
+			calendar.getComponents().add(vEvent);
+		}
+
+		for (Meeting meeting : meetings) {
+			VEvent vMeeting = newEntry("meeting-" + meeting.getId() + "@" + uidDomain, stamp);
+			addTimes(vMeeting, meeting.getMeetingDateTime(), meeting.getEndDateTime());
+			vMeeting.getProperties().add(new Summary(meeting.getParentCourseName() + ": " + meeting.getName()));
+			if (meeting.getDescription() != null)
+				vMeeting.getProperties().add(new Description(meeting.getDescription()));
+			if (meeting.getLocation() != null)
+				vMeeting.getProperties().add(new Location(meeting.getLocation()));
+			vMeeting.getProperties().add(new Url(new URI(baseUrl + "/lehrgaenge/details/" + meeting.getId())));
+			calendar.getComponents().add(vMeeting);
+		}
+		return calendar;
+	}
+
+	private VEvent newEntry(String uid, DateTime stamp) {
+		VEvent vEvent = new VEvent();
+		// Replace the DTSTAMP ical4j sets to "now" so the output is reproducible.
+		vEvent.getProperties().remove(vEvent.getProperty(Property.DTSTAMP));
+		vEvent.getProperties().add(new DtStamp(stamp));
+		vEvent.getProperties().add(new Uid(uid));
+		return vEvent;
+	}
+
+	private void addTimes(VEvent vEvent, LocalDateTime start, LocalDateTime end) {
+		ZoneId systemZone = ZoneId.systemDefault();
+		if (start != null) {
+			vEvent.getProperties().add(new DtStart(new DateTime(Date.from(start.atZone(systemZone).toInstant()))));
+		}
+		if (end != null) {
+			vEvent.getProperties().add(new DtEnd(new DateTime(Date.from(end.atZone(systemZone).toInstant()))));
+		}
+	}
+
+	private byte[] output(Calendar calendar) throws Exception {
+		ByteArrayOutputStream boas = new ByteArrayOutputStream();
+		new CalendarOutputter().output(calendar, boas);
+		return boas.toByteArray();
+	}
+
+	private String fingerprint(byte[] content) throws Exception {
+		return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+	}
+
+	private String uidDomain(String baseUrl) {
+		try {
+			String host = URI.create(baseUrl).getHost();
+			if (host != null && !host.isBlank()) {
+				return host;
+			}
+		} catch (Exception e) {
+			logger.warn("Could not derive calendar UID domain from base URL '{}'.", baseUrl);
+		}
+		return "technikteam";
+	}
+}
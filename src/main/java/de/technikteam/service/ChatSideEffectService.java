@@ -0,0 +1,184 @@
+package de.technikteam.service;
+
+import de.technikteam.api.v1.dto.NotificationPayload;
+import de.technikteam.dao.ChatDAO;
+import de.technikteam.dao.EventDAO;
+import de.technikteam.dao.UserDAO;
+import de.technikteam.model.ChatConversation;
+import de.technikteam.model.ChatMessage;
+import de.technikteam.model.Event;
+import de.technikteam.model.EventChatMessage;
+import de.technikteam.model.User;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Runs the side effects of a posted chat message (participant notifications,
+ * @mentions) off the WebSocket thread. The sender's message is stored and
+ * broadcast before any of this happens; a background worker then resolves
+ * all recipients with one query per message and hands them to
+ * {@link NotificationService#sendNotificationToUsers}, which inserts the
+ * notifications in one batch and enqueues a single multicast push.
+ */
+@Service
+public class ChatSideEffectService {
+	private static final Logger logger = LogManager.getLogger(ChatSideEffectService.class);
+	private static final Pattern MENTION_PATTERN = Pattern.compile("@(\\w+)");
+	private static final int QUEUE_CAPACITY = 10_000;
+	private static final int MAX_JOBS_PER_CYCLE = 500;
+	private static final int SNIPPET_LENGTH = 50;
+
+	private final ChatDAO chatDAO;
+	private final EventDAO eventDAO;
+	private final UserDAO userDAO;
+	private final NotificationService notificationService;
+	private final BlockingQueue<Runnable> queue = new LinkedBlockingQueue<>(QUEUE_CAPACITY);
+	private volatile boolean running;
+	private Thread worker;
+
+	@Autowired
+	public ChatSideEffectService(ChatDAO chatDAO, EventDAO eventDAO, UserDAO userDAO,
+			NotificationService notificationService) {
+		this.chatDAO = chatDAO;
+		this.eventDAO = eventDAO;
+		this.userDAO = userDAO;
+		this.notificationService = notificationService;
+	}
+
+	@PostConstruct
+	public void start() {
+		running = true;
+		worker = Thread.ofVirtual().name("chat-side-effects").start(this::runWorker);
+	}
+
+	@PreDestroy
+	public void stop() {
+		running = false;
+		worker.interrupt();
+		List<Runnable> remaining = new ArrayList<>();
+		queue.drainTo(remaining);
+		if (!remaining.isEmpty()) {
+			logger.info("Running {} queued chat side effects before shutdown.", remaining.size());
+			remaining.forEach(this::runSafely);
+		}
+	}
+
+	/**
+	 * Notifies all other participants of a direct or group conversation about a
+	 * new message. Returns immediately.
+	 */
+	public void directMessagePosted(ChatMessage message, User sender) {
+		offer(() -> notifyParticipants(message, sender), "direct message " + message.getId());
+	}
+
+	/**
+	 * Notifies all users mentioned with @username in an event chat message.
+	 * Returns immediately; messages without an @ are skipped right away.
+	 */
+	public void eventMessagePosted(EventChatMessage message, User sender) {
+		if (message.getMessageText() == null || message.getMessageText().indexOf('@') < 0) {
+			return;
+		}
+		offer(() -> notifyMentions(message, sender), "event chat message " + message.getId());
+	}
+
+	private void offer(Runnable job, String description) {
+		if (!queue.offer(job)) {
+			logger.warn("Chat side effect queue is full, dropping notifications for {}.", description);
+		}
+	}
+
+	private void runWorker() {
+		while (running) {
+			try {
+				List<Runnable> jobs = new ArrayList<>();
+				jobs.add(queue.take());
+				queue.drainTo(jobs, MAX_JOBS_PER_CYCLE - 1);
+				jobs.forEach(this::runSafely);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			}
+		}
+	}
+
+	private void runSafely(Runnable job) {
+		try {
+			job.run();
+		} catch (Exception e) {
+			logger.error("Error running chat side effect", e);
+		}
+	}
+
+	private void notifyParticipants(ChatMessage message, User sender) {
+		ChatConversation conversation = chatDAO.getConversationById(message.getConversationId());
+		if (conversation == null) {
+			return;
+		}
+		Set<Integer> recipients = new LinkedHashSet<>();
+		for (User participant : conversation.getParticipants()) {
+			if (participant.getId() != sender.getId()) {
+				recipients.add(participant.getId());
+			}
+		}
+		if (recipients.isEmpty()) {
+			return;
+		}
+
+		String messageSnippet = message.getMessageText();
+		if (messageSnippet.length() > SNIPPET_LENGTH) {
+			messageSnippet = messageSnippet.substring(0, SNIPPET_LENGTH - 3) + "...";
+		}
+		String title = conversation.isGroupChat() ? "Neue Nachricht in \"" + conversation.getName() + "\""
+				: "Neue Nachricht von " + sender.getUsername();
+
+		NotificationPayload payload = new NotificationPayload();
+		payload.setTitle(title);
+		payload.setDescription(messageSnippet);
+		payload.setLevel("Informational");
+		payload.setUrl("/chat/" + message.getConversationId());
+		notificationService.sendNotificationToUsers(recipients, payload);
+	}
+
+	private void notifyMentions(EventChatMessage message, User sender) {
+		Set<String> usernames = new LinkedHashSet<>();
+		Matcher matcher = MENTION_PATTERN.matcher(message.getMessageText());
+		while (matcher.find()) {
+			usernames.add(matcher.group(1));
+		}
+		if (usernames.isEmpty()) {
+			return;
+		}
+
+		Set<Integer> recipients = new LinkedHashSet<>(userDAO.getUserIdsByUsernames(usernames).values());
+		recipients.remove(sender.getId());
+		if (recipients.isEmpty()) {
+			return;
+		}
+		Event event = eventDAO.getEventById(message.getEventId());
+		if (event == null) {
+			return;
+		}
+
+		NotificationPayload payload = new NotificationPayload();
+		payload.setTitle(String.format("Erwähnung in Chat für '%s'", event.getName()));
+		payload.setDescription(
+				String.format("%s hat Sie im Chat für '%s' erwähnt.", sender.getUsername(), event.getName()));
+		payload.setLevel("Informational");
+		payload.setUrl("/veranstaltungen/details/" + event.getId());
+		notificationService.sendNotificationToUsers(recipients, payload);
+	}
+}
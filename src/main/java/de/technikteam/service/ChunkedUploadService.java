@@ -0,0 +1,228 @@
+package de.technikteam.service;
+
+import de.technikteam.dao.UploadSessionDAO;
+import de.technikteam.model.UploadSession;
+import de.technikteam.model.User;
+import org.apache.commons.io.FilenameUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+
+/**
+ * Resumable uploads in fixed-size chunks. A session pre-allocates a part file
+ * below the upload directory; every chunk is written at its own offset, so
+ * chunks may arrive in any order, in parallel and more than once. Completing
+ * the session hashes the part file once, verifies it against the digest
+ * announced by the client and hands it to {@link FileService} without copying.
+ * No database transaction is open while chunk data is streamed.
+ */
+@Service
+public class ChunkedUploadService {
+	private static final Logger logger = LogManager.getLogger(ChunkedUploadService.class);
+	public static final int CHUNK_SIZE = 8 * 1024 * 1024;
+	private static final long SESSION_TTL_HOURS = 24;
+	private static final String PART_DIRECTORY = ".uploads";
+
+	private final UploadSessionDAO uploadSessionDAO;
+	private final FileService fileService;
+	private final Path partDirectory;
+
+	/**
+	 * The state of a session as reported to the client, so it can resume by
+	 * sending only the missing chunks.
+	 */
+	public record UploadStatus(String id, String filename, long totalSize, int chunkSize, int totalChunks,
+			List<Integer> receivedChunks, LocalDateTime expiresAt) {
+	}
+
+	@Autowired
+	public ChunkedUploadService(UploadSessionDAO uploadSessionDAO, FileService fileService,
+			ConfigurationService configService) {
+		this.uploadSessionDAO = uploadSessionDAO;
+		this.fileService = fileService;
+		this.partDirectory = Paths.get(configService.getProperty("upload.directory")).toAbsolutePath().normalize()
+				.resolve(PART_DIRECTORY);
+	}
+
+	public UploadStatus createSession(String filename, String contentType, long totalSize, String expectedHash,
+			Integer categoryId, String requiredRole, User user) throws IOException {
+		// Reject disallowed uploads before a single byte has been sent.
+		fileService.validateUpload(contentType, totalSize, user);
+		if (expectedHash != null && !expectedHash.matches("[0-9a-fA-F]{64}")) {
+			throw new IllegalArgumentException("Die Prüfsumme muss ein SHA-256-Hash in Hex-Darstellung sein.");
+		}
+
+		UploadSession session = new UploadSession();
+		session.setId(UUID.randomUUID().toString());
+		session.setUserId(user.getId());
+		session.setFilename(FilenameUtils.getName(filename));
+		session.setContentType(contentType);
+		session.setTotalSize(totalSize);
+		session.setChunkSize(CHUNK_SIZE);
+		session.setExpectedHash(expectedHash != null ? expectedHash.toLowerCase(Locale.ROOT) : null);
+		session.setCategoryId(categoryId);
+		session.setRequiredRole(requiredRole);
+		session.setExpiresAt(LocalDateTime.now().plusHours(SESSION_TTL_HOURS));
+
+		Files.createDirectories(partDirectory);
+		try (RandomAccessFile part = new RandomAccessFile(partPath(session.getId()).toFile(), "rw")) {
+			part.setLength(totalSize);
+		}
+		uploadSessionDAO.create(session);
+		logger.info("Upload session {} for '{}' ({} bytes, {} chunks) created by {}.", session.getId(),
+				session.getFilename(), totalSize, session.getTotalChunks(), user.getUsername());
+		return toStatus(session);
+	}
+
+	public UploadStatus getStatus(String sessionId, User user) {
+		return toStatus(requireSession(sessionId, user));
+	}
+
+	/**
+	 * Writes one chunk at the given offset. The offset must be a multiple of the
+	 * chunk size and the body must contain exactly the bytes of that chunk.
+	 *
+	 * @return The number of chunks received so far.
+	 */
+	public int writeChunk(String sessionId, long offset, InputStream body, User user) throws IOException {
+		UploadSession session = requireSession(sessionId, user);
+		if (offset < 0 || offset >= session.getTotalSize() || offset % session.getChunkSize() != 0) {
+			throw new IllegalArgumentException("Ungültiger Offset " + offset + " für diesen Upload.");
+		}
+		int chunkIndex = (int) (offset / session.getChunkSize());
+		long expectedLength = Math.min(session.getChunkSize(), session.getTotalSize() - offset);
+
+		try (FileChannel part = FileChannel.open(partPath(sessionId), StandardOpenOption.WRITE);
+				ReadableByteChannel in = Channels.newChannel(body)) {
+			long written = 0;
+			while (written < expectedLength) {
+				long transferred = part.transferFrom(in, offset + written, expectedLength - written);
+				if (transferred <= 0) {
+					break;
+				}
+				written += transferred;
+			}
+			if (written != expectedLength || in.read(ByteBuffer.allocate(1)) != -1) {
+				throw new IllegalArgumentException("Chunk " + chunkIndex + " muss genau " + expectedLength
+						+ " Bytes enthalten.");
+			}
+		}
+		uploadSessionDAO.markChunkReceived(sessionId, chunkIndex);
+		return uploadSessionDAO.countReceivedChunks(sessionId);
+	}
+
+	/**
+	 * Verifies that all chunks are present and the content matches the announced
+	 * digest, then registers the file.
+	 */
+	public de.technikteam.model.File complete(String sessionId, User user) throws IOException {
+		UploadSession session = requireSession(sessionId, user);
+		int received = uploadSessionDAO.countReceivedChunks(sessionId);
+		if (received != session.getTotalChunks()) {
+			throw new IllegalStateException("Es fehlen noch " + (session.getTotalChunks() - received)
+					+ " von " + session.getTotalChunks() + " Teilen.");
+		}
+
+		Path part = partPath(sessionId);
+		String contentHash = hash(part);
+		if (session.getExpectedHash() != null && !session.getExpectedHash().equals(contentHash)) {
+			// We cannot tell which chunk is broken, so the upload has to start over.
+			discard(session);
+			throw new IOException("Die Prüfsumme der hochgeladenen Datei stimmt nicht überein.");
+		}
+
+		try {
+			de.technikteam.model.File file = fileService.storeAssembledFile(part, contentHash, session.getFilename(),
+					session.getContentType(), session.getCategoryId(), session.getRequiredRole(), user);
+			logger.info("Upload session {} completed as file ID {}.", sessionId, file.getId());
+			return file;
+		} finally {
+			discard(session);
+		}
+	}
+
+	public void abort(String sessionId, User user) {
+		discard(requireSession(sessionId, user));
+	}
+
+	@Scheduled(cron = "0 30 * * * *") // Run hourly
+	public void purgeExpiredSessions() {
+		for (String sessionId : uploadSessionDAO.findExpiredIds()) {
+			uploadSessionDAO.findById(sessionId).ifPresent(this::discard);
+			logger.info("Expired upload session {} purged.", sessionId);
+		}
+	}
+
+	private UploadSession requireSession(String sessionId, User user) {
+		UploadSession session = uploadSessionDAO.findById(sessionId)
+				.orElseThrow(() -> new IllegalArgumentException("Upload-Sitzung nicht gefunden."));
+		if (session.getUserId() != user.getId()) {
+			throw new AccessDeniedException("Diese Upload-Sitzung gehört einem anderen Benutzer.");
+		}
+		if (session.getExpiresAt().isBefore(LocalDateTime.now())) {
+			discard(session);
+			throw new IllegalArgumentException("Upload-Sitzung ist abgelaufen.");
+		}
+		return session;
+	}
+
+	private void discard(UploadSession session) {
+		uploadSessionDAO.delete(session.getId());
+		try {
+			Files.deleteIfExists(partPath(session.getId()));
+		} catch (IOException e) {
+			logger.error("Could not delete part file of upload session {}.", session.getId(), e);
+		}
+	}
+
+	private Path partPath(String sessionId) {
+		// The id is always a UUID created by us, but it arrives through the URL.
+		return partDirectory.resolve(UUID.fromString(sessionId) + ".part");
+	}
+
+	private UploadStatus toStatus(UploadSession session) {
+		return new UploadStatus(session.getId(), session.getFilename(), session.getTotalSize(),
+				session.getChunkSize(), session.getTotalChunks(), uploadSessionDAO.getReceivedChunks(session.getId()),
+				session.getExpiresAt());
+	}
+
+	private String hash(Path file) throws IOException {
+		MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 is not available", e);
+		}
+		ByteBuffer buffer = ByteBuffer.allocateDirect(1024 * 1024);
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			while (channel.read(buffer) != -1) {
+				buffer.flip();
+				digest.update(buffer);
+				buffer.clear();
+			}
+		}
+		return HexFormat.of().formatHex(digest.digest());
+	}
+}
@@ -16,8 +16,6 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.sql.SQLException;
 import java.time.LocalDateTime;
@@ -25,7 +23,6 @@ import java.time.temporal.ChronoUnit;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
-import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Service
@@ -38,7 +35,7 @@ public class EventService {
 	private final AttachmentDAO attachmentDAO;
 	private final EventCustomFieldDAO customFieldDAO;
 	private final ChecklistDAO checklistDAO;
-	private final ConfigurationService configService;
+	private final FileService fileService;
 	private final AdminLogService adminLogService;
 	private final NotificationService notificationService;
 	private final ScheduledNotificationDAO scheduledNotificationDAO;
@@ -46,7 +43,7 @@ public class EventService {
 
 	@Autowired
 	public EventService(EventDAO eventDAO, EventTaskDAO taskDAO, MeetingDAO meetingDAO, AttachmentDAO attachmentDAO,
-			EventCustomFieldDAO customFieldDAO, ChecklistDAO checklistDAO, ConfigurationService configService,
+			EventCustomFieldDAO customFieldDAO, ChecklistDAO checklistDAO, FileService fileService,
 			AdminLogService adminLogService, NotificationService notificationService,
 			ScheduledNotificationDAO scheduledNotificationDAO,
 			@Qualifier("richTextPolicy") PolicyFactory richTextPolicy) {
@@ -56,7 +53,7 @@ public class EventService {
 		this.attachmentDAO = attachmentDAO;
 		this.customFieldDAO = customFieldDAO;
 		this.checklistDAO = checklistDAO;
-		this.configService = configService;
+		this.fileService = fileService;
 		this.adminLogService = adminLogService;
 		this.notificationService = notificationService;
 		this.scheduledNotificationDAO = scheduledNotificationDAO;
@@ -137,16 +134,15 @@ public class EventService {
 			adminLogService.log(currentUser.getUsername(), "EVENT_START",
 					"Event '" + event.getName() + "' (ID: " + eventId + ") started.");
 
-			// Notify all assigned attendees
-			List<User> attendees = eventDAO.getAssignedUsersForEvent(eventId);
-			for (User attendee : attendees) {
-				NotificationPayload payload = new NotificationPayload();
-				payload.setTitle("Event gestartet: " + event.getName());
-				payload.setDescription("Das Event, dem du zugewiesen bist, hat jetzt begonnen.");
-				payload.setLevel("Important");
-				payload.setUrl("/veranstaltungen/details/" + eventId);
-				notificationService.sendNotificationToUser(attendee.getId(), payload);
-			}
+			// Notify all assigned attendees with a single batched notification
+			List<Integer> attendeeIds = eventDAO.getAssignedUsersForEvent(eventId).stream().map(User::getId)
+					.toList();
+			NotificationPayload payload = new NotificationPayload();
+			payload.setTitle("Event gestartet: " + event.getName());
+			payload.setDescription("Das Event, dem du zugewiesen bist, hat jetzt begonnen.");
+			payload.setLevel("Important");
+			payload.setUrl("/veranstaltungen/details/" + eventId);
+			notificationService.sendNotificationToUsers(attendeeIds, payload);
 
 			// Trigger UI update for everyone
 			notificationService.broadcastUIUpdate("EVENT", "UPDATED", Map.of("id", eventId));
@@ -176,16 +172,15 @@ public class EventService {
 			adminLogService.log(currentUser.getUsername(), "EVENT_STOP",
 					"Event '" + event.getName() + "' (ID: " + eventId + ") stopped.");
 
-			// Notify all assigned attendees
-			List<User> attendees = eventDAO.getAssignedUsersForEvent(eventId);
-			for (User attendee : attendees) {
-				NotificationPayload payload = new NotificationPayload();
-				payload.setTitle("Event beendet: " + event.getName());
-				payload.setDescription("Das Event, dem du zugewiesen warst, wurde beendet. Vergiss nicht, dein Feedback abzugeben!");
-				payload.setLevel("Informational");
-				payload.setUrl("/veranstaltungen/details/" + eventId);
-				notificationService.sendNotificationToUser(attendee.getId(), payload);
-			}
+			// Notify all assigned attendees with a single batched notification
+			List<Integer> attendeeIds = eventDAO.getAssignedUsersForEvent(eventId).stream().map(User::getId)
+					.toList();
+			NotificationPayload payload = new NotificationPayload();
+			payload.setTitle("Event beendet: " + event.getName());
+			payload.setDescription("Das Event, dem du zugewiesen warst, wurde beendet. Vergiss nicht, dein Feedback abzugeben!");
+			payload.setLevel("Informational");
+			payload.setUrl("/veranstaltungen/details/" + eventId);
+			notificationService.sendNotificationToUsers(attendeeIds, payload);
 
 			// Trigger UI update for everyone
 			notificationService.broadcastUIUpdate("EVENT", "UPDATED", Map.of("id", eventId));
@@ -318,28 +313,60 @@ public class EventService {
 		return clonedMeeting;
 	}
 
+	/**
+	 * Deletes an event together with its attachments. Attachments are linked by
+	 * parent type and id rather than a foreign key, so they are removed here,
+	 * releasing their stored content.
+	 */
+	@Transactional
+	public boolean deleteEvent(int eventId) {
+		List<Attachment> attachments = attachmentDAO.getAttachmentsForParent("EVENT", eventId, "ADMIN");
+		if (!eventDAO.deleteEvent(eventId)) {
+			return false;
+		}
+		for (Attachment attachment : attachments) {
+			removeAttachment(attachment);
+		}
+		return true;
+	}
+
+	@Transactional
+	public boolean deleteAttachment(int eventId, int attachmentId, User adminUser) {
+		Attachment attachment = attachmentDAO.getAttachmentById(attachmentId);
+		if (attachment == null || !"EVENT".equals(attachment.getParentType()) || attachment.getParentId() != eventId) {
+			return false;
+		}
+		removeAttachment(attachment);
+		adminLogService.log(adminUser.getUsername(), "DELETE_EVENT_ATTACHMENT",
+				"Anhang '" + attachment.getFilename() + "' von Event ID " + eventId + " entfernt.");
+		return true;
+	}
+
+	private void removeAttachment(Attachment attachment) {
+		if (!attachmentDAO.deleteAttachment(attachment.getId())) {
+			throw new RuntimeException("Fehler beim Löschen des Anhangs aus der Datenbank.");
+		}
+		fileService.releaseContent(attachment.getFilepath());
+	}
+
 	private void handleAttachmentUpload(MultipartFile file, int eventId, String requiredRole, User adminUser)
 			throws IOException {
-		String uploadDir = configService.getProperty("upload.directory");
 		String originalFileName = Paths.get(file.getOriginalFilename()).getFileName().toString();
-		String uniqueFileName = UUID.randomUUID() + "-" + originalFileName.replaceAll("[^a-zA-Z0-9.\\-_]", "_");
-
-		Path targetPath = Paths.get(uploadDir, "events", uniqueFileName);
-		Files.createDirectories(targetPath.getParent());
-		Files.copy(file.getInputStream(), targetPath);
+		// Identical files attached to several events are stored only once.
+		String filepath = fileService.storeContent(file, "events");
 
 		Attachment attachment = new Attachment();
 		attachment.setParentId(eventId);
 		attachment.setParentType("EVENT");
 		attachment.setFilename(originalFileName);
-		attachment.setFilepath("events/" + uniqueFileName);
+		attachment.setFilepath(filepath);
 		attachment.setRequiredRole(requiredRole);
 
 		if (attachmentDAO.addAttachment(attachment)) {
 			adminLogService.log(adminUser.getUsername(), "ADD_EVENT_ATTACHMENT",
 					"Anhang '" + originalFileName + "' zu Event ID " + eventId + " hinzugefügt.");
 		} else {
-			Files.deleteIfExists(targetPath);
+			// Rolling back also drops the stored content if nothing else refers to it.
 			throw new RuntimeException("Fehler beim Speichern des Anhangs in der Datenbank.");
 		}
 	}
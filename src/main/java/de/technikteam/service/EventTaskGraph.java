@@ -0,0 +1,153 @@
+package de.technikteam.service;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * In-memory dependency graph of the tasks of one event. Every node tracks how
+ * many of its dependencies are not yet DONE, so a status change only touches
+ * the direct dependents of the changed task. LOCKED tasks whose dependencies
+ * are all DONE are collected as "ready" and opened by {@link #unlockReady()}.
+ * <p>
+ * All methods are synchronized on the graph; callers persist the returned
+ * status changes themselves and drop the graph if their transaction rolls
+ * back. A task without a status counts as {@link #OPEN}.
+ */
+final class EventTaskGraph {
+	static final String LOCKED = "LOCKED";
+	static final String OPEN = "OPEN";
+	static final String DONE = "DONE";
+
+	private static final class Node {
+		private final int id;
+		private String status;
+		private final Set<Integer> dependsOn = new HashSet<>();
+		private final Set<Integer> dependents = new HashSet<>();
+		private int unmetDependencies;
+
+		private Node(int id, String status) {
+			this.id = id;
+			this.status = status;
+		}
+	}
+
+	private final int eventId;
+	private final Map<Integer, Node> nodes = new HashMap<>();
+	private final Set<Integer> readyLocked = new HashSet<>();
+
+	/**
+	 * @param statuses     Status of every task of the event, by task ID.
+	 * @param dependencies Pairs of {task ID, ID of the task it depends on}.
+	 */
+	EventTaskGraph(int eventId, Map<Integer, String> statuses, List<int[]> dependencies) {
+		this.eventId = eventId;
+		statuses.forEach((id, status) -> nodes.put(id, new Node(id, orOpen(status))));
+		for (int[] dependency : dependencies) {
+			link(dependency[0], dependency[1]);
+		}
+		nodes.values().forEach(this::updateReadiness);
+	}
+
+	int getEventId() {
+		return eventId;
+	}
+
+	synchronized boolean contains(int taskId) {
+		return nodes.containsKey(taskId);
+	}
+
+	/**
+	 * Records a status change of a single task and adjusts the counters of its
+	 * direct dependents.
+	 */
+	synchronized void setStatus(int taskId, String status) {
+		status = orOpen(status);
+		Node node = nodes.get(taskId);
+		if (node == null || status.equals(node.status)) {
+			return;
+		}
+		boolean wasDone = DONE.equals(node.status);
+		boolean isDone = DONE.equals(status);
+		node.status = status;
+		if (wasDone != isDone) {
+			for (Integer dependentId : node.dependents) {
+				Node dependent = nodes.get(dependentId);
+				dependent.unmetDependencies += isDone ? -1 : 1;
+				updateReadiness(dependent);
+			}
+		}
+		updateReadiness(node);
+	}
+
+	/**
+	 * Adds a task or replaces its status and dependencies, e.g. after it was
+	 * saved through the editor.
+	 */
+	synchronized void putTask(int taskId, String status, int[] dependencyIds) {
+		Node node = nodes.get(taskId);
+		if (node == null) {
+			node = new Node(taskId, orOpen(status));
+			nodes.put(taskId, node);
+		} else {
+			setStatus(taskId, status);
+			for (Integer dependencyId : node.dependsOn) {
+				nodes.get(dependencyId).dependents.remove(taskId);
+			}
+			node.dependsOn.clear();
+			node.unmetDependencies = 0;
+		}
+		if (dependencyIds != null) {
+			for (int dependencyId : dependencyIds) {
+				link(taskId, dependencyId);
+			}
+		}
+		updateReadiness(node);
+	}
+
+	/**
+	 * Opens every LOCKED task whose dependencies are all DONE.
+	 *
+	 * @return The tasks whose status changed, mapped to their new status.
+	 */
+	synchronized Map<Integer, String> unlockReady() {
+		if (readyLocked.isEmpty()) {
+			return Map.of();
+		}
+		Map<Integer, String> changes = new LinkedHashMap<>();
+		for (Integer taskId : readyLocked) {
+			nodes.get(taskId).status = OPEN;
+			changes.put(taskId, OPEN);
+		}
+		readyLocked.clear();
+		return changes;
+	}
+
+	private static String orOpen(String status) {
+		return status != null ? status : OPEN;
+	}
+
+	private void link(int taskId, int dependsOnId) {
+		Node node = nodes.get(taskId);
+		Node parent = nodes.get(dependsOnId);
+		// Dependencies on tasks of other events are ignored, as before.
+		if (node == null || parent == null || !node.dependsOn.add(dependsOnId)) {
+			return;
+		}
+		parent.dependents.add(taskId);
+		if (!DONE.equals(parent.status)) {
+			node.unmetDependencies++;
+		}
+	}
+
+	private void updateReadiness(Node node) {
+		if (LOCKED.equals(node.status) && node.unmetDependencies == 0) {
+			readyLocked.add(node.id);
+		} else {
+			readyLocked.remove(node.id);
+		}
+	}
+}
@@ -1,5 +1,7 @@
 package de.technikteam.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import de.technikteam.api.v1.dto.NotificationPayload;
 import de.technikteam.dao.EventDAO;
 import de.technikteam.dao.EventTaskDAO;
@@ -14,16 +16,17 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
-import java.util.Arrays;
-import java.util.Comparator;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
-import java.util.stream.Collectors;
 
 @Service
 public class EventTaskService {
@@ -37,6 +40,10 @@ public class EventTaskService {
 
 	private static final Pattern MENTION_PATTERN = Pattern.compile("@(\\w+)");
 
+	// Dependency graphs of recently edited events; rebuilt from the database on a miss.
+	private final Cache<Integer, EventTaskGraph> taskGraphs = Caffeine.newBuilder()
+			.expireAfterAccess(30, TimeUnit.MINUTES).maximumSize(200).build();
+
 	@Autowired
 	public EventTaskService(EventTaskDAO taskDAO, UserDAO userDAO, EventDAO eventDAO,
 			NotificationService notificationService, @Qualifier("richTextPolicy") PolicyFactory richTextPolicy) {
@@ -58,14 +65,15 @@ public class EventTaskService {
 			task.setDescription(sanitizedDescription);
 		}
 
+		if (task.getStatus() == null) {
+			task.setStatus(EventTaskGraph.OPEN);
+		}
+
 		String originalDescription = "";
 		if (task.getId() > 0) {
-			// This is not perfectly efficient, but good enough for this purpose.
-			// A better solution would be to get the task from a service layer cache.
-			EventTask existingTask = taskDAO.getTasksForEvent(task.getEventId()).stream()
-					.filter(t -> t.getId() == task.getId()).findFirst().orElse(null);
-			if (existingTask != null) {
-				originalDescription = existingTask.getDescription();
+			String existingDescription = taskDAO.getTaskDescription(task.getId());
+			if (existingDescription != null) {
+				originalDescription = existingDescription;
 			}
 		}
 
@@ -84,9 +92,10 @@ public class EventTaskService {
 		if (userIds != null) {
 			notifyAssignedUsers(task, userIds, currentUser);
 		}
-        
-        // After saving, re-calculate all task statuses for the event
-        calculateAndUpdateTaskStatuses(task.getEventId());
+
+		// After saving, re-evaluate the saved task and open anything it unblocked
+		getTaskGraph(task.getEventId()).putTask(taskId, task.getStatus(), dependencyIds);
+		calculateAndUpdateTaskStatuses(task.getEventId());
 
 		// Broadcast a general UI update to all clients to indicate that the event data
 		// has changed.
@@ -181,10 +190,7 @@ public class EventTaskService {
 			if (newStatus == null || !List.of("OPEN", "IN_PROGRESS", "DONE", "LOCKED").contains(newStatus)) {
 				throw new IllegalArgumentException("Invalid status provided.");
 			}
-			taskDAO.updateTaskStatus(taskId, newStatus);
-			if("DONE".equals(newStatus)) {
-				calculateAndUpdateTaskStatuses(eventId);
-			}
+			applyStatusChange(eventId, taskId, newStatus, "DONE".equals(newStatus));
 			break;
 
 		case "claim":
@@ -192,7 +198,7 @@ public class EventTaskService {
 				throw new SecurityException("You must be a participant of the event to claim tasks.");
 			}
 			taskDAO.assignUserToTask(taskId, currentUser.getId());
-            taskDAO.updateTaskStatus(taskId, "IN_PROGRESS");
+			applyStatusChange(eventId, taskId, "IN_PROGRESS", false);
 			break;
 
 		case "unclaim":
@@ -200,14 +206,12 @@ public class EventTaskService {
 				throw new SecurityException("You can only un-claim tasks assigned to you.");
 			}
 			taskDAO.unassignUserFromTask(taskId, currentUser.getId());
-            List<User> remainingUsers = taskDAO.getTasksForEvent(eventId).stream()
-                .filter(t -> t.getId() == taskId).findFirst()
-                .map(EventTask::getAssignedUsers).orElse(List.of());
-            if(remainingUsers.isEmpty()){
-                taskDAO.updateTaskStatus(taskId, "OPEN");
-            }
-            // After leaving a task, re-evaluate statuses as it might free up a crew member
-            calculateAndUpdateTaskStatuses(eventId);
+			if (taskDAO.countAssignedUsers(taskId) == 0) {
+				applyStatusChange(eventId, taskId, "OPEN", true);
+			} else {
+				// After leaving a task, re-evaluate statuses as it might free up a crew member
+				calculateAndUpdateTaskStatuses(eventId);
+			}
 			break;
 
 		default:
@@ -217,58 +221,50 @@ public class EventTaskService {
 		notificationService.broadcastUIUpdate("EVENT", "UPDATED", Map.of("id", eventId));
 	}
 
-    @Transactional
-    public void calculateAndUpdateTaskStatuses(int eventId) {
-        List<EventTask> allTasks = taskDAO.getTasksForEvent(eventId);
-        List<User> assignedUsers = eventDAO.getAssignedUsersForEvent(eventId);
-        int totalCrewSize = assignedUsers.size();
+	/**
+	 * Opens every LOCKED task of the event whose dependencies are all DONE and
+	 * persists the changed rows in one batch. Only tasks made ready by earlier
+	 * changes are touched; the event's tasks are not reloaded.
+	 */
+	@Transactional
+	public void calculateAndUpdateTaskStatuses(int eventId) {
+		Map<Integer, String> changes = getTaskGraph(eventId).unlockReady();
+		if (!changes.isEmpty()) {
+			taskDAO.updateTaskStatuses(changes);
+			logger.debug("Unlocked {} tasks of event {}", changes.size(), eventId);
+		}
+	}
 
-        Map<Integer, EventTask> taskMap = allTasks.stream().collect(Collectors.toMap(EventTask::getId, t -> t));
-        
-        // Step 1: Unlock tasks based on dependencies
-        for (EventTask task : allTasks) {
-            if ("LOCKED".equals(task.getStatus())) {
-                boolean allDependenciesMet = task.getDependsOn().stream()
-                    .allMatch(dep -> "DONE".equals(taskMap.get(dep.getId()).getStatus()));
-                
-                if (allDependenciesMet) {
-                    taskDAO.updateTaskStatus(task.getId(), "OPEN");
-                    task.setStatus("OPEN"); // Update local copy for subsequent checks in this run
-                }
-            }
-        }
-        
-        // Step 2: Ensure there are enough open tasks for available crew (headroom)
-        long assignedCrewCount = allTasks.stream()
-            .filter(t -> "IN_PROGRESS".equals(t.getStatus()))
-            .mapToLong(t -> t.getAssignedUsers().size())
-            .sum();
-            
-        long openTaskSlots = allTasks.stream()
-            .filter(t -> "OPEN".equals(t.getStatus()))
-            .mapToLong(EventTask::getRequiredPersons)
-            .sum();
-
-        long availableCrew = totalCrewSize - assignedCrewCount;
-
-        if (openTaskSlots < availableCrew) {
-            // Find next unlockable tasks in display order and unlock them until headroom is met
-            allTasks.stream()
-                .filter(t -> "LOCKED".equals(t.getStatus()))
-                .sorted(Comparator.comparingInt(EventTask::getDisplayOrder))
-                .forEach(task -> {
-                    long currentOpenSlots = allTasks.stream().filter(t -> "OPEN".equals(t.getStatus())).mapToLong(EventTask::getRequiredPersons).sum();
-                    if (currentOpenSlots < availableCrew) {
-                         boolean allDependenciesMet = task.getDependsOn().stream()
-                            .allMatch(dep -> "DONE".equals(taskMap.get(dep.getId()).getStatus()));
-                         if(allDependenciesMet) {
-                            taskDAO.updateTaskStatus(task.getId(), "OPEN");
-                            task.setStatus("OPEN");
-                         }
-                    }
-                });
-        }
+	/**
+	 * Applies a single status change to the task graph and persists it, together
+	 * with any dependents it unlocked, in one batch.
+	 */
+	private void applyStatusChange(int eventId, int taskId, String newStatus, boolean unlockDependents) {
+		EventTaskGraph graph = getTaskGraph(eventId);
+		graph.setStatus(taskId, newStatus);
+		Map<Integer, String> changes = new LinkedHashMap<>();
+		changes.put(taskId, newStatus);
+		if (unlockDependents) {
+			changes.putAll(graph.unlockReady());
+		}
+		taskDAO.updateTaskStatuses(changes);
+	}
 
-        notificationService.broadcastUIUpdate("EVENT", "UPDATED", Map.of("id", eventId));
-    }
-}
\ No newline at end of file
+	private EventTaskGraph getTaskGraph(int eventId) {
+		EventTaskGraph graph = taskGraphs.get(eventId, id -> new EventTaskGraph(id,
+				taskDAO.getTaskStatusesForEvent(id), taskDAO.getTaskDependenciesForEvent(id)));
+		// The graph is updated before the surrounding transaction commits; if it
+		// rolls back, the graph no longer matches the database and is dropped.
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCompletion(int status) {
+					if (status != STATUS_COMMITTED) {
+						taskGraphs.invalidate(eventId);
+					}
+				}
+			});
+		}
+		return graph;
+	}
+}
@@ -0,0 +1,117 @@
+package de.technikteam.service;
+
+import com.google.auth.oauth2.GoogleCredentials;
+import com.google.firebase.FirebaseApp;
+import com.google.firebase.FirebaseOptions;
+import com.google.firebase.messaging.AndroidConfig;
+import com.google.firebase.messaging.AndroidNotification;
+import com.google.firebase.messaging.BatchResponse;
+import com.google.firebase.messaging.FirebaseMessaging;
+import com.google.firebase.messaging.FirebaseMessagingException;
+import com.google.firebase.messaging.MessagingErrorCode;
+import com.google.firebase.messaging.MulticastMessage;
+import com.google.firebase.messaging.Notification;
+import com.google.firebase.messaging.SendResponse;
+import de.technikteam.api.v1.dto.NotificationPayload;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+@Service
+@ConditionalOnProperty(name = "push.transport", havingValue = "fcm", matchIfMissing = true)
+public class FcmPushTransport implements PushTransport {
+	private static final Logger logger = LogManager.getLogger(FcmPushTransport.class);
+
+	public FcmPushTransport() {
+		try {
+			// Check if credentials are provided either via environment variable or default gcloud login
+			if (System.getenv("GOOGLE_APPLICATION_CREDENTIALS") != null || GoogleCredentials.getApplicationDefault() != null) {
+				if (FirebaseApp.getApps().isEmpty()) {
+					FirebaseOptions options = FirebaseOptions.builder()
+							.setCredentials(GoogleCredentials.getApplicationDefault()).build();
+					FirebaseApp.initializeApp(options);
+					logger.info("Firebase Admin SDK initialized successfully.");
+				}
+			} else {
+				logger.warn("GOOGLE_APPLICATION_CREDENTIALS environment variable not set and Application Default Credentials not found. Firebase Admin SDK will not be initialized. Push notifications will be disabled.");
+			}
+		} catch (IOException e) {
+			logger.error("Failed to initialize Firebase Admin SDK. Push notifications will be disabled.", e);
+		}
+	}
+
+	@Override
+	public boolean isAvailable() {
+		return !FirebaseApp.getApps().isEmpty();
+	}
+
+	@Override
+	public List<Outcome> sendMulticast(List<String> tokens, NotificationPayload payload) {
+		MulticastMessage message = buildMessage(tokens, payload);
+		try {
+			BatchResponse response = FirebaseMessaging.getInstance().sendEachForMulticast(message);
+			logger.info("FCM multicast sent: {} successful, {} failed.", response.getSuccessCount(),
+					response.getFailureCount());
+			List<Outcome> outcomes = new ArrayList<>(tokens.size());
+			for (SendResponse sendResponse : response.getResponses()) {
+				outcomes.add(toOutcome(sendResponse));
+			}
+			return outcomes;
+		} catch (FirebaseMessagingException e) {
+			// The whole batch failed (e.g. network or auth problem), so every token is retried.
+			logger.error("FCM multicast to {} tokens failed: {}", tokens.size(), e.getMessage());
+			return Collections.nCopies(tokens.size(), Outcome.RETRY);
+		}
+	}
+
+	private Outcome toOutcome(SendResponse sendResponse) {
+		if (sendResponse.isSuccessful()) {
+			return Outcome.DELIVERED;
+		}
+		FirebaseMessagingException e = sendResponse.getException();
+		MessagingErrorCode code = e != null ? e.getMessagingErrorCode() : null;
+		if (code == MessagingErrorCode.UNREGISTERED || code == MessagingErrorCode.INVALID_ARGUMENT) {
+			return Outcome.INVALID_TOKEN;
+		}
+		if (code == MessagingErrorCode.UNAVAILABLE || code == MessagingErrorCode.INTERNAL
+				|| code == MessagingErrorCode.QUOTA_EXCEEDED) {
+			return Outcome.RETRY;
+		}
+		logger.warn("FCM delivery failed permanently: {}", e != null ? e.getMessage() : "unknown error");
+		return Outcome.DELIVERED;
+	}
+
+	private MulticastMessage buildMessage(List<String> tokens, NotificationPayload payload) {
+		MulticastMessage.Builder messageBuilder = MulticastMessage.builder().addAllTokens(tokens);
+
+		if (!payload.isSilent()) {
+			messageBuilder.setNotification(
+					Notification.builder().setTitle(payload.getTitle()).setBody(payload.getDescription()).build());
+		}
+
+		AndroidConfig.Builder androidConfigBuilder = AndroidConfig.builder();
+		if ("HIGH".equalsIgnoreCase(payload.getAndroidImportance())) {
+			androidConfigBuilder.setPriority(AndroidConfig.Priority.HIGH);
+		}
+		if (payload.getAndroidChannelId() != null) {
+			androidConfigBuilder.setNotification(
+					AndroidNotification.builder().setChannelId(payload.getAndroidChannelId()).build());
+		}
+		messageBuilder.setAndroidConfig(androidConfigBuilder.build());
+
+		if (payload.getUrl() != null) {
+			messageBuilder.putData("url", payload.getUrl());
+		}
+		if (payload.getProgress() != null && payload.getProgress().size() == 2) {
+			messageBuilder.putData("progressMax", String.valueOf(payload.getProgress().get(0)));
+			messageBuilder.putData("progressCurrent", String.valueOf(payload.getProgress().get(1)));
+		}
+		return messageBuilder.build();
+	}
+}
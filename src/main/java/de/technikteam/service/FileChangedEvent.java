@@ -0,0 +1,22 @@
+package de.technikteam.service;
+
+/**
+ * Published whenever a file or attachment record is created, updated or
+ * deleted, so that the {@link FileDeliveryService} forgets what it cached for
+ * that id. File and attachment ids come from separate tables and can overlap,
+ * so the event names the table.
+ */
+public record FileChangedEvent(Kind kind, int id) {
+
+	public enum Kind {
+		FILE, ATTACHMENT
+	}
+
+	public static FileChangedEvent file(int id) {
+		return new FileChangedEvent(Kind.FILE, id);
+	}
+
+	public static FileChangedEvent attachment(int id) {
+		return new FileChangedEvent(Kind.ATTACHMENT, id);
+	}
+}
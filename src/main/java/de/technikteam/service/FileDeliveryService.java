@@ -0,0 +1,164 @@
+package de.technikteam.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import de.technikteam.dao.AttachmentDAO;
+import de.technikteam.dao.FileDAO;
+import de.technikteam.model.Attachment;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Resolves downloadable files and caches everything needed to serve them: the
+ * database lookup of a download id and the size, modification time, content
+ * type and ETag of each physical file. A cached entry is revalidated with a
+ * single stat call, so a file changed on disk is picked up immediately while
+ * repeated downloads neither hit the database nor probe the content type.
+ */
+@Service
+public class FileDeliveryService {
+	private static final Logger logger = LogManager.getLogger(FileDeliveryService.class);
+	// Content-addressed uploads are named <sha256>.<ext> (see FileService).
+	private static final Pattern CONTENT_ADDRESSED_NAME = Pattern.compile("([0-9a-f]{64})(\\.[a-z0-9]+)?");
+
+	private final FileDAO fileDAO;
+	private final AttachmentDAO attachmentDAO;
+	private final Path fileStorageLocation;
+	private final Cache<DownloadKey, DownloadTarget> downloadTargets = Caffeine.newBuilder()
+			.expireAfterAccess(30, TimeUnit.MINUTES).maximumSize(10_000).build();
+	private final Cache<Path, FileMetadata> metadataByPath = Caffeine.newBuilder()
+			.expireAfterAccess(30, TimeUnit.MINUTES).maximumSize(10_000).build();
+
+	/**
+	 * The stored location and download name of a file or attachment record.
+	 */
+	public record DownloadTarget(String relativePath, String filename) {
+	}
+
+	private record DownloadKey(FileChangedEvent.Kind kind, int id) {
+	}
+
+	/**
+	 * Everything needed to answer a (conditional or partial) request for a file.
+	 * The ETag is strong: the content digest for content-addressed files,
+	 * otherwise derived from the size and modification time.
+	 */
+	public record FileMetadata(Path path, long size, long lastModified, MediaType contentType, String etag) {
+	}
+
+	@Autowired
+	public FileDeliveryService(FileDAO fileDAO, AttachmentDAO attachmentDAO, ConfigurationService configService) {
+		this.fileDAO = fileDAO;
+		this.attachmentDAO = attachmentDAO;
+		this.fileStorageLocation = Paths.get(configService.getProperty("upload.directory")).toAbsolutePath()
+				.normalize();
+	}
+
+	/**
+	 * Looks up a download id, which may refer to an attachment or a general
+	 * file; attachments take precedence. Unknown ids are not cached.
+	 *
+	 * @return The target, or null if no record exists.
+	 */
+	public DownloadTarget getDownloadTarget(int id) {
+		DownloadKey attachmentKey = new DownloadKey(FileChangedEvent.Kind.ATTACHMENT, id);
+		DownloadKey fileKey = new DownloadKey(FileChangedEvent.Kind.FILE, id);
+		DownloadTarget cached = downloadTargets.getIfPresent(attachmentKey);
+		if (cached == null) {
+			cached = downloadTargets.getIfPresent(fileKey);
+		}
+		if (cached != null) {
+			return cached;
+		}
+		Attachment attachment = attachmentDAO.getAttachmentById(id);
+		if (attachment != null) {
+			return cache(attachmentKey, new DownloadTarget(attachment.getFilepath(), attachment.getFilename()));
+		}
+		de.technikteam.model.File dbFile = fileDAO.getFileById(id);
+		if (dbFile != null) {
+			return cache(fileKey, new DownloadTarget(dbFile.getFilepath(), dbFile.getFilename()));
+		}
+		return null;
+	}
+
+	/**
+	 * Returns the metadata of a stored file, relative to the upload directory.
+	 *
+	 * @return The metadata, or null if the file does not exist or is not a
+	 *         regular file.
+	 * @throws SecurityException if the path points outside the upload directory.
+	 */
+	public FileMetadata getMetadata(String relativePath) throws IOException {
+		Path filePath = this.fileStorageLocation.resolve(relativePath).normalize();
+		if (!filePath.startsWith(this.fileStorageLocation)) {
+			throw new SecurityException("Path Traversal Attack attempt detected for path '" + filePath + "'");
+		}
+
+		BasicFileAttributes attributes;
+		try {
+			attributes = Files.readAttributes(filePath, BasicFileAttributes.class);
+		} catch (NoSuchFileException e) {
+			metadataByPath.invalidate(filePath);
+			return null;
+		}
+		if (!attributes.isRegularFile()) {
+			return null;
+		}
+
+		long size = attributes.size();
+		long lastModified = attributes.lastModifiedTime().toMillis();
+		FileMetadata cached = metadataByPath.getIfPresent(filePath);
+		if (cached != null && cached.size() == size && cached.lastModified() == lastModified) {
+			return cached;
+		}
+
+		Matcher digestName = CONTENT_ADDRESSED_NAME.matcher(filePath.getFileName().toString());
+		String etag = digestName.matches() ? "\"" + digestName.group(1) + "\""
+				: "\"" + Long.toHexString(lastModified) + "-" + Long.toHexString(size) + "\"";
+		FileMetadata metadata = new FileMetadata(filePath, size, lastModified, probeContentType(filePath), etag);
+		metadataByPath.put(filePath, metadata);
+		return metadata;
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onFileChanged(FileChangedEvent event) {
+		downloadTargets.invalidate(new DownloadKey(event.kind(), event.id()));
+		if (event.kind() == FileChangedEvent.Kind.ATTACHMENT) {
+			// The id may have resolved to the file with the same id while no attachment existed.
+			downloadTargets.invalidate(new DownloadKey(FileChangedEvent.Kind.FILE, event.id()));
+		}
+	}
+
+	private DownloadTarget cache(DownloadKey key, DownloadTarget target) {
+		if (target.relativePath() != null) {
+			downloadTargets.put(key, target);
+		}
+		return target;
+	}
+
+	private MediaType probeContentType(Path filePath) {
+		try {
+			String contentType = Files.probeContentType(filePath);
+			if (contentType != null) {
+				return MediaType.parseMediaType(contentType);
+			}
+		} catch (IOException | IllegalArgumentException e) {
+			logger.warn("Could not determine content type for file {}", filePath);
+		}
+		return MediaType.APPLICATION_OCTET_STREAM;
+	}
+}
@@ -10,19 +10,32 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.security.SecureRandom;
 import java.time.LocalDateTime;
 import java.util.Base64;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
-import java.util.UUID;
 
 @Service
 public class FileService {
@@ -31,19 +44,28 @@ public class FileService {
 	private final FileSharingDAO fileSharingDAO;
 	private final AdminLogService adminLogService;
 	private final NotificationService notificationService;
+	private final ImageDerivativeService imageDerivativeService;
 	private final Path fileStorageLocation;
+	private final TransactionTemplate blobCleanupTransaction;
 	private static final Logger logger = LogManager.getLogger(FileService.class);
 
 	private static final long MAX_FILE_SIZE_BYTES = 1000L * 1024 * 1024; // 1000 MB
 
+	private record StoredBlob(String filepath, String contentHash, long size) {
+	}
+
 	@Autowired
-	public FileService(FileDAO fileDAO, FileSharingDAO fileSharingDAO, ConfigurationService configService, AdminLogService adminLogService, NotificationService notificationService) {
+	public FileService(FileDAO fileDAO, FileSharingDAO fileSharingDAO, ConfigurationService configService, AdminLogService adminLogService, NotificationService notificationService, ImageDerivativeService imageDerivativeService, PlatformTransactionManager transactionManager) {
 		this.fileDAO = fileDAO;
 		this.fileSharingDAO = fileSharingDAO;
 		this.adminLogService = adminLogService;
 		this.notificationService = notificationService;
+		this.imageDerivativeService = imageDerivativeService;
 		this.fileStorageLocation = Paths.get(configService.getProperty("upload.directory")).toAbsolutePath()
 				.normalize();
+		// Cleanup runs after the uploading or deleting transaction has completed.
+		this.blobCleanupTransaction = new TransactionTemplate(transactionManager);
+		this.blobCleanupTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
 	}
 
 	public de.technikteam.model.File storeFile(MultipartFile multipartFile, Integer categoryId, String requiredRole,
@@ -57,38 +79,32 @@ public class FileService {
 		logger.debug("Starting file storage process. User: {}, CategoryID: {}, Role: {}, SubDir: {}",
 				adminUser.getUsername(), categoryId, requiredRole, subDirectory);
 
-		// Security Validations
-		if (multipartFile.getSize() > MAX_FILE_SIZE_BYTES) {
-			logger.warn("File upload blocked for user {}: File size {} exceeds limit of {} bytes.",
-					adminUser.getUsername(), multipartFile.getSize(), MAX_FILE_SIZE_BYTES);
-			throw new IOException("Dateigröße überschreitet das Limit von 1000MB.");
-		}
-		logger.trace("File size check passed: {} bytes.", multipartFile.getSize());
-
-		FileSignatureValidator.FileTypeValidationResult validationResult = FileSignatureValidator
-				.validateFileType(multipartFile);
-		if (validationResult == FileSignatureValidator.FileTypeValidationResult.DISALLOWED) {
-			logger.warn("File upload blocked for user {}: Invalid or disallowed file type detected. MIME: {}",
-					adminUser.getUsername(), multipartFile.getContentType());
-			throw new IOException("Ungültiger oder nicht erlaubter Dateityp erkannt.");
-		}
-		boolean needsWarning = validationResult == FileSignatureValidator.FileTypeValidationResult.ALLOWED_WITH_WARNING;
-		logger.trace("File signature validation passed. Needs warning: {}", needsWarning);
-
+		boolean needsWarning = validateUpload(multipartFile.getContentType(), multipartFile.getSize(), adminUser);
 		String originalFileName = FilenameUtils.getName(multipartFile.getOriginalFilename());
-		String sanitizedFileName = originalFileName.replaceAll("[^a-zA-Z0-9.\\-_]", "_");
-		String uniqueFileName = UUID.randomUUID() + "-" + sanitizedFileName;
-		logger.trace("Original filename: '{}', Sanitized and unique filename: '{}'", originalFileName, uniqueFileName);
+		StoredBlob blob = storeBlob(multipartFile.getInputStream(), subDirectory, originalFileName);
+		return registerFile(blob, originalFileName, categoryId, requiredRole, needsWarning, adminUser);
+	}
 
-		Path targetDirectory = this.fileStorageLocation.resolve(subDirectory);
-		Path targetPath = targetDirectory.resolve(uniqueFileName);
-		Files.createDirectories(targetDirectory);
-		Files.copy(multipartFile.getInputStream(), targetPath);
-		logger.debug("File successfully copied to physical path: {}", targetPath);
+	/**
+	 * Registers a file that was assembled from a chunked upload. The content has
+	 * already been hashed, so it is moved into the store without another pass.
+	 */
+	@Transactional
+	public de.technikteam.model.File storeAssembledFile(Path assembledFile, String contentHash,
+			String originalFileName, String contentType, Integer categoryId, String requiredRole, User adminUser)
+			throws IOException {
+		long size = Files.size(assembledFile);
+		boolean needsWarning = validateUpload(contentType, size, adminUser);
+		StoredBlob blob = commitBlob(assembledFile, contentHash, size, "docs", originalFileName);
+		return registerFile(blob, originalFileName, categoryId, requiredRole, needsWarning, adminUser);
+	}
 
+	private de.technikteam.model.File registerFile(StoredBlob blob, String originalFileName, Integer categoryId,
+			String requiredRole, boolean needsWarning, User adminUser) {
 		de.technikteam.model.File file = new de.technikteam.model.File();
 		file.setFilename(originalFileName);
-		file.setFilepath(subDirectory + "/" + uniqueFileName);
+		file.setFilepath(blob.filepath());
+		file.setContentHash(blob.contentHash());
 		file.setCategoryId(categoryId);
 		file.setRequiredRole(requiredRole);
 		file.setNeedsWarning(needsWarning);
@@ -103,15 +119,37 @@ public class FileService {
 			logger.info("File '{}' successfully stored and saved to database with ID {}.", originalFileName, newFileId);
 			logger.debug("Final saved file data from DB: {}", savedFile);
 			notificationService.broadcastUIUpdate("FILE", "CREATED", savedFile);
+			imageDerivativeService.scheduleRenditions(file.getFilepath());
 			return savedFile;
 		} else {
-			Files.deleteIfExists(targetPath);
-			logger.error("Failed to save file metadata to database for '{}'. Physical file has been rolled back.",
+			logger.error("Failed to save file metadata to database for '{}'. The upload will be rolled back.",
 					originalFileName);
 			throw new RuntimeException("Fehler beim Speichern der Datei-Metadaten in der Datenbank.");
 		}
 	}
 
+	/**
+	 * Stores an upload that is referenced by another table (e.g. attachments)
+	 * instead of a `files` record.
+	 *
+	 * @return The path of the stored content, relative to the upload directory.
+	 */
+	@Transactional
+	public String storeContent(MultipartFile multipartFile, String subDirectory) throws IOException {
+		return storeBlob(multipartFile.getInputStream(), subDirectory,
+				FilenameUtils.getName(multipartFile.getOriginalFilename())).filepath();
+	}
+
+	/**
+	 * Drops the reference taken by {@link #storeContent} when the referencing
+	 * record is deleted. Content stored before content addressing has no blob
+	 * row and belongs to that record alone.
+	 */
+	@Transactional
+	public void releaseContent(String filepath) {
+		releaseStoredFile(filepath, fileDAO.lockBlob(filepath) != null);
+	}
+
 	@Transactional
 	public boolean deleteFile(int fileId, User adminUser) throws IOException {
 		de.technikteam.model.File file = fileDAO.getFileById(fileId);
@@ -122,8 +160,7 @@ public class FileService {
 		// Delete the database record first
 		boolean success = fileDAO.deleteFile(fileId);
 		if (success) {
-			Path filePath = this.fileStorageLocation.resolve(file.getFilepath()).normalize();
-			Files.deleteIfExists(filePath);
+			releaseStoredFile(file.getFilepath(), file.getContentHash() != null);
 			adminLogService.log(adminUser.getUsername(), "DELETE_FILE",
 					"Datei '" + file.getFilename() + "' (ID: " + fileId + ") gelöscht.");
 			notificationService.broadcastUIUpdate("FILE", "DELETED", Map.of("id", fileId));
@@ -134,40 +171,34 @@ public class FileService {
 	@Transactional
 	public de.technikteam.model.File replaceFile(int existingFileId, MultipartFile newMultipartFile, Integer categoryId,
 			String requiredRole, User adminUser) throws IOException {
-		// 1. Get existing file record to find old physical file path
 		de.technikteam.model.File existingFile = fileDAO.getFileById(existingFileId);
 		if (existingFile == null) {
 			throw new IOException("Die zu ersetzende Datei wurde nicht gefunden.");
 		}
-		Path oldFilePath = this.fileStorageLocation.resolve(existingFile.getFilepath()).normalize();
+		String oldFilepath = existingFile.getFilepath();
+		String oldContentHash = existingFile.getContentHash();
 
-		// 2. Store the new file physically (this already does all validations)
 		// Use the "docs" subdirectory as a default for general file replacements.
-		de.technikteam.model.File newFile = storeFile(newMultipartFile, categoryId, requiredRole, adminUser, "docs");
+		boolean needsWarning = validateUpload(newMultipartFile.getContentType(), newMultipartFile.getSize(),
+				adminUser);
+		String originalFileName = FilenameUtils.getName(newMultipartFile.getOriginalFilename());
+		StoredBlob blob = storeBlob(newMultipartFile.getInputStream(), "docs", originalFileName);
 
-		// 3. Update the existing record with the new file's data
-		existingFile.setFilename(newFile.getFilename());
-		existingFile.setFilepath(newFile.getFilepath());
+		existingFile.setFilename(originalFileName);
+		existingFile.setFilepath(blob.filepath());
+		existingFile.setContentHash(blob.contentHash());
 		existingFile.setCategoryId(categoryId);
 		existingFile.setRequiredRole(requiredRole);
-		existingFile.setNeedsWarning(newFile.isNeedsWarning());
-		fileDAO.updateFile(existingFile);
-
-		// 4. Delete the temporary record created by storeFile
-		fileDAO.deleteFile(newFile.getId());
-
-		// 5. Delete the old physical file
-		try {
-			Files.deleteIfExists(oldFilePath);
-		} catch (IOException e) {
-			// Log this, but don't fail the transaction. Orphaned files are not ideal but
-			// better than a failed replacement.
-			logger.error("Could not delete old file '{}' after replacement.", oldFilePath, e);
+		existingFile.setNeedsWarning(needsWarning);
+		if (!fileDAO.updateFile(existingFile)) {
+			throw new RuntimeException("Fehler beim Speichern der Datei-Metadaten in der Datenbank.");
 		}
+		releaseStoredFile(oldFilepath, oldContentHash != null);
 
 		adminLogService.log(adminUser.getUsername(), "REPLACE_FILE",
 				"Datei '" + existingFile.getFilename() + "' (ID: " + existingFileId + ") ersetzt.");
 		notificationService.broadcastUIUpdate("FILE", "UPDATED", existingFile);
+		imageDerivativeService.scheduleRenditions(existingFile.getFilepath());
 		return existingFile;
 	}
 
@@ -186,6 +217,10 @@ public class FileService {
 		return Files.readString(filePath, StandardCharsets.UTF_8);
 	}
 
+	/**
+	 * Saves edited content as a new blob and points the record at it. Stored
+	 * content may be shared with other records, so it is never changed in place.
+	 */
 	@Transactional
 	public boolean updateFileContent(int fileId, String content, User adminUser) throws IOException {
 		de.technikteam.model.File file = fileDAO.getFileById(fileId);
@@ -196,17 +231,206 @@ public class FileService {
 		if (!filePath.startsWith(this.fileStorageLocation)) {
 			throw new SecurityException("Path Traversal Attack attempt detected.");
 		}
-		Files.writeString(filePath, content, StandardCharsets.UTF_8);
+		Path parent = this.fileStorageLocation.relativize(filePath).getParent();
+		String subDirectory = parent != null ? parent.toString().replace('\\', '/') : "docs";
+		StoredBlob blob = storeBlob(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)), subDirectory,
+				file.getFilename());
 
-		// "Touch" the file record to update the `uploaded_at` timestamp
-		boolean success = fileDAO.touchFileRecord(fileId);
+		boolean success = fileDAO.updateFileBlob(fileId, blob.filepath(), blob.contentHash());
 		if (success) {
+			releaseStoredFile(file.getFilepath(), file.getContentHash() != null);
 			adminLogService.log(adminUser.getUsername(), "FILE_CONTENT_UPDATE",
 					"Inhalt der Datei '" + file.getFilename() + "' (ID: " + fileId + ") aktualisiert.");
 		}
 		return success;
 	}
 
+	/**
+	 * Checks the size limit and the declared type of an upload.
+	 *
+	 * @return true if the file should carry a warning on download.
+	 * @throws IOException if the upload is not allowed.
+	 */
+	public boolean validateUpload(String contentType, long size, User adminUser) throws IOException {
+		if (size > MAX_FILE_SIZE_BYTES) {
+			logger.warn("File upload blocked for user {}: File size {} exceeds limit of {} bytes.",
+					adminUser.getUsername(), size, MAX_FILE_SIZE_BYTES);
+			throw new IOException("Dateigröße überschreitet das Limit von 1000MB.");
+		}
+		logger.trace("File size check passed: {} bytes.", size);
+
+		FileSignatureValidator.FileTypeValidationResult validationResult = FileSignatureValidator
+				.validateFileType(contentType, size);
+		if (validationResult == FileSignatureValidator.FileTypeValidationResult.DISALLOWED) {
+			logger.warn("File upload blocked for user {}: Invalid or disallowed file type detected. MIME: {}",
+					adminUser.getUsername(), contentType);
+			throw new IOException("Ungültiger oder nicht erlaubter Dateityp erkannt.");
+		}
+		boolean needsWarning = validationResult == FileSignatureValidator.FileTypeValidationResult.ALLOWED_WITH_WARNING;
+		logger.trace("File signature validation passed. Needs warning: {}", needsWarning);
+		return needsWarning;
+	}
+
+	/**
+	 * Streams content into the store while hashing it, so the digest costs no
+	 * extra pass. Content is stored as {@code <subDirectory>/<sha256>.<ext>}; if
+	 * that path already exists the temporary copy is dropped, and if the same
+	 * content lives in another directory it is hard-linked instead of copied.
+	 * Either way a reference to the blob is taken in the current transaction.
+	 */
+	private StoredBlob storeBlob(InputStream content, String subDirectory, String originalFileName)
+			throws IOException {
+		Path targetDirectory = resolveStoreDirectory(subDirectory);
+		Path tempPath = Files.createTempFile(targetDirectory, ".upload-", ".tmp");
+		try {
+			MessageDigest digest = newDigest();
+			long size;
+			try (InputStream in = new DigestInputStream(content, digest)) {
+				size = Files.copy(in, tempPath, StandardCopyOption.REPLACE_EXISTING);
+			}
+			return commitBlob(tempPath, HexFormat.of().formatHex(digest.digest()), size, subDirectory,
+					originalFileName);
+		} finally {
+			Files.deleteIfExists(tempPath);
+		}
+	}
+
+	/**
+	 * Moves already hashed content to its content-addressed path and takes a
+	 * reference to it. The source is left in place if the content is stored
+	 * already; the caller removes it.
+	 * <p>
+	 * The reference is taken before looking at the file system: it locks the blob
+	 * row, and a release that is deleting the file holds the same lock. Once the
+	 * lock is ours, a file that exists stays, and a file that a concurrent delete
+	 * removed is written again.
+	 */
+	private StoredBlob commitBlob(Path source, String contentHash, long size, String subDirectory,
+			String originalFileName) throws IOException {
+		resolveStoreDirectory(subDirectory);
+		String extension = FilenameUtils.getExtension(originalFileName).toLowerCase(Locale.ROOT)
+				.replaceAll("[^a-z0-9]", "");
+		String filepath = subDirectory + "/" + contentHash + (extension.isEmpty() ? "" : "." + extension);
+		Path targetPath = this.fileStorageLocation.resolve(filepath);
+
+		fileDAO.acquireBlob(filepath, contentHash, size);
+		boolean created = false;
+		if (Files.exists(targetPath)) {
+			logger.debug("Content {} already stored at {}, skipping the write.", contentHash, filepath);
+		} else if (linkExistingBlob(contentHash, targetPath)) {
+			created = true;
+		} else {
+			Files.move(source, targetPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			created = true;
+			logger.debug("File successfully stored at physical path: {}", targetPath);
+		}
+		if (created) {
+			deleteBlobOnRollback(filepath);
+		}
+		return new StoredBlob(filepath, contentHash, size);
+	}
+
+	private Path resolveStoreDirectory(String subDirectory) throws IOException {
+		Path targetDirectory = this.fileStorageLocation.resolve(subDirectory).normalize();
+		if (!targetDirectory.startsWith(this.fileStorageLocation)) {
+			throw new SecurityException("Path Traversal Attack attempt detected.");
+		}
+		Files.createDirectories(targetDirectory);
+		return targetDirectory;
+	}
+
+	private boolean linkExistingBlob(String contentHash, Path targetPath) {
+		for (String existingPath : fileDAO.getBlobPaths(contentHash)) {
+			Path source = this.fileStorageLocation.resolve(existingPath).normalize();
+			if (!Files.isRegularFile(source)) {
+				continue;
+			}
+			try {
+				Files.createLink(targetPath, source);
+				logger.debug("Linked duplicate content {} to existing blob {}.", contentHash, existingPath);
+				return true;
+			} catch (IOException | UnsupportedOperationException e) {
+				// e.g. a different file system; the content is written normally instead.
+				logger.debug("Could not hard-link {} to {}: {}", targetPath, source, e.getMessage());
+				return false;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Drops the record's reference to its stored content. The physical file is
+	 * deleted after commit once nothing refers to it any more; files from before
+	 * content addressing have no blob entry and belong to exactly one record.
+	 */
+	private void releaseStoredFile(String filepath, boolean contentAddressed) {
+		if (filepath == null) {
+			return;
+		}
+		if (!contentAddressed || fileDAO.releaseBlob(filepath)) {
+			runAfterCompletion(true, () -> deleteUnreferencedFile(filepath));
+		}
+	}
+
+	private void deleteBlobOnRollback(String filepath) {
+		runAfterCompletion(false, () -> deleteUnreferencedFile(filepath));
+	}
+
+	/**
+	 * Deletes the physical file while holding its blob row lock, so that an
+	 * upload of the same content either took its reference before (and the file
+	 * is kept) or waits and writes the content again (see {@link #commitBlob}).
+	 */
+	private void deleteUnreferencedFile(String filepath) {
+		try {
+			blobCleanupTransaction.executeWithoutResult(status -> {
+				Integer refCount = fileDAO.lockBlob(filepath);
+				if (refCount != null && refCount > 0) {
+					logger.debug("File {} was referenced again before it could be deleted.", filepath);
+					return;
+				}
+				try {
+					Files.deleteIfExists(this.fileStorageLocation.resolve(filepath).normalize());
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+				imageDerivativeService.deleteRenditions(filepath);
+				if (refCount != null) {
+					fileDAO.deleteBlob(filepath);
+				}
+				logger.debug("Deleted unreferenced file {}.", filepath);
+			});
+		} catch (RuntimeException e) {
+			// Orphaned files are not ideal but better than a failed transaction.
+			logger.error("Could not delete unreferenced file '{}'.", filepath, e);
+		}
+	}
+
+	private void runAfterCompletion(boolean onCommit, Runnable action) {
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			if (onCommit) {
+				action.run();
+			}
+			return;
+		}
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCompletion(int status) {
+				if ((status == STATUS_COMMITTED) == onCommit) {
+					action.run();
+				}
+			}
+		});
+	}
+
+	private static MessageDigest newDigest() {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 is not available", e);
+		}
+	}
+
     @Transactional
     public FileSharingLink createSharingLink(int fileId, String accessLevel, LocalDateTime expiresAt, User adminUser) {
         if (fileDAO.getFileById(fileId) == null) {
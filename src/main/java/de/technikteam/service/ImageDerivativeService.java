@@ -0,0 +1,311 @@
+package de.technikteam.service;
+
+import jakarta.annotation.PreDestroy;
+import org.apache.commons.io.FilenameUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Generates downscaled renditions of uploaded images with plain ImageIO. The
+ * renditions are written next to the original ({@code photo.jpg} gets
+ * {@code photo.jpg.thumb.jpg} and {@code photo.jpg.medium.jpg}), scheduled in
+ * the background right after an upload and generated on demand if they are
+ * missing or older than the original. Renditions are never treated as
+ * originals themselves.
+ */
+@Service
+public class ImageDerivativeService {
+	private static final Logger logger = LogManager.getLogger(ImageDerivativeService.class);
+	private static final Set<String> SUPPORTED_EXTENSIONS = Set.of("jpg", "jpeg", "png", "gif", "bmp");
+	// Decoding camera photos needs a lot of heap, so only a few run at once,
+	// in the background and on demand together.
+	private static final int WORKER_THREADS = 2;
+	// How long a request waits for a free decoder before it gets the original.
+	private static final long ON_DEMAND_WAIT_SECONDS = 5;
+	private static final int QUEUE_CAPACITY = 1_000;
+	private static final float JPEG_QUALITY = 0.82f;
+
+	public enum Rendition {
+		THUMB("thumb", 320), MEDIUM("medium", 1280);
+
+		private final String suffix;
+		private final int maxEdge;
+
+		Rendition(String suffix, int maxEdge) {
+			this.suffix = suffix;
+			this.maxEdge = maxEdge;
+		}
+
+		/**
+		 * @return The rendition for a request parameter value, or null for the
+		 *         original.
+		 */
+		public static Rendition fromParameter(String value) {
+			if (value != null) {
+				for (Rendition rendition : values()) {
+					if (rendition.suffix.equalsIgnoreCase(value)) {
+						return rendition;
+					}
+				}
+			}
+			return null;
+		}
+	}
+
+	private final Path fileStorageLocation;
+	private final Semaphore decoders = new Semaphore(WORKER_THREADS);
+	private final ThreadPoolExecutor executor = new ThreadPoolExecutor(WORKER_THREADS, WORKER_THREADS, 0L,
+			TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(QUEUE_CAPACITY),
+			Thread.ofPlatform().name("image-derivatives-", 0).daemon().factory(), (task, pool) -> logger
+					.warn("Image derivative queue is full; renditions will be generated on first request."));
+
+	@Autowired
+	public ImageDerivativeService(ConfigurationService configService) {
+		this.fileStorageLocation = Paths.get(configService.getProperty("upload.directory")).toAbsolutePath()
+				.normalize();
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		executor.shutdownNow();
+	}
+
+	public boolean supports(String relativePath) {
+		String name = relativePath.toLowerCase(Locale.ROOT);
+		return SUPPORTED_EXTENSIONS.contains(FilenameUtils.getExtension(name)) && !isRendition(name);
+	}
+
+	/**
+	 * Generates all renditions of an uploaded image in the background. Inside a
+	 * transaction, generation starts only after the upload has been committed.
+	 */
+	public void scheduleRenditions(String relativePath) {
+		if (!supports(relativePath)) {
+			return;
+		}
+		Runnable task = () -> {
+			for (Rendition rendition : Rendition.values()) {
+				try {
+					decoders.acquire();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					return;
+				}
+				try {
+					ensureRendition(relativePath, rendition);
+				} catch (IOException e) {
+					logger.warn("Could not generate {} rendition of {}: {}", rendition.suffix, relativePath,
+							e.getMessage());
+				} finally {
+					decoders.release();
+				}
+			}
+		};
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					executor.execute(task);
+				}
+			});
+		} else {
+			executor.execute(task);
+		}
+	}
+
+	/**
+	 * Returns the path of a rendition relative to the upload directory,
+	 * generating it first if it is missing or outdated. If all decoders stay
+	 * busy for {@value #ON_DEMAND_WAIT_SECONDS} seconds, the original is served
+	 * and the renditions are queued instead.
+	 *
+	 * @return The relative rendition path, or the original path if the file is
+	 *         not an image ImageIO can decode.
+	 * @throws SecurityException if the path points outside the upload directory.
+	 */
+	public String getRenditionPath(String relativePath, Rendition rendition) throws IOException {
+		if (!supports(relativePath)) {
+			return relativePath;
+		}
+		String renditionPath = renditionPath(relativePath, rendition);
+		if (isUpToDate(resolve(relativePath), resolve(renditionPath))) {
+			return renditionPath;
+		}
+		try {
+			if (!decoders.tryAcquire(ON_DEMAND_WAIT_SECONDS, TimeUnit.SECONDS)) {
+				logger.debug("All image decoders are busy, serving the original of {}.", relativePath);
+				scheduleRenditions(relativePath);
+				return relativePath;
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return relativePath;
+		}
+		try {
+			return ensureRendition(relativePath, rendition) ? renditionPath : relativePath;
+		} finally {
+			decoders.release();
+		}
+	}
+
+	/**
+	 * Removes all renditions of an original, e.g. after it has been deleted.
+	 */
+	public void deleteRenditions(String relativePath) {
+		if (!supports(relativePath)) {
+			return;
+		}
+		for (Rendition rendition : Rendition.values()) {
+			try {
+				Files.deleteIfExists(resolve(renditionPath(relativePath, rendition)));
+			} catch (IOException | SecurityException e) {
+				logger.warn("Could not delete {} rendition of {}: {}", rendition.suffix, relativePath, e.getMessage());
+			}
+		}
+	}
+
+	/**
+	 * Decodes the original and writes the rendition. Callers must hold a permit
+	 * of {@link #decoders}.
+	 */
+	private boolean ensureRendition(String relativePath, Rendition rendition) throws IOException {
+		Path original = resolve(relativePath);
+		Path target = resolve(renditionPath(relativePath, rendition));
+		if (!Files.isRegularFile(original)) {
+			return false;
+		}
+		if (isUpToDate(original, target)) {
+			return true;
+		}
+
+		BufferedImage source = ImageIO.read(original.toFile());
+		if (source == null) {
+			logger.debug("No ImageIO reader for {}, serving the original.", relativePath);
+			return false;
+		}
+		boolean png = isPng(relativePath);
+		BufferedImage scaled = scale(source, rendition.maxEdge, png);
+
+		// Concurrent generators each write their own temp file; the last move wins.
+		Path temp = Files.createTempFile(target.getParent(), ".rendition-", ".tmp");
+		try {
+			if (png) {
+				ImageIO.write(scaled, "png", temp.toFile());
+			} else {
+				writeJpeg(scaled, temp);
+			}
+			Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} finally {
+			Files.deleteIfExists(temp);
+		}
+		logger.debug("Generated {} rendition of {} ({}x{}).", rendition.suffix, relativePath, scaled.getWidth(),
+				scaled.getHeight());
+		return true;
+	}
+
+	/**
+	 * Downscales in steps of at most one half, which keeps bilinear filtering
+	 * from skipping pixels and gives results close to area averaging at a
+	 * fraction of its cost.
+	 */
+	private BufferedImage scale(BufferedImage source, int maxEdge, boolean keepAlpha) {
+		int imageType = keepAlpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+		double factor = Math.min(1.0, (double) maxEdge / Math.max(source.getWidth(), source.getHeight()));
+		int targetWidth = Math.max(1, (int) Math.round(source.getWidth() * factor));
+		int targetHeight = Math.max(1, (int) Math.round(source.getHeight() * factor));
+
+		BufferedImage current = source;
+		int width = source.getWidth();
+		int height = source.getHeight();
+		do {
+			width = Math.max(targetWidth, width / 2);
+			height = Math.max(targetHeight, height / 2);
+			BufferedImage step = new BufferedImage(width, height, imageType);
+			Graphics2D g = step.createGraphics();
+			try {
+				if (!keepAlpha) {
+					// JPEG has no alpha channel; transparent areas become white.
+					g.setColor(Color.WHITE);
+					g.fillRect(0, 0, width, height);
+				}
+				g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+				g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+				g.drawImage(current, 0, 0, width, height, null);
+			} finally {
+				g.dispose();
+			}
+			current = step;
+		} while (width != targetWidth || height != targetHeight);
+		return current;
+	}
+
+	private void writeJpeg(BufferedImage image, Path target) throws IOException {
+		ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+		try (ImageOutputStream out = ImageIO.createImageOutputStream(target.toFile())) {
+			writer.setOutput(out);
+			ImageWriteParam param = writer.getDefaultWriteParam();
+			param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+			param.setCompressionQuality(JPEG_QUALITY);
+			writer.write(null, new IIOImage(image, null, null), param);
+		} finally {
+			writer.dispose();
+		}
+	}
+
+	private boolean isUpToDate(Path original, Path target) throws IOException {
+		return Files.isRegularFile(original) && Files.isRegularFile(target)
+				&& Files.getLastModifiedTime(target).compareTo(Files.getLastModifiedTime(original)) >= 0;
+	}
+
+	private boolean isRendition(String lowerCaseName) {
+		for (Rendition rendition : Rendition.values()) {
+			if (lowerCaseName.endsWith("." + rendition.suffix + ".jpg")
+					|| lowerCaseName.endsWith("." + rendition.suffix + ".png")) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private String renditionPath(String relativePath, Rendition rendition) {
+		return relativePath + "." + rendition.suffix + (isPng(relativePath) ? ".png" : ".jpg");
+	}
+
+	private boolean isPng(String relativePath) {
+		String extension = FilenameUtils.getExtension(relativePath).toLowerCase(Locale.ROOT);
+		return extension.equals("png") || extension.equals("gif");
+	}
+
+	private Path resolve(String relativePath) {
+		Path path = this.fileStorageLocation.resolve(relativePath).normalize();
+		if (!path.startsWith(this.fileStorageLocation)) {
+			throw new SecurityException("Path Traversal Attack attempt detected for path '" + path + "'");
+		}
+		return path;
+	}
+}
@@ -1,125 +1,305 @@
 package de.technikteam.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import de.technikteam.security.UserChangedEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.sql.Timestamp;
-import java.time.Duration;
-import java.time.LocalDateTime;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Login throttling. Failed logins are counted in memory in sliding windows,
+ * per IP address and per username and IP address, so a brute-force burst is
+ * rejected without touching the database:
+ * <ul>
+ * <li>{@value #MAX_IP_ATTEMPTS} failures from one IP address within
+ * {@value #LOCKOUT_MINUTES} minutes lock out the address, but only for the
+ * usernames that failed from it. Everybody else behind the same address (a
+ * shared NAT or proxy) can still log in.</li>
+ * <li>{@value #MAX_USERNAME_ATTEMPTS} failures for one username from one IP
+ * address within the same window lock out that username for that address.
+ * Other addresses are not affected, so nobody can lock a user out of their
+ * account from the outside.</li>
+ * </ul>
+ * A lockout lasts {@value #LOCKOUT_MINUTES} minutes. A successful login clears
+ * the failures of the username and of the address it came from. Only lockouts
+ * and their removal are written to {@code login_attempts}, in the background;
+ * the table is read once at startup so lockouts survive a restart.
+ */
 @Service
 public class LoginAttemptService {
 	private static final Logger logger = LogManager.getLogger(LoginAttemptService.class);
 	private static final int MAX_IP_ATTEMPTS = 10;
 	private static final int MAX_USERNAME_ATTEMPTS = 5;
 	private static final int LOCKOUT_MINUTES = 15;
+	private static final long WINDOW_MS = TimeUnit.MINUTES.toMillis(LOCKOUT_MINUTES);
+	private static final long MAX_TRACKED_KEYS = 100_000;
+	private static final int MAX_ADDRESSES_PER_USERNAME = 1_000;
+	// Rows with this username record a lockout of the whole IP address.
+	private static final String IP_LOCKOUT_USERNAME = "";
+
+	/**
+	 * The failures of one key within the sliding window. Only the most recent
+	 * {@code limit} failures matter: once the oldest of them is younger than the
+	 * window, the key is locked.
+	 */
+	private static final class FailureWindow {
+		private final long[] failures;
+		private int next;
+		private int count;
+		private long lockedUntil;
+
+		FailureWindow(int limit) {
+			this.failures = new long[limit];
+		}
+
+		static FailureWindow locked(int limit, long lockedUntil) {
+			FailureWindow window = new FailureWindow(limit);
+			window.lockedUntil = lockedUntil;
+			return window;
+		}
+
+		/**
+		 * @return true if this failure locked the key.
+		 */
+		synchronized boolean recordFailure(long now) {
+			if (now < lockedUntil) {
+				return false;
+			}
+			failures[next] = now;
+			next = (next + 1) % failures.length;
+			count = Math.min(count + 1, failures.length);
+			if (count == failures.length && now - failures[next] < WINDOW_MS) {
+				lockedUntil = now + WINDOW_MS;
+				count = 0;
+				return true;
+			}
+			return false;
+		}
+
+		synchronized long lockedUntil() {
+			return lockedUntil;
+		}
+	}
 
 	private final JdbcTemplate jdbcTemplate;
+	private final ApplicationEventPublisher eventPublisher;
+	private final Clock clock;
+	private final Cache<String, FailureWindow> ipWindows = Caffeine.newBuilder()
+			.expireAfterAccess(LOCKOUT_MINUTES, TimeUnit.MINUTES).maximumSize(MAX_TRACKED_KEYS).build();
+	// Username -> IP address -> window, so a successful login can reset all of them at once.
+	private final Cache<String, Map<String, FailureWindow>> usernameWindows = Caffeine.newBuilder()
+			.expireAfterAccess(LOCKOUT_MINUTES, TimeUnit.MINUTES).maximumSize(MAX_TRACKED_KEYS).build();
+	private final ExecutorService writer = Executors
+			.newSingleThreadExecutor(Thread.ofVirtual().name("login-attempts-writer").factory());
 
 	@Autowired
-	public LoginAttemptService(JdbcTemplate jdbcTemplate) {
+	public LoginAttemptService(JdbcTemplate jdbcTemplate, ApplicationEventPublisher eventPublisher) {
+		this(jdbcTemplate, eventPublisher, Clock.systemUTC());
+	}
+
+	LoginAttemptService(JdbcTemplate jdbcTemplate, ApplicationEventPublisher eventPublisher, Clock clock) {
 		this.jdbcTemplate = jdbcTemplate;
+		this.eventPublisher = eventPublisher;
+		this.clock = clock;
 	}
 
-	public boolean isLockedOut(String username, String ipAddress) {
-		String sql = "SELECT last_attempt, attempts FROM login_attempts WHERE ip_address = ? AND username = ?";
-		try {
-			return jdbcTemplate.queryForObject(sql, (rs, rowNum) -> {
-				LocalDateTime lastAttempt = rs.getTimestamp("last_attempt").toLocalDateTime();
-				int attempts = rs.getInt("attempts");
-
-				// Check for IP-based lockout (stricter)
-				int ipTotalAttempts = getTotalAttemptsForIp(ipAddress);
-				if (ipTotalAttempts >= MAX_IP_ATTEMPTS
-						&& lastAttempt.isAfter(LocalDateTime.now().minusMinutes(LOCKOUT_MINUTES))) {
-					logger.warn("IP address {} is locked out.", ipAddress);
-					return true;
-				}
+	@PostConstruct
+	public void loadActiveLockouts() {
+		Timestamp windowStart = new Timestamp(clock.millis() - WINDOW_MS);
+		jdbcTemplate.update("DELETE FROM login_attempts WHERE last_attempt < ?", windowStart);
 
-				// Check for username-based lockout (less strict)
-				if (attempts >= MAX_USERNAME_ATTEMPTS
-						&& lastAttempt.isAfter(LocalDateTime.now().minusMinutes(LOCKOUT_MINUTES))) {
-					logger.warn("Username '{}' is locked out.", username);
-					return true;
-				}
+		String sql = "SELECT ip_address, username, attempts, last_attempt FROM login_attempts";
+		Map<String, Integer> attemptsByIp = new HashMap<>();
+		Map<String, Long> lockedUntilByIp = new HashMap<>();
+		jdbcTemplate.query(sql, rs -> {
+			String ipAddress = rs.getString("ip_address");
+			String username = rs.getString("username");
+			int attempts = rs.getInt("attempts");
+			long lockedUntil = rs.getTimestamp("last_attempt").getTime() + WINDOW_MS;
+			attemptsByIp.merge(ipAddress, attempts, Integer::sum);
+			lockedUntilByIp.merge(ipAddress, lockedUntil, Math::max);
+			if (!IP_LOCKOUT_USERNAME.equals(username) && attempts >= MAX_USERNAME_ATTEMPTS) {
+				windowsFor(username).put(ipAddress, FailureWindow.locked(MAX_USERNAME_ATTEMPTS, lockedUntil));
+			}
+		});
+		attemptsByIp.forEach((ipAddress, attempts) -> {
+			if (attempts >= MAX_IP_ATTEMPTS) {
+				ipWindows.put(ipAddress, FailureWindow.locked(MAX_IP_ATTEMPTS, lockedUntilByIp.get(ipAddress)));
+			}
+		});
+		logger.info("Loaded {} active IP and {} active username lockouts.", ipWindows.estimatedSize(),
+				usernameWindows.estimatedSize());
+	}
 
-				// If we reach here, the user is not actively locked out.
-				// If the lockout period has expired, we should clear the record.
-				if (attempts >= MAX_USERNAME_ATTEMPTS || ipTotalAttempts >= MAX_IP_ATTEMPTS) {
-					clearLoginAttemptsForPair(username, ipAddress);
-				}
-				return false;
-			}, ipAddress, username);
-		} catch (Exception e) {
-			return false; // No record means not locked out
+	@PreDestroy
+	public void stop() {
+		writer.shutdown();
+		try {
+			writer.awaitTermination(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
 		}
 	}
 
-	public boolean isUserLocked(String username) {
-		// This method is now less critical but can be used for UI hints.
-		// It checks if *any* IP has locked out this user.
-		String sql = "SELECT EXISTS (SELECT 1 FROM login_attempts WHERE username = ? AND attempts >= ? AND last_attempt > ?)";
-		Timestamp lockoutThreshold = Timestamp.valueOf(LocalDateTime.now().minusMinutes(LOCKOUT_MINUTES));
-		try {
-			return jdbcTemplate.queryForObject(sql, Boolean.class, username, MAX_USERNAME_ATTEMPTS, lockoutThreshold);
-		} catch (Exception e) {
+	public boolean isLockedOut(String username, String ipAddress) {
+		FailureWindow window = pairWindow(username, ipAddress);
+		if (window == null) {
+			// This username has not failed from this address, so neither lockout applies.
 			return false;
 		}
+		long now = clock.millis();
+		FailureWindow ipWindow = ipWindows.getIfPresent(ipAddress);
+		if (ipWindow != null && now < ipWindow.lockedUntil()) {
+			logger.warn("IP address {} is locked out for username '{}'.", ipAddress, username);
+			return true;
+		}
+		if (now < window.lockedUntil()) {
+			logger.warn("Username '{}' is locked out.", username);
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Whether the username is locked out from any IP address. Used for the
+	 * lock indicator in user lists and profiles.
+	 */
+	public boolean isUserLocked(String username) {
+		return getRemainingLockoutSeconds(username) > 0;
 	}
 
 	public long getRemainingLockoutSeconds(String username) {
-		// This simplified method still works as a hint for the user.
-		String sql = "SELECT last_attempt FROM login_attempts WHERE username = ? ORDER BY last_attempt DESC LIMIT 1";
-		try {
-			LocalDateTime lastAttempt = jdbcTemplate.queryForObject(sql, LocalDateTime.class, username);
-			if (lastAttempt != null) {
-				LocalDateTime lockoutExpiry = lastAttempt.plusMinutes(LOCKOUT_MINUTES);
-				Duration remaining = Duration.between(LocalDateTime.now(), lockoutExpiry);
-				return remaining.isNegative() ? 0 : remaining.getSeconds();
-			}
-		} catch (Exception e) {
-			// No record or other error means not locked out
+		if (username == null) {
+			return 0;
+		}
+		Map<String, FailureWindow> windows = usernameWindows.getIfPresent(normalize(username));
+		if (windows == null) {
+			return 0;
 		}
-		return 0;
+		long lockedUntil = 0;
+		for (FailureWindow window : windows.values()) {
+			lockedUntil = Math.max(lockedUntil, window.lockedUntil());
+		}
+		return Math.max(0, TimeUnit.MILLISECONDS.toSeconds(lockedUntil - clock.millis()));
+	}
+
+	/**
+	 * The time until a login for the username from the IP address is possible
+	 * again, whichever of the two lockouts lasts longer.
+	 */
+	public long getRemainingLockoutSeconds(String username, String ipAddress) {
+		FailureWindow window = pairWindow(username, ipAddress);
+		if (window == null) {
+			return 0;
+		}
+		FailureWindow ipWindow = ipWindows.getIfPresent(ipAddress);
+		long lockedUntil = Math.max(ipWindow != null ? ipWindow.lockedUntil() : 0, window.lockedUntil());
+		return Math.max(0, TimeUnit.MILLISECONDS.toSeconds(lockedUntil - clock.millis()));
 	}
 
-	@Transactional
 	public void recordFailedLogin(String username, String ipAddress) {
-		String sql = "INSERT INTO login_attempts (ip_address, username, attempts, last_attempt) VALUES (?, ?, 1, ?) "
-				+ "ON DUPLICATE KEY UPDATE attempts = attempts + 1, last_attempt = ?";
-		Timestamp now = Timestamp.valueOf(LocalDateTime.now());
-		jdbcTemplate.update(sql, ipAddress, username, now, now);
+		long now = clock.millis();
+		FailureWindow ipWindow = ipWindows.get(ipAddress, ip -> new FailureWindow(MAX_IP_ATTEMPTS));
+		if (ipWindow.recordFailure(now)) {
+			logger.warn("Lockout triggered for IP '{}' after a failed login for username '{}'.", ipAddress, username);
+			persistLockout(IP_LOCKOUT_USERNAME, ipAddress, MAX_IP_ATTEMPTS, now);
+		}
 
-		// Log if a lockout has occurred
-		if (isLockedOut(username, ipAddress)) {
+		Map<String, FailureWindow> windows = windowsFor(username);
+		if (windows.size() >= MAX_ADDRESSES_PER_USERNAME) {
+			windows.values().removeIf(w -> w.lockedUntil() <= now);
+		}
+		FailureWindow window = windows.computeIfAbsent(ipAddress,
+				ip -> new FailureWindow(MAX_USERNAME_ATTEMPTS));
+		if (window.recordFailure(now)) {
 			logger.warn("Lockout triggered for username '{}' from IP '{}'.", username, ipAddress);
+			persistLockout(username, ipAddress, MAX_USERNAME_ATTEMPTS, now);
+			eventPublisher.publishEvent(UserChangedEvent.forUsername(username));
 		}
 	}
 
-	@Transactional
+	/**
+	 * Clears the failures after a successful login: those of the username from
+	 * every address, and those counted against the address the login came from.
+	 */
+	public void clearLoginAttempts(String username, String ipAddress) {
+		FailureWindow ipWindow = ipWindows.asMap().remove(ipAddress);
+		if (ipWindow != null && ipWindow.lockedUntil() > clock.millis()) {
+			writer.execute(() -> {
+				try {
+					jdbcTemplate.update("DELETE FROM login_attempts WHERE ip_address = ? AND username = ?", ipAddress,
+							IP_LOCKOUT_USERNAME);
+				} catch (Exception e) {
+					logger.error("Could not delete the lockout of IP '{}'.", ipAddress, e);
+				}
+			});
+		}
+		clearLoginAttempts(username);
+	}
+
+	/**
+	 * Clears all failures of the username regardless of the address, e.g. when
+	 * an admin unlocks the account.
+	 */
 	public void clearLoginAttempts(String username) {
-		// Clear all attempts for a given username upon successful login, regardless of
-		// IP.
-		String sql = "DELETE FROM login_attempts WHERE username = ?";
-		jdbcTemplate.update(sql, username);
+		Map<String, FailureWindow> windows = usernameWindows.asMap().remove(normalize(username));
+		if (windows == null) {
+			return;
+		}
+		long now = clock.millis();
+		boolean wasLocked = windows.values().stream().anyMatch(w -> w.lockedUntil() > now);
+		if (wasLocked) {
+			writer.execute(() -> {
+				try {
+					jdbcTemplate.update("DELETE FROM login_attempts WHERE username = ?", username);
+				} catch (Exception e) {
+					logger.error("Could not delete lockouts for username '{}'.", username, e);
+				}
+			});
+			eventPublisher.publishEvent(UserChangedEvent.forUsername(username));
+		}
 	}
 
-	private void clearLoginAttemptsForPair(String username, String ipAddress) {
-		String sql = "DELETE FROM login_attempts WHERE username = ? AND ip_address = ?";
-		jdbcTemplate.update(sql, username, ipAddress);
+	private FailureWindow pairWindow(String username, String ipAddress) {
+		Map<String, FailureWindow> windows = usernameWindows.getIfPresent(normalize(username));
+		return windows != null ? windows.get(ipAddress) : null;
 	}
 
-	private int getTotalAttemptsForIp(String ipAddress) {
-		String sql = "SELECT SUM(attempts) FROM login_attempts WHERE ip_address = ?";
-		try {
-			Integer total = jdbcTemplate.queryForObject(sql, Integer.class, ipAddress);
-			return total != null ? total : 0;
-		} catch (Exception e) {
-			return 0;
-		}
+	private Map<String, FailureWindow> windowsFor(String username) {
+		return usernameWindows.get(normalize(username), key -> new ConcurrentHashMap<>());
+	}
+
+	private void persistLockout(String username, String ipAddress, int attempts, long lockedAt) {
+		writer.execute(() -> {
+			try {
+				String sql = "INSERT INTO login_attempts (ip_address, username, attempts, last_attempt) VALUES (?, ?, ?, ?) "
+						+ "ON DUPLICATE KEY UPDATE attempts = VALUES(attempts), last_attempt = VALUES(last_attempt)";
+				jdbcTemplate.update(sql, ipAddress, username, attempts, Timestamp.from(Instant.ofEpochMilli(lockedAt)));
+			} catch (Exception e) {
+				logger.error("Could not persist lockout for username '{}' from IP '{}'.", username, ipAddress, e);
+			}
+		});
+	}
+
+	// Usernames are compared case-insensitively, like the database collation does.
+	private static String normalize(String username) {
+		return username == null ? "" : username.toLowerCase(Locale.ROOT);
 	}
-}
\ No newline at end of file
+}
@@ -3,6 +3,8 @@ package de.technikteam.service;
 import de.technikteam.api.v1.dto.NotificationPayload;
 import de.technikteam.dao.ScheduledNotificationDAO;
 import de.technikteam.model.ScheduledNotification;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -10,18 +12,64 @@ import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Sends scheduled notifications such as event reminders. Every instance of
+ * the application runs a scheduler; they coordinate through leases on the
+ * {@code scheduled_notifications} rows:
+ * <ul>
+ * <li>Every few seconds, the scheduler claims the rows due within the next
+ * minute that no other instance holds. The claim token of the instance is
+ * written together with a lease that runs until shortly after the send
+ * time.</li>
+ * <li>Claimed rows wait in an in-memory {@link TimingWheel} and are delivered
+ * at their send time, with a precision of one second, instead of up to a
+ * minute late.</li>
+ * <li>Due rows are delivered by a small pool of workers. Rows of the same
+ * reminder that are due together are sent as one batch.</li>
+ * </ul>
+ * A row is marked as sent only if this instance still holds the claim, so a
+ * reminder that was changed or taken over in the meantime is not sent twice.
+ * If an instance stops, it releases its claims; if it dies, the leases expire
+ * and another instance picks the rows up.
+ */
 @Component
 @EnableScheduling
 public class NotificationScheduler {
 
 	private static final Logger logger = LogManager.getLogger(NotificationScheduler.class);
+	private static final int CLAIM_HORIZON_SECONDS = 60;
+	private static final int LEASE_SECONDS = 120;
+	private static final int CLAIM_BATCH_SIZE = 500;
+	private static final long TICK_MS = 1_000;
+	private static final int WHEEL_SIZE = 64;
+	private static final int DELIVERY_THREADS = 4;
+	private static final int MAX_ATTEMPTS = 3;
+
+	private record ReminderKey(String type, int entityId, String title, String description, String url) {
+	}
 
 	private final ScheduledNotificationDAO notificationDAO;
 	private final NotificationService notificationService;
+	private final String nodeId = UUID.randomUUID().toString();
+	private final AtomicLong claimSequence = new AtomicLong();
+	private final TimingWheel<ScheduledNotification> wheel = new TimingWheel<>(TICK_MS, WHEEL_SIZE,
+			System.currentTimeMillis());
+	private final ScheduledExecutorService ticker = Executors
+			.newSingleThreadScheduledExecutor(Thread.ofVirtual().name("notification-wheel").factory());
+	private final ExecutorService deliveryExecutor = Executors.newFixedThreadPool(DELIVERY_THREADS,
+			Thread.ofVirtual().name("notification-delivery-", 0).factory());
 
 	@Autowired
 	public NotificationScheduler(ScheduledNotificationDAO notificationDAO, NotificationService notificationService) {
@@ -29,28 +77,102 @@ public class NotificationScheduler {
 		this.notificationService = notificationService;
 	}
 
-	@Scheduled(fixedRate = 60000) // Run every 60 seconds
-	public void sendPendingNotifications() {
-		logger.debug("Running scheduled notification task...");
-		List<ScheduledNotification> pending = notificationDAO.findPendingNotifications();
+	@PostConstruct
+	public void start() {
+		ticker.scheduleAtFixedRate(this::tick, TICK_MS, TICK_MS, TimeUnit.MILLISECONDS);
+		logger.info("Notification scheduler started as node {}.", nodeId);
+	}
+
+	@PreDestroy
+	public void stop() {
+		ticker.shutdownNow();
+		deliveryExecutor.shutdown();
+		try {
+			deliveryExecutor.awaitTermination(10, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		int released = notificationDAO.releaseClaims(nodeId + ":");
+		if (released > 0) {
+			logger.info("Released {} claimed notifications before shutdown.", released);
+		}
+	}
+
+	@Scheduled(fixedDelay = 15000)
+	public void claimDueNotifications() {
+		String claimToken = nodeId + ":" + claimSequence.incrementAndGet();
+		List<ScheduledNotification> claimed = notificationDAO.claimDueNotifications(claimToken, CLAIM_HORIZON_SECONDS,
+				LEASE_SECONDS, CLAIM_BATCH_SIZE);
+		if (claimed.isEmpty()) {
+			logger.debug("No notifications due within the next {} seconds.", CLAIM_HORIZON_SECONDS);
+			return;
+		}
+		logger.info("Claimed {} scheduled notifications.", claimed.size());
+
+		List<ScheduledNotification> due = new ArrayList<>();
+		synchronized (wheel) {
+			for (ScheduledNotification notification : claimed) {
+				long dueAt = notification.getSendAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+				if (!wheel.add(notification, dueAt)) {
+					due.add(notification);
+				}
+			}
+		}
+		deliver(due);
+	}
+
+	private void tick() {
+		List<ScheduledNotification> due;
+		synchronized (wheel) {
+			due = wheel.advance(System.currentTimeMillis());
+		}
+		deliver(due);
+	}
 
-		if (pending.isEmpty()) {
-			logger.debug("No pending notifications to send.");
+	private void deliver(List<ScheduledNotification> due) {
+		if (due.isEmpty()) {
 			return;
 		}
+		Map<ReminderKey, List<ScheduledNotification>> batches = new LinkedHashMap<>();
+		for (ScheduledNotification n : due) {
+			ReminderKey key = new ReminderKey(n.getNotificationType(), n.getRelatedEntityId(), n.getTitle(),
+					n.getDescription(), n.getUrl());
+			batches.computeIfAbsent(key, k -> new ArrayList<>()).add(n);
+		}
+		for (List<ScheduledNotification> batch : batches.values()) {
+			deliveryExecutor.execute(() -> deliverBatch(batch));
+		}
+	}
 
-		logger.info("Found {} pending notifications to send.", pending.size());
-		for (ScheduledNotification notification : pending) {
-            NotificationPayload payload = new NotificationPayload();
-            payload.setTitle(notification.getTitle());
-            payload.setDescription(notification.getDescription());
-            payload.setLevel("Important"); // Reminders are always important
-            payload.setUrl(notification.getUrl());
-			notificationService.sendNotificationToUser(notification.getTargetUserId(), payload);
+	private void deliverBatch(List<ScheduledNotification> batch) {
+		List<ScheduledNotification> confirmed = new ArrayList<>();
+		for (ScheduledNotification notification : batch) {
+			if (notificationDAO.markAsSent(notification.getId(), notification.getClaimedBy())) {
+				confirmed.add(notification);
+			} else {
+				logger.debug("Claim on scheduled notification {} is no longer valid, skipping it.",
+						notification.getId());
+			}
+		}
+		if (confirmed.isEmpty()) {
+			return;
 		}
 
-		List<Integer> sentIds = pending.stream().map(ScheduledNotification::getId).collect(Collectors.toList());
-		notificationDAO.markAsSent(sentIds);
-		logger.info("Successfully sent and marked {} notifications.", sentIds.size());
+		ScheduledNotification first = confirmed.get(0);
+		NotificationPayload payload = new NotificationPayload();
+		payload.setTitle(first.getTitle());
+		payload.setDescription(first.getDescription());
+		payload.setLevel("Important"); // Reminders are always important
+		payload.setUrl(first.getUrl());
+		try {
+			notificationService.sendNotificationToUsers(
+					confirmed.stream().map(ScheduledNotification::getTargetUserId).toList(), payload);
+			logger.info("Sent scheduled notification '{}' to {} users.", first.getTitle(), confirmed.size());
+		} catch (Exception e) {
+			logger.error("Could not send scheduled notification '{}', it will be retried.", first.getTitle(), e);
+			for (ScheduledNotification notification : confirmed) {
+				notificationDAO.markForRetry(notification.getId(), MAX_ATTEMPTS);
+			}
+		}
 	}
-}
\ No newline at end of file
+}
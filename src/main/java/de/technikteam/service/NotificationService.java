@@ -1,77 +1,46 @@
 package de.technikteam.service;
 
-import com.google.auth.oauth2.GoogleCredentials;
-import com.google.firebase.FirebaseApp;
-import com.google.firebase.FirebaseOptions;
-import com.google.firebase.messaging.AndroidConfig;
-import com.google.firebase.messaging.FirebaseMessaging;
-import com.google.firebase.messaging.FirebaseMessagingException;
-import com.google.firebase.messaging.Message;
-import com.google.firebase.messaging.Notification;
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
 import de.technikteam.api.v1.dto.MaintenanceStatusDTO;
 import de.technikteam.api.v1.dto.NotificationPayload;
 import de.technikteam.api.v1.dto.NotificationRequest;
-import de.technikteam.config.LocalDateTimeAdapter;
 import de.technikteam.dao.EventDAO;
 import de.technikteam.dao.MeetingDAO;
 import de.technikteam.dao.UserDAO;
 import de.technikteam.dao.UserNotificationDAO;
 import de.technikteam.model.User;
 import de.technikteam.model.UserNotification;
-import org.apache.catalina.connector.ClientAbortException;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import java.io.IOException;
-import java.time.LocalDateTime;
-import java.util.Collections;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.CopyOnWriteArrayList;
-import java.util.stream.Collectors;
 
 @Service
 public class NotificationService {
 	private static final Logger logger = LogManager.getLogger(NotificationService.class);
 
-	private final Map<Integer, List<SseEmitter>> emittersByUser = new ConcurrentHashMap<>();
+	private final SseDispatcher sseDispatcher;
+	private final PushDeliveryService pushDeliveryService;
 	private final UserDAO userDAO;
 	private final EventDAO eventDAO;
 	private final MeetingDAO meetingDAO;
 	private final AdminLogService adminLogService;
 	private final UserNotificationDAO userNotificationDAO;
 
-	public NotificationService(UserDAO userDAO, EventDAO eventDAO, MeetingDAO meetingDAO,
-			AdminLogService adminLogService, UserNotificationDAO userNotificationDAO) {
+	public NotificationService(SseDispatcher sseDispatcher, PushDeliveryService pushDeliveryService, UserDAO userDAO,
+			EventDAO eventDAO, MeetingDAO meetingDAO, AdminLogService adminLogService,
+			UserNotificationDAO userNotificationDAO) {
+		this.sseDispatcher = sseDispatcher;
+		this.pushDeliveryService = pushDeliveryService;
 		this.userDAO = userDAO;
 		this.eventDAO = eventDAO;
 		this.meetingDAO = meetingDAO;
 		this.adminLogService = adminLogService;
 		this.userNotificationDAO = userNotificationDAO;
-		new GsonBuilder().registerTypeAdapter(LocalDateTime.class, new LocalDateTimeAdapter()).create();
-
-        try {
-            // Check if credentials are provided either via environment variable or default gcloud login
-            if (System.getenv("GOOGLE_APPLICATION_CREDENTIALS") != null || GoogleCredentials.getApplicationDefault() != null) {
-                if (FirebaseApp.getApps().isEmpty()) {
-                    FirebaseOptions options = FirebaseOptions.builder()
-                        .setCredentials(GoogleCredentials.getApplicationDefault())
-                        .build();
-                    FirebaseApp.initializeApp(options);
-                    logger.info("Firebase Admin SDK initialized successfully.");
-                }
-            } else {
-                 logger.warn("GOOGLE_APPLICATION_CREDENTIALS environment variable not set and Application Default Credentials not found. Firebase Admin SDK will not be initialized. Push notifications will be disabled.");
-            }
-        } catch (IOException e) {
-            logger.error("Failed to initialize Firebase Admin SDK. Push notifications will be disabled.", e);
-        }
 	}
 
 	public SseEmitter register(User user) {
@@ -84,74 +53,36 @@ public class NotificationService {
 		// heartbeats.
 		SseEmitter emitter = new SseEmitter(Long.MAX_VALUE);
 		int userId = user.getId();
-
-		emitter.onCompletion(() -> {
-			logger.info("SSE Emitter für Benutzer {} beendet.", userId);
-			removeEmitter(userId, emitter);
-		});
-		emitter.onTimeout(() -> {
-			logger.warn("SSE Emitter für Benutzer {} hat Zeitüberschreitung.", userId);
-			emitter.complete();
-		});
-		emitter.onError(e -> {
-			// This often logs benign client-side disconnects, so we log at debug level.
-			logger.debug("SSE Emitter Fehler für Benutzer {}: {}", userId, e.getMessage());
-			// The emitter is completed by the container/Spring, no need to call complete()
-			// here.
-		});
-
-		emittersByUser.computeIfAbsent(userId, k -> new CopyOnWriteArrayList<>()).add(emitter);
+		sseDispatcher.register(userId, emitter);
 
 		logger.info(
 				"Neuer Client für SSE-Benachrichtigungen für Benutzer-ID {} registriert. Gesamtzahl der Clients für Benutzer: {}",
-				userId, emittersByUser.get(userId).size());
+				userId, sseDispatcher.getClientCount(userId));
 
 		// When a user connects via SSE, we can consider their unseen notifications
 		// "seen".
 		userNotificationDAO.markAllAsSeen(userId);
 
 		// Send a confirmation event
-		try {
-			emitter.send(SseEmitter.event().name("connected").data("Verbindung hergestellt"));
-		} catch (Exception e) {
-			logger.error("Fehler beim Senden der Verbindungsbestätigung an Benutzer {}", userId, e);
-			emitter.complete();
-		}
+		sseDispatcher.sendToUser(userId, sseDispatcher.text("connected", "Verbindung hergestellt"));
 
 		return emitter;
 	}
 
 	@Scheduled(fixedRate = 30000) // Run every 30 seconds
 	public void sendHeartbeat() {
-		SseEmitter.SseEventBuilder heartbeatEvent = SseEmitter.event().comment("heartbeat");
-		emittersByUser.values().forEach(emitterList -> emitterList.forEach(emitter -> {
-			try {
-				emitter.send(heartbeatEvent);
-			} catch (IOException e) {
-                if (e instanceof ClientAbortException) {
-                    logger.debug("Heartbeat failed for a client (ClientAbortException), it has likely disconnected. Emitter will be removed by its onCompletion handler.");
-                } else {
-                    logger.warn("Heartbeat failed for a client, it has likely disconnected. Error: {}", e.getMessage());
-                }
-            } catch (Exception e) {
-				logger.debug(
-						"Heartbeat failed for a client, it has likely disconnected. Emitter will be removed by its onCompletion handler.");
-			}
-		}));
+		// Only enqueues; dead clients are detected and removed by their sender threads.
+		sseDispatcher.broadcast(sseDispatcher.comment("heartbeat"));
 	}
 
 	public void broadcastUIUpdate(String entity, String action, Object payload) {
 		logger.info("Broadcasting UI update for entity '{}', action '{}'", entity, action);
 		Map<String, Object> message = Map.of("entity", entity, "action", action, "payload", payload);
-		SseEmitter.SseEventBuilder event = SseEmitter.event().name("ui_update").data(message);
-
-		emittersByUser.values().forEach(emitterList -> emitterList.forEach(emitter -> {
-			try {
-				emitter.send(event);
-			} catch (Exception e) {
-				logger.warn("Error broadcasting UI update to a client: {}", e.getMessage());
-			}
-		}));
+		try {
+			sseDispatcher.broadcast(sseDispatcher.frame("ui_update", message));
+		} catch (IllegalArgumentException e) {
+			logger.warn("Error broadcasting UI update for entity '{}': {}", entity, e.getMessage());
+		}
 	}
 
 	public void sendNotificationToUser(int userId, NotificationPayload payload) {
@@ -167,88 +98,36 @@ public class NotificationService {
         }
 
 		// 2. Push via SSE if user is connected
-		List<SseEmitter> userEmitters = emittersByUser.get(userId);
-		if (userEmitters != null && !userEmitters.isEmpty()) {
-			SseEmitter.SseEventBuilder event = SseEmitter.event().name("notification").data(payload);
+		if (sseDispatcher.hasClients(userId)) {
 			logger.info("Sende gezielte Benachrichtigung an Benutzer-ID {}: {}", userId, payload);
-
-			userEmitters.forEach(emitter -> {
-				try {
-					emitter.send(event);
-				} catch (Exception e) {
-					logger.warn(
-							"Fehler beim Senden der gezielten Benachrichtigung an Benutzer {} (Client wahrscheinlich getrennt), wird entfernt. Fehler: {}",
-							userId, e.getMessage());
-					// Do not complete the emitter here, let its own lifecycle handlers manage it.
-				}
-			});
+			sseDispatcher.sendToUser(userId, sseDispatcher.frame("notification", payload));
 		} else {
 			logger.debug("Keine aktiven SSE-Clients für Benutzer-ID {} gefunden, um Benachrichtigung zu senden.",
 					userId);
 		}
-        // 3. Send FCM Push Notification if token exists
-        User user = userDAO.getUserById(userId);
-        if (user != null) {
-            sendFcmNotification(user, payload);
-        }
+        // 3. Hand the FCM push to the asynchronous delivery pipeline
+        pushDeliveryService.enqueue(List.of(userId), payload);
 	}
 
-	private void sendFcmNotification(User user, NotificationPayload payload) {
-        if (user.getFcmToken() == null || user.getFcmToken().isBlank()) {
-            return; // No token, nothing to do
-        }
-        if (FirebaseApp.getApps().isEmpty()) {
-            logger.warn("Firebase not initialized, skipping push notification for user {}", user.getUsername());
-            return;
-        }
-
-        Message.Builder messageBuilder = Message.builder()
-            .setToken(user.getFcmToken());
-
-        if (!payload.isSilent()) {
-            messageBuilder.setNotification(Notification.builder()
-                .setTitle(payload.getTitle())
-                .setBody(payload.getDescription())
-                .build());
-        }
-
-        AndroidConfig.Builder androidConfigBuilder = AndroidConfig.builder();
-        if ("HIGH".equalsIgnoreCase(payload.getAndroidImportance())) {
-            androidConfigBuilder.setPriority(AndroidConfig.Priority.HIGH);
-            logger.debug("Setting FCM priority to HIGH for user {}", user.getUsername());
-        }
-        if (payload.getAndroidChannelId() != null) {
-            // Correct way to set channel ID
-            androidConfigBuilder.setNotification(com.google.firebase.messaging.AndroidNotification.builder()
-                .setChannelId(payload.getAndroidChannelId()).build());
-        }
-        messageBuilder.setAndroidConfig(androidConfigBuilder.build());
-        
-        if (payload.getUrl() != null) {
-            messageBuilder.putData("url", payload.getUrl());
-        }
-        if (payload.getProgress() != null && payload.getProgress().size() == 2) {
-            messageBuilder.putData("progressMax", String.valueOf(payload.getProgress().get(0)));
-            messageBuilder.putData("progressCurrent", String.valueOf(payload.getProgress().get(1)));
-        }
-
-
-        Message message = messageBuilder.build();
+	/**
+	 * Sends the same notification to many users: one batch insert, one SSE
+	 * frame and a single push enqueue, instead of one round trip per user.
+	 */
+	public void sendNotificationToUsers(Collection<Integer> userIds, NotificationPayload payload) {
+		if (userIds.isEmpty()) {
+			return;
+		}
+		if (!payload.isSilent()) {
+			userNotificationDAO.createForUsers(userIds, payload.getTitle(), payload.getDescription(),
+					payload.getLevel(), payload.getUrl());
+		}
 
-        try {
-            String response = FirebaseMessaging.getInstance().send(message);
-            logger.info("Successfully sent FCM message to user {}: {}", user.getUsername(), response);
-        } catch (FirebaseMessagingException e) {
-            logger.error("Failed to send FCM message to user {}: {}", user.getUsername(), e.getMessage());
-            // Handle potential invalid token error
-            if (e.getMessagingErrorCode() == com.google.firebase.messaging.MessagingErrorCode.UNREGISTERED ||
-                e.getMessagingErrorCode() == com.google.firebase.messaging.MessagingErrorCode.INVALID_ARGUMENT) {
-                logger.warn("FCM token for user {} seems invalid. Clearing it from database.", user.getUsername());
-                userDAO.updateFcmToken(user.getId(), null);
-            }
-        }
-    }
+		SseDispatcher.SseFrame frame = sseDispatcher.frame("notification", payload);
+		userIds.forEach(userId -> sseDispatcher.sendToUser(userId, frame));
+		logger.info("Sende Benachrichtigung '{}' an {} Benutzer.", payload.getTitle(), userIds.size());
 
+		pushDeliveryService.enqueue(userIds, payload);
+	}
 
 	public int sendBroadcastNotification(NotificationRequest request, User adminUser) {
 		List<User> targetUsers;
@@ -286,9 +165,7 @@ public class NotificationService {
         payload.setLevel(request.level());
         payload.setAndroidImportance(request.androidImportance());
 
-		for (User targetUser : targetUsers) {
-			sendNotificationToUser(targetUser.getId(), payload);
-		}
+		sendNotificationToUsers(targetUsers.stream().map(User::getId).toList(), payload);
 
 		String logDetails = String.format("Benachrichtigung gesendet an '%s'. Titel: %s, Stufe: %s", targetDescription,
 				request.title(), request.level());
@@ -299,24 +176,6 @@ public class NotificationService {
 	
 	public void broadcastSystemStatusUpdate(MaintenanceStatusDTO status) {
 		logger.info("Broadcasting system status update to all clients: mode={}, message='{}'", status.mode(), status.message());
-		SseEmitter.SseEventBuilder event = SseEmitter.event().name("system_status_update").data(status);
-
-		emittersByUser.values().forEach(emitterList -> emitterList.forEach(emitter -> {
-			try {
-				emitter.send(event);
-			} catch (Exception e) {
-				logger.warn("Error broadcasting system status update to a client: {}", e.getMessage());
-			}
-		}));
-	}
-
-	private void removeEmitter(int userId, SseEmitter emitter) {
-		List<SseEmitter> userEmitters = emittersByUser.get(userId);
-		if (userEmitters != null) {
-			userEmitters.remove(emitter);
-			if (userEmitters.isEmpty()) {
-				emittersByUser.remove(userId);
-			}
-		}
+		sseDispatcher.broadcast(sseDispatcher.frame("system_status_update", status));
 	}
-}
\ No newline at end of file
+}
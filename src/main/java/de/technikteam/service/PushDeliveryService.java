@@ -0,0 +1,196 @@
+package de.technikteam.service;
+
+import de.technikteam.api.v1.dto.NotificationPayload;
+import de.technikteam.dao.UserDAO;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Asynchronous push delivery. Callers only enqueue a payload for a set of
+ * users; a background worker resolves all device tokens with one query, sends
+ * them in multicast batches through the configured {@link PushTransport},
+ * clears invalid tokens and retries transient failures with exponential
+ * backoff. Pushes requested inside a transaction are enqueued after commit.
+ */
+@Service
+public class PushDeliveryService {
+	private static final Logger logger = LogManager.getLogger(PushDeliveryService.class);
+	private static final int QUEUE_CAPACITY = 10_000;
+	private static final int MAX_JOBS_PER_CYCLE = 1_000;
+	private static final int MAX_ATTEMPTS = 4;
+	private static final long INITIAL_BACKOFF_MS = 2_000;
+
+	private record PushJob(Collection<Integer> userIds, NotificationPayload payload) {
+	}
+
+	private record TokenTarget(int userId, String token) {
+	}
+
+	private final PushTransport transport;
+	private final UserDAO userDAO;
+	private final BlockingQueue<PushJob> queue = new LinkedBlockingQueue<>(QUEUE_CAPACITY);
+	private final ScheduledExecutorService retryScheduler = Executors
+			.newSingleThreadScheduledExecutor(Thread.ofVirtual().name("push-retry").factory());
+	private volatile boolean running;
+	private Thread worker;
+
+	@Autowired
+	public PushDeliveryService(PushTransport transport, UserDAO userDAO) {
+		this.transport = transport;
+		this.userDAO = userDAO;
+	}
+
+	@PostConstruct
+	public void start() {
+		running = true;
+		worker = Thread.ofVirtual().name("push-delivery").start(this::runWorker);
+	}
+
+	@PreDestroy
+	public void stop() {
+		running = false;
+		worker.interrupt();
+		retryScheduler.shutdownNow();
+		// Deliver whatever is still queued so a shutdown does not lose pushes.
+		List<PushJob> remaining = new ArrayList<>();
+		queue.drainTo(remaining);
+		if (!remaining.isEmpty()) {
+			logger.info("Delivering {} queued push jobs before shutdown.", remaining.size());
+			deliver(remaining);
+		}
+	}
+
+	/**
+	 * Schedules a push of the payload to all given users. Returns immediately;
+	 * if called inside a transaction, the push is only enqueued once it commits.
+	 */
+	public void enqueue(Collection<Integer> userIds, NotificationPayload payload) {
+		if (userIds.isEmpty()) {
+			return;
+		}
+		PushJob job = new PushJob(List.copyOf(userIds), payload);
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					offer(job);
+				}
+			});
+		} else {
+			offer(job);
+		}
+	}
+
+	private void offer(PushJob job) {
+		if (!queue.offer(job)) {
+			logger.warn("Push queue is full, dropping push '{}' for {} users.", job.payload().getTitle(),
+					job.userIds().size());
+		}
+	}
+
+	private void runWorker() {
+		while (running) {
+			try {
+				List<PushJob> jobs = new ArrayList<>();
+				jobs.add(queue.take());
+				queue.drainTo(jobs, MAX_JOBS_PER_CYCLE - 1);
+				deliver(jobs);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			} catch (Exception e) {
+				logger.error("Unexpected error in push delivery worker", e);
+			}
+		}
+	}
+
+	private void deliver(List<PushJob> jobs) {
+		if (!transport.isAvailable()) {
+			logger.debug("Push transport not available, skipping {} push jobs.", jobs.size());
+			return;
+		}
+
+		// Jobs sharing the same payload instance are merged into one multicast.
+		Map<NotificationPayload, Set<Integer>> usersByPayload = new IdentityHashMap<>();
+		Set<Integer> allUserIds = new LinkedHashSet<>();
+		for (PushJob job : jobs) {
+			usersByPayload.computeIfAbsent(job.payload(), k -> new LinkedHashSet<>()).addAll(job.userIds());
+			allUserIds.addAll(job.userIds());
+		}
+
+		Map<Integer, String> tokensByUser = userDAO.getFcmTokensForUsers(allUserIds);
+		usersByPayload.forEach((payload, userIds) -> {
+			List<TokenTarget> targets = new ArrayList<>();
+			for (Integer userId : userIds) {
+				String token = tokensByUser.get(userId);
+				if (token != null && !token.isBlank()) {
+					targets.add(new TokenTarget(userId, token));
+				}
+			}
+			send(targets, payload, 1);
+		});
+	}
+
+	private void send(List<TokenTarget> targets, NotificationPayload payload, int attempt) {
+		List<TokenTarget> retries = new ArrayList<>();
+		for (int from = 0; from < targets.size(); from += PushTransport.MAX_TOKENS_PER_BATCH) {
+			List<TokenTarget> batch = targets.subList(from,
+					Math.min(from + PushTransport.MAX_TOKENS_PER_BATCH, targets.size()));
+			List<PushTransport.Outcome> outcomes;
+			try {
+				outcomes = transport.sendMulticast(batch.stream().map(TokenTarget::token).toList(), payload);
+			} catch (Exception e) {
+				logger.error("Push batch of {} tokens failed: {}", batch.size(), e.getMessage());
+				retries.addAll(batch);
+				continue;
+			}
+			for (int i = 0; i < batch.size(); i++) {
+				TokenTarget target = batch.get(i);
+				switch (outcomes.get(i)) {
+				case INVALID_TOKEN -> {
+					logger.warn("FCM token for user {} seems invalid. Clearing it from database.", target.userId());
+					userDAO.updateFcmToken(target.userId(), null);
+				}
+				case RETRY -> retries.add(target);
+				case DELIVERED -> {
+				}
+				}
+			}
+		}
+		scheduleRetry(retries, payload, attempt);
+	}
+
+	private void scheduleRetry(List<TokenTarget> retries, NotificationPayload payload, int attempt) {
+		if (retries.isEmpty() || !running) {
+			return;
+		}
+		if (attempt >= MAX_ATTEMPTS) {
+			logger.error("Giving up push '{}' for {} tokens after {} attempts.", payload.getTitle(), retries.size(),
+					attempt);
+			return;
+		}
+		long delay = INITIAL_BACKOFF_MS << (attempt - 1);
+		logger.info("Retrying push '{}' for {} tokens in {} ms (attempt {}).", payload.getTitle(), retries.size(),
+				delay, attempt + 1);
+		retryScheduler.schedule(() -> send(retries, payload, attempt + 1), delay, TimeUnit.MILLISECONDS);
+	}
+}
@@ -0,0 +1,43 @@
+package de.technikteam.service;
+
+import de.technikteam.api.v1.dto.NotificationPayload;
+
+import java.util.List;
+
+/**
+ * A transport that delivers one push message to a batch of device tokens.
+ * Implementations are selected with the {@code push.transport} property:
+ * {@code fcm} (default) sends through Firebase Cloud Messaging, {@code stub}
+ * keeps messages in memory for offline development and testing.
+ */
+public interface PushTransport {
+
+	/**
+	 * The largest number of tokens a single {@link #sendMulticast} call may
+	 * receive (the FCM multicast limit).
+	 */
+	int MAX_TOKENS_PER_BATCH = 500;
+
+	enum Outcome {
+		DELIVERED,
+		/** The token is no longer registered and should be forgotten. */
+		INVALID_TOKEN,
+		/** A transient failure; the delivery may be retried later. */
+		RETRY
+	}
+
+	/**
+	 * @return false if the transport is not configured (e.g. missing
+	 *         credentials); the delivery pipeline then drops pushes silently.
+	 */
+	boolean isAvailable();
+
+	/**
+	 * Sends the payload to all tokens.
+	 *
+	 * @param tokens  Up to {@link #MAX_TOKENS_PER_BATCH} device tokens.
+	 * @param payload The notification to send.
+	 * @return One outcome per token, in the same order as {@code tokens}.
+	 */
+	List<Outcome> sendMulticast(List<String> tokens, NotificationPayload payload);
+}
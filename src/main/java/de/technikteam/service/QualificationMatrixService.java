@@ -0,0 +1,106 @@
+package de.technikteam.service;
+
+import de.technikteam.dao.MeetingAttendanceDAO;
+import de.technikteam.dao.UserQualificationsDAO;
+import de.technikteam.model.MeetingAttendance;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory index of course completions and meeting attendance. The whole
+ * index is loaded with a fixed number of set-based queries and keeps one
+ * {@link BitSet} of user ids per course, so membership checks for the
+ * qualification matrix and the training hub never hit the database. Any
+ * {@link TrainingRecordsChangedEvent} discards the index.
+ */
+@Service
+public class QualificationMatrixService {
+	private static final Logger logger = LogManager.getLogger(QualificationMatrixService.class);
+	// Only a safety net for changes made outside the application.
+	private static final long MAX_AGE_NANOS = TimeUnit.MINUTES.toNanos(10);
+
+	private final MeetingAttendanceDAO attendanceDAO;
+	private final UserQualificationsDAO qualificationsDAO;
+	private final AtomicLong invalidations = new AtomicLong();
+	private volatile MatrixIndex index;
+
+	@Autowired
+	public QualificationMatrixService(MeetingAttendanceDAO attendanceDAO, UserQualificationsDAO qualificationsDAO) {
+		this.attendanceDAO = attendanceDAO;
+		this.qualificationsDAO = qualificationsDAO;
+	}
+
+	/**
+	 * An immutable snapshot of all completions and attendance records.
+	 */
+	public static final class MatrixIndex {
+		private static final BitSet EMPTY = new BitSet(0);
+
+		private final Map<Integer, BitSet> completedUsersByCourse;
+		private final List<MeetingAttendance> attendance;
+		private final long loadedAt;
+
+		private MatrixIndex(Map<Integer, BitSet> completedUsersByCourse, List<MeetingAttendance> attendance) {
+			this.completedUsersByCourse = completedUsersByCourse;
+			this.attendance = attendance;
+			this.loadedAt = System.nanoTime();
+		}
+
+		public boolean hasCompleted(int userId, int courseId) {
+			return completedUsersByCourse.getOrDefault(courseId, EMPTY).get(userId);
+		}
+
+		public List<MeetingAttendance> getAttendance() {
+			return attendance;
+		}
+
+		private boolean isStale() {
+			return System.nanoTime() - loadedAt > MAX_AGE_NANOS;
+		}
+	}
+
+	public MatrixIndex getIndex() {
+		MatrixIndex current = index;
+		if (current != null && !current.isStale()) {
+			return current;
+		}
+		synchronized (this) {
+			current = index;
+			if (current != null && !current.isStale()) {
+				return current;
+			}
+			long invalidationMark = invalidations.get();
+			MatrixIndex loaded = new MatrixIndex(qualificationsDAO.getCompletedUsersByCourse(),
+					List.copyOf(attendanceDAO.getAllAttendance()));
+			// Only publish the snapshot if nothing was written while we were loading.
+			if (invalidations.get() == invalidationMark) {
+				index = loaded;
+			}
+			logger.debug("Qualification matrix index loaded ({} attendance records).", loaded.attendance.size());
+			return loaded;
+		}
+	}
+
+	public boolean hasCompleted(int userId, int courseId) {
+		return getIndex().hasCompleted(userId, courseId);
+	}
+
+	public void invalidate() {
+		invalidations.incrementAndGet();
+		index = null;
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onTrainingRecordsChanged(TrainingRecordsChangedEvent event) {
+		invalidate();
+	}
+}
@@ -1,25 +1,119 @@
 package de.technikteam.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import io.github.bucket4j.Bandwidth;
 import io.github.bucket4j.Bucket;
+import io.github.bucket4j.ConsumptionProbe;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.convert.DurationStyle;
 import org.springframework.stereotype.Service;
+import org.springframework.util.AntPathMatcher;
 
 import java.time.Duration;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
 
+/**
+ * Token buckets for API rate limiting. Every request is counted against one
+ * policy: the first route policy whose path pattern matches, or the default
+ * policy for anonymous or authenticated clients. Buckets are kept per policy
+ * and client (user ID, or IP address for anonymous requests) in a bounded
+ * cache; a bucket that has been idle for its refill period is full again and
+ * is simply dropped.
+ * <p>
+ * Policies are written as {@code capacity/period}, e.g. {@code 30/1m}. Route
+ * policies are a comma-separated list of {@code pattern=capacity/period}.
+ */
 @Service
 public class RateLimitingService {
+	private static final Logger logger = LogManager.getLogger(RateLimitingService.class);
+	private static final long MAX_BUCKETS = 100_000;
 
-	private final Map<String, Bucket> cache = new ConcurrentHashMap<>();
+	public record RateLimitPolicy(String name, long capacity, Duration period) {
 
-	public Bucket resolveBucket(String apiKey) {
-		return cache.computeIfAbsent(apiKey, this::newBucket);
+		static RateLimitPolicy parse(String name, String spec) {
+			String[] parts = spec.trim().split("/", 2);
+			if (parts.length != 2) {
+				throw new IllegalArgumentException("Invalid rate limit '" + spec + "' for " + name
+						+ ", expected capacity/period.");
+			}
+			return new RateLimitPolicy(name, Long.parseLong(parts[0].trim()),
+					DurationStyle.detectAndParse(parts[1].trim()));
+		}
 	}
 
-	private Bucket newBucket(String apiKey) {
-		// Example: 10 requests per minute
-		Bandwidth limit = Bandwidth.simple(10, Duration.ofMinutes(1));
+	private record RoutePolicy(String pathPattern, RateLimitPolicy policy) {
+	}
+
+	private final boolean enabled;
+	private final List<RoutePolicy> routePolicies = new ArrayList<>();
+	private final RateLimitPolicy anonymousPolicy;
+	private final RateLimitPolicy userPolicy;
+	private final AntPathMatcher pathMatcher = new AntPathMatcher();
+	private final Cache<String, Bucket> buckets;
+
+	public RateLimitingService(@Value("${rate-limit.enabled:true}") boolean enabled,
+			@Value("${rate-limit.routes:}") List<String> routes,
+			@Value("${rate-limit.default.anonymous:120/1m}") String anonymousPolicy,
+			@Value("${rate-limit.default.user:600/1m}") String userPolicy) {
+		this.enabled = enabled;
+		for (String route : routes) {
+			if (route.isBlank()) {
+				continue;
+			}
+			String[] parts = route.split("=", 2);
+			String pattern = parts[0].trim();
+			routePolicies.add(new RoutePolicy(pattern, RateLimitPolicy.parse(pattern, parts.length > 1 ? parts[1] : "")));
+		}
+		this.anonymousPolicy = RateLimitPolicy.parse("anonymous", anonymousPolicy);
+		this.userPolicy = RateLimitPolicy.parse("user", userPolicy);
+
+		Duration longestPeriod = Stream
+				.concat(routePolicies.stream().map(RoutePolicy::policy), Stream.of(this.anonymousPolicy, this.userPolicy))
+				.map(RateLimitPolicy::period).max(Comparator.naturalOrder()).orElseThrow();
+		this.buckets = Caffeine.newBuilder().expireAfterAccess(longestPeriod).maximumSize(MAX_BUCKETS).build();
+		logger.info("Rate limiting {} with {} route policies.", enabled ? "enabled" : "disabled",
+				routePolicies.size());
+	}
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Finds the policy a request path is counted against.
+	 *
+	 * @param path          The request path without the context path.
+	 * @param authenticated Whether the request belongs to a logged-in user.
+	 */
+	public RateLimitPolicy resolvePolicy(String path, boolean authenticated) {
+		for (RoutePolicy route : routePolicies) {
+			if (pathMatcher.match(route.pathPattern(), path)) {
+				return route.policy();
+			}
+		}
+		return authenticated ? userPolicy : anonymousPolicy;
+	}
+
+	/**
+	 * Takes one token from the client's bucket for the policy.
+	 *
+	 * @param clientKey Identifies the client, e.g. {@code user:42} or
+	 *                  {@code ip:203.0.113.7}.
+	 */
+	public ConsumptionProbe tryConsume(RateLimitPolicy policy, String clientKey) {
+		Bucket bucket = buckets.get(policy.name() + "|" + clientKey, key -> newBucket(policy));
+		return bucket.tryConsumeAndReturnRemaining(1);
+	}
+
+	private Bucket newBucket(RateLimitPolicy policy) {
+		Bandwidth limit = Bandwidth.builder().capacity(policy.capacity())
+				.refillGreedy(policy.capacity(), policy.period()).build();
 		return Bucket.builder().addLimit(limit).build();
 	}
-}
\ No newline at end of file
+}
@@ -0,0 +1,47 @@
+package de.technikteam.service;
+
+import de.technikteam.dao.ReportRollupDAO;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Keeps the report rollups current: new storage log entries are folded in
+ * every minute, and once a night all rollups are rebuilt from the source
+ * tables to correct any drift.
+ */
+@Service
+public class ReportRollupService {
+	private static final Logger logger = LogManager.getLogger(ReportRollupService.class);
+
+	private final ReportRollupDAO reportRollupDAO;
+
+	@Autowired
+	public ReportRollupService(ReportRollupDAO reportRollupDAO) {
+		this.reportRollupDAO = reportRollupDAO;
+	}
+
+	@Scheduled(fixedDelay = 60000) // Run every minute
+	public void refreshIncremental() {
+		try {
+			long watermark = reportRollupDAO.refreshItemUsage();
+			if (watermark > 0) {
+				logger.debug("Item usage rollup advanced to storage log entry {}.", watermark);
+			}
+		} catch (Exception e) {
+			logger.error("Error refreshing the item usage rollup.", e);
+		}
+	}
+
+	@Scheduled(cron = "0 15 3 * * *") // Run daily at 3:15 AM
+	public void rebuild() {
+		logger.info("Running scheduled rebuild of the report rollups.");
+		try {
+			reportRollupDAO.rebuildAll();
+		} catch (Exception e) {
+			logger.error("Error rebuilding the report rollups.", e);
+		}
+	}
+}
@@ -6,25 +6,43 @@ import de.technikteam.dao.StorageDAO;
 import de.technikteam.dao.WikiDAO;
 import de.technikteam.model.Event;
 import de.technikteam.model.Meeting;
+import de.technikteam.model.SearchHit;
 import de.technikteam.model.SearchResultDTO;
 import de.technikteam.model.StorageItem;
 import de.technikteam.model.User;
 import de.technikteam.model.WikiEntry;
+import de.technikteam.util.FullTextQuery;
+import jakarta.annotation.PreDestroy;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
+/**
+ * Global search across events, storage items, meetings and (for admins) the
+ * wiki. Each domain is queried in parallel through its FULLTEXT index; the
+ * scores are normalized per domain and the results merged by relevance.
+ * Queries without a word long enough for the index fall back to a LIKE scan.
+ */
 @Service
 public class SearchService {
+	private static final int RESULTS_PER_DOMAIN = 20;
+
+	private record RankedResult(SearchResultDTO result, double score, int domain) {
+	}
 
 	private final EventDAO eventDAO;
 	private final StorageDAO storageDAO;
 	private final MeetingDAO meetingDAO;
 	private final WikiDAO wikiDAO;
+	private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
 
 	@Autowired
 	public SearchService(EventDAO eventDAO, StorageDAO storageDAO, MeetingDAO meetingDAO, WikiDAO wikiDAO) {
@@ -34,29 +52,68 @@ public class SearchService {
 		this.wikiDAO = wikiDAO;
 	}
 
+	@PreDestroy
+	public void shutdown() {
+		executor.shutdownNow();
+	}
+
 	public List<SearchResultDTO> performSearch(String query, User user) {
 		// Since security is frontend-only, we don't need to filter results based on the
 		// user object here.
 		// In a secure app, we would pass the user to each DAO method.
+		String booleanQuery = FullTextQuery.toBooleanMode(query);
+		boolean includeWiki = user != null && user.hasAdminAccess();
 
-		List<SearchResultDTO> eventResults = eventDAO.search(query).stream().map(this::mapEventToSearchResult)
-				.collect(Collectors.toList());
-
-		List<SearchResultDTO> itemResults = storageDAO.search(query).stream().map(this::mapStorageItemToSearchResult)
-				.collect(Collectors.toList());
+		List<CompletableFuture<List<RankedResult>>> domains = new ArrayList<>();
+		if (booleanQuery != null) {
+			domains.add(searchDomain(0, () -> eventDAO.searchFullText(booleanQuery, RESULTS_PER_DOMAIN),
+					this::mapEventToSearchResult));
+			domains.add(searchDomain(1, () -> storageDAO.searchFullText(booleanQuery, RESULTS_PER_DOMAIN),
+					this::mapStorageItemToSearchResult));
+			domains.add(searchDomain(2, () -> meetingDAO.searchFullText(booleanQuery, RESULTS_PER_DOMAIN),
+					this::mapMeetingToSearchResult));
+			// Only search wiki if user is an admin
+			if (includeWiki) {
+				domains.add(searchDomain(3, () -> wikiDAO.searchFullText(booleanQuery, RESULTS_PER_DOMAIN),
+						this::mapWikiEntryToSearchResult));
+			}
+		} else {
+			domains.add(searchDomain(0, () -> unranked(eventDAO.search(query)), this::mapEventToSearchResult));
+			domains.add(searchDomain(1, () -> unranked(storageDAO.search(query)), this::mapStorageItemToSearchResult));
+			domains.add(searchDomain(2, () -> unranked(meetingDAO.search(query)), this::mapMeetingToSearchResult));
+			if (includeWiki) {
+				domains.add(searchDomain(3, () -> unranked(wikiDAO.search(query)), this::mapWikiEntryToSearchResult));
+			}
+		}
 
-		List<SearchResultDTO> meetingResults = meetingDAO.search(query).stream().map(this::mapMeetingToSearchResult)
-				.collect(Collectors.toList());
+		List<RankedResult> merged = new ArrayList<>();
+		domains.forEach(domain -> merged.addAll(domain.join()));
+		// Stable sort: equal scores keep the domain order and the order within the domain.
+		merged.sort(Comparator.comparingDouble(RankedResult::score).reversed()
+				.thenComparingInt(RankedResult::domain));
+		return merged.stream().map(RankedResult::result).toList();
+	}
 
-		List<SearchResultDTO> wikiResults = new ArrayList<>();
-		// Only search wiki if user is an admin
-		if (user != null && user.hasAdminAccess()) {
-			wikiResults = wikiDAO.search(query).stream().map(this::mapWikiEntryToSearchResult)
-					.collect(Collectors.toList());
-		}
+	/**
+	 * Runs one domain query on a virtual thread and normalizes its scores to
+	 * (0, 1], since raw FULLTEXT scores of different tables are not comparable.
+	 */
+	private <T> CompletableFuture<List<RankedResult>> searchDomain(int domain, Supplier<List<SearchHit<T>>> search,
+			Function<T, SearchResultDTO> mapper) {
+		return CompletableFuture.supplyAsync(() -> {
+			List<SearchHit<T>> hits = search.get();
+			double maxScore = hits.stream().mapToDouble(SearchHit::score).max().orElse(0);
+			List<RankedResult> results = new ArrayList<>(hits.size());
+			for (SearchHit<T> hit : hits) {
+				double score = maxScore > 0 ? hit.score() / maxScore : 1.0;
+				results.add(new RankedResult(mapper.apply(hit.item()), score, domain));
+			}
+			return results;
+		}, executor);
+	}
 
-		return Stream.of(eventResults, itemResults, meetingResults, wikiResults).flatMap(List::stream)
-				.collect(Collectors.toList());
+	private static <T> List<SearchHit<T>> unranked(List<T> items) {
+		return items.stream().map(item -> new SearchHit<>(item, 0)).toList();
 	}
 
 	private SearchResultDTO mapEventToSearchResult(Event event) {
@@ -0,0 +1,179 @@
+package de.technikteam.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Asynchronous fan-out of Server-Sent Events. Every event is serialized once
+ * into a frame that is shared by all recipients. Each connected client owns a
+ * bounded outbound queue that is drained by its own virtual thread, so
+ * publishers never block on the network. A client whose queue overflows is
+ * considered too slow (or dead) and is disconnected.
+ */
+@Service
+public class SseDispatcher {
+	private static final Logger logger = LogManager.getLogger(SseDispatcher.class);
+	private static final int CLIENT_QUEUE_CAPACITY = 256;
+
+	private final ObjectMapper objectMapper;
+	private final Map<Integer, List<SseClient>> clientsByUser = new ConcurrentHashMap<>();
+
+	/**
+	 * A fully rendered SSE frame, ready to be written to any emitter. The items
+	 * keep their order (field lines, data, terminator) and are never mutated.
+	 */
+	public record SseFrame(Set<ResponseBodyEmitter.DataWithMediaType> items) {
+	}
+
+	@Autowired
+	public SseDispatcher(ObjectMapper objectMapper) {
+		this.objectMapper = objectMapper;
+	}
+
+	/**
+	 * Renders an event with a JSON payload. The payload is serialized exactly
+	 * once, regardless of the number of recipients.
+	 */
+	public SseFrame frame(String eventName, Object data) {
+		try {
+			String json = objectMapper.writeValueAsString(data);
+			return new SseFrame(
+					Collections.unmodifiableSet(SseEmitter.event().name(eventName).data(json, MediaType.APPLICATION_JSON).build()));
+		} catch (JsonProcessingException e) {
+			throw new IllegalArgumentException("SSE payload for event '" + eventName + "' is not serializable", e);
+		}
+	}
+
+	public SseFrame text(String eventName, String text) {
+		return new SseFrame(Collections.unmodifiableSet(SseEmitter.event().name(eventName).data(text).build()));
+	}
+
+	public SseFrame comment(String comment) {
+		return new SseFrame(Collections.unmodifiableSet(SseEmitter.event().comment(comment).build()));
+	}
+
+	public void register(int userId, SseEmitter emitter) {
+		SseClient client = new SseClient(userId, emitter);
+		emitter.onCompletion(() -> {
+			logger.info("SSE Emitter für Benutzer {} beendet.", userId);
+			remove(client);
+		});
+		emitter.onTimeout(() -> {
+			logger.warn("SSE Emitter für Benutzer {} hat Zeitüberschreitung.", userId);
+			emitter.complete();
+		});
+		emitter.onError(e -> {
+			// This often logs benign client-side disconnects, so we log at debug level.
+			logger.debug("SSE Emitter Fehler für Benutzer {}: {}", userId, e.getMessage());
+			remove(client);
+		});
+		clientsByUser.computeIfAbsent(userId, k -> new CopyOnWriteArrayList<>()).add(client);
+		client.start();
+	}
+
+	public int getClientCount(int userId) {
+		List<SseClient> clients = clientsByUser.get(userId);
+		return clients != null ? clients.size() : 0;
+	}
+
+	public boolean hasClients(int userId) {
+		return getClientCount(userId) > 0;
+	}
+
+	public void sendToUser(int userId, SseFrame frame) {
+		List<SseClient> clients = clientsByUser.get(userId);
+		if (clients != null) {
+			clients.forEach(client -> client.enqueue(frame));
+		}
+	}
+
+	public void broadcast(SseFrame frame) {
+		clientsByUser.values().forEach(clients -> clients.forEach(client -> client.enqueue(frame)));
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		clientsByUser.values().forEach(clients -> clients.forEach(SseClient::close));
+		clientsByUser.clear();
+	}
+
+	private void remove(SseClient client) {
+		client.close();
+		clientsByUser.computeIfPresent(client.userId, (userId, clients) -> {
+			clients.remove(client);
+			return clients.isEmpty() ? null : clients;
+		});
+	}
+
+	private final class SseClient {
+		private final int userId;
+		private final SseEmitter emitter;
+		private final BlockingQueue<SseFrame> queue = new ArrayBlockingQueue<>(CLIENT_QUEUE_CAPACITY);
+		private final AtomicBoolean closed = new AtomicBoolean(false);
+		private volatile Thread drainer;
+
+		private SseClient(int userId, SseEmitter emitter) {
+			this.userId = userId;
+			this.emitter = emitter;
+		}
+
+		private void start() {
+			drainer = Thread.ofVirtual().name("sse-user-" + userId).start(this::drain);
+		}
+
+		private void enqueue(SseFrame frame) {
+			if (closed.get()) {
+				return;
+			}
+			if (!queue.offer(frame)) {
+				logger.warn("SSE-Warteschlange für Benutzer {} ist voll, langsamer Client wird getrennt.", userId);
+				remove(this);
+				emitter.complete();
+			}
+		}
+
+		private void drain() {
+			try {
+				while (!closed.get()) {
+					SseFrame frame = queue.take();
+					emitter.send(frame.items());
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			} catch (IOException | IllegalStateException e) {
+				// The client has disconnected or the emitter was already completed.
+				logger.debug("SSE-Versand an Benutzer {} fehlgeschlagen, Client wird entfernt: {}", userId,
+						e.getMessage());
+				remove(this);
+			}
+		}
+
+		private void close() {
+			if (closed.compareAndSet(false, true)) {
+				queue.clear();
+				if (drainer != null && drainer != Thread.currentThread()) {
+					drainer.interrupt();
+				}
+			}
+		}
+	}
+}
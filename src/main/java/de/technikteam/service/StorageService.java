@@ -8,6 +8,7 @@ import de.technikteam.model.Event;
 import de.technikteam.model.StorageItem;
 import de.technikteam.model.User;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -20,6 +21,7 @@ public class StorageService {
 
 	private final StorageDAO storageDAO;
 	private final StorageLogDAO storageLogDAO;
+	private final StorageLedgerDAO storageLedgerDAO;
 	private final DamageReportDAO damageReportDAO;
 	private final UserDAO userDAO;
 	private final EventDAO eventDAO;
@@ -28,11 +30,12 @@ public class StorageService {
 	private final MaintenanceLogDAO maintenanceLogDAO;
 
 	@Autowired
-	public StorageService(StorageDAO storageDAO, StorageLogDAO storageLogDAO, DamageReportDAO damageReportDAO,
-			UserDAO userDAO, EventDAO eventDAO, AdminLogService adminLogService,
+	public StorageService(StorageDAO storageDAO, StorageLogDAO storageLogDAO, StorageLedgerDAO storageLedgerDAO,
+			DamageReportDAO damageReportDAO, UserDAO userDAO, EventDAO eventDAO, AdminLogService adminLogService,
 			NotificationService notificationService, MaintenanceLogDAO maintenanceLogDAO) {
 		this.storageDAO = storageDAO;
 		this.storageLogDAO = storageLogDAO;
+		this.storageLedgerDAO = storageLedgerDAO;
 		this.damageReportDAO = damageReportDAO;
 		this.userDAO = userDAO;
 		this.eventDAO = eventDAO;
@@ -41,34 +44,33 @@ public class StorageService {
 		this.maintenanceLogDAO = maintenanceLogDAO;
 	}
 
+	/**
+	 * Checks items out or in. The quantity is changed with a single conditional
+	 * UPDATE, so parallel transactions on the same item can neither lose updates
+	 * nor overdraw the stock.
+	 */
 	@Transactional
 	public boolean processTransaction(int itemId, int quantity, String type, User user, Integer eventId, String notes) {
-		StorageItem item = storageDAO.getItemById(itemId);
-		if (item == null)
-			throw new IllegalArgumentException("Artikel mit ID " + itemId + " nicht gefunden.");
+		if (quantity <= 0)
+			throw new IllegalArgumentException("Die Menge muss größer als 0 sein.");
 
 		if ("checkout".equals(type)) {
-			if (item.getAvailableQuantity() < quantity)
+			if (!storageDAO.checkOut(itemId, quantity, user.getId(), eventId)) {
+				requireItem(itemId);
 				throw new IllegalStateException("Nicht genügend Artikel zum Entnehmen verfügbar.");
-			item.setQuantity(item.getQuantity() - quantity);
-			item.setStatus("CHECKED_OUT");
-			item.setCurrentHolderUserId(user.getId());
-			item.setAssignedEventId(eventId != null ? eventId : 0);
+			}
+			storageLedgerDAO.append(itemId, user.getId(), StorageLedgerDAO.CHECKOUT, -quantity, 0, eventId);
 		} else if ("checkin".equals(type)) {
-			if (item.getMaxQuantity() > 0 && (item.getQuantity() + quantity > item.getMaxQuantity())) {
+			if (!storageDAO.checkIn(itemId, quantity)) {
+				requireItem(itemId);
 				throw new IllegalStateException("Nicht genügend Platz, um diese Menge einzuräumen.");
 			}
-			item.setQuantity(item.getQuantity() + quantity);
-			if (item.getQuantity() >= item.getMaxQuantity()) {
-				item.setStatus("IN_STORAGE");
-				item.setCurrentHolderUserId(0);
-				item.setAssignedEventId(0);
-			}
+			storageLedgerDAO.append(itemId, user.getId(), StorageLedgerDAO.CHECKIN, quantity, 0, eventId);
 		} else {
 			throw new IllegalArgumentException("Ungültiger Transaktionstyp: " + type);
 		}
 
-		storageDAO.updateItem(item);
+		StorageItem item = storageDAO.getItemById(itemId);
 		notificationService.broadcastUIUpdate("STORAGE_ITEM", "UPDATED", item);
 
 		String finalNotes = notes;
@@ -122,59 +124,100 @@ public class StorageService {
 
 	@Transactional
 	public boolean updateDefectiveItemStatus(int itemId, String status, int quantity, String reason, User adminUser) {
-		StorageItem item = storageDAO.getItemById(itemId);
-		if (item == null) {
-			throw new IllegalArgumentException("Artikel mit ID " + itemId + " nicht gefunden.");
+		if (quantity <= 0) {
+			throw new IllegalArgumentException("Die Menge muss größer als 0 sein.");
 		}
 
-		String logDetails;
-
+		StorageItem item;
 		if ("UNREPAIRABLE".equals(status)) {
-			if (item.getQuantity() < quantity || item.getDefectiveQuantity() < quantity) {
+			if (!storageDAO.adjustQuantities(itemId, -quantity, -quantity)) {
+				requireItem(itemId);
 				throw new IllegalStateException(
 						"Es können nicht mehr Artikel als irreparabel markiert werden, als vorhanden oder defekt sind.");
 			}
-			item.setQuantity(item.getQuantity() - quantity);
-			item.setDefectiveQuantity(item.getDefectiveQuantity() - quantity);
-			item.setDefectReason(reason);
-			logDetails = String.format("Permanently removed %d x '%s' (ID: %d) from stock (unrepairable). Reason: %s",
-					quantity, item.getName(), itemId, reason);
+			storageLedgerDAO.append(itemId, adminUser.getId(), StorageLedgerDAO.UNREPAIRABLE, -quantity, -quantity,
+					null);
+			storageDAO.updateDefectReason(itemId, reason);
+			item = storageDAO.getItemById(itemId);
+			String logDetails = String.format(
+					"Permanently removed %d x '%s' (ID: %d) from stock (unrepairable). Reason: %s", quantity,
+					item.getName(), itemId, reason);
 			adminLogService.log(adminUser.getUsername(), "ITEM_UNREPAIRABLE", logDetails);
 		} else {
-			int newDefectiveTotal = item.getDefectiveQuantity() + quantity;
-			if (item.getQuantity() < newDefectiveTotal) {
+			if (!storageDAO.adjustQuantities(itemId, 0, quantity)) {
+				requireItem(itemId);
 				throw new IllegalStateException(
 						"Die Gesamtzahl der defekten Artikel kann die Gesamtmenge nicht überschreiten.");
 			}
-			item.setDefectiveQuantity(newDefectiveTotal);
-			item.setDefectReason(reason);
-			logDetails = String.format("Defect status for '%s' (ID: %d) updated: %d defective. Reason: %s",
-					item.getName(), itemId, newDefectiveTotal, reason);
+			storageLedgerDAO.append(itemId, adminUser.getId(), StorageLedgerDAO.DEFECT, 0, quantity, null);
+			storageDAO.updateDefectReason(itemId, reason);
+			item = storageDAO.getItemById(itemId);
+			String logDetails = String.format("Defect status for '%s' (ID: %d) updated: %d defective. Reason: %s",
+					item.getName(), itemId, item.getDefectiveQuantity(), reason);
 			adminLogService.log(adminUser.getUsername(), "UPDATE_DEFECT_STATUS", logDetails);
 		}
 
-		storageDAO.updateItem(item);
 		notificationService.broadcastUIUpdate("STORAGE_ITEM", "UPDATED", item);
 		return true;
 	}
 
 	@Transactional
 	public void repairItems(int itemId, int quantity, String notes, User adminUser) {
-		StorageItem item = storageDAO.getItemById(itemId);
-		if (item == null) {
-			throw new IllegalArgumentException("Item not found.");
+		if (quantity <= 0) {
+			throw new IllegalArgumentException("Quantity must be positive.");
 		}
-		if (quantity > item.getDefectiveQuantity()) {
+		if (!storageDAO.adjustQuantities(itemId, 0, -quantity)) {
+			if (storageDAO.getItemById(itemId) == null) {
+				throw new IllegalArgumentException("Item not found.");
+			}
 			throw new IllegalStateException("Cannot repair more items than are marked as defective.");
 		}
-		item.setDefectiveQuantity(item.getDefectiveQuantity() - quantity);
-		storageDAO.updateItem(item);
+		storageLedgerDAO.append(itemId, adminUser.getId(), StorageLedgerDAO.REPAIR, 0, -quantity, null);
+		StorageItem item = storageDAO.getItemById(itemId);
 		notificationService.broadcastUIUpdate("STORAGE_ITEM", "UPDATED", item);
 		// Log maintenance action
 		adminLogService.log(adminUser.getUsername(), "ITEM_REPAIRED",
 				String.format("Repaired %d x '%s' (ID: %d). Notes: %s", quantity, item.getName(), itemId, notes));
 	}
 
+	/**
+	 * Saves the details of an item with an optimistic version check. A changed
+	 * total quantity is booked as a correction in the ledger.
+	 *
+	 * @throws OptimisticLockingFailureException if the item was changed since the
+	 *                                           client loaded it.
+	 */
+	@Transactional
+	public StorageItem updateItemDetails(StorageItem item, User adminUser) {
+		StorageItem current = requireItem(item.getId());
+		if (item.getVersion() != null && !item.getVersion().equals(current.getVersion())) {
+			throw new OptimisticLockingFailureException(
+					"Der Artikel wurde zwischenzeitlich geändert. Bitte laden Sie ihn neu.");
+		}
+		if (item.getQuantity() < current.getDefectiveQuantity()) {
+			throw new IllegalStateException("Die Gesamtmenge kann nicht kleiner als die Anzahl defekter Artikel sein.");
+		}
+		if (!storageDAO.updateItemDetails(item, current.getVersion())) {
+			throw new OptimisticLockingFailureException(
+					"Der Artikel wurde zwischenzeitlich geändert. Bitte laden Sie ihn neu.");
+		}
+		int quantityDelta = item.getQuantity() - current.getQuantity();
+		if (quantityDelta != 0) {
+			storageLedgerDAO.append(item.getId(), adminUser.getId(), StorageLedgerDAO.CORRECTION, quantityDelta, 0,
+					null);
+		}
+		StorageItem updated = storageDAO.getItemById(item.getId());
+		notificationService.broadcastUIUpdate("STORAGE_ITEM", "UPDATED", updated);
+		return updated;
+	}
+
+	private StorageItem requireItem(int itemId) {
+		StorageItem item = storageDAO.getItemById(itemId);
+		if (item == null)
+			throw new IllegalArgumentException("Artikel mit ID " + itemId + " nicht gefunden.");
+		return item;
+	}
+
 	@Transactional
 	public DamageReport createDamageReport(int itemId, int reporterId, String description) {
 		StorageItem item = storageDAO.getItemById(itemId);
@@ -211,19 +254,18 @@ public class StorageService {
 		}
 
 		// Update the storage item
-		StorageItem item = storageDAO.getItemById(report.getItemId());
-		int newDefectiveTotal = item.getDefectiveQuantity() + quantity;
-		if (item.getQuantity() < newDefectiveTotal) {
+		if (quantity <= 0) {
+			throw new IllegalArgumentException("Die Menge muss größer als 0 sein.");
+		}
+		if (!storageDAO.adjustQuantities(report.getItemId(), 0, quantity)) {
+			requireItem(report.getItemId());
 			throw new IllegalStateException(
 					"Die Gesamtzahl der defekten Artikel kann die Gesamtmenge nicht überschreiten.");
 		}
-		item.setDefectiveQuantity(newDefectiveTotal);
-		if (item.getDefectReason() == null || item.getDefectReason().isBlank()) {
-			item.setDefectReason(report.getReportDescription());
-		} else {
-			item.setDefectReason(item.getDefectReason() + " | Gemeldet: " + report.getReportDescription());
-		}
-		storageDAO.updateItem(item);
+		storageLedgerDAO.append(report.getItemId(), adminUser.getId(), StorageLedgerDAO.DAMAGE_REPORT, 0, quantity,
+				null);
+		storageDAO.appendDefectReason(report.getItemId(), report.getReportDescription());
+		StorageItem item = storageDAO.getItemById(report.getItemId());
 		notificationService.broadcastUIUpdate("STORAGE_ITEM", "UPDATED", item);
 
 		// Update the report status
@@ -0,0 +1,52 @@
+package de.technikteam.service;
+
+import de.technikteam.api.v1.dto.NotificationPayload;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * An in-process push transport for offline development and testing. Every
+ * message is logged and kept in a small in-memory history instead of being
+ * sent to a device. Enable with {@code push.transport=stub}.
+ */
+@Service
+@ConditionalOnProperty(name = "push.transport", havingValue = "stub")
+public class StubPushTransport implements PushTransport {
+	private static final Logger logger = LogManager.getLogger(StubPushTransport.class);
+	private static final int HISTORY_SIZE = 1_000;
+
+	public record SentPush(List<String> tokens, NotificationPayload payload) {
+	}
+
+	private final Deque<SentPush> history = new ArrayDeque<>();
+
+	@Override
+	public boolean isAvailable() {
+		return true;
+	}
+
+	@Override
+	public List<Outcome> sendMulticast(List<String> tokens, NotificationPayload payload) {
+		logger.info("[Stub] Push '{}' an {} Geräte.", payload.getTitle(), tokens.size());
+		synchronized (history) {
+			if (history.size() == HISTORY_SIZE) {
+				history.removeFirst();
+			}
+			history.addLast(new SentPush(List.copyOf(tokens), payload));
+		}
+		return Collections.nCopies(tokens.size(), Outcome.DELIVERED);
+	}
+
+	public List<SentPush> getSentPushes() {
+		synchronized (history) {
+			return List.copyOf(history);
+		}
+	}
+}
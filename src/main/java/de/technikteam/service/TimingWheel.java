@@ -0,0 +1,139 @@
+package de.technikteam.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A hierarchical timing wheel. The lowest wheel has {@code wheelSize} buckets
+ * of one tick each; items further in the future go into coarser wheels that
+ * are created on demand, each covering {@code wheelSize} times the span of the
+ * wheel below. When the clock reaches a bucket of a coarser wheel, its items
+ * are redistributed into the finer wheels. Adding an item and advancing the
+ * clock by one tick are constant-time operations, independent of the number
+ * of items waiting.
+ * <p>
+ * Items expire with a precision of one tick. The class is not thread-safe.
+ *
+ * @param <T> The type of the scheduled items.
+ */
+final class TimingWheel<T> {
+
+	private record Entry<T>(T item, long dueAtMillis) {
+	}
+
+	private static final class Level<T> {
+		final long tickMillis;
+		final long intervalMillis;
+		final List<List<Entry<T>>> buckets;
+		long currentTime;
+
+		Level(long tickMillis, int wheelSize, long currentTime) {
+			this.tickMillis = tickMillis;
+			this.intervalMillis = tickMillis * wheelSize;
+			this.buckets = new ArrayList<>(wheelSize);
+			for (int i = 0; i < wheelSize; i++) {
+				buckets.add(new ArrayList<>());
+			}
+			this.currentTime = currentTime - (currentTime % tickMillis);
+		}
+
+		List<Entry<T>> bucketFor(long timeMillis) {
+			return buckets.get((int) ((timeMillis / tickMillis) % buckets.size()));
+		}
+	}
+
+	private final int wheelSize;
+	private final List<Level<T>> levels = new ArrayList<>();
+	private int size;
+
+	TimingWheel(long tickMillis, int wheelSize, long startMillis) {
+		this.wheelSize = wheelSize;
+		levels.add(new Level<>(tickMillis, wheelSize, startMillis));
+	}
+
+	/**
+	 * Schedules an item.
+	 *
+	 * @return false if the item is already due, i.e. within the current tick;
+	 *         the caller has to handle it right away.
+	 */
+	boolean add(T item, long dueAtMillis) {
+		if (!place(new Entry<>(item, dueAtMillis))) {
+			return false;
+		}
+		size++;
+		return true;
+	}
+
+	/**
+	 * Moves the clock forward to {@code nowMillis} and returns all items that
+	 * have become due, in order of their ticks.
+	 */
+	List<T> advance(long nowMillis) {
+		List<T> expired = new ArrayList<>();
+		Level<T> lowest = levels.get(0);
+		while (lowest.currentTime + lowest.tickMillis <= nowMillis) {
+			lowest.currentTime += lowest.tickMillis;
+			// All clocks move before any bucket is redistributed, so items are
+			// placed relative to the new time on every level.
+			boolean[] moved = new boolean[levels.size()];
+			for (int i = 1; i < levels.size(); i++) {
+				Level<T> level = levels.get(i);
+				long levelTime = lowest.currentTime - (lowest.currentTime % level.tickMillis);
+				moved[i] = levelTime > level.currentTime;
+				level.currentTime = levelTime;
+			}
+			// Coarse wheels first, so their items can still land in this tick.
+			for (int i = moved.length - 1; i > 0; i--) {
+				if (moved[i]) {
+					Level<T> level = levels.get(i);
+					cascade(level.bucketFor(level.currentTime), expired);
+				}
+			}
+			cascade(lowest.bucketFor(lowest.currentTime), expired);
+			if (size == 0) {
+				// Nothing is waiting, so the intermediate ticks can be skipped.
+				for (Level<T> level : levels) {
+					level.currentTime = nowMillis - (nowMillis % level.tickMillis);
+				}
+			}
+		}
+		return expired;
+	}
+
+	int size() {
+		return size;
+	}
+
+	private void cascade(List<Entry<T>> bucket, List<T> expired) {
+		if (bucket.isEmpty()) {
+			return;
+		}
+		List<Entry<T>> entries = new ArrayList<>(bucket);
+		bucket.clear();
+		for (Entry<T> entry : entries) {
+			if (!place(entry)) {
+				size--;
+				expired.add(entry.item());
+			}
+		}
+	}
+
+	private boolean place(Entry<T> entry) {
+		Level<T> lowest = levels.get(0);
+		if (entry.dueAtMillis() < lowest.currentTime + lowest.tickMillis) {
+			return false;
+		}
+		for (int i = 0;; i++) {
+			if (i == levels.size()) {
+				Level<T> below = levels.get(i - 1);
+				levels.add(new Level<>(below.intervalMillis, wheelSize, lowest.currentTime));
+			}
+			Level<T> level = levels.get(i);
+			if (entry.dueAtMillis() < level.currentTime + level.intervalMillis) {
+				level.bucketFor(entry.dueAtMillis()).add(entry);
+				return true;
+			}
+		}
+	}
+}
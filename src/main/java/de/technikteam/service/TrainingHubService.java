@@ -2,7 +2,6 @@ package de.technikteam.service;
 
 import de.technikteam.dao.CourseDAO;
 import de.technikteam.dao.MeetingDAO;
-import de.technikteam.dao.UserQualificationsDAO;
 import de.technikteam.model.Course;
 import de.technikteam.model.Meeting;
 import de.technikteam.model.User;
@@ -18,13 +17,13 @@ public class TrainingHubService {
 
 	private final CourseDAO courseDAO;
 	private final MeetingDAO meetingDAO;
-	private final UserQualificationsDAO qualificationsDAO;
+	private final QualificationMatrixService matrixService;
 
 	@Autowired
-	public TrainingHubService(CourseDAO courseDAO, MeetingDAO meetingDAO, UserQualificationsDAO qualificationsDAO) {
+	public TrainingHubService(CourseDAO courseDAO, MeetingDAO meetingDAO, QualificationMatrixService matrixService) {
 		this.courseDAO = courseDAO;
 		this.meetingDAO = meetingDAO;
-		this.qualificationsDAO = qualificationsDAO;
+		this.matrixService = matrixService;
 	}
 
 	public List<Course> getCoursesWithMeetingsForUser(User user) {
@@ -40,17 +39,19 @@ public class TrainingHubService {
 				.collect(Collectors.groupingBy(Meeting::getCourseId));
 
 		// 4. Combine data
+		QualificationMatrixService.MatrixIndex index = matrixService.getIndex();
 		for (Course course : allCourses) {
 			List<Meeting> meetingsForCourse = meetingsByCourseId.getOrDefault(course.getId(), List.of());
 			course.setUpcomingMeetings(meetingsForCourse);
-			course.setUserCourseStatus(determineUserCourseStatus(user.getId(), course.getId(), meetingsForCourse));
+			course.setUserCourseStatus(
+					determineUserCourseStatus(index.hasCompleted(user.getId(), course.getId()), meetingsForCourse));
 		}
 
 		return allCourses;
 	}
 
-	private String determineUserCourseStatus(int userId, int courseId, List<Meeting> meetingsForCourse) {
-		if (qualificationsDAO.hasUserCompletedCourse(userId, courseId)) {
+	private String determineUserCourseStatus(boolean hasCompleted, List<Meeting> meetingsForCourse) {
+		if (hasCompleted) {
 			return "QUALIFIZIERT";
 		}
 		boolean isSignedUp = meetingsForCourse.stream().anyMatch(m -> "ANGEMELDET".equals(m.getUserAttendanceStatus()));
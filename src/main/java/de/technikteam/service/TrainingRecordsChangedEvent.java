@@ -0,0 +1,9 @@
+package de.technikteam.service;
+
+/**
+ * Published whenever meeting attendance or course qualifications are written,
+ * so that derived views such as the {@link QualificationMatrixService} index
+ * can be rebuilt.
+ */
+public record TrainingRecordsChangedEvent() {
+}
@@ -0,0 +1,149 @@
+package de.technikteam.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import de.technikteam.dao.AnnouncementDAO;
+import de.technikteam.dao.ChatDAO;
+import de.technikteam.dao.EventDAO;
+import de.technikteam.dao.EventTaskDAO;
+import de.technikteam.dao.MeetingDAO;
+import de.technikteam.dao.StorageDAO;
+import de.technikteam.model.Announcement;
+import de.technikteam.model.Event;
+import de.technikteam.model.User;
+import jakarta.annotation.PreDestroy;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Composes the user dashboard and the home screen widgets. Every widget is
+ * loaded by its own query on a virtual thread, so a response takes as long as
+ * its slowest widget rather than the sum of all of them. A widget that fails
+ * or exceeds its timeout is delivered empty instead of failing the whole
+ * dashboard. Widgets that look the same for every user (upcoming events,
+ * latest announcement) are cached until the underlying data changes.
+ */
+@Service
+public class UserDashboardService {
+	private static final Logger logger = LogManager.getLogger(UserDashboardService.class);
+	private static final int WIDGET_LIMIT = 5;
+	private static final int RECOMMENDATION_LIMIT = 3;
+	private static final long WIDGET_TIMEOUT_MS = 2_000;
+	// The personalized feed checks qualifications for every candidate event.
+	private static final long RECOMMENDATION_TIMEOUT_MS = 3_000;
+	// Upcoming events also drop off by time alone, not only through writes.
+	private static final long SHARED_WIDGET_TTL_SECONDS = 60;
+	private static final String SHARED = "shared";
+
+	private final EventDAO eventDAO;
+	private final EventTaskDAO eventTaskDAO;
+	private final ChatDAO chatDAO;
+	private final MeetingDAO meetingDAO;
+	private final StorageDAO storageDAO;
+	private final AnnouncementDAO announcementDAO;
+	private final ExecutorService widgetExecutor = Executors.newVirtualThreadPerTaskExecutor();
+	private final Cache<String, List<Event>> upcomingEventsCache = Caffeine.newBuilder()
+			.expireAfterWrite(SHARED_WIDGET_TTL_SECONDS, TimeUnit.SECONDS).maximumSize(1).build();
+	private final Cache<String, Optional<Announcement>> latestAnnouncementCache = Caffeine.newBuilder()
+			.expireAfterWrite(SHARED_WIDGET_TTL_SECONDS, TimeUnit.SECONDS).maximumSize(1).build();
+
+	@Autowired
+	public UserDashboardService(EventDAO eventDAO, EventTaskDAO eventTaskDAO, ChatDAO chatDAO, MeetingDAO meetingDAO,
+			StorageDAO storageDAO, AnnouncementDAO announcementDAO) {
+		this.eventDAO = eventDAO;
+		this.eventTaskDAO = eventTaskDAO;
+		this.chatDAO = chatDAO;
+		this.meetingDAO = meetingDAO;
+		this.storageDAO = storageDAO;
+		this.announcementDAO = announcementDAO;
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		widgetExecutor.shutdownNow();
+	}
+
+	public Map<String, Object> getDashboardData(User user) {
+		int userId = user.getId();
+		Map<String, CompletableFuture<?>> widgets = new HashMap<>();
+		widgets.put("assignedEvents",
+				load("assignedEvents", () -> eventDAO.getAssignedEventsForUser(userId, WIDGET_LIMIT)));
+		widgets.put("openTasks", load("openTasks", () -> eventTaskDAO.getOpenTasksForUser(userId)));
+		widgets.put("upcomingEvents", load("upcomingEvents", this::getUpcomingEvents));
+		widgets.put("recommendedEvents", load("recommendedEvents",
+				() -> eventDAO.getPersonalizedEventFeed(userId, RECOMMENDATION_LIMIT), RECOMMENDATION_TIMEOUT_MS));
+		widgets.put("recentConversations",
+				load("recentConversations", () -> chatDAO.getConversationsForUser(userId, WIDGET_LIMIT)));
+		widgets.put("upcomingMeetings",
+				load("upcomingMeetings", () -> meetingDAO.getSignedUpMeetingsForUser(userId, WIDGET_LIMIT)));
+		widgets.put("lowStockItems", load("lowStockItems", () -> storageDAO.getLowStockItems(WIDGET_LIMIT)));
+		return collect(widgets);
+	}
+
+	public Map<String, Object> getWidgetData(User user) {
+		int userId = user.getId();
+		Map<String, CompletableFuture<?>> widgets = new HashMap<>();
+		widgets.put("nextEvent", load("nextEvent", () -> eventDAO.getAssignedEventsForUser(userId, 1).stream()
+				.findFirst().orElse(null), null, WIDGET_TIMEOUT_MS));
+		widgets.put("openTasks", load("openTasks", () -> eventTaskDAO.getOpenTasksForUser(userId)));
+		widgets.put("latestAnnouncement", load("latestAnnouncement",
+				() -> latestAnnouncementCache.get(SHARED, key -> announcementDAO.findLatest()).orElse(null), null,
+				WIDGET_TIMEOUT_MS));
+		return collect(widgets);
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onCalendarChanged(CalendarChangedEvent event) {
+		upcomingEventsCache.invalidateAll();
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onAnnouncementChanged(AnnouncementChangedEvent event) {
+		latestAnnouncementCache.invalidateAll();
+	}
+
+	private List<Event> getUpcomingEvents() {
+		return upcomingEventsCache.get(SHARED, key -> eventDAO.getActiveAndUpcomingEvents(WIDGET_LIMIT));
+	}
+
+	private <T> CompletableFuture<List<T>> load(String widget, Supplier<List<T>> query) {
+		return load(widget, query, WIDGET_TIMEOUT_MS);
+	}
+
+	private <T> CompletableFuture<List<T>> load(String widget, Supplier<List<T>> query, long timeoutMs) {
+		return load(widget, query, List.of(), timeoutMs);
+	}
+
+	private <T> CompletableFuture<T> load(String widget, Supplier<T> query, T fallback, long timeoutMs) {
+		return CompletableFuture.supplyAsync(query, widgetExecutor).orTimeout(timeoutMs, TimeUnit.MILLISECONDS)
+				.exceptionally(e -> {
+					if (e instanceof TimeoutException || e.getCause() instanceof TimeoutException) {
+						logger.warn("Dashboard widget '{}' did not load within {} ms.", widget, timeoutMs);
+					} else {
+						logger.error("Dashboard widget '{}' could not be loaded.", widget, e);
+					}
+					return fallback;
+				});
+	}
+
+	private Map<String, Object> collect(Map<String, CompletableFuture<?>> widgets) {
+		Map<String, Object> data = new HashMap<>();
+		// Every future completes on its own timeout, so join() cannot block for longer.
+		widgets.forEach((name, future) -> data.put(name, future.join()));
+		return data;
+	}
+}
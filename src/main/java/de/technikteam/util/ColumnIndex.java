@@ -0,0 +1,113 @@
+package de.technikteam.util;
+
+import java.lang.ref.WeakReference;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * An immutable, case-insensitive lookup from column name to column index for
+ * one ResultSet. It is resolved once from the ResultSetMetaData, so row
+ * mappers can test for optional columns and read them by index instead of
+ * scanning the metadata for every column of every row.
+ */
+public final class ColumnIndex {
+
+	private final WeakReference<ResultSet> resultSet;
+	private final Map<String, Integer> indexes;
+
+	private ColumnIndex(ResultSet rs, Map<String, Integer> indexes) {
+		this.resultSet = new WeakReference<>(rs);
+		this.indexes = indexes;
+	}
+
+	/**
+	 * Resolves the column layout of the given ResultSet. Both the column label
+	 * (alias) and the underlying column name are registered; if a name occurs
+	 * more than once, the first occurrence wins, matching
+	 * {@link ResultSet#findColumn(String)}.
+	 *
+	 * @param rs The ResultSet to index.
+	 * @return The column index for this ResultSet.
+	 * @throws SQLException If the metadata cannot be read.
+	 */
+	public static ColumnIndex of(ResultSet rs) throws SQLException {
+		ResultSetMetaData rsmd = rs.getMetaData();
+		int columnCount = rsmd.getColumnCount();
+		Map<String, Integer> indexes = new HashMap<>(columnCount * 2);
+		for (int i = 1; i <= columnCount; i++) {
+			indexes.putIfAbsent(rsmd.getColumnLabel(i).toLowerCase(Locale.ROOT), i);
+		}
+		for (int i = 1; i <= columnCount; i++) {
+			indexes.putIfAbsent(rsmd.getColumnName(i).toLowerCase(Locale.ROOT), i);
+		}
+		return new ColumnIndex(rs, Map.copyOf(indexes));
+	}
+
+	/**
+	 * @return true if this index was built from the given ResultSet instance.
+	 */
+	public boolean isFor(ResultSet rs) {
+		return resultSet.get() == rs;
+	}
+
+	public boolean has(String columnName) {
+		return indexes.containsKey(columnName.toLowerCase(Locale.ROOT));
+	}
+
+	/**
+	 * @return The 1-based index of the column, or 0 if it is not present.
+	 */
+	public int indexOf(String columnName) {
+		return indexes.getOrDefault(columnName.toLowerCase(Locale.ROOT), 0);
+	}
+
+	/**
+	 * @return The column value, or null if the column is absent or SQL NULL.
+	 */
+	public String getString(ResultSet rs, String columnName) throws SQLException {
+		int index = indexOf(columnName);
+		return index > 0 ? rs.getString(index) : null;
+	}
+
+	/**
+	 * @return The column value, or 0 if the column is absent or SQL NULL.
+	 */
+	public int getInt(ResultSet rs, String columnName) throws SQLException {
+		int index = indexOf(columnName);
+		return index > 0 ? rs.getInt(index) : 0;
+	}
+
+	/**
+	 * @return The column value, or null if the column is absent or SQL NULL.
+	 */
+	public Integer getInteger(ResultSet rs, String columnName) throws SQLException {
+		int index = indexOf(columnName);
+		return index > 0 ? rs.getObject(index, Integer.class) : null;
+	}
+
+	/**
+	 * @return The column value, or false if the column is absent or SQL NULL.
+	 */
+	public boolean getBoolean(ResultSet rs, String columnName) throws SQLException {
+		int index = indexOf(columnName);
+		return index > 0 && rs.getBoolean(index);
+	}
+
+	/**
+	 * @return The column value, or null if the column is absent or SQL NULL.
+	 */
+	public LocalDateTime getLocalDateTime(ResultSet rs, String columnName) throws SQLException {
+		int index = indexOf(columnName);
+		if (index == 0) {
+			return null;
+		}
+		Timestamp timestamp = rs.getTimestamp(index);
+		return timestamp != null ? timestamp.toLocalDateTime() : null;
+	}
+}
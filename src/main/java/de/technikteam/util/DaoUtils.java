@@ -20,6 +20,10 @@ public final class DaoUtils {
 	 * Checks if a ResultSet contains a column with the given name. This check is
 	 * case-insensitive. It is useful for handling optional columns from complex
 	 * JOINs without causing a SQLException.
+	 * <p>
+	 * This scans the metadata on every call. Row mappers should use
+	 * {@link IndexedRowMapper} and {@link ColumnIndex} instead, which resolve the
+	 * column layout once per ResultSet.
 	 *
 	 * @param rs         The ResultSet to check.
 	 * @param columnName The name of the column to look for.
@@ -30,10 +30,20 @@ public class FileSignatureValidator {
 	);
 
 	public static FileTypeValidationResult validateFileType(MultipartFile file) {
-		if (file == null || file.isEmpty()) {
+		if (file == null) {
+			return FileTypeValidationResult.DISALLOWED;
+		}
+		return validateFileType(file.getContentType(), file.getSize());
+	}
+
+	/**
+	 * Validates a file that does not arrive as a single multipart part, e.g. a
+	 * chunked upload, by its declared MIME type and size.
+	 */
+	public static FileTypeValidationResult validateFileType(String declaredMimeType, long size) {
+		if (size <= 0) {
 			return FileTypeValidationResult.DISALLOWED;
 		}
-		String declaredMimeType = file.getContentType();
 
 		if (declaredMimeType == null || declaredMimeType.isBlank()) {
 			logger.warn("File uploaded with no MIME type, flagging for warning.");
@@ -0,0 +1,39 @@
+package de.technikteam.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Turns free user input into a MariaDB {@code MATCH ... AGAINST (... IN BOOLEAN
+ * MODE)} expression. Every word becomes a required prefix term, so "mikro
+ * kab" finds "Mikrofonkabel". Boolean operators typed by the user are treated
+ * as separators and never reach the database.
+ */
+public final class FullTextQuery {
+	/** Words shorter than InnoDB's default innodb_ft_min_token_size are not indexed. */
+	public static final int MIN_TERM_LENGTH = 3;
+	private static final int MAX_TERMS = 8;
+	private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}_]+");
+
+	private FullTextQuery() {
+	}
+
+	/**
+	 * @return The boolean-mode expression, or null if the input contains no word
+	 *         long enough to be looked up in a FULLTEXT index.
+	 */
+	public static String toBooleanMode(String input) {
+		if (input == null) {
+			return null;
+		}
+		List<String> terms = new ArrayList<>();
+		for (String word : SEPARATORS.split(input.toLowerCase(Locale.ROOT))) {
+			if (word.length() >= MIN_TERM_LENGTH && terms.size() < MAX_TERMS) {
+				terms.add("+" + word + "*");
+			}
+		}
+		return terms.isEmpty() ? null : String.join(" ", terms);
+	}
+}
@@ -0,0 +1,55 @@
+package de.technikteam.util;
+
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * A RowMapper that resolves the {@link ColumnIndex} once per ResultSet and
+ * hands it to the mapping function for every row. Instances are thread-safe
+ * and meant to be stored in fields, like the plain lambda mappers in the DAOs.
+ *
+ * <pre>
+ * private final RowMapper&lt;User&gt; userRowMapper = IndexedRowMapper.of((rs, columns) -&gt; {
+ * 	User user = new User();
+ * 	user.setTheme(columns.getString(rs, "theme"));
+ * 	return user;
+ * });
+ * </pre>
+ *
+ * @param <T> The mapped type.
+ */
+public final class IndexedRowMapper<T> implements RowMapper<T> {
+
+	/**
+	 * A mapping function that receives the pre-resolved column layout.
+	 */
+	@FunctionalInterface
+	public interface ColumnMapper<T> {
+		T map(ResultSet rs, ColumnIndex columns) throws SQLException;
+	}
+
+	private final ColumnMapper<T> mapper;
+	// Per thread, so concurrent queries sharing this mapper never evict each other's layout.
+	private final ThreadLocal<ColumnIndex> lastIndex = new ThreadLocal<>();
+
+	private IndexedRowMapper(ColumnMapper<T> mapper) {
+		this.mapper = mapper;
+	}
+
+	public static <T> IndexedRowMapper<T> of(ColumnMapper<T> mapper) {
+		return new IndexedRowMapper<>(mapper);
+	}
+
+	@Override
+	public T mapRow(ResultSet rs, int rowNum) throws SQLException {
+		ColumnIndex columns = lastIndex.get();
+		if (columns == null || !columns.isFor(rs)) {
+			// First row of a new ResultSet: resolve the layout once for all of its rows.
+			columns = ColumnIndex.of(rs);
+			lastIndex.set(columns);
+		}
+		return mapper.map(rs, columns);
+	}
+}
@@ -4,14 +4,13 @@ import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.JsonSyntaxException;
 import com.google.gson.reflect.TypeToken;
-import de.technikteam.api.v1.dto.NotificationPayload;
 import de.technikteam.config.LocalDateTimeAdapter;
 import de.technikteam.dao.ChatDAO;
 import de.technikteam.model.ChatConversation;
 import de.technikteam.model.ChatMessage;
 import de.technikteam.model.User;
 import de.technikteam.security.SecurityUser;
-import de.technikteam.service.NotificationService;
+import de.technikteam.service.ChatSideEffectService;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -33,15 +32,15 @@ public class ChatWebSocketHandler extends TextWebSocketHandler {
 	private static final Logger logger = LogManager.getLogger(ChatWebSocketHandler.class);
 	private final ChatDAO chatDAO;
 	private final ChatWebSocketSessionManager sessionManager;
-	private final NotificationService notificationService;
+	private final ChatSideEffectService chatSideEffectService;
 	private final Gson gson;
 
 	@Autowired
 	public ChatWebSocketHandler(ChatDAO chatDAO, ChatWebSocketSessionManager sessionManager,
-			NotificationService notificationService) {
+			ChatSideEffectService chatSideEffectService) {
 		this.chatDAO = chatDAO;
 		this.sessionManager = sessionManager;
-		this.notificationService = notificationService;
+		this.chatSideEffectService = chatSideEffectService;
 		this.gson = new GsonBuilder().registerTypeAdapter(LocalDateTime.class, new LocalDateTimeAdapter()).create();
 	}
 
@@ -116,7 +115,7 @@ public class ChatWebSocketHandler extends TextWebSocketHandler {
 
 			sessionManager.broadcast(String.valueOf(conversationId),
 					gson.toJson(Map.of("type", "new_message", "payload", fullMessage)));
-			notifyParticipants(fullMessage, user);
+			chatSideEffectService.directMessagePosted(fullMessage, user);
 		}
 	}
 
@@ -167,32 +166,6 @@ public class ChatWebSocketHandler extends TextWebSocketHandler {
 		}
 	}
 
-	private void notifyParticipants(ChatMessage message, User sender) {
-		ChatConversation conversation = chatDAO.getConversationById(message.getConversationId());
-		if (conversation == null)
-			return;
-
-		List<User> participants = conversation.getParticipants();
-		for (User participant : participants) {
-			if (participant.getId() != sender.getId()) {
-				String messageSnippet = message.getMessageText();
-				if (messageSnippet.length() > 50) {
-					messageSnippet = messageSnippet.substring(0, 47) + "...";
-				}
-
-				String title = conversation.isGroupChat() ? "Neue Nachricht in \"" + conversation.getName() + "\""
-						: "Neue Nachricht von " + sender.getUsername();
-                
-                NotificationPayload payload = new NotificationPayload();
-                payload.setTitle(title);
-                payload.setDescription(messageSnippet);
-                payload.setLevel("Informational");
-                payload.setUrl("/chat/" + message.getConversationId());
-				notificationService.sendNotificationToUser(participant.getId(), payload);
-			}
-		}
-	}
-
 	@Override
 	public void afterConnectionClosed(WebSocketSession session, CloseStatus status) throws Exception {
 		String conversationId = (String) session.getAttributes().get("conversationId");
@@ -0,0 +1,15 @@
+package de.technikteam.websocket;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Sessions watching the checklist of an event, keyed by event ID. Kept apart
+ * from the event chat so checklist updates are not pushed to chat clients.
+ */
+@Component
+public class ChecklistSessionManager extends WebSocketSessionRegistry {
+
+	public ChecklistSessionManager() {
+		super("event checklist");
+	}
+}
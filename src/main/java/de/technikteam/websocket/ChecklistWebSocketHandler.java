@@ -14,10 +14,10 @@ import org.springframework.web.socket.handler.TextWebSocketHandler;
 public class ChecklistWebSocketHandler extends TextWebSocketHandler {
 
 	private final EventDAO eventDAO;
-	private final ChatSessionManager sessionManager; // Reusing this manager
+	private final ChecklistSessionManager sessionManager;
 
 	@Autowired
-	public ChecklistWebSocketHandler(EventDAO eventDAO, ChatSessionManager sessionManager) {
+	public ChecklistWebSocketHandler(EventDAO eventDAO, ChecklistSessionManager sessionManager) {
 		this.eventDAO = eventDAO;
 		this.sessionManager = sessionManager;
 	}
@@ -0,0 +1,74 @@
+package de.technikteam.websocket;
+
+import de.technikteam.model.User;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.ScheduledFuture;
+
+/**
+ * The authoritative in-memory state of a file that is open in the editor: its
+ * text, a version counter that increases with every applied operation and the
+ * most recent operations, which are needed to transform edits made against an
+ * older version. All access is guarded by the instance monitor.
+ */
+class EditorDocument {
+    static final int MAX_HISTORY = 1_000;
+
+    final int fileId;
+    final StringBuilder text;
+    final Set<WebSocketSession> sessions = new LinkedHashSet<>();
+    private final Deque<TextOperation> history = new ArrayDeque<>();
+    long version;
+    long savedVersion;
+    User lastEditor;
+    long firstUnsavedEditAt;
+    ScheduledFuture<?> pendingSave;
+    boolean closed;
+
+    EditorDocument(int fileId, String content) {
+        this.fileId = fileId;
+        this.text = new StringBuilder(content);
+    }
+
+    /**
+     * Transforms an operation made against {@code baseVersion} over everything
+     * applied since, applies it and records it in the history.
+     *
+     * @return The operation as applied, or null if the base version is no longer
+     *         in the history or the operation does not fit the document.
+     */
+    TextOperation apply(TextOperation operation, long baseVersion, User editor) {
+        if (baseVersion > version || baseVersion < version - history.size()) {
+            return null;
+        }
+        TextOperation transformed = operation;
+        Iterator<TextOperation> concurrent = history.iterator();
+        for (long skip = history.size() - (version - baseVersion); skip > 0; skip--) {
+            concurrent.next();
+        }
+        while (concurrent.hasNext()) {
+            transformed = transformed.transformAgainst(concurrent.next());
+        }
+        if (!transformed.fits(text.length())) {
+            return null;
+        }
+
+        transformed.applyTo(text);
+        history.addLast(transformed);
+        if (history.size() > MAX_HISTORY) {
+            history.removeFirst();
+        }
+        version++;
+        lastEditor = editor;
+        return transformed;
+    }
+
+    boolean isDirty() {
+        return version != savedVersion;
+    }
+}
@@ -0,0 +1,14 @@
+package de.technikteam.websocket;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Sessions of the collaborative file editor, keyed by file ID.
+ */
+@Component
+public class EditorSessionManager extends WebSocketSessionRegistry {
+
+	public EditorSessionManager() {
+		super("file editor");
+	}
+}
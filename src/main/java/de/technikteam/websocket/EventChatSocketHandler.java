@@ -3,18 +3,16 @@ package de.technikteam.websocket;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.JsonSyntaxException;
-import de.technikteam.api.v1.dto.NotificationPayload;
 import de.technikteam.config.LocalDateTimeAdapter;
 import de.technikteam.config.Permissions;
 import de.technikteam.dao.EventChatDAO;
 import de.technikteam.dao.EventDAO;
-import de.technikteam.dao.UserDAO;
 import de.technikteam.model.Event;
 import de.technikteam.model.EventChatMessage;
 import de.technikteam.model.User;
 import de.technikteam.security.SecurityUser;
 import de.technikteam.service.AdminLogService;
-import de.technikteam.service.NotificationService;
+import de.technikteam.service.ChatSideEffectService;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.owasp.html.PolicyFactory;
@@ -29,33 +27,28 @@ import org.springframework.web.socket.handler.TextWebSocketHandler;
 
 import java.time.LocalDateTime;
 import java.util.Map;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 @Component
 public class EventChatSocketHandler extends TextWebSocketHandler {
 
 	private static final Logger logger = LogManager.getLogger(EventChatSocketHandler.class);
-	private static final Pattern MENTION_PATTERN = Pattern.compile("@(\\w+)");
 
 	private final EventChatDAO chatDAO;
 	private final EventDAO eventDAO;
-	private final UserDAO userDAO;
 	private final AdminLogService adminLogService;
-	private final NotificationService notificationService;
+	private final ChatSideEffectService chatSideEffectService;
 	private final ChatSessionManager sessionManager;
 	private final Gson gson;
 	private final PolicyFactory inlineFormattingPolicy;
 
 	@Autowired
-	public EventChatSocketHandler(EventChatDAO chatDAO, EventDAO eventDAO, UserDAO userDAO,
-			AdminLogService adminLogService, NotificationService notificationService, ChatSessionManager sessionManager,
+	public EventChatSocketHandler(EventChatDAO chatDAO, EventDAO eventDAO, AdminLogService adminLogService,
+			ChatSideEffectService chatSideEffectService, ChatSessionManager sessionManager,
 			@Qualifier("inlineFormattingPolicy") PolicyFactory inlineFormattingPolicy) {
 		this.chatDAO = chatDAO;
 		this.eventDAO = eventDAO;
-		this.userDAO = userDAO;
 		this.adminLogService = adminLogService;
-		this.notificationService = notificationService;
+		this.chatSideEffectService = chatSideEffectService;
 		this.sessionManager = sessionManager;
 		this.inlineFormattingPolicy = inlineFormattingPolicy;
 		this.gson = new GsonBuilder().registerTypeAdapter(LocalDateTime.class, new LocalDateTimeAdapter()).create();
@@ -124,7 +117,7 @@ public class EventChatSocketHandler extends TextWebSocketHandler {
 			return;
 		Map<String, Object> broadcastPayload = Map.of("type", "new_message", "payload", savedMessage);
 		sessionManager.broadcast(eventId, gson.toJson(broadcastPayload));
-		handleMentions(user, savedMessage);
+		chatSideEffectService.eventMessagePosted(savedMessage, user);
 	}
 
 	private void handleUpdateMessage(User user, String eventId, Map<String, Object> payload) {
@@ -161,27 +154,6 @@ public class EventChatSocketHandler extends TextWebSocketHandler {
 		}
 	}
 
-	private void handleMentions(User sender, EventChatMessage message) {
-		Event event = eventDAO.getEventById(message.getEventId());
-		if (event == null)
-			return;
-		Matcher matcher = MENTION_PATTERN.matcher(message.getMessageText());
-		while (matcher.find()) {
-			String mentionedUsername = matcher.group(1);
-			User mentionedUser = userDAO.getUserByUsername(mentionedUsername);
-			if (mentionedUser != null && mentionedUser.getId() != sender.getId()) {
-				String notificationMessage = String.format("%s hat Sie im Chat für '%s' erwähnt.", sender.getUsername(),
-						event.getName());
-                NotificationPayload payload = new NotificationPayload();
-                payload.setTitle(String.format("Erwähnung in Chat für '%s'", event.getName()));
-                payload.setDescription(notificationMessage);
-                payload.setLevel("Informational");
-                payload.setUrl("/veranstaltungen/details/" + event.getId());
-				notificationService.sendNotificationToUser(mentionedUser.getId(), payload);
-			}
-		}
-	}
-
 	@Override
 	public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
 		String eventId = (String) session.getAttributes().get("eventId");
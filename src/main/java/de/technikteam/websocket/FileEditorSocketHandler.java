@@ -6,6 +6,7 @@ import de.technikteam.model.User;
 import de.technikteam.security.SecurityUser;
 import de.technikteam.service.FileService;
 import de.technikteam.dao.FileDAO;
+import jakarta.annotation.PreDestroy;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -19,21 +20,53 @@ import org.owasp.html.PolicyFactory;
 import org.springframework.beans.factory.annotation.Qualifier;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Collaborative editing of text files. The handler keeps the authoritative
+ * text of every open file in memory and exchanges versioned operations instead
+ * of whole documents:
+ * <ul>
+ * <li>On connect the client receives a {@code snapshot} with text and version.</li>
+ * <li>The client sends an {@code op} (position, deleteCount, insertText) together
+ * with the version it was made against. The server transforms it over all
+ * operations applied since, applies it, answers with an {@code ack} carrying
+ * the new version and forwards the applied {@code op} to the other editors.</li>
+ * <li>If an operation cannot be placed any more, the client gets a fresh
+ * {@code snapshot}.</li>
+ * </ul>
+ * The document is written to disk as a debounced snapshot a few seconds after
+ * the last edit (and when the last editor leaves), so a burst of typing causes
+ * one sanitization, one file write and one admin log entry instead of one per
+ * keystroke. Older clients that still send {@code content_update} with the
+ * full text are served by turning it into an operation against the current
+ * version.
+ */
 @Component
 public class FileEditorSocketHandler extends TextWebSocketHandler {
 
     private static final Logger logger = LogManager.getLogger(FileEditorSocketHandler.class);
+    private static final long SAVE_DELAY_MS = 3_000;
+    // Continuous typing must not postpone the snapshot forever.
+    private static final long MAX_SAVE_DELAY_MS = 30_000;
 
     private final FileDAO fileDAO;
     private final FileService fileService;
-    private final ChatSessionManager sessionManager;
+    private final EditorSessionManager sessionManager;
     private final Gson gson = new Gson();
     private final PolicyFactory richTextPolicy;
+    private final Map<Integer, EditorDocument> documents = new ConcurrentHashMap<>();
+    // A single thread also serializes all snapshots of the same document.
+    private final ScheduledExecutorService snapshotScheduler = Executors
+            .newSingleThreadScheduledExecutor(Thread.ofVirtual().name("editor-snapshots").factory());
 
     @Autowired
-    public FileEditorSocketHandler(FileDAO fileDAO, FileService fileService, ChatSessionManager sessionManager,
+    public FileEditorSocketHandler(FileDAO fileDAO, FileService fileService, EditorSessionManager sessionManager,
                                    @Qualifier("richTextPolicy") PolicyFactory richTextPolicy) {
         this.fileDAO = fileDAO;
         this.fileService = fileService;
@@ -41,6 +74,14 @@ public class FileEditorSocketHandler extends TextWebSocketHandler {
         this.richTextPolicy = richTextPolicy;
     }
 
+    @PreDestroy
+    public void shutdown() {
+        snapshotScheduler.shutdownNow();
+        for (EditorDocument document : documents.values()) {
+            saveSnapshot(document);
+        }
+    }
+
     @Override
     public void afterConnectionEstablished(WebSocketSession session) throws Exception {
         User user = getUserFromSession(session);
@@ -62,7 +103,28 @@ public class FileEditorSocketHandler extends TextWebSocketHandler {
 
         session.getAttributes().put("user", user);
         session.getAttributes().put("fileId", fileIdStr);
-        sessionManager.addSession(fileIdStr, session);
+
+        while (true) {
+            EditorDocument document;
+            try {
+                document = documents.computeIfAbsent(fileId, this::loadDocument);
+            } catch (UncheckedIOException e) {
+                logger.error("Could not open file {} for editing.", fileId, e);
+                session.close(CloseStatus.SERVER_ERROR.withReason("File could not be loaded."));
+                return;
+            }
+            synchronized (document) {
+                // A document that is being unloaded is re-read from its final snapshot.
+                if (document.closed) {
+                    continue;
+                }
+                document.sessions.add(session);
+                sessionManager.addSession(fileIdStr, session);
+                sendSnapshot(document, session);
+            }
+            logger.info("Session {} joined editor for file {}.", session.getId(), fileId);
+            return;
+        }
     }
 
     @Override
@@ -71,33 +133,172 @@ public class FileEditorSocketHandler extends TextWebSocketHandler {
         String fileIdStr = (String) session.getAttributes().get("fileId");
         if (user == null || fileIdStr == null) return;
 
-        int fileId = Integer.parseInt(fileIdStr);
+        EditorDocument document = documents.get(Integer.parseInt(fileIdStr));
+        if (document == null) return;
 
         @SuppressWarnings("unchecked")
         Map<String, Object> payloadMap = gson.fromJson(message.getPayload(), Map.class);
         String type = (String) payloadMap.get("type");
+        @SuppressWarnings("unchecked")
+        Map<String, Object> payload = (Map<String, Object>) payloadMap.get("payload");
+        if (payload == null) return;
 
-        if ("content_update".equals(type)) {
-            @SuppressWarnings("unchecked")
-            Map<String, String> payload = (Map<String, String>) payloadMap.get("payload");
-            String newContent = payload.get("content");
-            String sanitizedContent = richTextPolicy.sanitize(newContent);
-
-            // Save to disk (and log action)
-            fileService.updateFileContent(fileId, sanitizedContent, user);
-
-            // Broadcast the sanitized content to all clients in the session
-            Map<String, Object> broadcastPayload = Map.of("type", "content_update", "payload", Map.of("content", sanitizedContent));
-            sessionManager.broadcast(fileIdStr, gson.toJson(broadcastPayload));
+        if ("op".equals(type)) {
+            if (!(payload.get("version") instanceof Number baseVersion)) return;
+            TextOperation operation = new TextOperation(intValue(payload.get("position")),
+                    intValue(payload.get("deleteCount")), (String) payload.get("insertText"));
+            synchronized (document) {
+                applyOperation(document, session, operation, baseVersion.longValue(), user);
+            }
+        } else if ("content_update".equals(type)) {
+            String newContent = (String) payload.get("content");
+            if (newContent == null) return;
+            synchronized (document) {
+                applyOperation(document, session, TextOperation.diff(document.text.toString(), newContent),
+                        document.version, user);
+            }
         }
     }
 
     @Override
     public void afterConnectionClosed(WebSocketSession session, CloseStatus status) throws Exception {
         String fileId = (String) session.getAttributes().get("fileId");
-        if (fileId != null) {
+        if (fileId == null) return;
+
+        EditorDocument document = documents.get(Integer.parseInt(fileId));
+        if (document == null) return;
+        synchronized (document) {
+            document.sessions.remove(session);
             sessionManager.removeSession(fileId, session);
+            if (!document.sessions.isEmpty()) {
+                return;
+            }
+            if (document.pendingSave != null) {
+                document.pendingSave.cancel(false);
+                document.pendingSave = null;
+            }
+        }
+        snapshotScheduler.execute(() -> {
+            saveSnapshot(document);
+            synchronized (document) {
+                if (document.sessions.isEmpty()) {
+                    document.closed = true;
+                    documents.remove(document.fileId, document);
+                    logger.info("Editor for file {} closed at version {}.", document.fileId, document.version);
+                }
+            }
+        });
+    }
+
+    /**
+     * Must be called while holding the document monitor, which keeps the
+     * messages queued for every session in version order.
+     */
+    private void applyOperation(EditorDocument document, WebSocketSession session, TextOperation operation,
+                                long baseVersion, User user) {
+        if (operation.isNoop()) {
+            send(session, Map.of("type", "ack", "payload", Map.of("version", document.version)));
+            return;
         }
+        TextOperation applied = document.apply(operation, baseVersion, user);
+        if (applied == null) {
+            logger.debug("Operation of session {} against version {} could not be applied to file {} at version {}, resyncing.",
+                    session.getId(), baseVersion, document.fileId, document.version);
+            sendSnapshot(document, session);
+            return;
+        }
+        send(session, Map.of("type", "ack", "payload", Map.of("version", document.version)));
+        broadcastOperation(document, applied, session);
+        scheduleSnapshot(document);
+    }
+
+    private void broadcastOperation(EditorDocument document, TextOperation applied, WebSocketSession origin) {
+        Map<String, Object> message = Map.of("type", "op", "payload", Map.of("version", document.version,
+                "position", applied.position(), "deleteCount", applied.deleteCount(),
+                "insertText", applied.insertText()));
+        sessionManager.broadcast(String.valueOf(document.fileId), gson.toJson(message), origin);
+    }
+
+    private void scheduleSnapshot(EditorDocument document) {
+        long now = System.currentTimeMillis();
+        if (document.pendingSave == null) {
+            document.firstUnsavedEditAt = now;
+        } else {
+            document.pendingSave.cancel(false);
+        }
+        long delay = Math.min(SAVE_DELAY_MS, Math.max(0, document.firstUnsavedEditAt + MAX_SAVE_DELAY_MS - now));
+        document.pendingSave = snapshotScheduler.schedule(() -> saveSnapshot(document), delay, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Sanitizes the current text and writes it to disk. If sanitizing changed
+     * the text, the change is applied as a regular operation so that all
+     * editors see exactly what has been stored.
+     */
+    private void saveSnapshot(EditorDocument document) {
+        String content;
+        long version;
+        User editor;
+        synchronized (document) {
+            document.pendingSave = null;
+            if (!document.isDirty() || document.lastEditor == null) {
+                return;
+            }
+            content = document.text.toString();
+            version = document.version;
+            editor = document.lastEditor;
+        }
+
+        String sanitizedContent = richTextPolicy.sanitize(content);
+        if (!sanitizedContent.equals(content)) {
+            synchronized (document) {
+                if (document.version == version) {
+                    TextOperation applied = document.apply(TextOperation.diff(content, sanitizedContent), version, editor);
+                    if (applied != null) {
+                        version = document.version;
+                        broadcastOperation(document, applied, null);
+                    }
+                }
+            }
+        }
+
+        try {
+            fileService.updateFileContent(document.fileId, sanitizedContent, editor);
+            synchronized (document) {
+                document.savedVersion = Math.max(document.savedVersion, version);
+            }
+            logger.debug("Snapshot of file {} at version {} saved.", document.fileId, version);
+        } catch (Exception e) {
+            logger.error("Could not save snapshot of file {} at version {}.", document.fileId, version, e);
+            synchronized (document) {
+                if (!document.closed && !snapshotScheduler.isShutdown()) {
+                    scheduleSnapshot(document);
+                }
+            }
+        }
+    }
+
+    private EditorDocument loadDocument(int fileId) {
+        try {
+            EditorDocument document = new EditorDocument(fileId, fileService.getFileContent(fileId));
+            logger.info("File {} loaded for collaborative editing.", fileId);
+            return document;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void sendSnapshot(EditorDocument document, WebSocketSession session) {
+        send(session, Map.of("type", "snapshot", "payload",
+                Map.of("version", document.version, "content", document.text.toString())));
+    }
+
+    private void send(WebSocketSession session, Map<String, Object> message) {
+        sessionManager.send((String) session.getAttributes().get("fileId"), session, gson.toJson(message));
+    }
+
+    private int intValue(Object value) {
+        return value instanceof Number number ? number.intValue() : -1;
     }
 
     private User getUserFromSession(WebSocketSession session) {
@@ -118,4 +319,4 @@ public class FileEditorSocketHandler extends TextWebSocketHandler {
         }
         return null;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,103 @@
+package de.technikteam.websocket;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.io.IOException;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The outgoing side of one WebSocket session: a bounded queue drained in order
+ * by a virtual thread of its own. Enqueuing never blocks, so a slow client only
+ * delays its own messages. A client that falls more than the buffer limit
+ * behind is considered unreliable and disconnected; it will reconnect and
+ * reload its state.
+ */
+final class SessionOutbox {
+	private static final Logger logger = LogManager.getLogger(SessionOutbox.class);
+
+	private final WebSocketSession session;
+	private final long bufferSizeLimit;
+	private final Runnable onEvict;
+	private final Queue<TextMessage> queue = new ConcurrentLinkedQueue<>();
+	private final AtomicLong bufferedBytes = new AtomicLong();
+	private final AtomicBoolean draining = new AtomicBoolean();
+	private final AtomicBoolean evicted = new AtomicBoolean();
+
+	SessionOutbox(WebSocketSession session, long bufferSizeLimit, Runnable onEvict) {
+		this.session = session;
+		this.bufferSizeLimit = bufferSizeLimit;
+		this.onEvict = onEvict;
+	}
+
+	WebSocketSession getSession() {
+		return session;
+	}
+
+	/**
+	 * Queues a message for delivery and returns immediately.
+	 *
+	 * @return false if the session is closed or has just been evicted.
+	 */
+	boolean offer(TextMessage message) {
+		if (evicted.get() || !session.isOpen()) {
+			return false;
+		}
+		int size = message.getPayloadLength();
+		long buffered = bufferedBytes.addAndGet(size);
+		// A single large message is always accepted if nothing else is waiting.
+		if (buffered > bufferSizeLimit && buffered != size) {
+			bufferedBytes.addAndGet(-size);
+			evict(buffered);
+			return false;
+		}
+		queue.add(message);
+		if (draining.compareAndSet(false, true)) {
+			Thread.ofVirtual().name("ws-send-" + session.getId()).start(this::drain);
+		}
+		return true;
+	}
+
+	private void drain() {
+		do {
+			TextMessage message;
+			while ((message = queue.poll()) != null) {
+				try {
+					if (!evicted.get() && session.isOpen()) {
+						session.sendMessage(message);
+					}
+				} catch (IOException | RuntimeException e) {
+					logger.warn("Error sending to WebSocket session {}: {}", session.getId(), e.getMessage());
+				} finally {
+					bufferedBytes.addAndGet(-message.getPayloadLength());
+				}
+			}
+			draining.set(false);
+			// Re-check: a message may have been queued after the last poll.
+		} while (!queue.isEmpty() && draining.compareAndSet(false, true));
+	}
+
+	private void evict(long buffered) {
+		if (!evicted.compareAndSet(false, true)) {
+			return;
+		}
+		logger.warn("WebSocket session {} has {} bytes pending and is too slow; closing it.", session.getId(),
+				buffered);
+		queue.clear();
+		onEvict.run();
+		// Closing may block on the same stalled connection.
+		Thread.ofVirtual().name("ws-evict-" + session.getId()).start(() -> {
+			try {
+				session.close(CloseStatus.SESSION_NOT_RELIABLE);
+			} catch (IOException e) {
+				logger.debug("Error closing evicted WebSocket session {}: {}", session.getId(), e.getMessage());
+			}
+		});
+	}
+}
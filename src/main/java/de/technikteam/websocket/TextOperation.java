@@ -0,0 +1,83 @@
+package de.technikteam.websocket;
+
+/**
+ * A single edit of a text document: replace {@code deleteCount} characters at
+ * {@code position} with {@code insertText}. Positions count UTF-16 code units,
+ * the same as JavaScript strings, so clients and server agree on offsets. The
+ * frontend has an identical implementation in {@code frontend/src/lib/textOperations.js};
+ * both sides must transform the same way for documents to converge.
+ */
+record TextOperation(int position, int deleteCount, String insertText) {
+
+    TextOperation {
+        if (insertText == null) {
+            insertText = "";
+        }
+    }
+
+    /**
+     * Describes the change from one text to another as a single replacement of
+     * the range between their common prefix and common suffix.
+     */
+    static TextOperation diff(String from, String to) {
+        int prefix = 0;
+        int maxPrefix = Math.min(from.length(), to.length());
+        while (prefix < maxPrefix && from.charAt(prefix) == to.charAt(prefix)) {
+            prefix++;
+        }
+        int suffix = 0;
+        int maxSuffix = maxPrefix - prefix;
+        while (suffix < maxSuffix
+                && from.charAt(from.length() - 1 - suffix) == to.charAt(to.length() - 1 - suffix)) {
+            suffix++;
+        }
+        return new TextOperation(prefix, from.length() - prefix - suffix,
+                to.substring(prefix, to.length() - suffix));
+    }
+
+    boolean isNoop() {
+        return deleteCount == 0 && insertText.isEmpty();
+    }
+
+    boolean fits(int documentLength) {
+        return position >= 0 && deleteCount >= 0 && position + deleteCount <= documentLength;
+    }
+
+    void applyTo(StringBuilder document) {
+        document.replace(position, position + deleteCount, insertText);
+    }
+
+    /**
+     * Rewrites this operation so it can be applied after {@code applied}, which
+     * was made concurrently against the same document version and has already
+     * been applied. An insertion at the same position goes behind the applied
+     * one; a deletion that spans the applied edit removes its text as well.
+     */
+    TextOperation transformAgainst(TextOperation applied) {
+        int start = mapStart(position, applied);
+        int end = Math.max(start, mapEnd(position + deleteCount, applied));
+        return new TextOperation(start, end - start, insertText);
+    }
+
+    private static int mapStart(int offset, TextOperation applied) {
+        int appliedEnd = applied.position + applied.deleteCount;
+        if (offset < applied.position) {
+            return offset;
+        }
+        if (offset >= appliedEnd) {
+            return offset + applied.insertText.length() - applied.deleteCount;
+        }
+        return applied.position + applied.insertText.length();
+    }
+
+    private static int mapEnd(int offset, TextOperation applied) {
+        int appliedEnd = applied.position + applied.deleteCount;
+        if (offset <= applied.position) {
+            return offset;
+        }
+        if (offset >= appliedEnd) {
+            return offset + applied.insertText.length() - applied.deleteCount;
+        }
+        return applied.position;
+    }
+}
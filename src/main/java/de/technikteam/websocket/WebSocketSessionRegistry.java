@@ -0,0 +1,101 @@
+package de.technikteam.websocket;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Base class for the session registries of the WebSocket channels. Each
+ * channel (event chat, direct messages, checklists, editor) has a registry of
+ * its own, so room ids of different channels never collide. Sessions are
+ * grouped by room; every session gets a {@link SessionOutbox}, which makes
+ * sending non-blocking and disconnects clients that cannot keep up.
+ */
+public abstract class WebSocketSessionRegistry {
+	private static final Logger logger = LogManager.getLogger(WebSocketSessionRegistry.class);
+	private static final long BUFFER_SIZE_LIMIT = 1024 * 1024;
+
+	private final String channelName;
+	private final Map<String, Map<String, SessionOutbox>> roomsById = new ConcurrentHashMap<>();
+
+	protected WebSocketSessionRegistry(String channelName) {
+		this.channelName = channelName;
+	}
+
+	/**
+	 * Adds a session to a room.
+	 *
+	 * @param roomId  The ID of the room, e.g. an event or conversation ID.
+	 * @param session The WebSocket session to add.
+	 */
+	public void addSession(String roomId, WebSocketSession session) {
+		SessionOutbox outbox = new SessionOutbox(session, BUFFER_SIZE_LIMIT, () -> removeSession(roomId, session));
+		roomsById.compute(roomId, (id, room) -> {
+			Map<String, SessionOutbox> sessions = room != null ? room : new ConcurrentHashMap<>();
+			sessions.put(session.getId(), outbox);
+			return sessions;
+		});
+		logger.info("Session {} registered for {} [{}].", session.getId(), channelName, roomId);
+	}
+
+	/**
+	 * Removes a session from a room. Empty rooms are dropped.
+	 *
+	 * @param roomId  The ID of the room.
+	 * @param session The WebSocket session to remove.
+	 */
+	public void removeSession(String roomId, WebSocketSession session) {
+		roomsById.computeIfPresent(roomId, (id, sessions) -> {
+			if (sessions.remove(session.getId()) != null) {
+				logger.info("Session {} removed from {} [{}].", session.getId(), channelName, roomId);
+			}
+			return sessions.isEmpty() ? null : sessions;
+		});
+	}
+
+	/**
+	 * Queues a message for all open sessions in a room. The message is encoded
+	 * once and shared by all recipients.
+	 *
+	 * @param roomId  The ID of the room.
+	 * @param message The message to broadcast.
+	 */
+	public void broadcast(String roomId, String message) {
+		broadcast(roomId, message, null);
+	}
+
+	/**
+	 * Like {@link #broadcast(String, String)}, but skips one session, usually the
+	 * one the message originates from.
+	 */
+	public void broadcast(String roomId, String message, WebSocketSession except) {
+		Map<String, SessionOutbox> sessions = roomsById.get(roomId);
+		if (sessions == null) {
+			return;
+		}
+		logger.debug("Broadcasting to {} sessions in {} [{}].", sessions.size(), channelName, roomId);
+		TextMessage textMessage = new TextMessage(message.getBytes(StandardCharsets.UTF_8));
+		for (SessionOutbox outbox : sessions.values()) {
+			if (except == null || !outbox.getSession().getId().equals(except.getId())) {
+				outbox.offer(textMessage);
+			}
+		}
+	}
+
+	/**
+	 * Queues a message for a single session of a room, in order with all
+	 * broadcasts to it.
+	 *
+	 * @return false if the session is not registered in the room or was closed.
+	 */
+	public boolean send(String roomId, WebSocketSession session, String message) {
+		Map<String, SessionOutbox> sessions = roomsById.get(roomId);
+		SessionOutbox outbox = sessions != null ? sessions.get(session.getId()) : null;
+		return outbox != null && outbox.offer(new TextMessage(message.getBytes(StandardCharsets.UTF_8)));
+	}
+}
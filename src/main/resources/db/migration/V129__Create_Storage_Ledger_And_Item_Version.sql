@@ -0,0 +1,23 @@
+-- Flyway migration V129: Append-only ledger for inventory quantity changes and optimistic versioning of storage items.
+
+-- Every quantity change (check-out, check-in, defects, repairs, corrections) is applied as an atomic
+-- delta on storage_items and recorded here in the same transaction. Rows are never updated or deleted;
+-- they outlive the items they describe, keeping the item's name and losing only the reference.
+CREATE TABLE IF NOT EXISTS `storage_ledger` (
+  `id` BIGINT NOT NULL AUTO_INCREMENT,
+  `item_id` INT DEFAULT NULL,
+  `item_name` varchar(100) DEFAULT NULL,
+  `user_id` INT DEFAULT NULL,
+  `entry_type` varchar(32) NOT NULL,
+  `quantity_delta` INT NOT NULL DEFAULT 0,
+  `defective_delta` INT NOT NULL DEFAULT 0,
+  `event_id` INT DEFAULT NULL,
+  `created_at` timestamp(3) NOT NULL DEFAULT current_timestamp(3),
+  PRIMARY KEY (`id`),
+  KEY `idx_storage_ledger_item` (`item_id`, `id`),
+  CONSTRAINT `fk_storage_ledger_item` FOREIGN KEY (`item_id`) REFERENCES `storage_items` (`id`) ON DELETE SET NULL,
+  CONSTRAINT `fk_storage_ledger_user` FOREIGN KEY (`user_id`) REFERENCES `users` (`id`) ON DELETE SET NULL
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- Incremented on every write; edits of the item details must name the version they were based on.
+ALTER TABLE `storage_items` ADD COLUMN `version` INT NOT NULL DEFAULT 0;
@@ -0,0 +1,8 @@
+-- Flyway migration V130: FULLTEXT indexes for the global search.
+
+-- The column lists must match the MATCH(...) clauses of the search queries in the DAOs exactly.
+ALTER TABLE `events` ADD FULLTEXT INDEX `ft_events_search` (`name`, `description`, `location`);
+ALTER TABLE `storage_items` ADD FULLTEXT INDEX `ft_storage_items_search` (`name`, `location`, `cabinet`, `compartment`);
+ALTER TABLE `meetings` ADD FULLTEXT INDEX `ft_meetings_search` (`name`, `description`);
+ALTER TABLE `courses` ADD FULLTEXT INDEX `ft_courses_search` (`name`);
+ALTER TABLE `wiki_documentation` ADD FULLTEXT INDEX `ft_wiki_documentation_search` (`file_path`, `content`);
@@ -0,0 +1,16 @@
+-- Flyway migration V131: Content-addressed file storage with reference counting.
+
+-- Uploads are stored under their SHA-256 digest (<directory>/<digest>.<ext>). Each stored blob is
+-- referenced by one or more rows in `files` or `attachments`; the physical file is deleted once
+-- its reference count drops to zero. Files uploaded before this migration have no blob row.
+CREATE TABLE IF NOT EXISTS `file_blobs` (
+  `filepath` varchar(512) NOT NULL,
+  `content_hash` CHAR(64) NOT NULL,
+  `size_bytes` BIGINT NOT NULL,
+  `ref_count` INT NOT NULL DEFAULT 0,
+  `created_at` timestamp NOT NULL DEFAULT current_timestamp(),
+  PRIMARY KEY (`filepath`),
+  KEY `idx_file_blobs_hash` (`content_hash`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+ALTER TABLE `files` ADD COLUMN `content_hash` CHAR(64) DEFAULT NULL;
@@ -0,0 +1,27 @@
+-- Flyway migration V132: Resumable chunked uploads.
+
+-- A session describes one file that is uploaded in fixed-size chunks. Chunks may arrive in any order
+-- and in parallel; each received chunk is recorded so a client can resume after a disconnect.
+CREATE TABLE IF NOT EXISTS `upload_sessions` (
+  `id` CHAR(36) NOT NULL,
+  `user_id` INT NOT NULL,
+  `filename` varchar(255) NOT NULL,
+  `content_type` varchar(255) DEFAULT NULL,
+  `total_size` BIGINT NOT NULL,
+  `chunk_size` INT NOT NULL,
+  `expected_hash` CHAR(64) DEFAULT NULL,
+  `category_id` INT DEFAULT NULL,
+  `required_role` varchar(20) NOT NULL DEFAULT 'NUTZER',
+  `created_at` timestamp NOT NULL DEFAULT current_timestamp(),
+  `expires_at` timestamp NOT NULL,
+  PRIMARY KEY (`id`),
+  KEY `idx_upload_sessions_expires` (`expires_at`),
+  CONSTRAINT `fk_upload_sessions_user` FOREIGN KEY (`user_id`) REFERENCES `users` (`id`) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+CREATE TABLE IF NOT EXISTS `upload_session_chunks` (
+  `session_id` CHAR(36) NOT NULL,
+  `chunk_index` INT NOT NULL,
+  PRIMARY KEY (`session_id`, `chunk_index`),
+  CONSTRAINT `fk_upload_session_chunks_session` FOREIGN KEY (`session_id`) REFERENCES `upload_sessions` (`id`) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
@@ -0,0 +1,6 @@
+-- Flyway migration V133: Indexes for keyset-paginated chat history.
+
+-- History pages are read as "the newest N messages of a chat with an id below the cursor".
+-- With (chat, id) the database seeks to the cursor and reads exactly one page, however old it is.
+ALTER TABLE `chat_messages` ADD INDEX `idx_chat_messages_conversation_id` (`conversation_id`, `id`);
+ALTER TABLE `event_chat_messages` ADD INDEX `idx_event_chat_messages_event_id` (`event_id`, `id`);
@@ -0,0 +1,35 @@
+-- Flyway migration V134: Denormalized inbox projection for direct and group chats.
+
+-- One row per participant and conversation, maintained by ChatDAO whenever messages or participants change.
+-- The inbox and the dashboard widget read a user's conversations from here with a single index range scan
+-- instead of computing the last message of every conversation with correlated subqueries.
+CREATE TABLE IF NOT EXISTS `conversation_summary` (
+    `conversation_id` INT NOT NULL,
+    `user_id` INT NOT NULL,
+    `last_message_id` BIGINT NULL DEFAULT NULL,
+    `last_message_preview` VARCHAR(255) NULL DEFAULT NULL,
+    `last_message_at` TIMESTAMP NULL DEFAULT NULL,
+    `last_sender_id` INT NULL DEFAULT NULL,
+    `last_read_message_id` BIGINT NULL DEFAULT NULL,
+    `unread_count` INT NOT NULL DEFAULT 0,
+    PRIMARY KEY (`conversation_id`, `user_id`),
+    INDEX `idx_conversation_summary_inbox` (`user_id`, `last_message_at`),
+    CONSTRAINT `fk_conversation_summary_conversation` FOREIGN KEY (`conversation_id`) REFERENCES `chat_conversations` (`id`) ON DELETE CASCADE,
+    CONSTRAINT `fk_conversation_summary_user` FOREIGN KEY (`user_id`) REFERENCES `users` (`id`) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- Backfill from the existing history. The preview skips deleted messages, like the inbox did before.
+INSERT IGNORE INTO `conversation_summary` (`conversation_id`, `user_id`, `last_message_id`, `last_message_preview`,
+                                    `last_message_at`, `last_sender_id`, `unread_count`)
+SELECT cp.conversation_id,
+       cp.user_id,
+       last_msg.id,
+       (SELECT LEFT(cm.message_text, 255) FROM chat_messages cm
+        WHERE cm.conversation_id = cp.conversation_id AND cm.is_deleted = FALSE ORDER BY cm.id DESC LIMIT 1),
+       last_msg.sent_at,
+       last_msg.sender_id,
+       (SELECT COUNT(*) FROM chat_messages cm
+        WHERE cm.conversation_id = cp.conversation_id AND cm.sender_id != cp.user_id AND cm.status != 'READ')
+FROM chat_participants cp
+LEFT JOIN chat_messages last_msg ON last_msg.id =
+    (SELECT MAX(cm.id) FROM chat_messages cm WHERE cm.conversation_id = cp.conversation_id);
@@ -0,0 +1,11 @@
+-- Flyway migration V135: Leases for scheduled notifications.
+
+-- A scheduler instance claims due rows by writing its claim token and a lease expiry in a single conditional
+-- UPDATE. Rows with a running lease are skipped by every other instance; if an instance dies, its rows become
+-- claimable again once the lease has expired.
+ALTER TABLE `scheduled_notifications`
+    ADD COLUMN `claimed_by` VARCHAR(100) NULL DEFAULT NULL AFTER `status`,
+    ADD COLUMN `lease_until` TIMESTAMP NULL DEFAULT NULL AFTER `claimed_by`,
+    ADD COLUMN `attempts` INT NOT NULL DEFAULT 0 AFTER `lease_until`,
+    ADD INDEX `idx_scheduled_notifications_due` (`status`, `send_at`),
+    ADD INDEX `idx_scheduled_notifications_claimed_by` (`claimed_by`);
@@ -0,0 +1,47 @@
+-- Flyway migration V136: Rollup tables for the admin reports.
+
+-- Events per calendar month, adjusted by EventDAO whenever an event is created, moved or deleted.
+CREATE TABLE IF NOT EXISTS `report_event_month` (
+    `month` CHAR(7) NOT NULL COMMENT 'YYYY-MM',
+    `event_count` INT NOT NULL DEFAULT 0,
+    PRIMARY KEY (`month`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- Team assignments per user, adjusted by EventDAO whenever assignments change or an event is deleted.
+CREATE TABLE IF NOT EXISTS `report_user_participation` (
+    `user_id` INT NOT NULL,
+    `assignment_count` INT NOT NULL DEFAULT 0,
+    PRIMARY KEY (`user_id`),
+    INDEX `idx_report_user_participation_count` (`assignment_count`),
+    CONSTRAINT `fk_report_user_participation_user` FOREIGN KEY (`user_id`) REFERENCES `users` (`id`) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- Quantities checked out per item. storage_log is append-only, so the rollup job folds in the rows
+-- after the watermark in report_rollup_state.
+CREATE TABLE IF NOT EXISTS `report_item_usage` (
+    `item_id` INT NOT NULL,
+    `quantity_checked_out` BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (`item_id`),
+    INDEX `idx_report_item_usage_quantity` (`quantity_checked_out`),
+    CONSTRAINT `fk_report_item_usage_item` FOREIGN KEY (`item_id`) REFERENCES `storage_items` (`id`) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+CREATE TABLE IF NOT EXISTS `report_rollup_state` (
+    `name` VARCHAR(50) NOT NULL,
+    `watermark` BIGINT NOT NULL DEFAULT 0,
+    `refreshed_at` TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    PRIMARY KEY (`name`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- Backfill from the existing data.
+INSERT INTO `report_event_month` (`month`, `event_count`)
+SELECT DATE_FORMAT(`event_datetime`, '%Y-%m'), COUNT(*) FROM `events` GROUP BY DATE_FORMAT(`event_datetime`, '%Y-%m');
+
+INSERT INTO `report_user_participation` (`user_id`, `assignment_count`)
+SELECT `user_id`, COUNT(*) FROM `event_assignments` GROUP BY `user_id`;
+
+INSERT INTO `report_item_usage` (`item_id`, `quantity_checked_out`)
+SELECT `item_id`, SUM(ABS(`quantity_change`)) FROM `storage_log` WHERE `quantity_change` < 0 GROUP BY `item_id`;
+
+INSERT INTO `report_rollup_state` (`name`, `watermark`)
+SELECT 'item_usage', COALESCE(MAX(`id`), 0) FROM `storage_log`;
@@ -0,0 +1,148 @@
+package de.technikteam.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+class LoginAttemptServiceTest {
+	private static final String IP = "203.0.113.7";
+	private static final String OTHER_IP = "198.51.100.1";
+
+	private MutableClock clock;
+	private LoginAttemptService service;
+
+	@BeforeEach
+	void setUp() {
+		clock = new MutableClock(Instant.parse("2026-01-01T12:00:00Z"));
+		service = new LoginAttemptService(mock(JdbcTemplate.class), mock(ApplicationEventPublisher.class), clock);
+	}
+
+	@AfterEach
+	void tearDown() {
+		service.stop();
+	}
+
+	@Test
+	void usernameIsLockedAfterFiveFailuresFromOneAddress() {
+		failTimes("alice", IP, 4);
+		assertFalse(service.isLockedOut("alice", IP));
+
+		service.recordFailedLogin("alice", IP);
+		assertTrue(service.isLockedOut("alice", IP));
+		assertTrue(service.isLockedOut("ALICE", IP));
+		assertFalse(service.isLockedOut("alice", OTHER_IP));
+		assertEquals(15 * 60, service.getRemainingLockoutSeconds("alice", IP));
+	}
+
+	@Test
+	void failuresOutsideTheWindowDoNotCount() {
+		failTimes("alice", IP, 4);
+		clock.advance(Duration.ofMinutes(16));
+
+		service.recordFailedLogin("alice", IP);
+		assertFalse(service.isLockedOut("alice", IP));
+	}
+
+	@Test
+	void lockoutExpiresAfterFifteenMinutes() {
+		failTimes("alice", IP, 5);
+		clock.advance(Duration.ofMinutes(15));
+
+		assertFalse(service.isLockedOut("alice", IP));
+		assertEquals(0, service.getRemainingLockoutSeconds("alice", IP));
+	}
+
+	@Test
+	void addressLockoutOnlyAppliesToUsernamesThatFailedFromIt() {
+		for (int i = 0; i < 10; i++) {
+			service.recordFailedLogin("user" + i, IP);
+		}
+
+		assertTrue(service.isLockedOut("user3", IP));
+		assertTrue(service.getRemainingLockoutSeconds("user3", IP) > 0);
+		// A colleague behind the same NAT who never mistyped is not affected.
+		assertFalse(service.isLockedOut("bob", IP));
+		assertEquals(0, service.getRemainingLockoutSeconds("bob", IP));
+		assertFalse(service.isLockedOut("user3", OTHER_IP));
+	}
+
+	@Test
+	void successfulLoginClearsTheAddressWindow() {
+		for (int i = 0; i < 9; i++) {
+			service.recordFailedLogin("user" + i, IP);
+		}
+		service.clearLoginAttempts("bob", IP);
+
+		// Without the reset, this would be the tenth failure from the address.
+		service.recordFailedLogin("user0", IP);
+		assertFalse(service.isLockedOut("user0", IP));
+	}
+
+	@Test
+	void successfulLoginLiftsAnAddressLockout() {
+		for (int i = 0; i < 10; i++) {
+			service.recordFailedLogin("user" + i, IP);
+		}
+		assertTrue(service.isLockedOut("user1", IP));
+
+		service.clearLoginAttempts("bob", IP);
+		assertFalse(service.isLockedOut("user1", IP));
+	}
+
+	@Test
+	void clearingAUsernameLiftsItsLockout() {
+		failTimes("alice", IP, 5);
+		assertTrue(service.isUserLocked("alice"));
+
+		service.clearLoginAttempts("alice");
+		assertFalse(service.isUserLocked("alice"));
+		assertFalse(service.isLockedOut("alice", IP));
+	}
+
+	private void failTimes(String username, String ipAddress, int times) {
+		for (int i = 0; i < times; i++) {
+			service.recordFailedLogin(username, ipAddress);
+			clock.advance(Duration.ofSeconds(1));
+		}
+	}
+
+	private static final class MutableClock extends Clock {
+		private Instant now;
+
+		MutableClock(Instant now) {
+			this.now = now;
+		}
+
+		void advance(Duration duration) {
+			now = now.plus(duration);
+		}
+
+		@Override
+		public ZoneId getZone() {
+			return ZoneOffset.UTC;
+		}
+
+		@Override
+		public Clock withZone(ZoneId zone) {
+			return this;
+		}
+
+		@Override
+		public Instant instant() {
+			return now;
+		}
+	}
+}
@@ -0,0 +1,122 @@
+package de.technikteam.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TimingWheelTest {
+	private static final long TICK = 100;
+	private static final int WHEEL_SIZE = 8;
+	private static final long START = 1_000_030;
+
+	@Test
+	void itemsWithinTheCurrentTickAreDueImmediately() {
+		TimingWheel<String> wheel = new TimingWheel<>(TICK, WHEEL_SIZE, START);
+
+		assertFalse(wheel.add("past", START - 5_000));
+		assertFalse(wheel.add("same tick", START + 69));
+		assertTrue(wheel.add("next tick", START + 70));
+		assertEquals(1, wheel.size());
+	}
+
+	@Test
+	void itemExpiresInItsTickAndNotBefore() {
+		TimingWheel<String> wheel = new TimingWheel<>(TICK, WHEEL_SIZE, START);
+		wheel.add("a", START + 450);
+
+		assertEquals(List.of(), wheel.advance(START + 369));
+		assertEquals(List.of("a"), wheel.advance(START + 370));
+		assertEquals(0, wheel.size());
+		assertEquals(List.of(), wheel.advance(START + 10_000));
+	}
+
+	@Test
+	void itemsBeyondTheLowestWheelCascadeDown() {
+		TimingWheel<String> wheel = new TimingWheel<>(TICK, WHEEL_SIZE, START);
+		// One lowest wheel spans 800 ms, the second 6.4 s, the third 51.2 s.
+		long dueInSecondLevel = START + 3_000;
+		long dueInThirdLevel = START + 40_000;
+		long dueInFourthLevel = START + 200_000;
+		wheel.add("second", dueInSecondLevel);
+		wheel.add("third", dueInThirdLevel);
+		wheel.add("fourth", dueInFourthLevel);
+
+		assertEquals(List.of(), wheel.advance(tickStart(dueInSecondLevel) - 1));
+		assertEquals(List.of("second"), wheel.advance(tickStart(dueInSecondLevel)));
+		assertEquals(List.of(), wheel.advance(tickStart(dueInThirdLevel) - 1));
+		assertEquals(List.of("third"), wheel.advance(tickStart(dueInThirdLevel)));
+		assertEquals(List.of(), wheel.advance(tickStart(dueInFourthLevel) - 1));
+		assertEquals(List.of("fourth"), wheel.advance(tickStart(dueInFourthLevel)));
+		assertEquals(0, wheel.size());
+	}
+
+	@Test
+	void oneAdvanceReturnsItemsInTickOrder() {
+		TimingWheel<String> wheel = new TimingWheel<>(TICK, WHEEL_SIZE, START);
+		wheel.add("late", START + 5_000);
+		wheel.add("early", START + 300);
+		wheel.add("middle", START + 1_200);
+
+		assertEquals(List.of("early", "middle", "late"), wheel.advance(START + 60_000));
+	}
+
+	@Test
+	void itemAddedAfterAnIdleSkipIsPlacedRelativeToTheNewTime() {
+		TimingWheel<String> wheel = new TimingWheel<>(TICK, WHEEL_SIZE, START);
+		wheel.advance(START + 1_000_000);
+
+		long due = START + 1_000_000 + 2_000;
+		wheel.add("a", due);
+		assertEquals(List.of(), wheel.advance(tickStart(due) - 1));
+		assertEquals(List.of("a"), wheel.advance(tickStart(due)));
+	}
+
+	@Test
+	void randomScheduleExpiresEveryItemExactlyOnceInItsTick() {
+		Random random = new Random(42);
+		TimingWheel<Integer> wheel = new TimingWheel<>(TICK, WHEEL_SIZE, START);
+		Map<Integer, Long> dueTimes = new HashMap<>();
+		long now = START;
+		int nextId = 0;
+		List<Integer> seen = new ArrayList<>();
+
+		for (int round = 0; round < 2_000; round++) {
+			for (int i = random.nextInt(4); i > 0; i--) {
+				long due = now + random.nextInt(120_000) - 500;
+				int id = nextId++;
+				if (wheel.add(id, due)) {
+					dueTimes.put(id, due);
+				} else {
+					assertTrue(tickStart(due) <= tickStart(now), "Rejected an item that was not due yet");
+				}
+			}
+			now += random.nextInt(random.nextBoolean() ? 150 : 3_000);
+			for (Integer id : wheel.advance(now)) {
+				long due = dueTimes.remove(id);
+				assertTrue(tickStart(due) <= now, "Item " + id + " expired before its tick");
+				seen.add(id);
+			}
+			for (Map.Entry<Integer, Long> pending : dueTimes.entrySet()) {
+				assertTrue(tickStart(pending.getValue()) > now, "Item " + pending.getKey() + " is overdue");
+			}
+			assertEquals(dueTimes.size(), wheel.size());
+		}
+		assertEquals(seen.size(), seen.stream().distinct().count());
+	}
+
+	/**
+	 * The start of the tick an item is due in. The wheel's ticks are aligned to
+	 * multiples of {@link #TICK}.
+	 */
+	private static long tickStart(long dueAtMillis) {
+		return dueAtMillis - Math.floorMod(dueAtMillis, TICK);
+	}
+}
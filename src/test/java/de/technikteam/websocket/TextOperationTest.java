@@ -0,0 +1,111 @@
+package de.technikteam.websocket;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TextOperationTest {
+	private static final String DOCUMENT = "hello world";
+
+	@Test
+	void diffDescribesTheChangedRange() {
+		TextOperation operation = TextOperation.diff(DOCUMENT, "hello there world");
+
+		assertEquals(new TextOperation(6, 0, "there "), operation);
+		assertEquals("hello there world", apply(DOCUMENT, operation));
+	}
+
+	@Test
+	void diffOfEqualTextsIsANoop() {
+		assertTrue(TextOperation.diff(DOCUMENT, DOCUMENT).isNoop());
+	}
+
+	@Test
+	void diffRoundTripsReplacementsAndRepeatedCharacters() {
+		assertEquals("aaab", apply("aab", TextOperation.diff("aab", "aaab")));
+		assertEquals("", apply(DOCUMENT, TextOperation.diff(DOCUMENT, "")));
+		assertEquals("hallo welt", apply(DOCUMENT, TextOperation.diff(DOCUMENT, "hallo welt")));
+	}
+
+	@Test
+	void fitsChecksTheDocumentBounds() {
+		assertTrue(new TextOperation(6, 5, "").fits(DOCUMENT.length()));
+		assertFalse(new TextOperation(7, 5, "").fits(DOCUMENT.length()));
+		assertFalse(new TextOperation(-1, 0, "x").fits(DOCUMENT.length()));
+	}
+
+	@Test
+	void insertionAfterAnAppliedInsertionIsShifted() {
+		TextOperation applied = new TextOperation(0, 0, "X");
+		TextOperation transformed = new TextOperation(5, 0, "!").transformAgainst(applied);
+
+		assertEquals(new TextOperation(6, 0, "!"), transformed);
+		assertEquals("Xhello! world", apply(DOCUMENT, applied, transformed));
+	}
+
+	@Test
+	void insertionBeforeAnAppliedEditIsUnchanged() {
+		TextOperation applied = new TextOperation(6, 5, "");
+		TextOperation transformed = new TextOperation(5, 0, ",").transformAgainst(applied);
+
+		assertEquals(new TextOperation(5, 0, ","), transformed);
+		assertEquals("hello, ", apply(DOCUMENT, applied, transformed));
+	}
+
+	@Test
+	void concurrentInsertionAtTheSamePositionGoesBehindTheAppliedOne() {
+		TextOperation applied = new TextOperation(5, 0, "A");
+		TextOperation transformed = new TextOperation(5, 0, "B").transformAgainst(applied);
+
+		assertEquals("helloAB world", apply(DOCUMENT, applied, transformed));
+	}
+
+	@Test
+	void deletionSpanningAnAppliedInsertionRemovesItToo() {
+		TextOperation applied = new TextOperation(3, 0, "XX");
+		TextOperation transformed = new TextOperation(1, 5, "").transformAgainst(applied);
+
+		assertEquals(new TextOperation(1, 7, ""), transformed);
+		assertEquals("hworld", apply(DOCUMENT, applied, transformed));
+	}
+
+	@Test
+	void overlappingDeletionsRemoveTheUnionOfBothRanges() {
+		TextOperation applied = new TextOperation(2, 4, "");
+		TextOperation transformed = new TextOperation(4, 4, "").transformAgainst(applied);
+
+		assertEquals(new TextOperation(2, 2, ""), transformed);
+		assertEquals("herld", apply(DOCUMENT, applied, transformed));
+	}
+
+	@Test
+	void replacementInsideADeletedRangeKeepsOnlyItsInsertion() {
+		TextOperation applied = new TextOperation(6, 5, "");
+		TextOperation transformed = new TextOperation(6, 3, "WOR").transformAgainst(applied);
+
+		assertEquals(new TextOperation(6, 0, "WOR"), transformed);
+		assertEquals("hello WOR", apply(DOCUMENT, applied, transformed));
+	}
+
+	@Test
+	void transformedOperationsAlwaysFitTheDocument() {
+		for (int position = 0; position <= DOCUMENT.length(); position++) {
+			for (int length = 0; position + length <= DOCUMENT.length(); length++) {
+				TextOperation applied = new TextOperation(3, 4, "abc");
+				TextOperation transformed = new TextOperation(position, length, "z").transformAgainst(applied);
+				String afterApplied = apply(DOCUMENT, applied);
+				assertTrue(transformed.fits(afterApplied.length()), transformed + " does not fit " + afterApplied);
+			}
+		}
+	}
+
+	private static String apply(String document, TextOperation... operations) {
+		StringBuilder builder = new StringBuilder(document);
+		for (TextOperation operation : operations) {
+			operation.applyTo(builder);
+		}
+		return builder.toString();
+	}
+}